@@ -0,0 +1,87 @@
+package org.usfirst.frc.team2461.robot.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.usfirst.frc.team2461.robot.autonomous.AutoCode;
+import org.usfirst.frc.team2461.robot.autonomous.AutoRoutine;
+import org.usfirst.frc.team2461.robot.simulation.ReplayController;
+import org.usfirst.frc.team2461.robot.simulation.SwerveDriveSimulation;
+
+/**
+ * <h1> Autonomous Benchmark Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Measures a robot loop of each autonomous routine. The routine only moves on from a
+ * state when the simulated robot gets somewhere, so every call also steps the
+ * physics for one ROBOT_PERIOD. simulationOnly measures that stepping alone; take
+ * it away from autonomousPeriodic to get the cost of the routine. The routine
+ * starts over after a whole autonomous period.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AutonomousBenchmark
+{
+	/**
+	 * Robot loops in the 15 second autonomous period
+	 */
+	private static final int LOOPS_PER_MATCH = (int) Math.round(15 / SwerveDriveSimulation.ROBOT_PERIOD);
+	
+	@Param({"MOVE_LEFT", "MOVE_RIGHT", "DRIVE_FORWARD"})
+	public AutoRoutine routine;
+	
+	private SwerveDriveSimulation robot;
+	private AutoCode autoCode;
+	private Runnable autonomousPeriodic;
+	private Runnable idle = () -> {};
+	private int loops = 0;
+	
+	@Setup
+	public void setUp()
+	{
+		robot = BenchmarkInputs.createRobot(new ReplayController());
+		autoCode = routine.create(robot.getChassis(), robot.getBoxManager());
+		autonomousPeriodic = autoCode::run;
+	}
+	
+	private void restartIfOver()
+	{
+		loops++;
+		if(loops == LOOPS_PER_MATCH)
+		{
+			robot.getChassis().reset();
+			robot.getBoxManager().reset();
+			autoCode.reset();
+			loops = 0;
+		}
+	}
+	
+	@Benchmark
+	public void autonomousPeriodic()
+	{
+		robot.runRobotLoop(autonomousPeriodic);
+		restartIfOver();
+	}
+	
+	@Benchmark
+	public void simulationOnly()
+	{
+		robot.runRobotLoop(idle);
+		restartIfOver();
+	}
+}
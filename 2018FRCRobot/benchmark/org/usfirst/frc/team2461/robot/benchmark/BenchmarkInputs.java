@@ -0,0 +1,130 @@
+package org.usfirst.frc.team2461.robot.benchmark;
+
+import java.util.Random;
+
+import org.usfirst.frc.team2461.robot.OperatorController;
+import org.usfirst.frc.team2461.robot.Robot;
+import org.usfirst.frc.team2461.robot.SwerveKinematics;
+import org.usfirst.frc.team2461.robot.simulation.AutonomousSimulator;
+import org.usfirst.frc.team2461.robot.simulation.ReplayController;
+import org.usfirst.frc.team2461.robot.simulation.SimulatedTimer;
+import org.usfirst.frc.team2461.robot.simulation.SwerveDriveSimulation;
+
+/**
+ * <h1> Benchmark Inputs Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Controller samples and simulated robots shared by the benchmarks. The samples come
+ * from a fixed seed so every run sees the same inputs, and they change every call so
+ * the JIT cannot fold the code being measured into a constant.
+ * </p>
+ */
+public class BenchmarkInputs
+{
+	/**
+	 * Number of controller samples, a power of 2 so the next one is picked with a mask
+	 */
+	public static final int SAMPLE_COUNT = 1024;
+	public static final int SAMPLE_MASK = SAMPLE_COUNT - 1;
+	
+	private static final long SEED = 2461;
+	
+	/**
+	 * How often a button changes state in the samples, 1 in this many
+	 */
+	private static final int BUTTON_CHANGE_CHANCE = 25;
+	
+	/**
+	 * Creates controller samples of sticks being moved around and buttons being pressed
+	 * now and then
+	 * @return Samples, each one a left X, left Y, right X, right Y, left trigger,
+	 * right trigger and the buttons being held
+	 */
+	public static double[][] controllerSamples()
+	{
+		Random random = new Random(SEED);
+		double[][] samples = new double[SAMPLE_COUNT][7];
+		int buttons = 0;
+		
+		for(int i = 0; i < SAMPLE_COUNT; i++)
+		{
+			double angle = 2 * Math.PI * i / SAMPLE_COUNT;
+			samples[i][0] = Math.cos(angle);
+			samples[i][1] = Math.sin(angle);
+			samples[i][2] = random.nextDouble() * 2 - 1;
+			samples[i][3] = random.nextDouble() * 2 - 1;
+			samples[i][4] = random.nextDouble();
+			samples[i][5] = random.nextDouble();
+			
+			if(random.nextInt(BUTTON_CHANGE_CHANCE) == 0)
+			{
+				buttons ^= 1 << random.nextInt(8);
+			}
+			samples[i][6] = buttons;
+		}
+		
+		return samples;
+	}
+	
+	/**
+	 * Creates raw stick values from -1 to 1 before the deadband and ramp
+	 * @return Stick values
+	 */
+	public static double[] stickValues()
+	{
+		Random random = new Random(SEED);
+		double[] values = new double[SAMPLE_COUNT];
+		for(int i = 0; i < SAMPLE_COUNT; i++)
+		{
+			values[i] = random.nextDouble() * 2 - 1;
+		}
+		
+		return values;
+	}
+	
+	/**
+	 * Creates readings of the RoboRIO analog input from 0 to 4095
+	 * @return Analog readings
+	 */
+	public static int[] analogReadings()
+	{
+		Random random = new Random(SEED);
+		int[] values = new int[SAMPLE_COUNT];
+		for(int i = 0; i < SAMPLE_COUNT; i++)
+		{
+			values[i] = random.nextInt(4096);
+		}
+		
+		return values;
+	}
+	
+	/**
+	 * Puts a sample on a controller
+	 * @param controller Controller to set
+	 * @param sample Sample from controllerSamples()
+	 */
+	public static void setController(ReplayController controller, double[] sample)
+	{
+		controller.setSample(sample[0], sample[1], sample[2], sample[3], sample[4], sample[5], (int) sample[6]);
+	}
+	
+	/**
+	 * Builds the robot on simulated hardware with the gains Robot uses
+	 * @param operator Controller the box manager and robot lift read
+	 * @return Simulated robot
+	 */
+	public static SwerveDriveSimulation createRobot(OperatorController operator)
+	{
+		SimulatedTimer timer = SimulatedTimer.install();
+		timer.reset();
+		Robot.timer.reset();
+		Robot.timer.start();
+		
+		SwerveDriveSimulation robot = new SwerveDriveSimulation(timer, new SwerveKinematics(AutonomousSimulator.WHEEL_BASE, AutonomousSimulator.TRACK_WIDTH), operator);
+		Robot.configureDriveTrain(robot.getChassis());
+		robot.getBoxManager().setBoxLifterModeAutomatic(false);
+		robot.getBoxManager().boxCollectorArmRetract();
+		
+		return robot;
+	}
+}
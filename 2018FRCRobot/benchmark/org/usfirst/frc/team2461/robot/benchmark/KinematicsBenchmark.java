@@ -0,0 +1,79 @@
+package org.usfirst.frc.team2461.robot.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.usfirst.frc.team2461.robot.SwerveKinematics;
+import org.usfirst.frc.team2461.robot.SwerveModuleState;
+import org.usfirst.frc.team2461.robot.simulation.AutonomousSimulator;
+
+/**
+ * <h1> Kinematics Benchmark Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Measures SwerveKinematics on its own, the math SwerveDrive.drive() and driveVelocity()
+ * do for every wheel every loop. The sticks get a new sample every call. It should
+ * allocate nothing, so the gc profiler shows it right away if it starts to.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KinematicsBenchmark
+{
+	private SwerveKinematics kinematics;
+	private SwerveModuleState[] states;
+	private double[][] samples;
+	private int sample = 0;
+	
+	@Setup
+	public void setUp()
+	{
+		kinematics = new SwerveKinematics(AutonomousSimulator.WHEEL_BASE, AutonomousSimulator.TRACK_WIDTH);
+		states = kinematics.createStates();
+		samples = BenchmarkInputs.controllerSamples();
+	}
+	
+	private double[] nextSample()
+	{
+		sample = (sample + 1) & BenchmarkInputs.SAMPLE_MASK;
+		return samples[sample];
+	}
+	
+	@Benchmark
+	public SwerveModuleState[] compute()
+	{
+		double[] sticks = nextSample();
+		kinematics.compute(sticks[1], sticks[0], sticks[2], states);
+		return states;
+	}
+	
+	@Benchmark
+	public SwerveModuleState[] computeAroundModule()
+	{
+		double[] sticks = nextSample();
+		kinematics.setCenterOfRotationToModule(sample & 3); // A new center every call, so the rotation factors are worked out again
+		kinematics.compute(sticks[1], sticks[0], sticks[2], states);
+		return states;
+	}
+	
+	@Benchmark
+	public SwerveModuleState[] computeVelocities()
+	{
+		double[] sticks = nextSample();
+		kinematics.computeVelocities(100 * sticks[1], 100 * sticks[0], 4 * sticks[2], states);
+		return states;
+	}
+}
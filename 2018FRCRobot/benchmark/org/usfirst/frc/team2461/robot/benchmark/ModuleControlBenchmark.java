@@ -0,0 +1,58 @@
+package org.usfirst.frc.team2461.robot.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.usfirst.frc.team2461.robot.simulation.ReplayController;
+import org.usfirst.frc.team2461.robot.simulation.SwerveDriveSimulation;
+
+/**
+ * <h1> Module Control Benchmark Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Measures one run of all 8 wheel PID loops, which the robot does every
+ * ModuleControlScheduler.PERIOD on its own thread. The wheels are kept driving so
+ * the loops are enabled and have an error to work on.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModuleControlBenchmark
+{
+	private SwerveDriveSimulation robot;
+	private int runs = 0;
+	
+	@Setup
+	public void setUp()
+	{
+		robot = BenchmarkInputs.createRobot(new ReplayController());
+		robot.getChassis().drive(0.5, 0.5, 0.2);
+	}
+	
+	@Benchmark
+	public void runOnce()
+	{
+		robot.getModuleControl().runOnce();
+		
+		// Move the setpoints now and then so the wheels never settle
+		runs++;
+		if(runs % 200 == 0)
+		{
+			double direction = (runs / 200) % 2 == 0 ? 1 : -1;
+			robot.getChassis().drive(0.5 * direction, 0.5, 0.2 * direction);
+		}
+	}
+}
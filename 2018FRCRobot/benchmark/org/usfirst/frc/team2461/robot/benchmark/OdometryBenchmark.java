@@ -0,0 +1,71 @@
+package org.usfirst.frc.team2461.robot.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.usfirst.frc.team2461.robot.RobotPose;
+import org.usfirst.frc.team2461.robot.simulation.ReplayController;
+import org.usfirst.frc.team2461.robot.simulation.SwerveDriveSimulation;
+
+/**
+ * <h1> Odometry Benchmark Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Measures the odometry update Robot.robotPeriodic() does every loop, and looking up
+ * an older pose in the history. The simulation is stepped now and then so the wheels
+ * have rolled between updates.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OdometryBenchmark
+{
+	private SwerveDriveSimulation robot;
+	private RobotPose pastPose = new RobotPose();
+	private int runs = 0;
+	
+	@Setup
+	public void setUp()
+	{
+		robot = BenchmarkInputs.createRobot(new ReplayController());
+		robot.getChassis().drive(0.5, 0.5, 0.2);
+		for(int i = 0; i < 200; i++) // Fill the pose history
+		{
+			robot.runRobotLoop(() -> {});
+		}
+	}
+	
+	@Benchmark
+	public RobotPose updateOdometry()
+	{
+		robot.getChassis().updateOdometry();
+		
+		runs++;
+		if(runs % 16 == 0)
+		{
+			robot.step();
+		}
+		return robot.getChassis().getPose();
+	}
+	
+	@Benchmark
+	public void getPoseAt(Blackhole blackhole)
+	{
+		blackhole.consume(robot.getChassis().getOdometry().getPoseAt(robot.getChassis().getPose().getTime() - 0.5, pastPose));
+		blackhole.consume(pastPose.getX());
+	}
+}
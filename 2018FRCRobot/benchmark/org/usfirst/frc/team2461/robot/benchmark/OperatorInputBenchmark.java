@@ -0,0 +1,66 @@
+package org.usfirst.frc.team2461.robot.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.usfirst.frc.team2461.robot.MA3Encoder;
+import org.usfirst.frc.team2461.robot.MetalSkinsController;
+
+/**
+ * <h1> Operator Input Benchmark Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Measures the math behind MetalSkinsController.getX()/getY() and MA3Encoder.getAngle().
+ * Reading the Driver Station and the analog input needs a RoboRIO, so only the
+ * deadband, ramp and angle conversion are measured here.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OperatorInputBenchmark
+{
+	private double[] sticks;
+	private int[] readings;
+	private int sample = 0;
+	
+	@Setup
+	public void setUp()
+	{
+		sticks = BenchmarkInputs.stickValues();
+		readings = BenchmarkInputs.analogReadings();
+	}
+	
+	@Benchmark
+	public double stickShape()
+	{
+		sample = (sample + 1) & BenchmarkInputs.SAMPLE_MASK;
+		return MetalSkinsController.shape(sticks[sample], 0.15, false);
+	}
+	
+	@Benchmark
+	public double stickShapeRamped()
+	{
+		sample = (sample + 1) & BenchmarkInputs.SAMPLE_MASK;
+		return MetalSkinsController.shape(sticks[sample], 0.15, true);
+	}
+	
+	@Benchmark
+	public double encoderAngle()
+	{
+		sample = (sample + 1) & BenchmarkInputs.SAMPLE_MASK;
+		return MA3Encoder.toDegrees(readings[sample]);
+	}
+}
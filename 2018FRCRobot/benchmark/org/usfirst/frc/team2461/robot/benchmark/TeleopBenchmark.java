@@ -0,0 +1,84 @@
+package org.usfirst.frc.team2461.robot.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.usfirst.frc.team2461.robot.simulation.ReplayController;
+import org.usfirst.frc.team2461.robot.simulation.SwerveDriveSimulation;
+
+/**
+ * <h1> Teleop Benchmark Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Measures what Robot.teleopPeriodic() runs every loop, one subsystem at a time and
+ * all together. The controllers get a new sample every call. Only the robot code is
+ * measured, the simulated physics is never stepped.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TeleopBenchmark
+{
+	private ReplayController driver = new ReplayController();
+	private ReplayController operator = new ReplayController();
+	private SwerveDriveSimulation robot;
+	private double[][] samples;
+	private int sample = 0;
+	
+	@Setup
+	public void setUp()
+	{
+		robot = BenchmarkInputs.createRobot(operator);
+		samples = BenchmarkInputs.controllerSamples();
+	}
+	
+	private void nextSample()
+	{
+		sample = (sample + 1) & BenchmarkInputs.SAMPLE_MASK;
+		BenchmarkInputs.setController(driver, samples[sample]);
+		BenchmarkInputs.setController(operator, samples[BenchmarkInputs.SAMPLE_MASK - sample]);
+	}
+	
+	@Benchmark
+	public void swerveDrive()
+	{
+		nextSample();
+		robot.getChassis().drive(driver);
+	}
+	
+	@Benchmark
+	public void boxManager()
+	{
+		nextSample();
+		robot.getBoxManager().run();
+	}
+	
+	@Benchmark
+	public void robotLift()
+	{
+		nextSample();
+		robot.getRobotLift().run();
+	}
+	
+	@Benchmark
+	public void teleopPeriodic()
+	{
+		nextSample();
+		robot.getChassis().drive(driver);
+		robot.getBoxManager().run();
+		robot.getRobotLift().run();
+	}
+}
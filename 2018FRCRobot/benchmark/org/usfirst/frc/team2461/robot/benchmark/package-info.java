@@ -0,0 +1,8 @@
+/**
+ * JMH benchmarks of the code the robot runs every loop, run on a computer against
+ * the simulated hardware. Run them with <b>ant benchmark</b>. Each one reports the
+ * average nanoseconds per call and, with the gc profiler, the bytes allocated per
+ * call. The roboRIO is several times slower than a desktop, so compare results
+ * between changes rather than against the 20 ms loop budget directly.
+ */
+package org.usfirst.frc.team2461.robot.benchmark;
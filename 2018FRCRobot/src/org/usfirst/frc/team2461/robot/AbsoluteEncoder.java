@@ -0,0 +1,37 @@
+package org.usfirst.frc.team2461.robot;
+
+import edu.wpi.first.wpilibj.PIDSource;
+
+/**
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * 
+ * Encoder that measures the direction a wheel is pointing. MA3Encoder is the one
+ * on the robot; the simulation package has one that works off the robot.
+ *
+ */
+public interface AbsoluteEncoder extends PIDSource
+{
+	/**
+	 * Takes one reading of the sensor. The control loop calls this once every tick
+	 * before its PID loops run, and every getter returns what that reading found, so
+	 * the angle and the rate the PID loop sees come from the same reading no matter
+	 * how many times or from which thread they are asked for.
+	 */
+	public void update();
+	
+	/**
+	 * @return Returns decimal value of degrees the encoder measures
+	 */
+	public double getAngle();
+	
+	/**
+	 * @return Degrees the encoder has turned without wrapping back to 0, so it does not
+	 * jump when the wheel turns past 359.99
+	 */
+	public double getContinuousAngle();
+	
+	/**
+	 * @return Degrees per second the encoder is turning. Positive is the direction the angle increases.
+	 */
+	public double getRate();
+}
@@ -0,0 +1,127 @@
+package org.usfirst.frc.team2461.robot;
+
+/**
+ * <h1> Angle Tracker Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Follows an angle that wraps from 359.99 back to 0 and works out how many times it
+ * has gone around, so the angle can be used without a jump at the seam. The rate is
+ * estimated with an alpha-beta filter: each sample the angle is predicted from the
+ * last estimate and rate, and both are corrected by part of the difference between
+ * the prediction and the sample. Unlike averaging differences it does not lag a
+ * whole window behind, and it uses the real time between samples.
+ * </p>
+ * <p>
+ * The angle must move less than 180 degrees between two samples.
+ * </p>
+ */
+public class AngleTracker
+{
+	/**
+	 * Samples closer together than this in microseconds only update the angle. The
+	 * rate needs time between samples to be worth anything.
+	 */
+	private static final long MIN_RATE_PERIOD = 1000;
+	
+	/**
+	 * Samples further apart than this in microseconds start the rate over from 0
+	 */
+	private static final long MAX_RATE_PERIOD = 100000;
+	
+	private final double alpha;
+	private final double beta;
+	
+	private boolean started = false;
+	private double lastWrapped;
+	private double continuous;
+	private long lastTime;
+	private double estimate;
+	private double rate;
+	
+	/**
+	 * Creates an AngleTracker with a critically damped filter that trusts each
+	 * sample halfway
+	 */
+	public AngleTracker()
+	{
+		this(0.5);
+	}
+	
+	/**
+	 * Creates an AngleTracker with a critically damped filter
+	 * @param alphaIn Part of the difference between the predicted and measured angle
+	 * taken each sample, from 0 to 1. Higher follows faster but lets more noise into the rate.
+	 */
+	public AngleTracker(double alphaIn)
+	{
+		alpha = alphaIn;
+		beta = alpha * alpha / (2 - alpha);
+	}
+	
+	/**
+	 * Adds a sample of the angle
+	 * @param wrappedAngle Angle in degrees from 0 to 359.99
+	 * @param timeMicros Time of the sample in microseconds
+	 */
+	public synchronized void update(double wrappedAngle, long timeMicros)
+	{
+		if(!started)
+		{
+			started = true;
+			lastWrapped = wrappedAngle;
+			continuous = wrappedAngle;
+			estimate = wrappedAngle;
+			lastTime = timeMicros;
+			rate = 0;
+			return;
+		}
+		
+		continuous += SwerveModuleState.angleDifference(wrappedAngle, lastWrapped);
+		lastWrapped = wrappedAngle;
+		
+		long elapsed = timeMicros - lastTime;
+		if(elapsed < MIN_RATE_PERIOD)
+		{
+			return;
+		}
+		lastTime = timeMicros;
+		
+		if(elapsed > MAX_RATE_PERIOD)
+		{
+			estimate = continuous;
+			rate = 0;
+			return;
+		}
+		
+		double dt = elapsed / 1e6;
+		double predicted = estimate + rate * dt;
+		double residual = continuous - predicted;
+		estimate = predicted + alpha * residual;
+		rate += beta * residual / dt;
+	}
+	
+	/**
+	 * @return Angle in degrees counting every turn, so 370 is 10 degrees into the second turn
+	 */
+	public synchronized double getContinuousAngle()
+	{
+		return continuous;
+	}
+	
+	/**
+	 * @return Estimated rate in degrees per second. Positive is the direction the angle increases.
+	 */
+	public synchronized double getRate()
+	{
+		return rate;
+	}
+	
+	/**
+	 * Forgets the turns counted and the rate. The next sample starts over.
+	 */
+	public synchronized void reset()
+	{
+		started = false;
+		rate = 0;
+	}
+}
@@ -1,5 +1,7 @@
 package org.usfirst.frc.team2461.robot;
 
+import org.usfirst.frc.team2461.robot.telemetry.FlightRecorder;
+
 import edu.wpi.first.wpilibj.Solenoid;
 import edu.wpi.first.wpilibj.SpeedController;
 
@@ -16,8 +18,19 @@ public class BoxCollector
 	private SpeedController motorIntakeArmRight;
 	private SpeedController motorIntakeRearLeft;
 	private SpeedController motorIntakeRearRight;
-	private Solenoid ramDeploy1;
-	private Solenoid ramDeploy2;
+	private SolenoidOutput ramDeploy1;
+	private SolenoidOutput ramDeploy2;
+	
+	/**
+	 * Flight recorder the outputs are logged to, and the field of each output
+	 */
+	private FlightRecorder recorder;
+	private int fieldArmLeft;
+	private int fieldArmRight;
+	private int fieldRearLeft;
+	private int fieldRearRight;
+	private int fieldRam1;
+	private int fieldRam2;
 	
 	/**
 	 * Creates a BoxCollector object.
@@ -28,6 +41,19 @@ public class BoxCollector
 	 * @param playerIn MetalSkinController to be used to activate the box collector
 	 */
 	public BoxCollector(SpeedController motorArmLeft, SpeedController motorArmRight, SpeedController motorRearLeft, SpeedController motorRearRight, Solenoid ram1In, Solenoid ram2In) {
+		this(motorArmLeft, motorArmRight, motorRearLeft, motorRearRight, SolenoidOutput.of(ram1In), SolenoidOutput.of(ram2In));
+	}
+	
+	/**
+	 * Creates a BoxCollector object from any solenoids, such as the ones in the simulator.
+	 * @param motorArmLeft Left motor on arm
+	 * @param motorArmRight Right motor on arm
+	 * @param motorRearLeft Left motor to run wheels inside the box
+	 * @param motorRearRight Right motor to run wheels inside the box
+	 * @param ram1In Solenoid that retracts the arms
+	 * @param ram2In Solenoid that extends the arms
+	 */
+	public BoxCollector(SpeedController motorArmLeft, SpeedController motorArmRight, SpeedController motorRearLeft, SpeedController motorRearRight, SolenoidOutput ram1In, SolenoidOutput ram2In) {
 		motorIntakeArmLeft = motorArmLeft;
 		motorIntakeArmRight = motorArmRight;
 		motorIntakeArmRight.setInverted(true);
@@ -116,4 +142,36 @@ public class BoxCollector
 		motorIntakeRearLeft.set(0);
 		motorIntakeRearRight.set(0);
 	}
+	
+	/**
+	 * Adds the motor and solenoid fields to the flight recorder. Call this once before
+	 * the recorder is started and before recordFlightData() is used.
+	 * @param recorderIn FlightRecorder to log the outputs to
+	 */
+	public void setFlightRecorder(FlightRecorder recorderIn) {
+		recorder = recorderIn;
+		fieldArmLeft = recorder.addField("Box Collector Arm Left Output");
+		fieldArmRight = recorder.addField("Box Collector Arm Right Output");
+		fieldRearLeft = recorder.addField("Box Collector Rear Left Output");
+		fieldRearRight = recorder.addField("Box Collector Rear Right Output");
+		fieldRam1 = recorder.addField("Box Collector Ram 1");
+		fieldRam2 = recorder.addField("Box Collector Ram 2");
+	}
+	
+	/**
+	 * Fills in the motor and solenoid fields of the next flight recorder record.
+	 * Does nothing until setFlightRecorder() has been called.
+	 */
+	public void recordFlightData() {
+		if(recorder == null) {
+			return;
+		}
+		
+		recorder.set(fieldArmLeft, motorIntakeArmLeft.get());
+		recorder.set(fieldArmRight, motorIntakeArmRight.get());
+		recorder.set(fieldRearLeft, motorIntakeRearLeft.get());
+		recorder.set(fieldRearRight, motorIntakeRearRight.get());
+		recorder.set(fieldRam1, ramDeploy1.get());
+		recorder.set(fieldRam2, ramDeploy2.get());
+	}
 }
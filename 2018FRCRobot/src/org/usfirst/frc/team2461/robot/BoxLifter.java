@@ -1,5 +1,7 @@
 package org.usfirst.frc.team2461.robot;
 
+import org.usfirst.frc.team2461.robot.telemetry.FlightRecorder;
+
 import edu.wpi.first.wpilibj.DigitalInput;
 import edu.wpi.first.wpilibj.SpeedController;
 
@@ -13,9 +15,9 @@ import edu.wpi.first.wpilibj.SpeedController;
 public class BoxLifter
 {
 	private SpeedController motorLifter;
-	private DigitalInput switchLower;
-	private DigitalInput switchMiddle;
-	private DigitalInput switchHigher;
+	private LimitSwitch switchLower;
+	private LimitSwitch switchMiddle;
+	private LimitSwitch switchHigher;
 	
 	public enum Mode {
 		AUTOMATIC, MANUAL;
@@ -32,6 +34,12 @@ public class BoxLifter
 	
 	private Mode mode;
 	
+	/**
+	 * Flight recorder the motor output is logged to
+	 */
+	private FlightRecorder recorder;
+	private int fieldMotor;
+	
 	/**
 	 * Creates a BoxLifter object that has a middle switch.
 	 * This will also set the lifter to be used in AUTOMATIC mode.
@@ -42,6 +50,18 @@ public class BoxLifter
 	 * @param playerIn MetalSkinsController to control BoxLifter
 	 */
 	public BoxLifter(SpeedController motorIn, DigitalInput switchLowerIn, DigitalInput switchMiddleIn, DigitalInput switchHigherIn) {
+		this(motorIn, switchLowerIn::get, switchMiddleIn::get, switchHigherIn::get);
+	}
+	
+	/**
+	 * Creates a BoxLifter object that has a middle switch from any switches, such as
+	 * the ones in the simulator. This will also set the lifter to be used in AUTOMATIC mode.
+	 * @param motorIn Lift motor
+	 * @param switchLowerIn Switch for lower point
+	 * @param switchMiddleIn Switch for mid point
+	 * @param switchHigherIn switch for high point
+	 */
+	public BoxLifter(SpeedController motorIn, LimitSwitch switchLowerIn, LimitSwitch switchMiddleIn, LimitSwitch switchHigherIn) {
 		motorLifter = motorIn;
 		motorLifter.setInverted(true);
 		switchLower = switchLowerIn;
@@ -59,6 +79,17 @@ public class BoxLifter
 	 * @param playerIn MetalSkinsController to control BoxLifter
 	 */
 	public BoxLifter(SpeedController motorIn, DigitalInput switchLowerIn, DigitalInput switchHigherIn) {
+		this(motorIn, switchLowerIn::get, switchHigherIn::get);
+	}
+	
+	/**
+	 * Creates a BoxLifter object that does not have a middle switch from any switches, such as
+	 * the ones in the simulator. This will also set the lifter to be used in MANUAL mode.
+	 * @param motorIn Lift motor
+	 * @param switchLowerIn Switch for lower point
+	 * @param switchHigherIn switch for high point
+	 */
+	public BoxLifter(SpeedController motorIn, LimitSwitch switchLowerIn, LimitSwitch switchHigherIn) {
 		motorLifter = motorIn;
 		motorLifter.setInverted(true);
 		switchLower = switchLowerIn;
@@ -114,4 +145,24 @@ public class BoxLifter
 	public Mode getMode() {
 		return mode;
 	}
+	
+	/**
+	 * Adds the motor field to the flight recorder. Call this once before the
+	 * recorder is started and before recordFlightData() is used.
+	 * @param recorderIn FlightRecorder to log the motor output to
+	 */
+	public void setFlightRecorder(FlightRecorder recorderIn) {
+		recorder = recorderIn;
+		fieldMotor = recorder.addField("Box Lifter Output");
+	}
+	
+	/**
+	 * Fills in the motor field of the next flight recorder record. Does nothing
+	 * until setFlightRecorder() has been called.
+	 */
+	public void recordFlightData() {
+		if(recorder != null) {
+			recorder.set(fieldMotor, motorLifter.get());
+		}
+	}
 }
@@ -1,23 +1,21 @@
 package org.usfirst.frc.team2461.robot;
 
+import org.usfirst.frc.team2461.robot.telemetry.FlightRecorder;
+import org.usfirst.frc.team2461.robot.telemetry.Telemetry;
 
 import edu.wpi.first.wpilibj.GenericHID.Hand;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 
 public class BoxManager
 {
 	public BoxCollector boxCollector;
 	public BoxLifter boxLifter;
-	private MetalSkinsController player;
-	private double testTime;
-	private double timeNow;
+	private OperatorController player;
 	
 	private enum BoxLifterState {
 		BEGIN, IDLE, LOW, MIDDLE, HIGH, LIFTING, LOWERING
 	}
 	
-	private BoxLifterState boxLifterStateNow;
-	private BoxLifterState boxLifterStatePrevious;
+	private StateMachine<BoxLifterState> boxLifterMachine = new StateMachine<>(BoxLifterState.values(), BoxLifterState.BEGIN, 16);
 	
 	private enum BoxLifterMode {
 		AUTOMATIC, MANUAL
@@ -29,8 +27,7 @@ public class BoxManager
 		BEGIN, REST, SUCK_IN, SPIT_OUT, SPIN_BOX, TOGGLE_ARMS
 	}
 	
-	private BoxCollectorState boxCollectorStateNow;
-	private BoxCollectorState boxCollectorStatePrevious;
+	private StateMachine<BoxCollectorState> boxCollectorMachine = new StateMachine<>(BoxCollectorState.values(), BoxCollectorState.BEGIN, 16);
 
 	private boolean armToggleLock = false;
 	
@@ -39,22 +36,138 @@ public class BoxManager
 		ARM_MOTORS_STOP, REAR_MOTORS_SUCK_IN, REAR_MOTORS_SPIT_OUT, REAR_MOTORS_STOP, RETRACT, DONE
 	}
 	
-	private BoxManagerTestState boxManagerTestState;
-	private BoxManagerTestState boxManagerTestStatePrevious;
+	private StateMachine<BoxManagerTestState> boxManagerTestMachine = new StateMachine<>(BoxManagerTestState.values(), BoxManagerTestState.BEGIN, 16);
 	
-	public BoxManager(BoxCollector boxCollectorIn, BoxLifter boxLifterIn, MetalSkinsController playerIn) {
+	/**
+	 * Telemetry the debug information is sent through, and the channel of each value
+	 */
+	private Telemetry telemetry;
+	private int channelCollectorState;
+	private int channelCollectorStatePrevious;
+	private int channelLifterState;
+	private int channelLifterStatePrevious;
+	private int channelSwitchHigh;
+	private int channelSwitchMiddle;
+	private int channelSwitchLow;
+	private int channelTestState;
+	private int channelTestStatePrevious;
+	
+	/**
+	 * Flight recorder the states are logged to, and the field of each value
+	 */
+	private FlightRecorder recorder;
+	private int fieldCollectorState;
+	private int fieldLifterState;
+	private int fieldLifterSwitches;
+	
+	public BoxManager(BoxCollector boxCollectorIn, BoxLifter boxLifterIn, OperatorController playerIn) {
 		boxCollector = boxCollectorIn;
-		boxCollectorStateNow = BoxCollectorState.BEGIN;
-		boxCollectorStatePrevious = BoxCollectorState.BEGIN;
-		
 		boxLifter = boxLifterIn;
-		boxLifterStateNow = BoxLifterState.BEGIN;
-		boxLifterStatePrevious = BoxLifterState.BEGIN;
 		boxLifterMode = BoxLifterMode.AUTOMATIC;
 		player = playerIn;
 		
-		boxManagerTestState = BoxManagerTestState.BEGIN;
-		boxManagerTestStatePrevious = BoxManagerTestState.BEGIN;
+		addBoxCollectorTransitions();
+		addBoxLifterTransitions();
+		addBoxManagerTestTransitions();
+	}
+	
+	/**
+	 * Sets up the Box Collector state machine.
+	 * <ul>
+	 * <li>BEGIN retracts the arms, stops the motors and goes to REST</li>
+	 * <li>REST does nothing. Both triggers spin the box (SPIN_BOX), the <b>right trigger</b>
+	 * sucks boxes in (SUCK_IN) and the <b>left trigger</b> spits them out (SPIT_OUT)</li>
+	 * <li>SUCK_IN, SPIT_OUT and SPIN_BOX stop the motors and go back to REST when their
+	 * triggers are let go. Pulling both triggers from SUCK_IN or SPIT_OUT spins the box.</li>
+	 * <li>TOGGLE_ARMS goes back to REST when the <b>A button</b> is let go</li>
+	 * </ul>
+	 */
+	private void addBoxCollectorTransitions() {
+		boxCollectorMachine.addTransition(BoxCollectorState.BEGIN, BoxCollectorState.REST, null, () -> {
+				boxCollector.armsRetract();
+				boxCollector.setArmMotorsStop();
+				boxCollector.setRearMotorsStop();
+			})
+			.addTransition(BoxCollectorState.REST, BoxCollectorState.SPIN_BOX, this::bothTriggers, this::spinBox)
+			.addTransition(BoxCollectorState.REST, BoxCollectorState.SUCK_IN, this::rightTrigger, this::suckBoxIn)
+			.addTransition(BoxCollectorState.REST, BoxCollectorState.SPIT_OUT, this::leftTrigger, this::spitBoxOut)
+			.addTransition(BoxCollectorState.SUCK_IN, BoxCollectorState.SPIN_BOX, this::bothTriggers, this::spinBox)
+			.addTransition(BoxCollectorState.SUCK_IN, BoxCollectorState.REST, () -> !rightTrigger(), this::stopBoxSucker)
+			.addTransition(BoxCollectorState.SPIT_OUT, BoxCollectorState.SPIN_BOX, this::bothTriggers, this::spinBox)
+			.addTransition(BoxCollectorState.SPIT_OUT, BoxCollectorState.REST, () -> !leftTrigger(), this::stopBoxSucker)
+			.addTransition(BoxCollectorState.SPIN_BOX, BoxCollectorState.REST, () -> !bothTriggers(), this::stopBoxSucker)
+			.addTransition(BoxCollectorState.TOGGLE_ARMS, BoxCollectorState.REST, () -> !player.getAButton(), null);
+	}
+	
+	/**
+	 * Sets up the Box Lifter state machine.
+	 * <ul>
+	 * <li>BEGIN stops the lifter and goes to the state of the switch it is on, LOW, HIGH
+	 * or MIDDLE, or IDLE if it is between switches. The arms are extended at LOW and
+	 * retracted at the others.</li>
+	 * <li>IDLE, LOW, MIDDLE and HIGH are stopped. The <b>right bumper</b> lifts (LIFTING) and
+	 * the <b>left bumper</b> lowers (LOWERING), as far as each position allows. Lowering
+	 * from MIDDLE extends the arms.</li>
+	 * <li>LIFTING and LOWERING in automatic mode stop at the middle switch, unless they just
+	 * left it, or at the end switch. In manual mode they only stop at the end switch or when
+	 * the bumper is let go, which goes to IDLE. Lifting to MIDDLE retracts the arms.</li>
+	 * </ul>
+	 */
+	private void addBoxLifterTransitions() {
+		boxLifterMachine.addTransition(BoxLifterState.BEGIN, BoxLifterState.LOW, boxLifter::getSwitchLow, () -> {
+				boxLifter.stop();
+				boxCollectorArmDeploy();
+			})
+			.addTransition(BoxLifterState.BEGIN, BoxLifterState.HIGH, boxLifter::getSwitchHigh, () -> {
+				boxLifter.stop();
+				boxCollectorArmRetract();
+			})
+			.addTransition(BoxLifterState.BEGIN, BoxLifterState.MIDDLE, boxLifter::getSwitchMiddle, () -> {
+				boxLifter.stop();
+				boxCollectorArmRetract();
+			})
+			.addTransition(BoxLifterState.BEGIN, BoxLifterState.IDLE, null, boxLifter::stop)
+			.addTransition(BoxLifterState.IDLE, BoxLifterState.LIFTING, () -> player.getBumper(Hand.kRight), boxLifter::rise)
+			.addTransition(BoxLifterState.IDLE, BoxLifterState.LOWERING, () -> player.getBumper(Hand.kLeft), boxLifter::lower)
+			.addTransition(BoxLifterState.LOWERING, BoxLifterState.MIDDLE, this::boxLifterAtNewMiddle, boxLifter::stop)
+			.addTransition(BoxLifterState.LOWERING, BoxLifterState.LOW, boxLifter::getSwitchLow, boxLifter::stop)
+			.addTransition(BoxLifterState.LOWERING, BoxLifterState.IDLE,
+					() -> boxLifterMode == BoxLifterMode.MANUAL && !player.getBumper(Hand.kLeft), boxLifter::stop)
+			.addTransition(BoxLifterState.LIFTING, BoxLifterState.MIDDLE, this::boxLifterAtNewMiddle, () -> {
+				boxLifter.stop();
+				boxCollector.armsRetract();
+			})
+			.addTransition(BoxLifterState.LIFTING, BoxLifterState.HIGH, boxLifter::getSwitchHigh, boxLifter::stop)
+			.addTransition(BoxLifterState.LIFTING, BoxLifterState.IDLE,
+					() -> boxLifterMode == BoxLifterMode.MANUAL && !player.getBumper(Hand.kRight), boxLifter::stop)
+			.addTransition(BoxLifterState.LOW, BoxLifterState.LIFTING, () -> player.getBumper(Hand.kRight), boxLifter::rise)
+			.addTransition(BoxLifterState.MIDDLE, BoxLifterState.LIFTING, () -> player.getBumper(Hand.kRight), boxLifter::rise)
+			.addTransition(BoxLifterState.MIDDLE, BoxLifterState.LOWERING, () -> player.getBumper(Hand.kLeft), () -> {
+				boxLifter.lower();
+				boxCollectorArmDeploy();
+			})
+			.addTransition(BoxLifterState.HIGH, BoxLifterState.LOWERING, () -> player.getBumper(Hand.kLeft), boxLifter::lower);
+	}
+	
+	/**
+	 * @return True if the lifter is in automatic mode and has reached the middle switch
+	 * without having just left it
+	 */
+	private boolean boxLifterAtNewMiddle() {
+		return boxLifterMode == BoxLifterMode.AUTOMATIC && boxLifter.getSwitchMiddle()
+				&& boxLifterMachine.getPreviousState() != BoxLifterState.MIDDLE;
+	}
+	
+	private boolean rightTrigger() {
+		return player.getTriggerAxis(Hand.kRight) == 1;
+	}
+	
+	private boolean leftTrigger() {
+		return player.getTriggerAxis(Hand.kLeft) == 1;
+	}
+	
+	private boolean bothTriggers() {
+		return rightTrigger() && leftTrigger();
 	}
 	
 	/**
@@ -67,54 +180,8 @@ public class BoxManager
 	 */
 	public void run()
 	{
-		switch(boxCollectorStateNow) {
-			case BEGIN:
-				boxCollectorBegin();
-				break;
-			case REST:
-				boxCollectorRest();
-				break;
-			case SPIT_OUT:
-				boxCollectorSpitOut();
-				break;
-			case SUCK_IN:
-				boxCollectorSuckIn();
-				break;
-			case SPIN_BOX:
-				boxCollectorSpinBox();
-				break;
-			case TOGGLE_ARMS:
-				boxCollectorToggleArms();
-				break;
-			default:
-				break;
-		}
-		
-		switch(boxLifterStateNow) {
-			case BEGIN:
-				boxLifterBegin();
-				break;
-			case HIGH:
-				boxLifterHigh();
-				break;
-			case IDLE:
-				boxLifterIdle();
-				break;
-			case LIFTING:
-				boxLifterLifting();
-				break;
-			case LOW:
-				boxLifterLow();
-				break;
-			case LOWERING:
-				boxLifterLowering();
-				break;
-			case MIDDLE:
-				boxLifterMiddle();
-				break;
-			default:
-				break;
-		}
+		boxCollectorMachine.update();
+		boxLifterMachine.update();
 		
 		if(boxLifterMode == BoxLifterMode.MANUAL && player.getAButton() && !armToggleLock) {
 			armToggleLock = true;
@@ -129,15 +196,6 @@ public class BoxManager
 		
 	}
 	
-	private void boxCollectorBegin()
-	{
-		boxCollector.armsRetract();
-		boxCollector.setArmMotorsStop();
-		boxCollector.setRearMotorsStop();
-		boxCollectorStateNow = BoxCollectorState.REST;
-		boxCollectorStatePrevious = BoxCollectorState.BEGIN;
-	}
-	
 	/**
 	 * Method for the DEPLOYING State of the box collector arm state machine.
 	 * <p>
@@ -158,93 +216,6 @@ public class BoxManager
 		boxCollector.armsRetract();
 	}
 	
-	/**
-	 * Method for the REST State of the box collector state machine.
-	 * <p>
-	 * This is the state where the collector will not be doing anything.
-	 * Based on controller inputs
-	 * <ul>
-	 * <li>The <b>right trigger</b> will suck boxes in and move
-	 * the Collector state machine to SUCK_IN </li>
-	 * <li>The <b>left trigger</b> will spit boxes out and move 
-	 * the Collector state machine to SPIT_OUT </li> 
-	 * </ul>
-	 * </p>
-	 */
-	private void boxCollectorRest() {
-		if(player.getTriggerAxis(Hand.kRight) == 1 && player.getTriggerAxis(Hand.kLeft) == 1) {
-			spinBox();
-			boxCollectorStateNow = BoxCollectorState.SPIN_BOX;
-			boxCollectorStatePrevious = BoxCollectorState.REST;
-		} else if(player.getTriggerAxis(Hand.kRight) == 1) {
-			suckBoxIn();
-			boxCollectorStateNow = BoxCollectorState.SUCK_IN;
-			boxCollectorStatePrevious = BoxCollectorState.REST;
-		} else if(player.getTriggerAxis(Hand.kLeft) == 1) {
-			spitBoxOut();
-			boxCollectorStateNow = BoxCollectorState.SPIT_OUT;
-			boxCollectorStatePrevious = BoxCollectorState.REST;
-		}
-	}
-	
-	/**
-	 * Method for the SUCK_IN State of the box collector state machine.
-	 * <p>
-	 * This is the state where the collector will be sucking in boxes.
-	 * </p>
-	 * <p>
-	 * Based on controller inputs, letting go of the <b>right trigger</b> will stop the suction
-	 *  of boxes and move the Collector state machine to REST
-	 * </p>
-	 */
-	private void boxCollectorSuckIn() {
-		if(player.getTriggerAxis(Hand.kLeft) == 1 && player.getTriggerAxis(Hand.kRight) == 1) {
-			spinBox();
-			boxCollectorStateNow = BoxCollectorState.SPIN_BOX;
-			boxCollectorStatePrevious = BoxCollectorState.SPIT_OUT;
-		} else if(player.getTriggerAxis(Hand.kRight) == 1) {
-			return;
-		} else {
-			stopBoxSucker();
-			boxCollectorStateNow = BoxCollectorState.REST;
-			boxCollectorStatePrevious = BoxCollectorState.SUCK_IN;
-		}
-	}
-	
-	/**
-	 * Method for the SPIT_OUT State of the box collector state machine.
-	 * <p>
-	 * This is the state where the collector will be spitting out boxes.
-	 * </p>
-	 * <p>
-	 * Based on controller inputs, letting go of the <b>left trigger</b> will 
-	 * stop the secretion of boxes and move the Collector state machine to REST
-	 * </p>
-	 */
-	private void boxCollectorSpitOut() {
-		if(player.getTriggerAxis(Hand.kLeft) == 1 && player.getTriggerAxis(Hand.kRight) == 1) {
-			spinBox();
-			boxCollectorStateNow = BoxCollectorState.SPIN_BOX;
-			boxCollectorStatePrevious = BoxCollectorState.SPIT_OUT;
-		} else if(player.getTriggerAxis(Hand.kLeft) == 1) {
-			return;
-		} else {
-			stopBoxSucker();
-			boxCollectorStateNow = BoxCollectorState.REST;
-			boxCollectorStatePrevious = BoxCollectorState.SPIT_OUT;
-		}
-	}
-	
-	private void boxCollectorSpinBox() {
-		if(player.getTriggerAxis(Hand.kLeft) == 1 && player.getTriggerAxis(Hand.kRight) == 1) {
-			return;
-		} else {
-			stopBoxSucker();
-			boxCollectorStateNow = BoxCollectorState.REST;
-			boxCollectorStatePrevious = BoxCollectorState.SPIN_BOX;
-		}
-	}
-	
 	/**
 	 * Method to spit a box out of the Box Collector.
 	 * <p>
@@ -299,194 +270,12 @@ public class BoxManager
 		boxCollector.setRearMotorsStop();
 	}
 	
-	public void boxCollectorToggleArms() {
-		if(!player.getAButton()) {
-			boxCollectorStateNow = BoxCollectorState.REST;
-			boxCollectorStatePrevious = BoxCollectorState.TOGGLE_ARMS;
-		}
-	}
-	
-	private void boxLifterBegin() {
-		boxLifter.stop();
-		boxLifterStatePrevious = BoxLifterState.BEGIN;
-			
-		if(boxLifter.getSwitchLow()) {
-			boxCollectorArmDeploy();
-			boxLifterStateNow = BoxLifterState.LOW;
-		} else if(boxLifter.getSwitchHigh()) {
-			boxCollectorArmRetract();
-			boxLifterStateNow = BoxLifterState.HIGH;
-		} else if(boxLifter.getSwitchMiddle()) {
-			boxCollectorArmRetract();
-			boxLifterStateNow = BoxLifterState.MIDDLE;
-		} else {
-			boxLifterStateNow = BoxLifterState.IDLE;
-		}
-	}
-	
-	/**
-	 * Method for the IDLE State of the box lifter state machine.
-	 * This is the state where the lifter will not be moving.
-	 * Based on controller inputs, the right bumper will lift the box
-	 * Collector and set the state to LIFTING. The left bumper will 
-	 * lower the box lifter and set the state to LOWERING.
-	 */
-	private void boxLifterIdle() {
-		if(player.getBumper(Hand.kRight)) {
-			boxLifter.rise();
-			boxLifterStateNow = BoxLifterState.LIFTING;
-			boxLifterStatePrevious = BoxLifterState.IDLE;
-		} else if(player.getBumper(Hand.kLeft)) {
-			boxLifter.lower();
-			boxLifterStateNow = BoxLifterState.LOWERING;
-			boxLifterStatePrevious = BoxLifterState.IDLE;
-		}
-	}
-	
-	/**
-	 * Method for the LOWERING state of the box lifter state machine.
-	 * This is the state where the lifter will be lowering.
-	 * 
-	 * <p>
-	 * If the lifter is in automatic mode, it will lower until it hits the middle 
-	 * switch where it will stop the motor and go to MIDDLE state, or until it 
-	 * hits the low switch where it will stop the motor and go to LOW state.
-	 * </p>
-	 * <p>
-	 * If the lifter is in manual mode, it will lower until either the low switch
-	 * is hit and goes to LOW state or until the player lets go of the left bumper on
-	 * the controller and goes to IDLE state.
-	 * </p>
-	 */
-	private void boxLifterLowering() {
-		if(boxLifterMode == BoxLifterMode.AUTOMATIC) { // If mode is Automatic
-			if(boxLifter.getSwitchMiddle() && boxLifterStatePrevious != BoxLifterState.MIDDLE) {
-				boxLifter.stop();
-				boxLifterStateNow = BoxLifterState.MIDDLE;
-				boxLifterStatePrevious = BoxLifterState.LOWERING;
-			} else if(boxLifter.getSwitchLow()) {
-				boxLifter.stop();
-				boxLifterStateNow = BoxLifterState.LOW;
-				boxLifterStatePrevious = BoxLifterState.LOWERING;
-			}
-		} else { // If mode is Manual
-			if(boxLifter.getSwitchLow()) { // If not at the bottom
-				boxLifter.stop();
-				boxLifterStateNow = BoxLifterState.LOW;
-				boxLifterStatePrevious = BoxLifterState.LOWERING;
-			} else { // Turn motor off and set State to Low
-				if(!player.getBumper(Hand.kLeft)) { //If player lets go of the down button
-					boxLifter.stop(); //Turn motor off
-					boxLifterStateNow = BoxLifterState.IDLE; // Set State to Idle
-					boxLifterStatePrevious = BoxLifterState.LOWERING;
-				}
-			}
-		}
-	}
-	
-	/**
-	 * Method for the LIFTING state of the box lifter state machine.
-	 * This is the state where the lifter will be lifting.
-	 * 
-	 * <p>
-	 * If the lifter is in automatic mode, it will lift until it hits the middle 
-	 * switch where it will stop the motor and go to MIDDLE state, or until it 
-	 * hits the high switch where it will stop the motor and go to HIGH state.
-	 * </p>
-	 * <p>
-	 * If the lifter is in manual mode, it will lift until either the high switch
-	 * is hit and goes to HIGH state or until the player lets go of the right bumper on
-	 * the controller and goes to IDLE state.
-	 * </p>
-	 */
-	private void boxLifterLifting() {
-		if(boxLifterMode == BoxLifterMode.AUTOMATIC) { // if mode is Automatic
-			if(boxLifter.getSwitchMiddle() && boxLifterStatePrevious != BoxLifterState.MIDDLE) {
-				boxLifter.stop();
-				boxCollector.armsRetract();
-				boxLifterStateNow = BoxLifterState.MIDDLE;
-				boxLifterStatePrevious = BoxLifterState.LIFTING;
-			} else if(boxLifter.getSwitchHigh()) {
-				boxLifter.stop();
-				boxLifterStateNow = BoxLifterState.HIGH;
-				boxLifterStatePrevious = BoxLifterState.LIFTING;
-			}
-		} else { // if mode is Manual
-			if(boxLifter.getSwitchHigh()) { //if not at the Top
-				boxLifter.stop();
-				boxLifterStateNow = BoxLifterState.HIGH;
-				boxLifterStatePrevious = BoxLifterState.LIFTING;
-			} else { // Turn off motor and set State to High
-				if(!player.getBumper(Hand.kRight)) { // If player lets go of the up button
-					boxLifter.stop(); //Turn motor off
-					boxLifterStateNow = BoxLifterState.IDLE; // Set State to Idle
-					boxLifterStatePrevious = BoxLifterState.LIFTING;
-				}
-			}
-		}
-	}
-	
-	/**
-	 * Method for the LOW state of the box lifter state machine.
-	 * <p>
-	 * This is the state where the lifter will be stopped in the
-	 * low position. When the right bumper on the controller is pressed,
-	 * The lifter will lift and go to the LIFTING state.
-	 * </p>
-	 */
-	private void boxLifterLow() {
-		if(player.getBumper(Hand.kRight)) {
-			boxLifter.rise();
-			boxLifterStateNow = BoxLifterState.LIFTING;
-			boxLifterStatePrevious = BoxLifterState.LOW;
-		}
-	}
-	
-	/**
-	 * Method for the MIDDLE state of the box lifter state machine.
-	 * <p>
-	 * This is the state where the lifter will be stopped in the
-	 * middle position. If the right bumper on the controller is pressed,
-	 * The lifter will lift and go to the LIFTING state. If the left 
-	 * bumper on the controller is pressed, the lifter will lower and
-	 * go to the LOWERING state.
-	 * </p>
-	 */
-	private void boxLifterMiddle() {
-		if(player.getBumper(Hand.kRight)) {
-			boxLifter.rise();
-			boxLifterStateNow = BoxLifterState.LIFTING;
-			boxLifterStatePrevious = BoxLifterState.MIDDLE;
-		} else if(player.getBumper(Hand.kLeft)) {
-			boxLifter.lower();
-			boxCollectorArmDeploy();
-			boxLifterStateNow = BoxLifterState.LOWERING;
-			boxLifterStatePrevious = BoxLifterState.MIDDLE;
-		}
-	}
-	
-	/**
-	 * Method for the HIGH state of the box lifter state machine.
-	 * <p>
-	 * This is the state where the lifter will be stopped in the
-	 * high position. When the left bumper on the controller is pressed,
-	 * The lifter will lower and go to the LOWERING state.
-	 * </p>
-	 */
-	private void boxLifterHigh() {
-		if(player.getBumper(Hand.kLeft)) {
-			boxLifter.lower();
-			boxLifterStateNow = BoxLifterState.LOWERING;
-			boxLifterStatePrevious = BoxLifterState.HIGH;
-		}
-	}
-	
 	/**
 	 * Returns the current state of the Box Collector State Machine as a String object
 	 * @return Current state of the Box Collector state machine as a String object
 	 */
 	public String getBoxCollectorStateString() {
-		return boxCollectorStateNow.name();
+		return boxCollectorMachine.getStateString();
 	}
 	
 	/**
@@ -494,7 +283,7 @@ public class BoxManager
 	 * @return Previous state of the Box Collector state machine as a String object
 	 */
 	public String getBoxCollectorStatePreviousString() {
-		return boxCollectorStatePrevious.name();
+		return boxCollectorMachine.getStatePreviousString();
 	}
 	
 	/**
@@ -502,7 +291,7 @@ public class BoxManager
 	 * @return Current state of the Box Lifter state machine as a String object
 	 */
 	public String getBoxLifterStateString() {
-		return boxLifterStateNow.name();
+		return boxLifterMachine.getStateString();
 	}
 	
 	/**
@@ -510,7 +299,7 @@ public class BoxManager
 	 * @return Previous state of the Box Lifter state machine as a String object
 	 */
 	public String getBoxLifterStatePreviousString() {
-		return boxLifterStatePrevious.name();
+		return boxLifterMachine.getStatePreviousString();
 	}
 	
 	/**
@@ -518,10 +307,8 @@ public class BoxManager
 	 * states.
 	 */
 	public void reset() {
-		boxCollectorStatePrevious = boxCollectorStateNow;
-		boxCollectorStateNow = BoxCollectorState.BEGIN;
-		boxLifterStatePrevious = boxLifterStateNow;
-		boxLifterStateNow = BoxLifterState.BEGIN;
+		boxCollectorMachine.transitionTo(BoxCollectorState.BEGIN);
+		boxLifterMachine.transitionTo(BoxLifterState.BEGIN);
 	}
 	
 	/**
@@ -529,9 +316,9 @@ public class BoxManager
 	 * This <b>MUST</b> be ran before runTest()
 	 */
 	public void initTest() {
-		boxCollectorStateNow = BoxCollectorState.BEGIN;
-		boxLifterStateNow = BoxLifterState.BEGIN;
-		boxManagerTestState = BoxManagerTestState.BEGIN;
+		boxCollectorMachine.transitionTo(BoxCollectorState.BEGIN);
+		boxLifterMachine.transitionTo(BoxLifterState.BEGIN);
+		boxManagerTestMachine.transitionTo(BoxManagerTestState.BEGIN);
 	}
 	
 	/**
@@ -555,195 +342,137 @@ public class BoxManager
 	 * @return Returns whether the tests are finished. True means they are done.
 	 */
 	public boolean runTest() {
-		switch(boxManagerTestState) {
-		case ARM_MOTORS_STOP:
-			boxManagerTestArmMotorStop();
-			return false;
-		case ARM_MOTORS_SUCK_IN:
-			boxManagerTestArmMotorsSuckIn();
-			return false;
-		case ARM_MOTOTS_SPIT_OUT:
-			boxManagerTestArmMotorsSpitOut();
-			return false;
-		case BEGIN:
-			boxManagerTestBegin();
-			return false;
-		case DONE:
+		if(boxManagerTestMachine.isIn(BoxManagerTestState.DONE)) {
 			return true;
-		case EXTEND_ARM:
-			boxManagerTestExtend();
-			return false;
-		case LOWER_TO_LOW:
-			boxManagerTestLowerToLow();
-			return false;
-		case LOWER_TO_MID:
-			boxManagerTestLowerToMid();
-			return false;
-		case RAISE_TO_HIGH:
-			boxManagerTestRaiseToHigh();
-			return false;
-		case REAR_MOTORS_SPIT_OUT:
-			boxManagerTestRearMotorsSpitOut();
-			return false;
-		case REAR_MOTORS_STOP:
-			boxManagerTestRearMotorsStop();
-			return false;
-		case REAR_MOTORS_SUCK_IN:
-			boxManagerTestRearMotorsSuckIn();
-			return false;
-		case RETRACT:
-			boxManagerTestRetract();
-			return false;
-		default:
-			return false;	
-		}
-	}
-	
-	private void boxManagerTestBegin() {
-		boxCollector.setArmMotorsStop();
-		boxCollector.setRearMotorsStop();
-		boxLifter.stop();
-		boxCollector.armsExtend();
-		boxManagerTestState = BoxManagerTestState.EXTEND_ARM;
-		boxManagerTestStatePrevious = BoxManagerTestState.BEGIN;
-		testTime = Robot.timer.get() + 1;
-	}
-	
-	private void boxManagerTestExtend() {
-		timeNow = Robot.timer.get();
-		if(timeNow > testTime) {
-			if(!boxLifter.getSwitchLow()) {
-				boxLifter.lower();
-				boxManagerTestState = BoxManagerTestState.LOWER_TO_LOW;
-				boxManagerTestStatePrevious = BoxManagerTestState.EXTEND_ARM;
-			} else {
-				boxLifter.rise();
-				boxManagerTestState = BoxManagerTestState.RAISE_TO_HIGH;
-				boxManagerTestStatePrevious = BoxManagerTestState.EXTEND_ARM;
-			}
-		}
-	}
-	
-	private void boxManagerTestLowerToLow() {
-		if(boxLifter.getSwitchLow()) {
-			boxLifter.rise();
-			boxManagerTestState = BoxManagerTestState.RAISE_TO_HIGH;
-			boxManagerTestStatePrevious = BoxManagerTestState.LOWER_TO_LOW;
-		}
-	}
-	
-	private void boxManagerTestRaiseToHigh() {
-		if(boxLifter.getSwitchHigh()) {
-			boxLifter.lower();
-			boxManagerTestState = BoxManagerTestState.LOWER_TO_MID;
-			boxManagerTestStatePrevious = BoxManagerTestState.RAISE_TO_HIGH;
-		}
-	}
-	
-	private void boxManagerTestLowerToMid() {
-		if(boxLifter.getSwitchLow()) {
-			boxLifter.stop();
-			boxCollector.setArmMotorsSuckIn();
-			boxManagerTestState = BoxManagerTestState.ARM_MOTORS_SUCK_IN;
-			boxManagerTestStatePrevious = BoxManagerTestState.LOWER_TO_MID;
-			testTime = Robot.timer.get() + 2;
-		}
-	}
-	
-	private void boxManagerTestArmMotorsSuckIn() {
-		timeNow = Robot.timer.get();
-		if(timeNow > testTime) {
-			boxCollector.setArmMotorsSpitOut();
-			boxManagerTestState = BoxManagerTestState.ARM_MOTOTS_SPIT_OUT;
-			boxManagerTestStatePrevious = BoxManagerTestState.ARM_MOTORS_SUCK_IN;
-			testTime = Robot.timer.get() + 2;
-		}
-	}
-	
-	private void boxManagerTestArmMotorsSpitOut() {
-		timeNow = Robot.timer.get();
-		if(timeNow > testTime) {
-			boxCollector.setArmMotorsStop();
-			boxManagerTestState = BoxManagerTestState.ARM_MOTORS_STOP;
-			boxManagerTestStatePrevious = BoxManagerTestState.ARM_MOTOTS_SPIT_OUT;
-			testTime = Robot.timer.get() + 1;
 		}
+		
+		boxManagerTestMachine.update();
+		return false;
 	}
 	
-	private void boxManagerTestArmMotorStop() {
-		timeNow = Robot.timer.get();
-		if(timeNow > testTime) {
-			boxCollector.setRearMotorsSuckIn();
-			boxManagerTestState = BoxManagerTestState.REAR_MOTORS_SUCK_IN;
-			boxManagerTestStatePrevious = BoxManagerTestState.ARM_MOTORS_STOP;
-			testTime = Robot.timer.get() + 2;
-		}
+	/**
+	 * Sets up the Box Manager test state machine, one state for each step of runTest().
+	 * Each timed step moves on once it has been in its state long enough.
+	 */
+	private void addBoxManagerTestTransitions() {
+		boxManagerTestMachine.addTransition(BoxManagerTestState.BEGIN, BoxManagerTestState.EXTEND_ARM, null, () -> {
+				boxCollector.setArmMotorsStop();
+				boxCollector.setRearMotorsStop();
+				boxLifter.stop();
+				boxCollector.armsExtend();
+			})
+			.addTransition(BoxManagerTestState.EXTEND_ARM, BoxManagerTestState.LOWER_TO_LOW,
+					() -> testStepOver(1) && !boxLifter.getSwitchLow(), boxLifter::lower)
+			.addTransition(BoxManagerTestState.EXTEND_ARM, BoxManagerTestState.RAISE_TO_HIGH, () -> testStepOver(1), boxLifter::rise)
+			.addTransition(BoxManagerTestState.LOWER_TO_LOW, BoxManagerTestState.RAISE_TO_HIGH, boxLifter::getSwitchLow, boxLifter::rise)
+			.addTransition(BoxManagerTestState.RAISE_TO_HIGH, BoxManagerTestState.LOWER_TO_MID, boxLifter::getSwitchHigh, boxLifter::lower)
+			.addTransition(BoxManagerTestState.LOWER_TO_MID, BoxManagerTestState.ARM_MOTORS_SUCK_IN, boxLifter::getSwitchLow, () -> {
+				boxLifter.stop();
+				boxCollector.setArmMotorsSuckIn();
+			})
+			.addTransition(BoxManagerTestState.ARM_MOTORS_SUCK_IN, BoxManagerTestState.ARM_MOTOTS_SPIT_OUT,
+					() -> testStepOver(2), boxCollector::setArmMotorsSpitOut)
+			.addTransition(BoxManagerTestState.ARM_MOTOTS_SPIT_OUT, BoxManagerTestState.ARM_MOTORS_STOP,
+					() -> testStepOver(2), boxCollector::setArmMotorsStop)
+			.addTransition(BoxManagerTestState.ARM_MOTORS_STOP, BoxManagerTestState.REAR_MOTORS_SUCK_IN,
+					() -> testStepOver(1), boxCollector::setRearMotorsSuckIn)
+			.addTransition(BoxManagerTestState.REAR_MOTORS_SUCK_IN, BoxManagerTestState.REAR_MOTORS_SPIT_OUT,
+					() -> testStepOver(2), boxCollector::setRearMotorsSpitOut)
+			.addTransition(BoxManagerTestState.REAR_MOTORS_SPIT_OUT, BoxManagerTestState.REAR_MOTORS_STOP,
+					() -> testStepOver(2), boxCollector::setArmMotorsStop)
+			.addTransition(BoxManagerTestState.REAR_MOTORS_STOP, BoxManagerTestState.RETRACT,
+					() -> testStepOver(1), boxCollector::armsRetract)
+			.addTransition(BoxManagerTestState.RETRACT, BoxManagerTestState.DONE, () -> testStepOver(1), null);
 	}
 	
-	private void boxManagerTestRearMotorsSuckIn() {
-		timeNow = Robot.timer.get();
-		if(timeNow > testTime) {
-			boxCollector.setRearMotorsSpitOut();
-			boxManagerTestState = BoxManagerTestState.REAR_MOTORS_SPIT_OUT;
-			boxManagerTestStatePrevious = BoxManagerTestState.REAR_MOTORS_SUCK_IN;
-			testTime = Robot.timer.get() + 2;
-		}
+	/**
+	 * @param seconds Length of the test step
+	 * @return True once the test has been in its current step for longer than that
+	 */
+	private boolean testStepOver(double seconds) {
+		return boxManagerTestMachine.getTimeInState() > seconds;
 	}
 	
-	private void boxManagerTestRearMotorsSpitOut() {
-		timeNow = Robot.timer.get();
-		if(timeNow > testTime) {
-			boxCollector.setArmMotorsStop();
-			boxManagerTestState = BoxManagerTestState.REAR_MOTORS_STOP;
-			boxManagerTestStatePrevious = BoxManagerTestState.REAR_MOTORS_SPIT_OUT;
-			testTime = Robot.timer.get() + 1;
+	public void setBoxLifterModeAutomatic(boolean isAutomatic) {
+		if(isAutomatic==true) {
+			boxLifterMode = BoxLifterMode.AUTOMATIC;
+		} else {
+			boxLifterMode = BoxLifterMode.MANUAL;
 		}
 	}
 	
-	private void boxManagerTestRearMotorsStop() {
-		timeNow = Robot.timer.get();
-		if(timeNow > testTime) {
-			boxCollector.armsRetract();
-			boxManagerTestState = BoxManagerTestState.RETRACT;
-			boxManagerTestStatePrevious = BoxManagerTestState.REAR_MOTORS_STOP;
-			testTime = Robot.timer.get() + 1;
-		}
+	/**
+	 * Adds the debug channels to the telemetry. Call this once before the telemetry
+	 * is started and before debug() is used.
+	 * @param telemetryIn Telemetry to send debug information through
+	 */
+	public void setTelemetry(Telemetry telemetryIn) {
+		telemetry = telemetryIn;
+		channelCollectorState = telemetry.addState("Box Collector State", BoxCollectorState.values());
+		channelCollectorStatePrevious = telemetry.addState("Box Collector Previous State", BoxCollectorState.values());
+		channelLifterState = telemetry.addState("Box Lifter State", BoxLifterState.values());
+		channelLifterStatePrevious = telemetry.addState("Box Lifter Previous State", BoxLifterState.values());
+		channelSwitchHigh = telemetry.addBoolean("Box Lifter High Switch");
+		channelSwitchMiddle = telemetry.addBoolean("Box Lifter Middle Switch");
+		channelSwitchLow = telemetry.addBoolean("Box Lifter Low Switch");
+		channelTestState = telemetry.addState("Box Manager Test State", BoxManagerTestState.values());
+		channelTestStatePrevious = telemetry.addState("Box Manager Test Previous State", BoxManagerTestState.values());
 	}
 	
-	private void boxManagerTestRetract() {
-		timeNow = Robot.timer.get();
-		if(timeNow > testTime) {
-			boxManagerTestState = BoxManagerTestState.DONE;
-			boxManagerTestStatePrevious = BoxManagerTestState.RETRACT;
-		}
+	/**
+	 * Adds the state machine fields to the flight recorder. Call this once before the
+	 * recorder is started and before recordFlightData() is used.
+	 * @param recorderIn FlightRecorder to log the states to
+	 */
+	public void setFlightRecorder(FlightRecorder recorderIn) {
+		recorder = recorderIn;
+		fieldCollectorState = recorder.addField("Box Collector State");
+		fieldLifterState = recorder.addField("Box Lifter State");
+		fieldLifterSwitches = recorder.addField("Box Lifter Switches");
+		boxCollector.setFlightRecorder(recorder);
+		boxLifter.setFlightRecorder(recorder);
 	}
 	
-	public void setBoxLifterModeAutomatic(boolean isAutomatic) {
-		if(isAutomatic==true) {
-			boxLifterMode = BoxLifterMode.AUTOMATIC;
-		} else {
-			boxLifterMode = BoxLifterMode.MANUAL;
+	/**
+	 * Fills in the state machine fields of the next flight recorder record. States are
+	 * logged as their number in the state enum. The lifter switches are logged as one
+	 * number: 1 = Low, 2 = Middle, 4 = High added together. Does nothing until
+	 * setFlightRecorder() has been called.
+	 */
+	public void recordFlightData() {
+		if(recorder == null) {
+			return;
 		}
+		
+		recorder.set(fieldCollectorState, boxCollectorMachine.getState().ordinal());
+		recorder.set(fieldLifterState, boxLifterMachine.getState().ordinal());
+		recorder.set(fieldLifterSwitches, (boxLifter.getSwitchLow() ? 1 : 0) + (boxLifter.getSwitchMiddle() ? 2 : 0) + (boxLifter.getSwitchHigh() ? 4 : 0));
+		boxCollector.recordFlightData();
+		boxLifter.recordFlightData();
 	}
 	
 	/**
 	 * Writes information about a Box Manager to the SmartDashboard for review and
-	 * troubleshooting
+	 * troubleshooting. Does nothing until setTelemetry() has been called.
 	 * @param item Item to debug. <ul><li>0 = Box Collector</li><li>1 = Box Lifter</li><li>2 = Box Manager Test State</li></ul>
 	 */
 	public void debug(int item) {
+		if(telemetry == null) {
+			return;
+		}
+		
 		if(item == 0) {
-			SmartDashboard.putString("Box Collector State", getBoxCollectorStateString());
-			SmartDashboard.putString("Box Collector Previous State", getBoxCollectorStatePreviousString());
+			telemetry.putState(channelCollectorState, boxCollectorMachine.getState());
+			telemetry.putState(channelCollectorStatePrevious, boxCollectorMachine.getPreviousState());
 		} else if(item == 1) {
-			SmartDashboard.putString("Box Lifter State", getBoxLifterStateString());
-			SmartDashboard.putString("Box Lifter Previous State", getBoxLifterStatePreviousString());
-			SmartDashboard.putBoolean("Box Lifter High Switch", boxLifter.getSwitchHigh());
-			SmartDashboard.putBoolean("Box Lifter Middle Switch", boxLifter.getSwitchMiddle());
-			SmartDashboard.putBoolean("Box Lifter Low Switch", boxLifter.getSwitchLow());
+			telemetry.putState(channelLifterState, boxLifterMachine.getState());
+			telemetry.putState(channelLifterStatePrevious, boxLifterMachine.getPreviousState());
+			telemetry.putBoolean(channelSwitchHigh, boxLifter.getSwitchHigh());
+			telemetry.putBoolean(channelSwitchMiddle, boxLifter.getSwitchMiddle());
+			telemetry.putBoolean(channelSwitchLow, boxLifter.getSwitchLow());
 		} else if(item == 2) {
-			SmartDashboard.putString("Box Manager Test State", boxManagerTestState.name());
-			SmartDashboard.putString("Box Manager Test Previous State", boxManagerTestStatePrevious.name());
+			telemetry.putState(channelTestState, boxManagerTestMachine.getState());
+			telemetry.putState(channelTestStatePrevious, boxManagerTestMachine.getPreviousState());
 		}
 	}
 }
@@ -0,0 +1,43 @@
+package org.usfirst.frc.team2461.robot;
+
+import edu.wpi.first.wpilibj.PIDSource;
+
+/**
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * 
+ * Encoder that measures how far a drive wheel has rolled. DriveEncoder wraps the
+ * quadrature Encoder on the robot; the simulation package has one that works off the robot.
+ *
+ */
+public interface DistanceEncoder extends PIDSource
+{
+	/**
+	 * @return Raw count of the encoder
+	 */
+	public int get();
+	
+	/**
+	 * @return Distance traveled in inches since the last reset
+	 */
+	public double getDistance();
+	
+	/**
+	 * @return Speed in inches per second
+	 */
+	public double getRate();
+	
+	/**
+	 * @return True if the wheel has stopped turning
+	 */
+	public boolean getStopped();
+	
+	/**
+	 * Zeroes out the distance traveled
+	 */
+	public void reset();
+	
+	/**
+	 * @param reverseDirection True makes the encoder count backwards
+	 */
+	public void setReverseDirection(boolean reverseDirection);
+}
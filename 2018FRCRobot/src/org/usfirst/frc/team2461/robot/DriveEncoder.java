@@ -0,0 +1,78 @@
+package org.usfirst.frc.team2461.robot;
+
+import edu.wpi.first.wpilibj.Encoder;
+import edu.wpi.first.wpilibj.PIDSourceType;
+
+/**
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * 
+ * DistanceEncoder that reads a quadrature Encoder plugged into the RoboRIO.
+ *
+ */
+public class DriveEncoder implements DistanceEncoder
+{
+	private Encoder encoder;
+	
+	/**
+	 * Creates a DistanceEncoder from a WPILib Encoder
+	 * @param encoderIn Encoder already set up with its distance per pulse
+	 */
+	public DriveEncoder(Encoder encoderIn)
+	{
+		encoder = encoderIn;
+	}
+	
+	@Override
+	public void setPIDSourceType(PIDSourceType pidSource)
+	{
+		encoder.setPIDSourceType(pidSource);
+	}
+	
+	@Override
+	public PIDSourceType getPIDSourceType()
+	{
+		return encoder.getPIDSourceType();
+	}
+	
+	@Override
+	public double pidGet()
+	{
+		return encoder.pidGet();
+	}
+	
+	@Override
+	public int get()
+	{
+		return encoder.get();
+	}
+	
+	@Override
+	public double getDistance()
+	{
+		return encoder.getDistance();
+	}
+	
+	@Override
+	public double getRate()
+	{
+		return encoder.getRate();
+	}
+	
+	@Override
+	public boolean getStopped()
+	{
+		return encoder.getStopped();
+	}
+	
+	@Override
+	public void reset()
+	{
+		encoder.reset();
+	}
+	
+	@Override
+	public void setReverseDirection(boolean reverseDirection)
+	{
+		encoder.setReverseDirection(reverseDirection);
+	}
+}
@@ -0,0 +1,270 @@
+package org.usfirst.frc.team2461.robot;
+
+import org.usfirst.frc.team2461.robot.telemetry.Telemetry;
+
+import edu.wpi.first.wpilibj.IterativeRobotBase;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.hal.HAL;
+import edu.wpi.first.wpilibj.hal.NotifierJNI;
+
+/**
+ * <h1> Fixed Period Robot Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Runs the init and periodic methods the same way IterativeRobot does, but on a
+ * fixed period timed by an FPGA alarm instead of whenever a Driver Station packet
+ * arrives. Loop n is due at start + n * period, so a late loop does not push the
+ * ones after it back.
+ * </p>
+ * <p>
+ * When a loop runs so long that the next one is already due, the CatchUpPolicy
+ * decides what happens. SKIP drops the loops that were missed and waits for the
+ * next due time, so the time between loops stays a whole number of periods. BURST
+ * runs up to maxBurst missed loops back to back and drops the rest.
+ * </p>
+ */
+public abstract class FixedPeriodRobot extends IterativeRobotBase
+{
+	public static final double DEFAULT_PERIOD = 0.02;
+	
+	public enum CatchUpPolicy {
+		SKIP, BURST
+	}
+	
+	private final int notifier = NotifierJNI.initializeNotifier();
+	
+	/**
+	 * Period and catch up settings, times in microseconds
+	 */
+	private long period;
+	private CatchUpPolicy catchUpPolicy = CatchUpPolicy.SKIP;
+	private int maxBurst = 2;
+	
+	/**
+	 * Loop timing in microseconds. Jitter is how late a loop started after it was due.
+	 */
+	private long lastStart = 0;
+	private long lastJitter = 0;
+	private long maxJitter = 0;
+	private long totalJitter = 0;
+	private long minLoopPeriod = Long.MAX_VALUE;
+	private long maxLoopPeriod = 0;
+	private long loops = 0;
+	private long missedLoops = 0;
+	
+	private Telemetry telemetry;
+	private int channelJitter;
+	private int channelMaxJitter;
+	private int channelAverageJitter;
+	private int channelMinPeriod;
+	private int channelMaxPeriod;
+	private int channelMissed;
+	
+	/**
+	 * Creates a robot that runs its loop every DEFAULT_PERIOD seconds
+	 */
+	protected FixedPeriodRobot()
+	{
+		this(DEFAULT_PERIOD);
+	}
+	
+	/**
+	 * Creates a robot that runs its loop on a fixed period
+	 * @param periodSeconds Seconds between the start of two loops
+	 */
+	protected FixedPeriodRobot(double periodSeconds)
+	{
+		setPeriod(periodSeconds);
+	}
+	
+	/**
+	 * Sets how often the loop runs. Call this before the robot starts.
+	 * @param periodSeconds Seconds between the start of two loops
+	 */
+	public void setPeriod(double periodSeconds)
+	{
+		period = (long) (periodSeconds * 1e6);
+	}
+	
+	/**
+	 * @return Seconds between the start of two loops
+	 */
+	public double getPeriod()
+	{
+		return period / 1e6;
+	}
+	
+	/**
+	 * Sets what happens when a loop runs past the start of the next one
+	 * @param policy SKIP to drop the missed loops, BURST to run some of them right away
+	 * @param maxBurstIn Most missed loops BURST runs back to back, the rest are dropped
+	 */
+	public void setCatchUpPolicy(CatchUpPolicy policy, int maxBurstIn)
+	{
+		catchUpPolicy = policy;
+		maxBurst = Math.max(0, maxBurstIn);
+	}
+	
+	@Override
+	public void startCompetition()
+	{
+		robotInit();
+		
+		// Tell the DS that the robot is ready to be enabled
+		HAL.observeUserProgramStarting();
+		
+		long due = RobotController.getFPGATime() + period;
+		while(true)
+		{
+			NotifierJNI.updateNotifierAlarm(notifier, due);
+			if(NotifierJNI.waitForNotifierAlarm(notifier) == 0)
+			{
+				break; // The notifier was stopped, the program is ending
+			}
+			
+			recordStart(RobotController.getFPGATime(), due);
+			loopFunc();
+			due = nextDue(due, RobotController.getFPGATime());
+			publishLoopTiming();
+		}
+	}
+	
+	/**
+	 * Works out when the next loop is due
+	 * @param due Time the loop that just ran was due
+	 * @param now Time the loop finished
+	 * @return Time the next loop is due
+	 */
+	private long nextDue(long due, long now)
+	{
+		long next = due + period;
+		if(now < next)
+		{
+			return next;
+		}
+		
+		long behind = (now - next) / period + 1; // Loops due by now that have not run
+		long skipped = catchUpPolicy == CatchUpPolicy.BURST ? Math.max(0, behind - maxBurst) : behind;
+		missedLoops += skipped;
+		
+		return next + skipped * period;
+	}
+	
+	private void recordStart(long start, long due)
+	{
+		lastJitter = start - due;
+		if(lastJitter > maxJitter)
+		{
+			maxJitter = lastJitter;
+		}
+		totalJitter += lastJitter;
+		
+		if(lastStart != 0)
+		{
+			long loopPeriod = start - lastStart;
+			if(loopPeriod < minLoopPeriod)
+			{
+				minLoopPeriod = loopPeriod;
+			}
+			if(loopPeriod > maxLoopPeriod)
+			{
+				maxLoopPeriod = loopPeriod;
+			}
+		}
+		lastStart = start;
+		loops++;
+	}
+	
+	/**
+	 * Clears the loop timing statistics
+	 */
+	public void resetLoopStats()
+	{
+		maxJitter = 0;
+		totalJitter = 0;
+		minLoopPeriod = Long.MAX_VALUE;
+		maxLoopPeriod = 0;
+		loops = 0;
+		missedLoops = 0;
+		lastStart = 0;
+	}
+	
+	/**
+	 * @return Milliseconds the last loop started after it was due
+	 */
+	public double getLastJitter()
+	{
+		return lastJitter / 1000.0;
+	}
+	
+	/**
+	 * @return Most milliseconds a loop started after it was due
+	 */
+	public double getMaxJitter()
+	{
+		return maxJitter / 1000.0;
+	}
+	
+	/**
+	 * @return Average milliseconds a loop starts after it was due
+	 */
+	public double getAverageJitter()
+	{
+		return loops == 0 ? 0 : totalJitter / 1000.0 / loops;
+	}
+	
+	/**
+	 * @return Shortest milliseconds between the start of two loops
+	 */
+	public double getMinLoopPeriod()
+	{
+		return minLoopPeriod == Long.MAX_VALUE ? 0 : minLoopPeriod / 1000.0;
+	}
+	
+	/**
+	 * @return Longest milliseconds between the start of two loops
+	 */
+	public double getMaxLoopPeriod()
+	{
+		return maxLoopPeriod / 1000.0;
+	}
+	
+	/**
+	 * @return Number of loops dropped by the catch up policy
+	 */
+	public long getMissedLoops()
+	{
+		return missedLoops;
+	}
+	
+	/**
+	 * Adds the loop timing channels. The timing is then published after every loop.
+	 * Call this once before the Telemetry is started.
+	 * @param telemetryIn Telemetry to publish the loop timing through
+	 */
+	public void setLoopTelemetry(Telemetry telemetryIn)
+	{
+		telemetry = telemetryIn;
+		channelJitter = telemetry.addNumber("Robot Loop Jitter");
+		channelMaxJitter = telemetry.addNumber("Robot Loop Max Jitter");
+		channelAverageJitter = telemetry.addNumber("Robot Loop Average Jitter");
+		channelMinPeriod = telemetry.addNumber("Robot Loop Min Period");
+		channelMaxPeriod = telemetry.addNumber("Robot Loop Max Period");
+		channelMissed = telemetry.addNumber("Robot Loop Missed");
+	}
+	
+	private void publishLoopTiming()
+	{
+		if(telemetry == null)
+		{
+			return;
+		}
+		
+		telemetry.putNumber(channelJitter, getLastJitter());
+		telemetry.putNumber(channelMaxJitter, getMaxJitter());
+		telemetry.putNumber(channelAverageJitter, getAverageJitter());
+		telemetry.putNumber(channelMinPeriod, getMinLoopPeriod());
+		telemetry.putNumber(channelMaxPeriod, getMaxLoopPeriod());
+		telemetry.putNumber(channelMissed, missedLoops);
+	}
+}
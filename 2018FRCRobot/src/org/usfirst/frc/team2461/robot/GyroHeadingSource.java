@@ -0,0 +1,35 @@
+package org.usfirst.frc.team2461.robot;
+
+import edu.wpi.first.wpilibj.interfaces.Gyro;
+
+/**
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * 
+ * HeadingSource that reads the robot heading from a gyro.
+ *
+ */
+public class GyroHeadingSource implements HeadingSource
+{
+	private Gyro gyro;
+	
+	/**
+	 * Creates a HeadingSource that reads from a gyro
+	 * @param gyroIn Gyro mounted flat on the robot
+	 */
+	public GyroHeadingSource(Gyro gyroIn)
+	{
+		gyro = gyroIn;
+	}
+	
+	@Override
+	public double getHeading()
+	{
+		return gyro.getAngle();
+	}
+	
+	@Override
+	public void reset()
+	{
+		gyro.reset();
+	}
+}
@@ -0,0 +1,22 @@
+package org.usfirst.frc.team2461.robot;
+
+/**
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * 
+ * Something that can tell which way the robot is facing on the field. Used by
+ * SwerveDrive for field-oriented driving.
+ *
+ */
+public interface HeadingSource
+{
+	/**
+	 * Gets which way the robot is facing
+	 * @return Heading in degrees. Positive is clockwise and the value is not limited to 0 to 359.99
+	 */
+	public double getHeading();
+	
+	/**
+	 * Makes the direction the robot is currently facing the new zero heading
+	 */
+	public void reset();
+}
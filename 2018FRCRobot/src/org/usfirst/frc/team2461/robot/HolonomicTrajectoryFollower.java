@@ -0,0 +1,207 @@
+package org.usfirst.frc.team2461.robot;
+
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * <h1> Holonomic Trajectory Follower Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Drives the SwerveDrive along a Trajectory. Every loop it looks up where the trajectory
+ * wants the robot to be, drives at the speed the trajectory wants there, and adds a
+ * correction towards that spot from how far the odometry says the robot is off. A swerve
+ * drive can move and turn in any direction at once, so the position and the heading get
+ * corrected on their own.
+ * </p>
+ * <p>
+ * The robot never stops to steer the wheels around between parts of a path, it just
+ * keeps following the speeds the trajectory asks for. Call run() once every loop after
+ * SwerveDrive.updateOdometry(). Nothing is allocated after the constructor.
+ * </p>
+ */
+public class HolonomicTrajectoryFollower
+{
+	private SwerveDrive chassis;
+	private Trajectory trajectory;
+	private double startTime = 0;
+	private boolean finished = true;
+
+	/**
+	 * Inches per second of correction for every inch the robot is off the trajectory, and
+	 * degrees per second for every degree it is turned off of it
+	 */
+	private double kPosition = 3;
+	private double kHeading = 4;
+
+	/**
+	 * How close the robot has to be to the end of the trajectory to be finished, and how
+	 * long after the trajectory ends it may take to get there before giving up
+	 */
+	private double positionTolerance = 2;
+	private double headingTolerance = 3;
+	private double settleTime = 1;
+
+	/**
+	 * Seconds ahead on the trajectory the speed is taken from. The wheels take about this
+	 * long to get up to a new speed, so asking for the speed a little early keeps the
+	 * robot from falling behind while it speeds up and overshooting while it slows down.
+	 */
+	private double velocityLead = 0.15;
+
+	private TrajectoryState target = new TrajectoryState();
+	private TrajectoryState lead = new TrajectoryState();
+	private double positionError = 0;
+	private double headingError = 0;
+
+	/**
+	 * Creates a HolonomicTrajectoryFollower that is not following anything yet
+	 * @param chassisIn SwerveDrive to drive. Its pose has to be reset to where the trajectories start
+	 */
+	public HolonomicTrajectoryFollower(SwerveDrive chassisIn)
+	{
+		chassis = chassisIn;
+	}
+
+	/**
+	 * Starts following a trajectory from its beginning right now. Any distance move the
+	 * drive PID loops were doing is stopped and the SwerveDriveAutoCommands still waiting
+	 * to run are thrown away, so they cannot fight the trajectory.
+	 * @param trajectoryIn Trajectory to follow
+	 */
+	public void start(Trajectory trajectoryIn)
+	{
+		chassis.clearAutoCommands();
+		chassis.reset();
+		trajectory = trajectoryIn;
+		startTime = Timer.getFPGATimestamp();
+		finished = false;
+		positionError = 0;
+		headingError = 0;
+	}
+
+	/**
+	 * Drives the robot one loop along the trajectory. Once the robot is at the end, or the
+	 * settle time has run out, the wheels are stopped and isFinished() turns true.
+	 */
+	public void run()
+	{
+		if(finished || trajectory == null)
+		{
+			return;
+		}
+
+		double time = Timer.getFPGATimestamp() - startTime;
+		trajectory.sample(time, target);
+		RobotPose pose = chassis.getPose();
+
+		double errorX = target.getX() - pose.getX();
+		double errorY = target.getY() - pose.getY();
+		positionError = Math.hypot(errorX, errorY);
+		headingError = target.getHeading() - pose.getHeading();
+
+		if(time >= trajectory.getTotalTime())
+		{
+			boolean atEnd = positionError <= positionTolerance && Math.abs(headingError) <= headingTolerance;
+			if(atEnd || time >= trajectory.getTotalTime() + settleTime)
+			{
+				stop();
+				return;
+			}
+		}
+
+		trajectory.sample(time + velocityLead, lead);
+		double velocityX = lead.getVelocityX() + kPosition * errorX;
+		double velocityY = lead.getVelocityY() + kPosition * errorY;
+		double clockwise = lead.getHeadingRate() + kHeading * headingError;
+
+		// Turn the field velocity into robot directions
+		double heading = Math.toRadians(pose.getHeading());
+		double cos = Math.cos(heading);
+		double sin = Math.sin(heading);
+		double forward = velocityX * cos - velocityY * sin;
+		double left = velocityX * sin + velocityY * cos;
+
+		chassis.driveVelocity(forward, left, clockwise);
+	}
+
+	/**
+	 * Stops following the trajectory and stops the wheels where they point
+	 */
+	public void stop()
+	{
+		finished = true;
+		chassis.driveVelocity(0, 0, 0);
+	}
+
+	/**
+	 * @return True once the robot reached the end of the trajectory, gave up trying, or was stopped
+	 */
+	public boolean isFinished()
+	{
+		return finished;
+	}
+
+	/**
+	 * @return Seconds since the trajectory was started
+	 */
+	public double getTime()
+	{
+		return Timer.getFPGATimestamp() - startTime;
+	}
+
+	/**
+	 * @return Trajectory being followed, or null before start() is called
+	 */
+	public Trajectory getTrajectory()
+	{
+		return trajectory;
+	}
+
+	/**
+	 * @return Inches the robot was off the trajectory the last time run() was called
+	 */
+	public double getPositionError()
+	{
+		return positionError;
+	}
+
+	/**
+	 * @return Degrees the robot was turned off the trajectory the last time run() was called
+	 */
+	public double getHeadingError()
+	{
+		return headingError;
+	}
+
+	/**
+	 * Sets how hard the follower corrects the robot back onto the trajectory
+	 * @param kPositionIn Inches per second for every inch off
+	 * @param kHeadingIn Degrees per second for every degree off
+	 */
+	public void setGains(double kPositionIn, double kHeadingIn)
+	{
+		kPosition = kPositionIn;
+		kHeading = kHeadingIn;
+	}
+
+	/**
+	 * Sets how far ahead on the trajectory the speed is taken from
+	 * @param velocityLeadIn Seconds, about how long the wheels take to get up to speed
+	 */
+	public void setVelocityLead(double velocityLeadIn)
+	{
+		velocityLead = velocityLeadIn;
+	}
+
+	/**
+	 * Sets how close to the end of the trajectory counts as finished
+	 * @param positionToleranceIn Inches
+	 * @param headingToleranceIn Degrees
+	 * @param settleTimeIn Seconds after the end of the trajectory to keep trying before giving up
+	 */
+	public void setTolerance(double positionToleranceIn, double headingToleranceIn, double settleTimeIn)
+	{
+		positionTolerance = positionToleranceIn;
+		headingTolerance = headingToleranceIn;
+		settleTime = settleTimeIn;
+	}
+}
@@ -0,0 +1,17 @@
+package org.usfirst.frc.team2461.robot;
+
+/**
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * 
+ * A switch that can be read. On the robot pass in a DigitalInput with
+ * <b>digitalInput::get</b>.
+ *
+ */
+@FunctionalInterface
+public interface LimitSwitch
+{
+	/**
+	 * @return Value of the switch the same way DigitalInput.get() reports it
+	 */
+	public boolean get();
+}
@@ -0,0 +1,430 @@
+package org.usfirst.frc.team2461.robot;
+
+import java.util.Arrays;
+
+import org.usfirst.frc.team2461.robot.telemetry.FlightRecorder;
+import org.usfirst.frc.team2461.robot.telemetry.Telemetry;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * <h1> Loop Profiler Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Times every stage of the robot loop with the FPGA clock. Robot calls startLoop() at
+ * the top of the loop, endStage() after each subsystem and endLoop() at the bottom.
+ * The last WINDOW_SECONDS of times of each stage are kept in arrays, and the median,
+ * 99th percentile and maximum are worked out from them every STATS_SECONDS. Both are
+ * turned into a number of loops from the budget, so they stay the same if the loop
+ * period changes.
+ * </p>
+ * <p>
+ * When a loop takes longer than the budget, the stage that took the longest in that
+ * loop is blamed for it. Overruns are counted per stage, logged to the flight recorder
+ * and reported to the Driver Station at most once every WARNING_INTERVAL.
+ * </p>
+ */
+public class LoopProfiler
+{
+	/**
+	 * Stage number of the whole loop, from startLoop() to endLoop()
+	 */
+	public static final int LOOP = 0;
+	
+	/**
+	 * Most stages a profiler can have, counting LOOP
+	 */
+	public static final int MAX_STAGES = 16;
+	
+	/**
+	 * Seconds of loop times kept for each stage
+	 */
+	public static final double WINDOW_SECONDS = 5;
+	
+	/**
+	 * Seconds between working out the percentiles again
+	 */
+	public static final double STATS_SECONDS = 1;
+	
+	/**
+	 * Shortest time between two overrun warnings in microseconds
+	 */
+	private static final long WARNING_INTERVAL = 5000000;
+	
+	private long budget;
+	private int window;
+	private int statsInterval;
+	private String[] stageNames = new String[MAX_STAGES];
+	private int stageCount = 0;
+	
+	/**
+	 * Times of each stage in microseconds. Each stage has its own ring, because not
+	 * every stage runs every loop.
+	 */
+	private int[][] samples;
+	private int[] sampleNext = new int[MAX_STAGES];
+	private int[] sampleCount = new int[MAX_STAGES];
+	private int[] scratch;
+	
+	/**
+	 * Time of each stage in the loop being timed, or -1 if it has not run
+	 */
+	private int[] loopTimes = new int[MAX_STAGES];
+	
+	/**
+	 * Time of each stage in the last finished loop, or -1 if it did not run
+	 */
+	private int[] lastTimes = new int[MAX_STAGES];
+	
+	private int[] median = new int[MAX_STAGES];
+	private int[] percentile99 = new int[MAX_STAGES];
+	private int[] max = new int[MAX_STAGES];
+	
+	private long loopStart = 0;
+	private long stageStart = 0;
+	private boolean inLoop = false;
+	private long loops = 0;
+	
+	private long[] overruns = new long[MAX_STAGES];
+	private int lastOverrunStage = -1;
+	private int overrunStage = -1;
+	private long lastWarning = -WARNING_INTERVAL;
+	
+	/**
+	 * Telemetry channels of each stage
+	 */
+	private Telemetry telemetry;
+	private int[] channelMedian = new int[MAX_STAGES];
+	private int[] channel99 = new int[MAX_STAGES];
+	private int[] channelMax = new int[MAX_STAGES];
+	private int[] channelOverruns = new int[MAX_STAGES];
+	
+	/**
+	 * Flight recorder fields
+	 */
+	private FlightRecorder recorder;
+	private int[] fieldTime = new int[MAX_STAGES];
+	private int fieldOverrunStage;
+	
+	/**
+	 * Creates a LoopProfiler
+	 * @param budgetSeconds How long a loop may take in seconds, normally the robot period
+	 */
+	public LoopProfiler(double budgetSeconds)
+	{
+		budget = (long) (budgetSeconds * 1e6);
+		window = Math.max(1, (int) Math.round(WINDOW_SECONDS / budgetSeconds));
+		statsInterval = Math.max(1, (int) Math.round(STATS_SECONDS / budgetSeconds));
+		samples = new int[MAX_STAGES][window];
+		scratch = new int[window];
+		stageNames[LOOP] = "Loop";
+		stageCount = 1;
+		
+		for(int i = 0; i < MAX_STAGES; i++)
+		{
+			loopTimes[i] = -1;
+			lastTimes[i] = -1;
+		}
+	}
+	
+	/**
+	 * Adds a stage to time. Add every stage before setTelemetry() and setFlightRecorder().
+	 * @param name Name of the stage, for example "Drive"
+	 * @return Stage number to give to endStage()
+	 */
+	public int addStage(String name)
+	{
+		if(stageCount == MAX_STAGES)
+		{
+			throw new IllegalStateException("LoopProfiler can only time " + (MAX_STAGES - 1) + " stages");
+		}
+		
+		stageNames[stageCount] = name;
+		return stageCount++;
+	}
+	
+	/**
+	 * Starts timing a loop. Call at the top of every mode's periodic method.
+	 */
+	public void startLoop()
+	{
+		loopStart = RobotController.getFPGATime();
+		stageStart = loopStart;
+		inLoop = true;
+	}
+	
+	/**
+	 * Ends a stage, which started when the last stage ended or the loop started
+	 * @param stage Stage number from addStage()
+	 */
+	public void endStage(int stage)
+	{
+		if(!inLoop)
+		{
+			return;
+		}
+		
+		long now = RobotController.getFPGATime();
+		int time = (int) (now - stageStart);
+		loopTimes[stage] = loopTimes[stage] < 0 ? time : loopTimes[stage] + time;
+		stageStart = now;
+	}
+	
+	/**
+	 * Ends the loop, stores the time of every stage that ran and checks the loop
+	 * against the budget. Call at the bottom of robotPeriodic().
+	 */
+	public void endLoop()
+	{
+		if(!inLoop)
+		{
+			return;
+		}
+		inLoop = false;
+		
+		long now = RobotController.getFPGATime();
+		loopTimes[LOOP] = (int) (now - loopStart);
+		
+		overrunStage = -1;
+		if(loopTimes[LOOP] > budget)
+		{
+			overrunStage = findSlowestStage();
+			overruns[LOOP]++;
+			if(overrunStage > 0)
+			{
+				overruns[overrunStage]++;
+			}
+			lastOverrunStage = overrunStage;
+			
+			if(now - lastWarning >= WARNING_INTERVAL)
+			{
+				lastWarning = now;
+				DriverStation.reportWarning(describeLoop(), false);
+			}
+		}
+		
+		for(int i = 0; i < stageCount; i++)
+		{
+			lastTimes[i] = loopTimes[i];
+			if(loopTimes[i] >= 0)
+			{
+				samples[i][sampleNext[i]] = loopTimes[i];
+				sampleNext[i] = (sampleNext[i] + 1) % window;
+				if(sampleCount[i] < window)
+				{
+					sampleCount[i]++;
+				}
+			}
+			loopTimes[i] = -1;
+		}
+		
+		loops++;
+		if(loops % statsInterval == 0)
+		{
+			updateStats();
+		}
+	}
+	
+	/**
+	 * @return Stage that took the longest in the loop being timed, or -1 if no stage ran
+	 */
+	private int findSlowestStage()
+	{
+		int slowest = -1;
+		for(int i = 1; i < stageCount; i++)
+		{
+			if(loopTimes[i] >= 0 && (slowest < 0 || loopTimes[i] > loopTimes[slowest]))
+			{
+				slowest = i;
+			}
+		}
+		
+		return slowest;
+	}
+	
+	private String describeLoop()
+	{
+		StringBuilder text = new StringBuilder();
+		text.append(String.format("Loop overrun: %.1f ms, budget %.1f ms.", loopTimes[LOOP] / 1000.0, budget / 1000.0));
+		for(int i = 1; i < stageCount; i++)
+		{
+			if(loopTimes[i] >= 0)
+			{
+				text.append(String.format(" %s %.1f ms", stageNames[i], loopTimes[i] / 1000.0));
+			}
+		}
+		
+		return text.toString();
+	}
+	
+	/**
+	 * Works out the percentiles of every stage from its last window of times
+	 */
+	private void updateStats()
+	{
+		for(int i = 0; i < stageCount; i++)
+		{
+			int count = sampleCount[i];
+			if(count == 0)
+			{
+				continue;
+			}
+			
+			System.arraycopy(samples[i], 0, scratch, 0, count);
+			Arrays.sort(scratch, 0, count);
+			median[i] = scratch[rank(0.5, count)];
+			percentile99[i] = scratch[rank(0.99, count)];
+			max[i] = scratch[count - 1];
+		}
+	}
+	
+	/**
+	 * @return Index of a percentile in count sorted values, by the nearest rank
+	 */
+	private static int rank(double percentile, int count)
+	{
+		return Math.max(0, (int) Math.ceil(percentile * count) - 1);
+	}
+	
+	/**
+	 * @return Number of times kept for each stage, WINDOW_SECONDS worth of loops
+	 */
+	public int getWindow()
+	{
+		return window;
+	}
+	
+	public int getStageCount()
+	{
+		return stageCount;
+	}
+	
+	public String getStageName(int stage)
+	{
+		return stageNames[stage];
+	}
+	
+	/**
+	 * @param stage Stage number, or LOOP
+	 * @return Median time of the stage in milliseconds over the last WINDOW_SECONDS
+	 */
+	public double getMedian(int stage)
+	{
+		return median[stage] / 1000.0;
+	}
+	
+	/**
+	 * @param stage Stage number, or LOOP
+	 * @return 99th percentile time of the stage in milliseconds over the last WINDOW_SECONDS
+	 */
+	public double get99thPercentile(int stage)
+	{
+		return percentile99[stage] / 1000.0;
+	}
+	
+	/**
+	 * @param stage Stage number, or LOOP
+	 * @return Longest time of the stage in milliseconds over the last WINDOW_SECONDS
+	 */
+	public double getMax(int stage)
+	{
+		return max[stage] / 1000.0;
+	}
+	
+	/**
+	 * @param stage Stage number, or LOOP
+	 * @return Time the stage took in the last finished loop in milliseconds, or 0 if it did not run
+	 */
+	public double getLastTime(int stage)
+	{
+		return Math.max(0, lastTimes[stage]) / 1000.0;
+	}
+	
+	/**
+	 * @param stage Stage number, or LOOP for every overrun
+	 * @return Number of loops over budget that the stage was blamed for
+	 */
+	public long getOverruns(int stage)
+	{
+		return overruns[stage];
+	}
+	
+	/**
+	 * @return Stage blamed for the last loop over budget, or -1 if there has not been one
+	 */
+	public int getLastOverrunStage()
+	{
+		return lastOverrunStage;
+	}
+	
+	/**
+	 * Adds a median, 99th percentile, max and overrun channel for every stage. Call this
+	 * once after the stages are added and before the Telemetry is started.
+	 * @param telemetryIn Telemetry to publish the loop times through
+	 */
+	public void setTelemetry(Telemetry telemetryIn)
+	{
+		telemetry = telemetryIn;
+		for(int i = 0; i < stageCount; i++)
+		{
+			channelMedian[i] = telemetry.addNumber(stageNames[i] + " Time p50");
+			channel99[i] = telemetry.addNumber(stageNames[i] + " Time p99");
+			channelMax[i] = telemetry.addNumber(stageNames[i] + " Time Max");
+			channelOverruns[i] = telemetry.addNumber(stageNames[i] + " Overruns");
+		}
+	}
+	
+	/**
+	 * Publishes the loop times. Does nothing until setTelemetry() has been called.
+	 */
+	public void debug()
+	{
+		if(telemetry == null)
+		{
+			return;
+		}
+		
+		for(int i = 0; i < stageCount; i++)
+		{
+			telemetry.putNumber(channelMedian[i], getMedian(i));
+			telemetry.putNumber(channel99[i], get99thPercentile(i));
+			telemetry.putNumber(channelMax[i], getMax(i));
+			telemetry.putNumber(channelOverruns[i], overruns[i]);
+		}
+	}
+	
+	/**
+	 * Adds a time field for every stage and a "Loop Overrun Stage" field to the flight
+	 * recorder. Call this once after the stages are added and before the recorder is started.
+	 * @param recorderIn FlightRecorder to log the loop times to
+	 */
+	public void setFlightRecorder(FlightRecorder recorderIn)
+	{
+		recorder = recorderIn;
+		for(int i = 0; i < stageCount; i++)
+		{
+			fieldTime[i] = recorder.addField(stageNames[i] + " Time");
+		}
+		fieldOverrunStage = recorder.addField("Loop Overrun Stage");
+	}
+	
+	/**
+	 * Fills in the times of the last finished loop in milliseconds. The overrun stage is
+	 * the stage number blamed for that loop, or -1 if it was on time. Does nothing until
+	 * setFlightRecorder() has been called.
+	 */
+	public void recordFlightData()
+	{
+		if(recorder == null)
+		{
+			return;
+		}
+		
+		for(int i = 0; i < stageCount; i++)
+		{
+			recorder.set(fieldTime[i], getLastTime(i));
+		}
+		recorder.set(fieldOverrunStage, overrunStage);
+	}
+}
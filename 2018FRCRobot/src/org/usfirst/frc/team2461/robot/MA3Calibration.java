@@ -0,0 +1,173 @@
+package org.usfirst.frc.team2461.robot;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * <h1> MA3 Calibration Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Lowest and highest analog reading of one MA3 encoder and the angle it reads when
+ * the wheel points straight forward. Every MA3 reaches a slightly different voltage
+ * at each end of its turn, and each one is mounted at its own angle.
+ * </p>
+ * <p>
+ * The calibrations of all the wheels are kept in one properties file on the RoboRIO,
+ * one line each for "&lt;wheel&gt;.min", "&lt;wheel&gt;.max" and "&lt;wheel&gt;.offset".
+ * A wheel missing from the file uses DEFAULT.
+ * </p>
+ */
+public class MA3Calibration
+{
+	/**
+	 * Readings the code used before there was a calibration file
+	 */
+	public static final MA3Calibration DEFAULT = new MA3Calibration(6, 4037, 0);
+	
+	/**
+	 * Part of the range at each end where the reading is about to wrap around
+	 */
+	private static final double WRAP_MARGIN = 0.02;
+	
+	private final double min;
+	private final double max;
+	private final double offset;
+	
+	/**
+	 * Creates an MA3Calibration
+	 * @param minIn Analog reading at 0 degrees, from 0 to 4095
+	 * @param maxIn Analog reading just before the encoder wraps back to 0, from 0 to 4095
+	 * @param offsetIn Degrees the encoder reads when the wheel points forward
+	 */
+	public MA3Calibration(double minIn, double maxIn, double offsetIn)
+	{
+		if(maxIn <= minIn)
+		{
+			throw new IllegalArgumentException("MA3 calibration max " + maxIn + " is not above min " + minIn);
+		}
+		
+		min = minIn;
+		max = maxIn;
+		offset = offsetIn;
+	}
+	
+	/**
+	 * Converts an analog reading to the direction the wheel is pointing
+	 * @param analogValue Analog reading from 0 to 4095, may have a fraction from averaging
+	 * @return Degrees from 0 to 359.99, with 0 being forward
+	 */
+	public double toDegrees(double analogValue)
+	{
+		double angle = (analogValue - min) / (max - min) * 360 - offset;
+		return angle - 360 * Math.floor(angle / 360);
+	}
+	
+	/**
+	 * @param analogValue Analog reading from 0 to 4095
+	 * @return True if the reading is so close to either end that averaging it with
+	 * readings from just before could mix both ends of the turn
+	 */
+	public boolean isNearWrap(double analogValue)
+	{
+		double margin = (max - min) * WRAP_MARGIN;
+		return analogValue < min + margin || analogValue > max - margin;
+	}
+	
+	public double getMin()
+	{
+		return min;
+	}
+	
+	public double getMax()
+	{
+		return max;
+	}
+	
+	public double getOffset()
+	{
+		return offset;
+	}
+	
+	/**
+	 * Reads the calibration of one wheel from the calibration table
+	 * @param table Table from loadTable()
+	 * @param wheel Name of the wheel, for example "FLWheel"
+	 * @return Calibration of the wheel, or DEFAULT if the table does not have a good one
+	 */
+	public static MA3Calibration fromTable(Properties table, String wheel)
+	{
+		try {
+			return new MA3Calibration(
+					Double.parseDouble(table.getProperty(wheel + ".min", Double.toString(DEFAULT.min))),
+					Double.parseDouble(table.getProperty(wheel + ".max", Double.toString(DEFAULT.max))),
+					Double.parseDouble(table.getProperty(wheel + ".offset", Double.toString(DEFAULT.offset))));
+		} catch(IllegalArgumentException e) {
+			DriverStation.reportError("Bad MA3 calibration for " + wheel + ", using the default: " + e.getMessage(), false);
+			return DEFAULT;
+		}
+	}
+	
+	/**
+	 * Writes the calibration of one wheel into the calibration table
+	 * @param table Table to write into
+	 * @param wheel Name of the wheel, for example "FLWheel"
+	 */
+	public void toTable(Properties table, String wheel)
+	{
+		table.setProperty(wheel + ".min", Double.toString(min));
+		table.setProperty(wheel + ".max", Double.toString(max));
+		table.setProperty(wheel + ".offset", Double.toString(offset));
+	}
+	
+	/**
+	 * Loads the calibration table
+	 * @param file Properties file of the table
+	 * @return The table, empty if the file does not exist or cannot be read
+	 */
+	public static Properties loadTable(File file)
+	{
+		Properties table = new Properties();
+		if(!file.exists())
+		{
+			return table;
+		}
+		
+		try(InputStream in = new FileInputStream(file)) {
+			table.load(in);
+		} catch(IOException e) {
+			DriverStation.reportError("Could not read MA3 calibration " + file + ": " + e.getMessage(), false);
+		}
+		
+		return table;
+	}
+	
+	/**
+	 * Saves the calibration table
+	 * @param table Table to save
+	 * @param file Properties file to write it to
+	 * @return True if the table was saved
+	 */
+	public static boolean saveTable(Properties table, File file)
+	{
+		try(OutputStream out = new FileOutputStream(file)) {
+			table.store(out, "MA3 encoder calibration: analog min/max readings and forward offset in degrees");
+			return true;
+		} catch(IOException e) {
+			DriverStation.reportError("Could not write MA3 calibration " + file + ": " + e.getMessage(), false);
+			return false;
+		}
+	}
+	
+	@Override
+	public String toString()
+	{
+		return String.format("min %.1f max %.1f offset %.2f", min, max, offset);
+	}
+}
@@ -0,0 +1,241 @@
+package org.usfirst.frc.team2461.robot;
+
+import java.io.File;
+import java.util.Properties;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+
+/**
+ * <h1> MA3 Calibration Routine Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Test mode routine that works out the MA3Calibration of every wheel. Point all the
+ * wheels straight forward and put the robot on blocks before enabling it. Each turn
+ * motor is then run slowly at SWEEP_POWER until its encoder has wrapped around
+ * SWEEP_WRAPS times, while the lowest and highest raw readings are kept. The
+ * reading taken before the sweep becomes the forward offset.
+ * </p>
+ * <p>
+ * The readings are only taken once a loop, so the ends are found to within how far
+ * the wheel turns in one loop. Sweeping slowly and more than once keeps that small.
+ * Wheels that do not finish are left with their old calibration. The new calibrations
+ * are used right away and saved to the calibration file, then every wheel is turned
+ * back to forward with its Turn PID Loop so they can be checked by eye.
+ * </p>
+ */
+public class MA3CalibrationRoutine
+{
+	/**
+	 * Turn motor power during the sweep
+	 */
+	public static final double SWEEP_POWER = 0.15;
+	
+	/**
+	 * Times the encoder has to wrap from one end to the other before the sweep is done
+	 */
+	public static final int SWEEP_WRAPS = 3;
+	
+	/**
+	 * Seconds before a wheel that has not wrapped SWEEP_WRAPS times is given up on
+	 */
+	public static final double SWEEP_TIMEOUT = 15;
+	
+	/**
+	 * Seconds the wheels get to turn back to forward after the sweep
+	 */
+	private static final double RETURN_TIME = 2;
+	
+	/**
+	 * Smallest difference between the ends that looks like a working MA3
+	 */
+	private static final double MIN_RANGE = 3000;
+	
+	private enum State {
+		BEGIN, SWEEP, RETURN, END
+	}
+	
+	private State state = State.BEGIN;
+	
+	private SwerveMotor[] motors;
+	private MA3Encoder[] encoders;
+	private File file;
+	
+	private double[] forwardReading;
+	private int[] min;
+	private int[] max;
+	private int[] last;
+	private int[] wraps;
+	private boolean[] sweeping;
+	private double timeEnd;
+	
+	/**
+	 * Creates an MA3CalibrationRoutine
+	 * @param motorsIn Wheels in the same order as SwerveDrive
+	 * @param encodersIn Turn encoder of each wheel
+	 * @param fileIn Calibration file to save the results to
+	 */
+	public MA3CalibrationRoutine(SwerveMotor[] motorsIn, MA3Encoder[] encodersIn, File fileIn)
+	{
+		motors = motorsIn;
+		encoders = encodersIn;
+		file = fileIn;
+		
+		forwardReading = new double[motors.length];
+		min = new int[motors.length];
+		max = new int[motors.length];
+		last = new int[motors.length];
+		wraps = new int[motors.length];
+		sweeping = new boolean[motors.length];
+	}
+	
+	/**
+	 * Run this to set up the calibration. Run this once BEFORE EVER calling run()
+	 */
+	public void init()
+	{
+		state = State.BEGIN;
+	}
+	
+	/**
+	 * Runs the calibration. Call this every loop in test mode.
+	 * @return Returns whether the calibration is finished. True means it is done.
+	 */
+	public boolean run()
+	{
+		switch(state) {
+			case BEGIN:
+				begin();
+				return false;
+			case SWEEP:
+				sweep();
+				return false;
+			case RETURN:
+				if(Robot.timer.get() > timeEnd) {
+					state = State.END;
+				}
+				return false;
+			case END:
+				return true;
+			default:
+				return false;
+		}
+	}
+	
+	/**
+	 * Takes the forward reading of every wheel and starts turning them
+	 */
+	private void begin()
+	{
+		for(int i = 0; i < motors.length; i++)
+		{
+			forwardReading[i] = encoders[i].getAveragedRead();
+			last[i] = encoders[i].getAnalogRead();
+			min[i] = last[i];
+			max[i] = last[i];
+			wraps[i] = 0;
+			sweeping[i] = true;
+			motors[i].setTurnPower(SWEEP_POWER);
+		}
+		
+		timeEnd = Robot.timer.get() + SWEEP_TIMEOUT;
+		state = State.SWEEP;
+	}
+	
+	/**
+	 * Keeps the lowest and highest reading of every wheel and counts the wraps. A jump of
+	 * more than half the range between two loops is the encoder going past its ends.
+	 */
+	private void sweep()
+	{
+		boolean anySweeping = false;
+		for(int i = 0; i < motors.length; i++)
+		{
+			if(!sweeping[i])
+			{
+				continue;
+			}
+			
+			int reading = encoders[i].getAnalogRead();
+			min[i] = Math.min(min[i], reading);
+			max[i] = Math.max(max[i], reading);
+			if(Math.abs(reading - last[i]) > 2048)
+			{
+				wraps[i]++;
+			}
+			last[i] = reading;
+			
+			if(wraps[i] >= SWEEP_WRAPS)
+			{
+				sweeping[i] = false;
+				motors[i].setTurnPower(0);
+			} else {
+				anySweeping = true;
+			}
+		}
+		
+		if(!anySweeping || Robot.timer.get() > timeEnd)
+		{
+			finish();
+		}
+	}
+	
+	/**
+	 * Works out and saves the calibration of every wheel that finished its sweep, then
+	 * turns all the wheels back to forward
+	 */
+	private void finish()
+	{
+		Properties table = MA3Calibration.loadTable(file);
+		boolean changed = false;
+		
+		for(int i = 0; i < motors.length; i++)
+		{
+			String wheel = SwerveDrive.getWheelName(i);
+			String result;
+			
+			if(wraps[i] < SWEEP_WRAPS) {
+				result = "did not finish, wrapped " + wraps[i] + " times";
+			} else if(max[i] - min[i] < MIN_RANGE) {
+				result = "range " + min[i] + " to " + max[i] + " is too small";
+			} else {
+				MA3Calibration ends = new MA3Calibration(min[i], max[i], 0);
+				MA3Calibration calibration = new MA3Calibration(min[i], max[i], ends.toDegrees(forwardReading[i]));
+				encoders[i].setCalibration(calibration);
+				calibration.toTable(table, wheel);
+				changed = true;
+				result = calibration.toString();
+			}
+			
+			SmartDashboard.putString(wheel + " MA3 Calibration", result);
+			DriverStation.reportWarning(wheel + " MA3 calibration: " + result, false);
+			
+			motors[i].setTurnPower(0);
+			motors[i].setDirectionSetPoint(0);
+			motors[i].enableTurnPID();
+		}
+		
+		if(changed && MA3Calibration.saveTable(table, file))
+		{
+			DriverStation.reportWarning("MA3 calibration saved to " + file, false);
+		}
+		
+		timeEnd = Robot.timer.get() + RETURN_TIME;
+		state = State.RETURN;
+	}
+	
+	/**
+	 * Stops the sweep. The wheels keep whatever calibration they had.
+	 */
+	public void reset()
+	{
+		if(state == State.SWEEP)
+		{
+			for(int i = 0; i < motors.length; i++)
+			{
+				motors[i].setTurnPower(0);
+			}
+		}
+		state = State.BEGIN;
+	}
+}
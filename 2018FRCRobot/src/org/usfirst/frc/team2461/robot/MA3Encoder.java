@@ -1,8 +1,8 @@
 package org.usfirst.frc.team2461.robot;
 
 import edu.wpi.first.wpilibj.AnalogInput;
-import edu.wpi.first.wpilibj.PIDSource;
 import edu.wpi.first.wpilibj.PIDSourceType;
+import edu.wpi.first.wpilibj.RobotController;
 import edu.wpi.first.wpilibj.SensorBase;
 import edu.wpi.first.wpilibj.smartdashboard.SendableBuilder;
 
@@ -10,21 +10,69 @@ import edu.wpi.first.wpilibj.smartdashboard.SendableBuilder;
  * @author William R Edds FRC 2461 - The METAL-SKINs
  * 
  * Class to read the MA3 Analog 10-bit Absolute encoders.
+ * 
+ * The FPGA oversamples and averages the analog input, which takes the noise out of
+ * the reading and gives it a fraction of a step of resolution. Right at the point
+ * where the encoder wraps from 359.99 back to 0 the average would mix readings from
+ * both ends, so there a single reading is used instead. The reading is turned into
+ * degrees with the MA3Calibration of the wheel.
+ * 
+ * The encoder is only read by update(), which the control loop calls once every tick.
+ * Each reading is given to an AngleTracker with its FPGA time, which counts the turns
+ * and estimates the rate. getAngle(), getRate() and pidGet() return what the last
+ * update() found without reading the analog input again, so the rate filter gets one
+ * sample a tick however many times the values are asked for. With the PID source type
+ * set to kRate, pidGet() returns the rate in degrees per second.
  *
  */
-public class MA3Encoder extends SensorBase implements PIDSource
+public class MA3Encoder extends SensorBase implements AbsoluteEncoder
 {
 	private PIDSourceType m_pidSource = PIDSourceType.kDisplacement;
 	private AnalogInput data;
-	private int angleLast = 0;
+	private MA3Calibration calibration;
+	private AngleTracker tracker = new AngleTracker();
+	private volatile double angle = 0;
+	
+	/**
+	 * Bits of extra resolution the FPGA adds by oversampling, and the number of those
+	 * oversampled readings it averages (2^AVERAGE_BITS)
+	 */
+	public static final int OVERSAMPLE_BITS = 2;
+	public static final int AVERAGE_BITS = 3;
 	
 	/**
 	 * Creates MA3 Analog 10-bit Absolute Encoder
 	 * @param analogChannel Analog channel on RoboRIO to use
 	 */
 	public MA3Encoder(int analogChannel)
+	{
+		this(analogChannel, MA3Calibration.DEFAULT);
+	}
+	
+	/**
+	 * Creates MA3 Analog 10-bit Absolute Encoder
+	 * @param analogChannel Analog channel on RoboRIO to use
+	 * @param calibrationIn Readings of this encoder at the ends of its turn and its forward offset
+	 */
+	public MA3Encoder(int analogChannel, MA3Calibration calibrationIn)
 	{
 		data = new AnalogInput(analogChannel);
+		data.setOversampleBits(OVERSAMPLE_BITS);
+		data.setAverageBits(AVERAGE_BITS);
+		calibration = calibrationIn;
+	}
+	
+	/**
+	 * @param calibrationIn Readings of this encoder at the ends of its turn and its forward offset
+	 */
+	public void setCalibration(MA3Calibration calibrationIn)
+	{
+		calibration = calibrationIn;
+	}
+	
+	public MA3Calibration getCalibration()
+	{
+		return calibration;
 	}
 
 	@Override
@@ -42,6 +90,11 @@ public class MA3Encoder extends SensorBase implements PIDSource
 	@Override
 	public double pidGet()
 	{
+		if(m_pidSource == PIDSourceType.kRate)
+		{
+			return getRate();
+		}
+		
 		return getAngle();
 	}
 	
@@ -50,12 +103,7 @@ public class MA3Encoder extends SensorBase implements PIDSource
 	 */
 	public boolean getDirection()
 	{
-		if(angleLast < getAngle())
-		{
-			return true;
-		} else {
-			return false;
-		}
+		return getRate() >= 0;
 	}
 	
 	/**
@@ -67,41 +115,76 @@ public class MA3Encoder extends SensorBase implements PIDSource
 	}
 	
 	/**
-	 * @return Returns decimal value of degrees the encoder measures
+	 * @return Returns the oversampled and averaged analog value in the range 0 to 4095,
+	 * with a fraction
 	 */
+	public double getAveragedRead()
+	{
+		return data.getAverageValue() / (double) (1 << OVERSAMPLE_BITS);
+	}
+	
+	/**
+	 * Reads the analog input, turns it into degrees and gives it to the AngleTracker
+	 */
+	@Override
+	public void update()
+	{
+		double angleNew;
+		int value = getAnalogRead();
+		if(calibration.isNearWrap(value))
+		{
+			angleNew = calibration.toDegrees(value);
+		} else {
+			angleNew = calibration.toDegrees(getAveragedRead());
+		}
+		
+		tracker.update(angleNew, RobotController.getFPGATime());
+		angle = angleNew;
+	}
+	
+	/**
+	 * @return Returns decimal value of degrees the encoder measured at the last update()
+	 */
+	@Override
 	public double getAngle()
 	{
-		int value = getAnalogRead(); //get AnalogVlaue from 0 to 4095 (Resolution of AO port on RoboRIO)
-		value = map(value); //map AnalogValue to the range 0 to 1023 (resolution of actual encoder)
-		return toAngle(value); //Convert encoder analog value to degrees and return it
+		return angle;
 	}
 	
-	private int map(int x)
+	/**
+	 * @return Degrees the encoder has turned, counting every turn since it was created
+	 */
+	@Override
+	public double getContinuousAngle()
 	{
-		int in_min = 6;
-		int in_max = 4037;
-		int out_min = 0;
-		int out_max = 1023;
-		return (x - in_min) * (out_max - out_min) / (in_max - in_min) + out_min;
+		return tracker.getContinuousAngle();
 	}
 	
 	/**
-	 * @param analogValue
-	 * @return
+	 * @return Degrees per second the encoder is turning
 	 */
-	private double toAngle(double analogValue)
+	@Override
+	public double getRate()
 	{
-		double in_min = 0;
-		double in_max = 1023;
-		double out_min = 0;
-		double out_max = 359;
-		return (analogValue - in_min) * (out_max - out_min) / (in_max - in_min) + out_min;
+		return tracker.getRate();
 	}
-
+	
+	/**
+	 * Converts a reading of the analog input to degrees with the default calibration.
+	 * This is only math, so the benchmarks can call it without an AnalogInput.
+	 * @param analogValue Analog value from 0 to 4095
+	 * @return Decimal value of degrees the encoder measures
+	 */
+	public static double toDegrees(int analogValue)
+	{
+		return MA3Calibration.DEFAULT.toDegrees(analogValue);
+	}
+	
 	@Override
 	public void initSendable(SendableBuilder builder)
 	{
 		builder.setSmartDashboardType("Absolute Encoder");
 		builder.addDoubleProperty("Angle", this::getAngle, null);
+		builder.addDoubleProperty("Rate", this::getRate, null);
 	}
 }
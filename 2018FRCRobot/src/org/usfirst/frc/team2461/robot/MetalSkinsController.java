@@ -1,16 +1,30 @@
 package org.usfirst.frc.team2461.robot;
 
+import org.usfirst.frc.team2461.robot.telemetry.FlightRecorder;
+
 import edu.wpi.first.wpilibj.XboxController;
 
 /**
  * @author William R Edds FRC 2461 - The METAL-SKINs
  *
  */
-public class MetalSkinsController extends XboxController
+public class MetalSkinsController extends XboxController implements OperatorController
 {
 	private double precision = 0.15;
 	private boolean ramp = false;
 	
+	/**
+	 * Flight recorder the controller is logged to, and the field of each value
+	 */
+	private FlightRecorder recorder;
+	private int fieldLeftX;
+	private int fieldLeftY;
+	private int fieldRightX;
+	private int fieldRightY;
+	private int fieldLeftTrigger;
+	private int fieldRightTrigger;
+	private int fieldButtons;
+	
 	/**
 	 * @param port USB device on driver station
 	 * @param ramped Whether analog stick outputs should be ramped parabolically
@@ -24,44 +38,33 @@ public class MetalSkinsController extends XboxController
 	@Override
 	public double getX(Hand hand)
 	{
-		double value = -super.getX(hand);
-		
-		if(value < precision && value > -precision)
-		{
-			value = 0;
-		}
-		
-		if(ramp)
-		{
-			if(value < 0)
-			{
-				value = -(Math.pow(value, 2));
-			} else {
-				value = Math.pow(value, 2);
-			}
-		}
-		
-		return value;
+		return shape(-super.getX(hand), precision, ramp);
 	}
 	
 	@Override
 	public double getY(Hand hand)
 	{
-		double value = -super.getY(hand);
-		
-		if(value < precision && value > -precision)
+		return shape(-super.getY(hand), precision, ramp);
+	}
+	
+	/**
+	 * Applies the deadband and ramp to a stick value. Does not touch the Driver Station,
+	 * so it can be benchmarked and tested on a computer.
+	 * @param value Stick value from -1 to 1
+	 * @param deadband Values closer to 0 than this become 0
+	 * @param ramped Whether the value should be ramped parabolically
+	 * @return Shaped stick value from -1 to 1
+	 */
+	public static double shape(double value, double deadband, boolean ramped)
+	{
+		if(value < deadband && value > -deadband)
 		{
-			value = 0;
+			return 0;
 		}
 		
-		if(ramp)
+		if(ramped)
 		{
-			if(value < 0)
-			{
-				value = -(Math.pow(value, 2));
-			} else {
-				value = Math.pow(value, 2);
-			}
+			return value * Math.abs(value); // Keeps the sign of value
 		}
 		
 		return value;
@@ -103,6 +106,45 @@ public class MetalSkinsController extends XboxController
 		return precision;
 	}
 	
+	/**
+	 * Adds the controller fields to the flight recorder. Call this once before the
+	 * recorder is started and before recordFlightData() is used.
+	 * @param recorderIn FlightRecorder to log the controller to
+	 * @param name Name the fields start with, for example "Driver"
+	 */
+	public void setFlightRecorder(FlightRecorder recorderIn, String name)
+	{
+		recorder = recorderIn;
+		fieldLeftX = recorder.addField(name + " Left X");
+		fieldLeftY = recorder.addField(name + " Left Y");
+		fieldRightX = recorder.addField(name + " Right X");
+		fieldRightY = recorder.addField(name + " Right Y");
+		fieldLeftTrigger = recorder.addField(name + " Left Trigger");
+		fieldRightTrigger = recorder.addField(name + " Right Trigger");
+		fieldButtons = recorder.addField(name + " Buttons");
+	}
+	
+	/**
+	 * Fills in the controller fields of the next flight recorder record. The sticks are
+	 * logged after the deadband and ramp, the way the subsystems see them. Does nothing
+	 * until setFlightRecorder() has been called.
+	 */
+	public void recordFlightData()
+	{
+		if(recorder == null)
+		{
+			return;
+		}
+		
+		recorder.set(fieldLeftX, getX(Hand.kLeft));
+		recorder.set(fieldLeftY, getY(Hand.kLeft));
+		recorder.set(fieldRightX, getX(Hand.kRight));
+		recorder.set(fieldRightY, getY(Hand.kRight));
+		recorder.set(fieldLeftTrigger, getTriggerAxis(Hand.kLeft));
+		recorder.set(fieldRightTrigger, getTriggerAxis(Hand.kRight));
+		recorder.set(fieldButtons, getButtons());
+	}
+	
 	/**
 	 * Used to set the deadband of X and Y axes for the joy sticks. Value is range of
 	 * 0 to 1 (zero being no deadband and 1 being evenything is deadband and does nothing).
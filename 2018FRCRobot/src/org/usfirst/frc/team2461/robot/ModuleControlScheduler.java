@@ -0,0 +1,298 @@
+package org.usfirst.frc.team2461.robot;
+
+import org.usfirst.frc.team2461.robot.telemetry.FlightRecorder;
+import org.usfirst.frc.team2461.robot.telemetry.Telemetry;
+
+import edu.wpi.first.wpilibj.Notifier;
+
+/**
+ * <h1> Module Control Scheduler Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Runs the turn and drive PID loops of every SwerveMotor from one Notifier thread,
+ * one wheel after the other, every PERIOD seconds. All 8 loops see the sensors at
+ * the same moment instead of each loop waking up on its own timer.
+ * </p>
+ * <p>
+ * The main robot loop never waits on this thread. It hands over setpoints through
+ * the PIDLoop setters and reads errors back through the PIDLoop getters, which only
+ * touch volatile fields.
+ * </p>
+ * <p>
+ * The control thread only keeps the timing numbers. The main robot loop publishes them
+ * with debug() and logs them with recordFlightData(), the same as LoopProfiler.
+ * </p>
+ */
+public class ModuleControlScheduler
+{
+	/**
+	 * How often all the wheel PID loops run in seconds (200 Hz)
+	 */
+	public static final double PERIOD = SwerveMotor.CONTROL_PERIOD;
+
+	private static final long PERIOD_NANOS = (long) (PERIOD * 1e9);
+
+	private SwerveMotor[] motors;
+	private Notifier notifier;
+
+	/**
+	 * Timing of the loop in nanoseconds. Only written by the control thread.
+	 */
+	private long lastStart = 0;
+	private volatile long lastRunTime = 0;
+	private volatile long lastJitter = 0;
+	private volatile long maxRunTime = 0;
+	private volatile long totalRunTime = 0;
+	private volatile long maxJitter = 0;
+	private volatile long iterations = 0;
+	private volatile long overruns = 0;
+
+	/**
+	 * Set by resetStats() and cleared by the control thread, so the main loop
+	 * never writes the timing fields itself
+	 */
+	private volatile boolean resetRequested = false;
+
+	/**
+	 * Telemetry channels
+	 */
+	private Telemetry telemetry;
+	private int channelRunTime;
+	private int channelMaxRunTime;
+	private int channelAverageRunTime;
+	private int channelMaxJitter;
+	private int channelOverruns;
+
+	/**
+	 * Flight recorder fields
+	 */
+	private FlightRecorder recorder;
+	private int fieldRunTime;
+	private int fieldMaxRunTime;
+	private int fieldAverageRunTime;
+	private int fieldJitter;
+	private int fieldMaxJitter;
+	private int fieldOverruns;
+
+	/**
+	 * Creates a scheduler for the wheels of the drive train
+	 * @param motorsIn SwerveMotors whose PID loops should be run
+	 */
+	public ModuleControlScheduler(SwerveMotor... motorsIn)
+	{
+		motors = motorsIn;
+	}
+
+	/**
+	 * Starts running the PID loops every PERIOD seconds on the Notifier thread
+	 */
+	public void start()
+	{
+		if(notifier == null)
+		{
+			notifier = new Notifier(this::runOnce);
+		}
+
+		lastStart = 0;
+		notifier.startPeriodic(PERIOD);
+	}
+
+	/**
+	 * Stops running the PID loops. The motors keep whatever output they were last given.
+	 */
+	public void stop()
+	{
+		if(notifier != null)
+		{
+			notifier.stop();
+		}
+	}
+
+	/**
+	 * Runs the PID loops of every wheel once and records how long it took. Called by the
+	 * Notifier on the robot. The simulator calls it directly every PERIOD seconds.
+	 */
+	public void runOnce()
+	{
+		long start = System.nanoTime();
+
+		for(int i = 0; i < motors.length; i++)
+		{
+			motors[i].runControlLoop();
+		}
+
+		long runTime = System.nanoTime() - start;
+		recordIteration(start, runTime);
+	}
+
+	private void recordIteration(long start, long runTime)
+	{
+		if(resetRequested)
+		{
+			maxRunTime = 0;
+			totalRunTime = 0;
+			maxJitter = 0;
+			lastJitter = 0;
+			iterations = 0;
+			overruns = 0;
+			lastStart = 0;
+			resetRequested = false;
+		}
+
+		if(lastStart != 0)
+		{
+			long jitter = Math.abs(start - lastStart - PERIOD_NANOS);
+			lastJitter = jitter;
+			if(jitter > maxJitter)
+			{
+				maxJitter = jitter;
+			}
+		}
+		lastStart = start;
+
+		lastRunTime = runTime;
+		if(runTime > maxRunTime)
+		{
+			maxRunTime = runTime;
+		}
+		if(runTime > PERIOD_NANOS)
+		{
+			overruns = overruns + 1;
+		}
+		totalRunTime = totalRunTime + runTime;
+		iterations = iterations + 1;
+	}
+
+	/**
+	 * Clears the timing statistics. They are cleared the next time the loop runs.
+	 */
+	public void resetStats()
+	{
+		resetRequested = true;
+	}
+
+	/**
+	 * @return Milliseconds the last run of all the PID loops took
+	 */
+	public double getLastRunTime()
+	{
+		return lastRunTime / 1e6;
+	}
+
+	/**
+	 * @return Milliseconds the longest run of all the PID loops took
+	 */
+	public double getMaxRunTime()
+	{
+		return maxRunTime / 1e6;
+	}
+
+	/**
+	 * @return Average milliseconds a run of all the PID loops takes
+	 */
+	public double getAverageRunTime()
+	{
+		long count = iterations;
+		return count == 0 ? 0 : totalRunTime / 1e6 / count;
+	}
+
+	/**
+	 * @return Difference in milliseconds between PERIOD and the time between the last two runs
+	 */
+	public double getLastJitter()
+	{
+		return lastJitter / 1e6;
+	}
+
+	/**
+	 * @return Largest difference in milliseconds between PERIOD and the time between two runs
+	 */
+	public double getMaxJitter()
+	{
+		return maxJitter / 1e6;
+	}
+
+	/**
+	 * @return Number of times the PID loops have run since the stats were reset
+	 */
+	public long getIterations()
+	{
+		return iterations;
+	}
+
+	/**
+	 * @return Number of runs that took longer than PERIOD
+	 */
+	public long getOverruns()
+	{
+		return overruns;
+	}
+
+	/**
+	 * Adds the telemetry channels of the control loop timing. Call this once before the
+	 * telemetry is started.
+	 * @param telemetryIn Telemetry to publish the timing through
+	 */
+	public void setTelemetry(Telemetry telemetryIn)
+	{
+		telemetry = telemetryIn;
+		channelRunTime = telemetry.addNumber("Module Control Run Time");
+		channelMaxRunTime = telemetry.addNumber("Module Control Max Run Time");
+		channelAverageRunTime = telemetry.addNumber("Module Control Average Run Time");
+		channelMaxJitter = telemetry.addNumber("Module Control Max Jitter");
+		channelOverruns = telemetry.addNumber("Module Control Overruns");
+	}
+
+	/**
+	 * Publishes the timing of the control loop. Call it from the main robot loop. Does
+	 * nothing until setTelemetry() has been called.
+	 */
+	public void debug()
+	{
+		if(telemetry == null)
+		{
+			return;
+		}
+
+		telemetry.putNumber(channelRunTime, getLastRunTime());
+		telemetry.putNumber(channelMaxRunTime, getMaxRunTime());
+		telemetry.putNumber(channelAverageRunTime, getAverageRunTime());
+		telemetry.putNumber(channelMaxJitter, getMaxJitter());
+		telemetry.putNumber(channelOverruns, getOverruns());
+	}
+
+	/**
+	 * Adds the control loop timing fields to the flight recorder. Call this once before
+	 * the recorder is started.
+	 * @param recorderIn FlightRecorder to log the timing to
+	 */
+	public void setFlightRecorder(FlightRecorder recorderIn)
+	{
+		recorder = recorderIn;
+		fieldRunTime = recorder.addField("Module Control Run Time");
+		fieldMaxRunTime = recorder.addField("Module Control Max Run Time");
+		fieldAverageRunTime = recorder.addField("Module Control Average Run Time");
+		fieldJitter = recorder.addField("Module Control Jitter");
+		fieldMaxJitter = recorder.addField("Module Control Max Jitter");
+		fieldOverruns = recorder.addField("Module Control Overruns");
+	}
+
+	/**
+	 * Fills in the timing of the control loop in milliseconds. Call it from the main robot
+	 * loop before the record is written. Does nothing until setFlightRecorder() has been called.
+	 */
+	public void recordFlightData()
+	{
+		if(recorder == null)
+		{
+			return;
+		}
+
+		recorder.set(fieldRunTime, getLastRunTime());
+		recorder.set(fieldMaxRunTime, getMaxRunTime());
+		recorder.set(fieldAverageRunTime, getAverageRunTime());
+		recorder.set(fieldJitter, getLastJitter());
+		recorder.set(fieldMaxJitter, getMaxJitter());
+		recorder.set(fieldOverruns, getOverruns());
+	}
+}
@@ -0,0 +1,72 @@
+package org.usfirst.frc.team2461.robot;
+
+import edu.wpi.first.wpilibj.GenericHID.Hand;
+
+/**
+ * <h1> Operator Controller Interface </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * The parts of an Xbox controller the subsystems read. MetalSkinsController is the
+ * real one; the replay harness uses one that plays back a flight log.
+ * </p>
+ */
+public interface OperatorController
+{
+	/**
+	 * Bits of getButtons()
+	 */
+	int BUTTON_A = 1;
+	int BUTTON_B = 2;
+	int BUTTON_X = 4;
+	int BUTTON_Y = 8;
+	int BUMPER_LEFT = 16;
+	int BUMPER_RIGHT = 32;
+	int BUTTON_BACK = 64;
+	int BUTTON_START = 128;
+	
+	double getX(Hand hand);
+	
+	double getY(Hand hand);
+	
+	double getTriggerAxis(Hand hand);
+	
+	boolean getBumper(Hand hand);
+	
+	boolean getAButton();
+	
+	boolean getBButton();
+	
+	boolean getXButton();
+	
+	boolean getYButton();
+	
+	boolean getBackButton();
+	
+	boolean getStartButton();
+	
+	/**
+	 * @return True if Start was pressed since the last time this was called
+	 */
+	boolean getStartButtonPressed();
+	
+	/**
+	 * @return True if Back was pressed since the last time this was called
+	 */
+	boolean getBackButtonPressed();
+	
+	/**
+	 * Gets every button at once
+	 * @return The BUTTON_ and BUMPER_ bits of the buttons being held added together
+	 */
+	default int getButtons()
+	{
+		return (getAButton() ? BUTTON_A : 0)
+				| (getBButton() ? BUTTON_B : 0)
+				| (getXButton() ? BUTTON_X : 0)
+				| (getYButton() ? BUTTON_Y : 0)
+				| (getBumper(Hand.kLeft) ? BUMPER_LEFT : 0)
+				| (getBumper(Hand.kRight) ? BUMPER_RIGHT : 0)
+				| (getBackButton() ? BUTTON_BACK : 0)
+				| (getStartButton() ? BUTTON_START : 0);
+	}
+}
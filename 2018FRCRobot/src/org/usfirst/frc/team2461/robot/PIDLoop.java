@@ -0,0 +1,397 @@
+package org.usfirst.frc.team2461.robot;
+
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.wpilibj.PIDOutput;
+import edu.wpi.first.wpilibj.PIDSource;
+import edu.wpi.first.wpilibj.PIDSourceType;
+import edu.wpi.first.wpilibj.SendableBase;
+import edu.wpi.first.wpilibj.smartdashboard.SendableBuilder;
+
+/**
+ * <h1> PID Loop Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * PID controller that does the same math as the WPILib PIDController but does not
+ * start its own timer thread. Whoever owns the loop has to call calculate() at a
+ * steady rate. Because nothing in here needs the RoboRIO, the same loops can be
+ * stepped by the simulator on a computer.
+ * </p>
+ * <p>
+ * The setpoint, the enabled flag and the last error and output are volatile, so the
+ * main robot loop can hand over setpoints and check on the loop without ever waiting
+ * on the thread that runs calculate().
+ * </p>
+ */
+public class PIDLoop extends SendableBase
+{
+	/**
+	 * Period the PID values used on the robot were tuned at, which is the WPILib
+	 * PIDController default. The I and D terms are scaled so the same values behave
+	 * the same no matter how often calculate() runs.
+	 */
+	public static final double TUNED_PERIOD = 0.05;
+
+	private double m_P;
+	private double m_I;
+	private double m_D;
+	private double m_F;
+
+	private double m_minimumInput = 0;
+	private double m_maximumInput = 0;
+	private double m_minimumOutput = -1;
+	private double m_maximumOutput = 1;
+	private boolean m_continuous = false;
+	private double m_tolerance = 0.05;
+
+	private double m_integralScale = 1;
+	private double m_derivativeScale = 1;
+
+	private volatile boolean m_enabled = false;
+	private volatile double m_setpoint = 0;
+	private volatile double m_feedForward = 0;
+	private double m_prevError = 0;
+	private double m_totalError = 0;
+	private volatile double m_error = 0;
+	private volatile double m_result = 0;
+
+	private PIDSource m_pidInput;
+	private PIDOutput m_pidOutput;
+	private DoubleSupplier m_inputRate;
+
+	/**
+	 * Creates a PIDLoop
+	 * @param Kp Proportional coefficient
+	 * @param Ki Integral coefficient
+	 * @param Kd Differential coefficient
+	 * @param source Sensor the loop reads from
+	 * @param output Motor the loop writes to
+	 */
+	public PIDLoop(double Kp, double Ki, double Kd, PIDSource source, PIDOutput output)
+	{
+		this(Kp, Ki, Kd, 0, source, output);
+	}
+
+	/**
+	 * Creates a PIDLoop
+	 * @param Kp Proportional coefficient
+	 * @param Ki Integral coefficient
+	 * @param Kd Differential coefficient
+	 * @param Kf Feed forward coefficient
+	 * @param source Sensor the loop reads from
+	 * @param output Motor the loop writes to
+	 */
+	public PIDLoop(double Kp, double Ki, double Kd, double Kf, PIDSource source, PIDOutput output)
+	{
+		super(false);
+		m_P = Kp;
+		m_I = Ki;
+		m_D = Kd;
+		m_F = Kf;
+		m_pidInput = source;
+		m_pidOutput = output;
+	}
+
+	/**
+	 * Runs one step of the loop: reads the sensor, works out the output and
+	 * writes it to the motor. Does nothing while the loop is disabled.
+	 */
+	public synchronized void calculate()
+	{
+		if(!m_enabled)
+		{
+			return;
+		}
+
+		double setpoint = m_setpoint;
+		double input = m_pidInput.pidGet();
+		double error = getContinuousError(setpoint - input);
+		double result;
+
+		if(m_pidInput.getPIDSourceType() == PIDSourceType.kRate)
+		{
+			if(m_P != 0)
+			{
+				m_totalError = clamp(m_totalError + error * m_integralScale, m_minimumOutput / m_P, m_maximumOutput / m_P);
+			}
+
+			result = m_P * m_totalError + m_D * error + m_F * setpoint + m_feedForward;
+		} else {
+			if(m_I != 0)
+			{
+				m_totalError = clamp(m_totalError + error * m_integralScale, m_minimumOutput / m_I, m_maximumOutput / m_I);
+			}
+
+			double derivative;
+			if(m_inputRate != null)
+			{
+				derivative = -m_inputRate.getAsDouble() * TUNED_PERIOD; // Change of the error over TUNED_PERIOD while the setpoint holds still
+			} else {
+				derivative = (error - m_prevError) * m_derivativeScale;
+			}
+
+			result = m_P * error + m_I * m_totalError + m_D * derivative + m_F * setpoint + m_feedForward;
+		}
+
+		m_prevError = error;
+		m_error = error;
+		m_result = clamp(result, m_minimumOutput, m_maximumOutput);
+		m_pidOutput.pidWrite(m_result);
+	}
+
+	/**
+	 * Tells the loop how often calculate() is called so the I and D terms can be
+	 * scaled to match TUNED_PERIOD
+	 * @param period Seconds between calls to calculate()
+	 */
+	public synchronized void setPeriod(double period)
+	{
+		m_integralScale = period / TUNED_PERIOD;
+		m_derivativeScale = TUNED_PERIOD / period;
+	}
+
+	/**
+	 * Makes the D term use how fast the sensor is measured to move instead of the change
+	 * in error between two runs. A filtered rate is less noisy than differences of the
+	 * sensor, and a setpoint change no longer kicks the D term. The D value means the
+	 * same either way.
+	 * @param inputRate Rate of the sensor in sensor units per second, or null to go back to differences
+	 */
+	public synchronized void setInputRate(DoubleSupplier inputRate)
+	{
+		m_inputRate = inputRate;
+	}
+
+	/**
+	 * Sets the P, I and D coefficients
+	 * @param p Proportional coefficient
+	 * @param i Integral coefficient
+	 * @param d Differential coefficient
+	 */
+	public synchronized void setPID(double p, double i, double d)
+	{
+		m_P = p;
+		m_I = i;
+		m_D = d;
+	}
+
+	/**
+	 * Sets the P, I, D and F coefficients
+	 * @param p Proportional coefficient
+	 * @param i Integral coefficient
+	 * @param d Differential coefficient
+	 * @param f Feed forward coefficient
+	 */
+	public synchronized void setPID(double p, double i, double d, double f)
+	{
+		m_P = p;
+		m_I = i;
+		m_D = d;
+		m_F = f;
+	}
+
+	public synchronized double getP()
+	{
+		return m_P;
+	}
+
+	public synchronized double getI()
+	{
+		return m_I;
+	}
+
+	public synchronized double getD()
+	{
+		return m_D;
+	}
+
+	public synchronized double getF()
+	{
+		return m_F;
+	}
+
+	/**
+	 * Makes the loop treat the maximum input as being next to the minimum input, like
+	 * an angle that goes from 359.99 back to 0. Set the input range before using this.
+	 */
+	public synchronized void setContinuous()
+	{
+		m_continuous = true;
+	}
+
+	/**
+	 * Sets the lowest and highest values the sensor can read
+	 * @param minimumInput Lowest sensor value
+	 * @param maximumInput Highest sensor value
+	 */
+	public synchronized void setInputRange(double minimumInput, double maximumInput)
+	{
+		m_minimumInput = minimumInput;
+		m_maximumInput = maximumInput;
+		setSetpoint(m_setpoint);
+	}
+
+	/**
+	 * Sets the lowest and highest values the loop will send to the motor
+	 * @param minimumOutput Lowest output
+	 * @param maximumOutput Highest output
+	 */
+	public synchronized void setOutputRange(double minimumOutput, double maximumOutput)
+	{
+		m_minimumOutput = minimumOutput;
+		m_maximumOutput = maximumOutput;
+	}
+
+	/**
+	 * Sets the value the loop tries to get the sensor to. It is limited to the input range if one was set.
+	 * @param setpoint Target sensor value
+	 */
+	public void setSetpoint(double setpoint)
+	{
+		if(m_maximumInput > m_minimumInput)
+		{
+			m_setpoint = clamp(setpoint, m_minimumInput, m_maximumInput);
+		} else {
+			m_setpoint = setpoint;
+		}
+	}
+
+	public double getSetpoint()
+	{
+		return m_setpoint;
+	}
+
+	/**
+	 * Sets output that is added on top of the P, I, D and F terms. A motion profile uses it
+	 * to give the motor the power its planned velocity needs, so the P term only has to fix
+	 * how far the wheel is off the plan.
+	 * @param feedForward Output to add, cleared by reset()
+	 */
+	public void setFeedForward(double feedForward)
+	{
+		m_feedForward = feedForward;
+	}
+
+	public double getFeedForward()
+	{
+		return m_feedForward;
+	}
+
+	/**
+	 * @return Difference between the setpoint and the sensor the last time the loop ran
+	 */
+	public double getError()
+	{
+		return m_error;
+	}
+
+	/**
+	 * @return Output the loop last sent to the motor
+	 */
+	public double get()
+	{
+		return m_result;
+	}
+
+	/**
+	 * Sets how close to the setpoint counts as on target
+	 * @param absTolerance Tolerance in sensor units
+	 */
+	public synchronized void setAbsoluteTolerance(double absTolerance)
+	{
+		m_tolerance = absTolerance;
+	}
+
+	/**
+	 * @return True if the last error was inside the tolerance
+	 */
+	public boolean onTarget()
+	{
+		return Math.abs(m_error) < m_tolerance;
+	}
+
+	/**
+	 * Starts running the loop
+	 */
+	public void enable()
+	{
+		m_enabled = true;
+	}
+
+	/**
+	 * Stops running the loop and turns the motor off
+	 */
+	public synchronized void disable()
+	{
+		m_pidOutput.pidWrite(0);
+		m_enabled = false;
+	}
+
+	/**
+	 * @param enable True starts the loop, false stops it
+	 */
+	public void setEnabled(boolean enable)
+	{
+		if(enable)
+		{
+			enable();
+		} else {
+			disable();
+		}
+	}
+
+	public boolean isEnabled()
+	{
+		return m_enabled;
+	}
+
+	/**
+	 * Disables the loop and clears out the error it has built up
+	 */
+	public synchronized void reset()
+	{
+		disable();
+		m_prevError = 0;
+		m_totalError = 0;
+		m_result = 0;
+		m_feedForward = 0;
+	}
+
+	private double getContinuousError(double error)
+	{
+		double inputRange = m_maximumInput - m_minimumInput;
+		if(m_continuous && inputRange > 0)
+		{
+			error %= inputRange;
+			if(Math.abs(error) > inputRange / 2)
+			{
+				if(error > 0)
+				{
+					return error - inputRange;
+				} else {
+					return error + inputRange;
+				}
+			}
+		}
+
+		return error;
+	}
+
+	private static double clamp(double value, double low, double high)
+	{
+		return Math.max(low, Math.min(value, high));
+	}
+
+	@Override
+	public void initSendable(SendableBuilder builder)
+	{
+		builder.setSmartDashboardType("PIDController");
+		builder.setSafeState(this::reset);
+		builder.addDoubleProperty("p", this::getP, value -> setPID(value, getI(), getD(), getF()));
+		builder.addDoubleProperty("i", this::getI, value -> setPID(getP(), value, getD(), getF()));
+		builder.addDoubleProperty("d", this::getD, value -> setPID(getP(), getI(), value, getF()));
+		builder.addDoubleProperty("f", this::getF, value -> setPID(getP(), getI(), getD(), value));
+		builder.addDoubleProperty("setpoint", this::getSetpoint, this::setSetpoint);
+		builder.addBooleanProperty("enabled", this::isEnabled, this::setEnabled);
+	}
+}
@@ -0,0 +1,237 @@
+package org.usfirst.frc.team2461.robot;
+
+/**
+ * <h1> Path Generator Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Turns a list of Waypoints into a Trajectory. Every pair of waypoints is joined by a
+ * quintic Hermite spline, so the path goes through each waypoint in its direction with
+ * no sudden change in curvature, and the robot heading turns evenly along each piece.
+ * </p>
+ * <p>
+ * The speed along the path is limited three ways: maxVelocity everywhere, slower in the
+ * curves so the robot does not slide out of them, and maxAcceleration speeding up from
+ * the start and slowing down into the end. The result is sampled every
+ * Trajectory.SAMPLE_PERIOD.
+ * </p>
+ * <p>
+ * Generating a path takes much longer than following one and creates a lot of garbage,
+ * so it is meant to run before a match, on a computer with AutoPath.main() or in
+ * robotInit(), and the result kept in the TrajectoryCache.
+ * </p>
+ */
+public class PathGenerator
+{
+	/**
+	 * Changes whenever the generator makes different paths from the same waypoints, so
+	 * trajectory files made by an older version are thrown out
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Points worked out along every spline between two waypoints
+	 */
+	private static final int SEGMENT_SAMPLES = 200;
+
+	private final double maxVelocity;
+	private final double maxAcceleration;
+	private final double maxCentripetalAcceleration;
+
+	/**
+	 * Creates a PathGenerator
+	 * @param maxVelocityIn Fastest the robot may go in inches per second
+	 * @param maxAccelerationIn Fastest the robot may speed up or slow down in inches per second per second
+	 * @param maxCentripetalAccelerationIn Most sideways acceleration in the curves in inches per second per second
+	 */
+	public PathGenerator(double maxVelocityIn, double maxAccelerationIn, double maxCentripetalAccelerationIn)
+	{
+		if(maxVelocityIn <= 0 || maxAccelerationIn <= 0 || maxCentripetalAccelerationIn <= 0)
+		{
+			throw new IllegalArgumentException("Path limits must be greater than 0");
+		}
+
+		maxVelocity = maxVelocityIn;
+		maxAcceleration = maxAccelerationIn;
+		maxCentripetalAcceleration = maxCentripetalAccelerationIn;
+	}
+
+	/**
+	 * Generates a Trajectory through the waypoints that starts and ends stopped
+	 * @param waypoints At least 2 waypoints, no two in a row in the same spot
+	 * @return New Trajectory
+	 */
+	public Trajectory generate(Waypoint... waypoints)
+	{
+		if(waypoints.length < 2)
+		{
+			throw new IllegalArgumentException("A path needs at least 2 waypoints");
+		}
+
+		int count = (waypoints.length - 1) * SEGMENT_SAMPLES + 1;
+		double[] distance = new double[count];
+		double[] x = new double[count];
+		double[] y = new double[count];
+		double[] tangentX = new double[count];
+		double[] tangentY = new double[count];
+		double[] heading = new double[count];
+		double[] speed = new double[count];
+
+		int index = 0;
+		for(int segment = 0; segment < waypoints.length - 1; segment++)
+		{
+			Waypoint from = waypoints[segment];
+			Waypoint to = waypoints[segment + 1];
+			double chord = Math.hypot(to.getX() - from.getX(), to.getY() - from.getY());
+			if(chord == 0)
+			{
+				throw new IllegalArgumentException("Waypoints " + segment + " and " + (segment + 1) + " are in the same spot");
+			}
+
+			// The length of the end derivatives sets how far the spline keeps going in each
+			// waypoint direction. The distance between the waypoints gives a gentle curve.
+			double startX = Math.cos(Math.toRadians(from.getDirection())) * chord;
+			double startY = -Math.sin(Math.toRadians(from.getDirection())) * chord;
+			double endX = Math.cos(Math.toRadians(to.getDirection())) * chord;
+			double endY = -Math.sin(Math.toRadians(to.getDirection())) * chord;
+
+			int segmentStart = index;
+			for(int j = segment == 0 ? 0 : 1; j <= SEGMENT_SAMPLES; j++)
+			{
+				double t = (double) j / SEGMENT_SAMPLES;
+				double t2 = t * t;
+				double t3 = t2 * t;
+				double t4 = t3 * t;
+				double t5 = t4 * t;
+
+				// Quintic Hermite basis with zero second derivative at both waypoints
+				double h0 = 1 - 10 * t3 + 15 * t4 - 6 * t5;
+				double h1 = t - 6 * t3 + 8 * t4 - 3 * t5;
+				double h4 = -4 * t3 + 7 * t4 - 3 * t5;
+				double h5 = 10 * t3 - 15 * t4 + 6 * t5;
+				double d0 = -30 * t2 + 60 * t3 - 30 * t4;
+				double d1 = 1 - 18 * t2 + 32 * t3 - 15 * t4;
+				double d4 = -12 * t2 + 28 * t3 - 15 * t4;
+				double dd0 = -60 * t + 180 * t2 - 120 * t3;
+				double dd1 = -36 * t + 96 * t2 - 60 * t3;
+				double dd4 = -24 * t + 84 * t2 - 60 * t3;
+
+				x[index] = h0 * from.getX() + h1 * startX + h4 * endX + h5 * to.getX();
+				y[index] = h0 * from.getY() + h1 * startY + h4 * endY + h5 * to.getY();
+				double dx = d0 * (from.getX() - to.getX()) + d1 * startX + d4 * endX;
+				double dy = d0 * (from.getY() - to.getY()) + d1 * startY + d4 * endY;
+				double ddx = dd0 * (from.getX() - to.getX()) + dd1 * startX + dd4 * endX;
+				double ddy = dd0 * (from.getY() - to.getY()) + dd1 * startY + dd4 * endY;
+
+				double length = Math.hypot(dx, dy);
+				tangentX[index] = dx / length;
+				tangentY[index] = dy / length;
+				double curvature = Math.abs(dx * ddy - dy * ddx) / (length * length * length);
+				speed[index] = curvature > 1e-9 ? Math.min(maxVelocity, Math.sqrt(maxCentripetalAcceleration / curvature)) : maxVelocity;
+				distance[index] = index == 0 ? 0 : distance[index - 1] + Math.hypot(x[index] - x[index - 1], y[index] - y[index - 1]);
+				index++;
+			}
+
+			double segmentLength = distance[index - 1] - distance[segmentStart];
+			for(int i = segmentStart; i < index; i++)
+			{
+				heading[i] = from.getHeading() + (to.getHeading() - from.getHeading()) * (distance[i] - distance[segmentStart]) / segmentLength;
+			}
+		}
+
+		// Start and end stopped, and never speed up or slow down faster than maxAcceleration
+		speed[0] = 0;
+		for(int i = 1; i < count; i++)
+		{
+			speed[i] = Math.min(speed[i], Math.sqrt(speed[i - 1] * speed[i - 1] + 2 * maxAcceleration * (distance[i] - distance[i - 1])));
+		}
+		speed[count - 1] = 0;
+		for(int i = count - 2; i >= 0; i--)
+		{
+			speed[i] = Math.min(speed[i], Math.sqrt(speed[i + 1] * speed[i + 1] + 2 * maxAcceleration * (distance[i + 1] - distance[i])));
+		}
+
+		double[] time = new double[count];
+		for(int i = 1; i < count; i++)
+		{
+			time[i] = time[i - 1] + 2 * (distance[i] - distance[i - 1]) / (speed[i - 1] + speed[i]);
+		}
+
+		return resample(time, distance, x, y, tangentX, tangentY, heading, speed);
+	}
+
+	/**
+	 * Works out a number that changes whenever the path these waypoints make would change,
+	 * so a saved trajectory can be checked against the waypoints it is supposed to be from
+	 * @param waypoints Waypoints of the path
+	 * @return Fingerprint of the waypoints and the limits of this generator
+	 */
+	public long getFingerprint(Waypoint... waypoints)
+	{
+		long fingerprint = VERSION;
+		fingerprint = mix(fingerprint, Trajectory.SAMPLE_PERIOD);
+		fingerprint = mix(fingerprint, maxVelocity);
+		fingerprint = mix(fingerprint, maxAcceleration);
+		fingerprint = mix(fingerprint, maxCentripetalAcceleration);
+		for(Waypoint waypoint : waypoints)
+		{
+			fingerprint = mix(fingerprint, waypoint.getX());
+			fingerprint = mix(fingerprint, waypoint.getY());
+			fingerprint = mix(fingerprint, waypoint.getDirection());
+			fingerprint = mix(fingerprint, waypoint.getHeading());
+		}
+
+		return fingerprint;
+	}
+
+	/**
+	 * Samples the path every Trajectory.SAMPLE_PERIOD, in between the points worked out along the splines
+	 */
+	private static Trajectory resample(double[] time, double[] distance, double[] x, double[] y,
+			double[] tangentX, double[] tangentY, double[] heading, double[] speed)
+	{
+		int last = time.length - 1;
+		double totalTime = time[last];
+		int count = (int) Math.ceil(totalTime / Trajectory.SAMPLE_PERIOD - 1e-9) + 1;
+
+		double[] sampleTime = new double[count];
+		double[] sampleX = new double[count];
+		double[] sampleY = new double[count];
+		double[] sampleHeading = new double[count];
+		double[] sampleVelocityX = new double[count];
+		double[] sampleVelocityY = new double[count];
+		double[] sampleHeadingRate = new double[count];
+
+		int point = 0;
+		for(int i = 0; i < count; i++)
+		{
+			double t = i == count - 1 ? totalTime : i * Trajectory.SAMPLE_PERIOD;
+			while(point < last - 1 && time[point + 1] <= t)
+			{
+				point++;
+			}
+
+			double fraction = Math.min(1, (t - time[point]) / (time[point + 1] - time[point]));
+			double pathSpeed = speed[point] + (speed[point + 1] - speed[point]) * fraction;
+			double directionX = tangentX[point] + (tangentX[point + 1] - tangentX[point]) * fraction;
+			double directionY = tangentY[point] + (tangentY[point + 1] - tangentY[point]) * fraction;
+			double directionLength = Math.hypot(directionX, directionY);
+			double turnPerInch = (heading[point + 1] - heading[point]) / (distance[point + 1] - distance[point]);
+
+			sampleTime[i] = t;
+			sampleX[i] = x[point] + (x[point + 1] - x[point]) * fraction;
+			sampleY[i] = y[point] + (y[point + 1] - y[point]) * fraction;
+			sampleHeading[i] = heading[point] + (heading[point + 1] - heading[point]) * fraction;
+			sampleVelocityX[i] = pathSpeed * directionX / directionLength;
+			sampleVelocityY[i] = pathSpeed * directionY / directionLength;
+			sampleHeadingRate[i] = pathSpeed * turnPerInch;
+		}
+
+		return new Trajectory(sampleTime, sampleX, sampleY, sampleHeading, sampleVelocityX, sampleVelocityY, sampleHeadingRate);
+	}
+
+	private static long mix(long fingerprint, double value)
+	{
+		long bits = Double.doubleToLongBits(value);
+		return fingerprint * 0x100000001B3L ^ bits ^ (bits >>> 29);
+	}
+}
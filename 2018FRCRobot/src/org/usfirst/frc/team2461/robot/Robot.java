@@ -7,22 +7,24 @@
 
 package org.usfirst.frc.team2461.robot;
 
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.File;
+import java.util.Properties;
 
 import org.usfirst.frc.team2461.robot.autonomous.AutoCode;
-import org.usfirst.frc.team2461.robot.autonomous.DriveForwardAuto;
-import org.usfirst.frc.team2461.robot.autonomous.DriveForwardAutoBasic;
-import org.usfirst.frc.team2461.robot.autonomous.MoveLeftAuto;
-import org.usfirst.frc.team2461.robot.autonomous.MoveRightAuto;
+import org.usfirst.frc.team2461.robot.autonomous.AutoPath;
+import org.usfirst.frc.team2461.robot.autonomous.AutoChoice;
+import org.usfirst.frc.team2461.robot.autonomous.AutoPlanCache;
+import org.usfirst.frc.team2461.robot.autonomous.AutoScript;
+import org.usfirst.frc.team2461.robot.autonomous.StartPosition;
+import org.usfirst.frc.team2461.robot.telemetry.FlightRecorder;
+import org.usfirst.frc.team2461.robot.telemetry.Telemetry;
 import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
+import edu.wpi.first.wpilibj.ADXRS450_Gyro;
 import edu.wpi.first.wpilibj.CameraServer;
 import edu.wpi.first.wpilibj.Compressor;
 import edu.wpi.first.wpilibj.DigitalInput;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Encoder;
-import edu.wpi.first.wpilibj.IterativeRobot;
 import edu.wpi.first.wpilibj.PowerDistributionPanel;
 import edu.wpi.first.wpilibj.RobotController;
 import edu.wpi.first.wpilibj.Solenoid;
@@ -35,17 +37,22 @@ import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 /**
  * The VM is configured to automatically run this class, and to call the
  * functions corresponding to each mode, as described in the IterativeRobot
- * documentation. If you change the name of this class or the package after
+ * documentation. The functions run every LOOP_PERIOD, see FixedPeriodRobot. If you change the name of this class or the package after
  * creating this project, you must also update the build.properties file in the
  * project.
  */
-public class Robot extends IterativeRobot {
-	private static final String kDefaultAuto = "Default";
-	private static final String CenterAuto = "Robot Center";
-	private static final String LeftAuto = "Robot Left";
-	private static final String RightAuto = "Robot Right";
-	private String m_autoSelected;
-	private SendableChooser<String> m_chooser = new SendableChooser<>();
+public class Robot extends FixedPeriodRobot {
+	/**
+	 * Seconds between robot loops (100 Hz)
+	 */
+	public static final double LOOP_PERIOD = 0.01;
+	
+	private AutoChoice m_autoSelected;
+	private SendableChooser<AutoChoice> m_chooser = new SendableChooser<>();
+	private static final String kWheelTest = "Wheel Test";
+	private static final String kCalibrateEncoders = "Calibrate Encoders";
+	private String m_testSelected;
+	private SendableChooser<String> m_testChooser = new SendableChooser<>();
 	private DriverStation station = DriverStation.getInstance();
 	
 	private int motor_FL_Drive_int = 1;
@@ -79,6 +86,12 @@ public class Robot extends IterativeRobot {
 	private int switch_Riser_Mid_int = 9;
 	private int switch_Riser_High_int = 11;
 	
+	/**
+	 * Distances between the wheel centers in inches
+	 */
+	private double chassis_Wheel_Base = 27.5;
+	private double chassis_Track_Width = 32.5;
+	
 	private int motor_Robot_Lifter_1_int = 9;
 	private int motor_Robot_Lifter_2_int = 10;
 	
@@ -111,7 +124,36 @@ public class Robot extends IterativeRobot {
 	MA3Encoder enc_RR_Turn = new MA3Encoder(enc_RR_Turn_int);
 	SwerveMotor motorRR = new SwerveMotor(motor_RR_Drive, motor_RR_Turn, enc_RR_Turn, enc_RR_Drive);	
 	
-	SwerveDrive chassis = new SwerveDrive(motorFL, motorFR, motorRL, motorRR);	
+	/**
+	 * Turn encoders in the same order as the wheels of SwerveDrive, and the file
+	 * their calibrations are loaded from
+	 */
+	MA3Encoder[] turnEncoders = {enc_FL_Turn, enc_FR_Turn, enc_RL_Turn, enc_RR_Turn};
+	public static final File ENCODER_CALIBRATION_FILE = new File("/home/lvuser/ma3calibration.properties");
+	public static final File TRAJECTORY_DIRECTORY = new File("/home/lvuser/paths");
+	public static final File AUTO_SCRIPT_DIRECTORY = new File("/home/lvuser/autos");
+	MA3CalibrationRoutine encoderCalibration = new MA3CalibrationRoutine(new SwerveMotor[] {motorFL, motorFR, motorRL, motorRR}, turnEncoders, ENCODER_CALIBRATION_FILE);
+	
+	SwerveKinematics kinematics = new SwerveKinematics(chassis_Wheel_Base, chassis_Track_Width);
+	SwerveDrive chassis = new SwerveDrive(motorFL, motorFR, motorRL, motorRR, kinematics);	
+	ModuleControlScheduler moduleControl = new ModuleControlScheduler(motorFL, motorFR, motorRL, motorRR);
+	Telemetry telemetry = new Telemetry();
+	
+	/**
+	 * Times every part of the robot loop against LOOP_PERIOD
+	 */
+	LoopProfiler profiler = new LoopProfiler(LOOP_PERIOD);
+	private int stageOdometry = profiler.addStage("Odometry");
+	private int stageAutonomous = profiler.addStage("Autonomous");
+	private int stageAutoPlans = profiler.addStage("Auto Plans");
+	private int stageDrive = profiler.addStage("Drive");
+	private int stageBoxManager = profiler.addStage("Box Manager");
+	private int stageRobotLift = profiler.addStage("Robot Lift");
+	private int stageTest = profiler.addStage("Test");
+	private int stageDashboard = profiler.addStage("Dashboard");
+	private int stageFlightRecorder = profiler.addStage("Flight Recorder");
+	
+	ADXRS450_Gyro gyro = new ADXRS450_Gyro();
 	
 	SwerveDriveAutoCommandFactory factory = SwerveDriveAutoCommandFactory.getInstance();
 	
@@ -151,8 +193,47 @@ public class Robot extends IterativeRobot {
 	 */
 	private String plateLayout;
 	AutoCode autoCode;
+	int autoPlan = -1;
+	
+	/**
+	 * Every autonomous routine built ahead of time while the robot is disabled
+	 */
+	AutoPlanCache autoPlans = new AutoPlanCache(chassis, boxManager);
 	
 	PowerDistributionPanel pdp = new PowerDistributionPanel();
+	
+	/**
+	 * The PDP only sends new readings about every 40 ms (25 Hz), so it is read every
+	 * PDP_SAMPLE_LOOPS loops instead of making 18 CAN calls every loop for the same numbers
+	 */
+	public static final double PDP_PERIOD = 0.04;
+	private static final int PDP_SAMPLE_LOOPS = Math.max(1, (int) Math.round(PDP_PERIOD / LOOP_PERIOD));
+	private int pdpLoops = 0;
+	
+	/**
+	 * Logs the robot every loop to 16 rotating 4 MB files. A record is about 800 bytes,
+	 * so at 100 Hz that is about 15 minutes of driving.
+	 */
+	FlightRecorder recorder = new FlightRecorder(new File("/home/lvuser/flightlog"), 4 * 1024 * 1024, 16);
+	private int recordMatchTime;
+	private int recordBrownedOut;
+	private int recordBatteryVoltage;
+	private int recordTotalCurrent;
+	private int[] recordChannelCurrent = new int[16];
+	private int recordMode;
+	private int recordAutoRoutine;
+	
+	/**
+	 * Values of the "Robot Mode" flight recorder field
+	 */
+	public static final int MODE_DISABLED = 0;
+	public static final int MODE_AUTONOMOUS = 1;
+	public static final int MODE_TELEOP = 2;
+	public static final int MODE_TEST = 3;
+	
+	public Robot() {
+		super(LOOP_PERIOD);
+	}
 
 	/**
 	 * This function is run when the robot is first started up and should be
@@ -161,21 +242,62 @@ public class Robot extends IterativeRobot {
 	@SuppressWarnings("static-access")
 	@Override
 	public void robotInit() {
-		m_chooser.addDefault("Default Auto", kDefaultAuto);
-		m_chooser.addObject("Robot Left Position", LeftAuto);
-		m_chooser.addObject("Robot Center Position", CenterAuto);
-		m_chooser.addObject("Robot Right Position", RightAuto);
+		m_chooser.addDefault(StartPosition.DEFAULT.getLabel(), StartPosition.DEFAULT);
+		for(StartPosition position : StartPosition.values()) {
+			if(position != StartPosition.DEFAULT) {
+				m_chooser.addObject(position.getLabel(), position);
+			}
+		}
+		// Routines written as scripts are checked now, so a mistake shows up on the Driver Station
+		// at boot instead of in autonomous. See AutoScript for the format and "ant deploy-autos".
+		for(AutoScript script : AutoScript.loadAll(AUTO_SCRIPT_DIRECTORY, chassis, boxManager)) {
+			autoPlans.addScript(script);
+			m_chooser.addObject(script.getLabel(), script);
+		}
 		SmartDashboard.putData("Auto choices", m_chooser);
+		m_testChooser.addDefault("Wheel Test", kWheelTest);
+		m_testChooser.addObject("Calibrate Turn Encoders (wheels forward, robot on blocks)", kCalibrateEncoders);
+		SmartDashboard.putData("Test choices", m_testChooser);
 		
-		chassis.setTurnPIDValues(0, 0.0345, 0.012, 0.0125);
-		chassis.setTurnPIDValues(1, 0.0345, 0.012, 0.013);
-		chassis.setTurnPIDValues(2, 0.0345, 0.014, 0.017);
-		chassis.setTurnPIDValues(3, 0.0345, 0.012, 0.02);
+		Properties calibrationTable = MA3Calibration.loadTable(ENCODER_CALIBRATION_FILE);
+		for(int i = 0; i < turnEncoders.length; i++) {
+			turnEncoders[i].setCalibration(MA3Calibration.fromTable(calibrationTable, SwerveDrive.getWheelName(i)));
+		}
 		
-		chassis.setDrivePIDValues(0, 0.1, 0.005, 0.001, 0);
-		chassis.setDrivePIDValues(1, 0.1, 0.005, 0.001, 0);
-		chassis.setDrivePIDValues(2, 0.1, 0.005, 0.001, 0);
-		chassis.setDrivePIDValues(3, 0.1, 0.005, 0.001, 0);
+		// Load every autonomous path now so autonomous starts driving in its first loop.
+		// Paths without an up to date file from "ant deploy-paths" are generated and saved.
+		TrajectoryCache.getInstance().setDirectory(TRAJECTORY_DIRECTORY);
+		AutoPath.loadAll();
+		
+		configureDriveTrain(chassis);
+		moduleControl.start();
+		
+		chassis.setTelemetry(telemetry);
+		boxManager.setTelemetry(telemetry);
+		profiler.setTelemetry(telemetry);
+		moduleControl.setTelemetry(telemetry);
+		setLoopTelemetry(telemetry);
+		telemetry.start();
+		
+		recordMatchTime = recorder.addField("Match Time");
+		recordBrownedOut = recorder.addField("Browned Out");
+		recordBatteryVoltage = recorder.addField("PDP Voltage");
+		recordTotalCurrent = recorder.addField("PDP Total Current");
+		for(int i = 0; i < recordChannelCurrent.length; i++) {
+			recordChannelCurrent[i] = recorder.addField("PDP Channel " + i + " Current");
+		}
+		recordMode = recorder.addField("Robot Mode");
+		recordAutoRoutine = recorder.addField("Auto Routine");
+		player1.setFlightRecorder(recorder, "Driver");
+		player2.setFlightRecorder(recorder, "Operator");
+		chassis.setFlightRecorder(recorder);
+		boxManager.setFlightRecorder(recorder);
+		robotLift.setFlightRecorder(recorder);
+		profiler.setFlightRecorder(recorder);
+		moduleControl.setFlightRecorder(recorder);
+		recorder.start();
+		
+		chassis.setHeadingSource(new GyroHeadingSource(gyro));
 		
 		c.setClosedLoopControl(true);
 		c.start();
@@ -187,6 +309,30 @@ public class Robot extends IterativeRobot {
 		camServer.startAutomaticCapture();
 	}
 
+	/**
+	 * Sets the PID values and motion profile of the drive train. Also used by the simulator so it
+	 * drives with the same values as the robot.
+	 * @param chassis SwerveDrive to set the PID values of
+	 */
+	public static void configureDriveTrain(SwerveDrive chassis) {
+		chassis.setTurnPIDValues(0, 0.0345, 0.012, 0.0125);
+		chassis.setTurnPIDValues(1, 0.0345, 0.012, 0.013);
+		chassis.setTurnPIDValues(2, 0.0345, 0.014, 0.017);
+		chassis.setTurnPIDValues(3, 0.0345, 0.012, 0.02);
+		
+		chassis.setDrivePIDValues(0, 0.1, 0.005, 0.001, 0);
+		chassis.setDrivePIDValues(1, 0.1, 0.005, 0.001, 0);
+		chassis.setDrivePIDValues(2, 0.1, 0.005, 0.001, 0);
+		chassis.setDrivePIDValues(3, 0.1, 0.005, 0.001, 0);
+		
+		chassis.setDriveProfile(90, 150);
+		chassis.setDriveFeedForward(0, 1.0 / 150, 0.001);
+		chassis.setDriveFeedForward(1, 1.0 / 150, 0.001);
+		chassis.setDriveFeedForward(2, 1.0 / 150, 0.001);
+		chassis.setDriveFeedForward(3, 1.0 / 150, 0.001);
+		chassis.setDriveSettle(2, 2, 0.06);
+	}
+
 	/**
 	 * This autonomous (along with the chooser code above) shows how to select
 	 * between different autonomous modes using the dashboard. The sendable
@@ -194,9 +340,9 @@ public class Robot extends IterativeRobot {
 	 * LabVIEW Dashboard, remove all of the chooser code and uncomment the
 	 * getString line to get the auto name from the text box below the Gyro
 	 *
-	 * <p>You can add additional auto modes by adding additional comparisons to
-	 * the switch structure below with additional strings. If using the
-	 * SendableChooser make sure to add them to the chooser code above as well.
+	 * <p>You can add additional auto modes by adding a StartPosition, or an AutoScript
+	 * file on the RoboRIO. Their routines are built by autoPlans while the robot is
+	 * disabled, so picking one here is only a lookup.
 	 */
 	@SuppressWarnings("static-access")
 	@Override
@@ -207,36 +353,14 @@ public class Robot extends IterativeRobot {
 		
 		plateLayout = station.getGameSpecificMessage();
 		
-		switch(m_autoSelected) {
-			case kDefaultAuto:
-				autoCode = new DriveForwardAutoBasic(chassis, boxManager);
-				break;
-			case LeftAuto:
-				if(plateLayout.charAt(0) == 'L') {
-					autoCode = new MoveRightAuto(chassis, boxManager);
-				} else {
-					autoCode = new DriveForwardAutoBasic(chassis, boxManager);
-				}
-				break;
-			case CenterAuto:
-				if(plateLayout.charAt(0) == 'L') {
-					autoCode = new MoveLeftAuto(chassis, boxManager);
-				} else if(plateLayout.charAt(0) == 'R') {
-					autoCode = new MoveRightAuto(chassis, boxManager);
-				} else {
-					autoCode = new DriveForwardAuto(chassis);
-				}
-				break;
-			case RightAuto:
-				if(plateLayout.charAt(0) == 'R') {
-					autoCode = new MoveLeftAuto(chassis, boxManager);
-				} else {
-					autoCode = new DriveForwardAutoBasic(chassis, boxManager);
-				}
-				break;
-			default:
-				break;
+		if(m_autoSelected == null) {
+			m_autoSelected = StartPosition.DEFAULT;
 		}
+		autoPlan = autoPlans.getPlan(m_autoSelected, plateLayout);
+		
+		chassis.resetPose(0, 0, 0); // Autonomous positions are measured from where the robot starts
+		
+		autoCode = autoPlans.take(autoPlan);
 	}
 
 	/**
@@ -244,7 +368,9 @@ public class Robot extends IterativeRobot {
 	 */
 	@Override
 	public void autonomousPeriodic() {
+		startLoop();
 		autoCode.run();
+		profiler.endStage(stageAutonomous);
 	}
 	
 	@Override
@@ -259,13 +385,19 @@ public class Robot extends IterativeRobot {
 	 */
 	@Override
 	public void teleopPeriodic() {
+		startLoop();
 		chassis.drive(player1);
+		profiler.endStage(stageDrive);
 		boxManager.run();
+		profiler.endStage(stageBoxManager);
 		robotLift.run();
+		profiler.endStage(stageRobotLift);
 	}
 
 	@Override
 	public void testInit() {
+		m_testSelected = m_testChooser.getSelected();
+		encoderCalibration.init();
 		motorFL.initTest();
 		motorFR.initTest();
 		motorRL.initTest();
@@ -280,7 +412,10 @@ public class Robot extends IterativeRobot {
 	 */
 	@Override
 	public void testPeriodic() {
-		if(!motorFL.runTest()) {
+		startLoop();
+		if(kCalibrateEncoders.equals(m_testSelected)) {
+			encoderCalibration.run();
+		} else if(!motorFL.runTest()) {
 			
 		} else if(!motorFR.runTest()) {
 			
@@ -291,6 +426,7 @@ public class Robot extends IterativeRobot {
 		} else if(!boxManager.runTest()) {
 			
 		}
+		profiler.endStage(stageTest);
 	}
 	
 	public void printDataToScreen()
@@ -303,6 +439,8 @@ public class Robot extends IterativeRobot {
 		boxManager.debug(0);
 //		boxManager.debug(1);
 //		boxManager.debug(2);
+		profiler.debug();
+		moduleControl.debug();
 		
 //		autoCode.debug();
 	}
@@ -310,7 +448,9 @@ public class Robot extends IterativeRobot {
 	@Override
 	public void disabledPeriodic()
 	{
-		
+		startLoop();
+		autoPlans.prepare();
+		profiler.endStage(stageAutoPlans);
 	}
 	
 	@Override
@@ -319,41 +459,69 @@ public class Robot extends IterativeRobot {
 		chassis.reset();
 		boxManager.reset();
 		robotLift.reset();
+		encoderCalibration.reset();
 		if(autoCode != null)
 			autoCode.reset();
 	}
 	
+	/**
+	 * Starts timing the loop and moves the pose of the robot before any mode code runs,
+	 * so autonomous path following steers off of where the robot is now
+	 */
+	private void startLoop()
+	{
+		profiler.startLoop();
+		chassis.updateOdometry();
+		profiler.endStage(stageOdometry);
+	}
+	
 	@SuppressWarnings("unused")
 	@Override
 	public void robotPeriodic()
 	{
 		if(true)
 			printDataToScreen();
+		profiler.endStage(stageDashboard);
 		
-		if(RobotController.isBrownedOut())
-		{
-			try {
-				reportPower();
-			} catch(IOException e){
-				DriverStation.reportError("Cannot write to BrownOutReport.txt", false);
-			}
-			
-		}
+		recordFlightData();
+		profiler.endStage(stageFlightRecorder);
+		profiler.endLoop();
 	}
 	
-	public void reportPower() throws IOException
+	/**
+	 * Logs the drive train, the box manager and the power use of the robot to the
+	 * flight recorder. Brown outs show up in the log with the PDP readings next to them.
+	 * The PDP fields keep their last reading in the loops between PDP samples.
+	 */
+	public void recordFlightData()
 	{
-		FileWriter fileWriter = new FileWriter("BrownOutReport.txt",true);
-		PrintWriter printWriter = new PrintWriter(fileWriter);
-		
-		printWriter.println();
-		printWriter.println("Brown Out Detected: Match " + station.getMatchNumber() + " Time: " + station.getMatchTime());
-		printWriter.println("PDP Voltage: " + pdp.getVoltage());
-		for(int i = 0; i < 16; i++) {
-			printWriter.println("PDP Channel " + i + " Current Draw: " + pdp.getCurrent(i));
+		if(isDisabled()) {
+			recorder.set(recordMode, MODE_DISABLED);
+		} else if(isAutonomous()) {
+			recorder.set(recordMode, MODE_AUTONOMOUS);
+		} else if(isTest()) {
+			recorder.set(recordMode, MODE_TEST);
+		} else {
+			recorder.set(recordMode, MODE_TELEOP);
 		}
-		
-		printWriter.flush();
-		printWriter.close();
+		recorder.set(recordAutoRoutine, autoPlan);
+		player1.recordFlightData();
+		player2.recordFlightData();
+		recorder.set(recordMatchTime, station.getMatchTime());
+		recorder.set(recordBrownedOut, RobotController.isBrownedOut());
+		if(pdpLoops % PDP_SAMPLE_LOOPS == 0) {
+			recorder.set(recordBatteryVoltage, pdp.getVoltage());
+			recorder.set(recordTotalCurrent, pdp.getTotalCurrent());
+			for(int i = 0; i < recordChannelCurrent.length; i++) {
+				recorder.set(recordChannelCurrent[i], pdp.getCurrent(i));
+			}
+		}
+		pdpLoops++;
+		chassis.recordFlightData();
+		boxManager.recordFlightData();
+		robotLift.recordFlightData();
+		profiler.recordFlightData();
+		moduleControl.recordFlightData();
+		recorder.record();
 	}
 }
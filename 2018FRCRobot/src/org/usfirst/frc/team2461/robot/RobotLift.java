@@ -1,5 +1,7 @@
 package org.usfirst.frc.team2461.robot;
 
+import org.usfirst.frc.team2461.robot.telemetry.FlightRecorder;
+
 import edu.wpi.first.wpilibj.SpeedController;
 
 /**
@@ -12,26 +14,42 @@ import edu.wpi.first.wpilibj.SpeedController;
 public class RobotLift
 {
 	private SpeedController[] motor = new SpeedController[2];
-	private MetalSkinsController player;
+	private OperatorController player;
 	
 	private enum State {
 		BEGIN, LOWERING, LIFTING, IDLE
 	}
 	
-	private State stateNow;
+	private StateMachine<State> machine = new StateMachine<>(State.values(), State.BEGIN, 16);
+	
+	/**
+	 * Flight recorder the state and motors are logged to, and the field of each value
+	 */
+	private FlightRecorder recorder;
+	private int fieldState;
+	private int fieldMotor1;
+	private int fieldMotor2;
 	
 	/**
 	 * Creates a RobotLifter object that has a middle switch.
 	 * @param motor1 Motor 1
 	 * @param motor2 Motor 2
-	 * @param playerIn MetalSkinsController to control the robot lift
+	 * @param playerIn OperatorController to control the robot lift
 	 */
-	public RobotLift(SpeedController motor1, SpeedController motor2, MetalSkinsController playerIn)
+	public RobotLift(SpeedController motor1, SpeedController motor2, OperatorController playerIn)
 	{
 		motor[0] = motor1;
 		motor[1] = motor2;
 		player = playerIn;
-		stateNow = State.BEGIN;
+		
+		// BEGIN stops the motors. From IDLE the Y Button lifts the robot and the X Button with
+		// the Back Button lowers it, holding both Y and X does nothing. Letting go of the
+		// button that started the lifter stops it again.
+		machine.addTransition(State.BEGIN, State.IDLE, null, this::stopLift)
+			.addTransition(State.IDLE, State.LIFTING, () -> player.getYButton() && !player.getXButton(), this::liftRobot)
+			.addTransition(State.IDLE, State.LOWERING, () -> !player.getYButton() && player.getXButton() && player.getBackButton(), this::lowerRobot)
+			.addTransition(State.LIFTING, State.IDLE, () -> !player.getYButton(), this::stopLift)
+			.addTransition(State.LOWERING, State.IDLE, () -> !player.getXButton(), this::stopLift);
 	}
 	
 	/**
@@ -43,96 +61,7 @@ public class RobotLift
 	 * </p>
 	 */
 	public void run() {
-		switch(stateNow) {
-			case BEGIN:
-				begin();
-				break;
-			case IDLE:
-				idle();
-				break;
-			case LIFTING:
-				lifting();
-				break;
-			case LOWERING:
-				lowering();
-				break;
-			default:
-				break;
-			
-		}
-	}
-	
-	/**
-	 * Method for the BEGIN State of the Robot Lifter state machine.
-	 * <p>
-	 * It stops the Robot Lifter motors and sets
-	 * the state to IDLE.
-	 * </p>
-	 */
-	private void begin() {
-		stopLift();
-		stateNow = State.IDLE;
-	}
-	
-	/**
-	 * Method for the IDLE State of the Robot Lifter state machine.
-	 * <p>
-	 * This is the state where the Robot Lifter will not be doing anything.
-	 * </p>
-	 * <p>
-	 * Based on controller inputs:
-	 * <ul>
-	 * <li>The <b>Y Button</b> will raise the robot and move 
-	 * the Robot Lifter state machine to LIFTING </li>
-	 * <li>The <b>X Button</b> will lower the robot and move 
-	 * the Robot Lifter state machine to LOWERING </li> 
-	 * </ul>
-	 * </p>
-	 */
-	private void idle() {
-		if(player.getYButton() && player.getXButton()) {
-			return;
-		} else if(player.getYButton()) {
-			liftRobot();
-			stateNow = State.LIFTING;
-		} else if(player.getXButton() && player.getBackButton()) {
-			lowerRobot();
-			stateNow = State.LOWERING;
-		}
-	}
-	
-	/**
-	 * Method for the LIFTING State of the Robot Lifter state machine.
-	 * <p>
-	 * This is the state where the Robot Lifter will be lifting.
-	 * </p>
-	 * <p>
-	 * Based on controller inputs, letting go of the <b>Y Button</b> will 
-	 * stop the lifter and move the Robot Lifter state machine to IDLE.
-	 * </p>
-	 */
-	private void lifting() {
-		if(!player.getYButton()) {
-			stopLift();
-			stateNow = State.IDLE;
-		}
-	}
-	
-	/**
-	 * Method for the LOWERING State of the Robot Lifter state machine.
-	 * <p>
-	 * This is the state where the Robot Lifter will be lowering.
-	 * </p>
-	 * <p>
-	 * Based on controller inputs, letting go of the <b>X Button</b> will 
-	 * stop the lifter and move the Robot Lifter state machine to IDLE.
-	 * </p>
-	 */
-	private void lowering() {
-		if(!player.getXButton()) {
-			stopLift();
-			stateNow = State.IDLE;
-		}
+		machine.update();
 	}
 	
 	private void setMotor(double value) {
@@ -141,7 +70,14 @@ public class RobotLift
 	}
 	
 	public State getState() {
-		return stateNow;
+		return machine.getState();
+	}
+	
+	/**
+	 * @return State machine of the Robot Lifter, for its entry time and transition log
+	 */
+	public StateMachine<State> getStateMachine() {
+		return machine;
 	}
 	
 	/**
@@ -149,18 +85,7 @@ public class RobotLift
 	 * @return Current state of the Robot Lifter state machine as a String object
 	 */
 	public String getStateString() {
-		switch(stateNow) {
-			case BEGIN:
-				return "BEGIN";
-			case IDLE:
-				return "IDLE";
-			case LIFTING:
-				return "LIFTING";
-			case LOWERING:
-				return "LOWERING";
-			default:
-				return "NULL";
-		}
+		return machine.getStateString();
 	}
 	
 	/**
@@ -200,6 +125,33 @@ public class RobotLift
 	}
 	
 	public void reset() {
-		stateNow = State.BEGIN;
+		machine.transitionTo(State.BEGIN);
+	}
+	
+	/**
+	 * Adds the state and motor fields to the flight recorder. Call this once before
+	 * the recorder is started and before recordFlightData() is used.
+	 * @param recorderIn FlightRecorder to log the Robot Lifter to
+	 */
+	public void setFlightRecorder(FlightRecorder recorderIn) {
+		recorder = recorderIn;
+		fieldState = recorder.addField("Robot Lift State");
+		fieldMotor1 = recorder.addField("Robot Lift Motor 1 Output");
+		fieldMotor2 = recorder.addField("Robot Lift Motor 2 Output");
+	}
+	
+	/**
+	 * Fills in the Robot Lifter fields of the next flight recorder record. The state
+	 * is logged as its number in the state enum. Does nothing until setFlightRecorder()
+	 * has been called.
+	 */
+	public void recordFlightData() {
+		if(recorder == null) {
+			return;
+		}
+		
+		recorder.set(fieldState, machine.getState().ordinal());
+		recorder.set(fieldMotor1, motor[0].get());
+		recorder.set(fieldMotor2, motor[1].get());
 	}
 }
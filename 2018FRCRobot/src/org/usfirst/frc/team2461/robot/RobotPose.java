@@ -0,0 +1,114 @@
+package org.usfirst.frc.team2461.robot;
+
+/**
+ * <h1> Robot Pose Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Where the robot is on the field and which way it is facing. Objects of this class
+ * are meant to be created once and then refilled every loop by SwerveOdometry, the
+ * same way SwerveModuleState is, so tracking the robot does not create any garbage.
+ * </p>
+ * <p>
+ * X points the way the robot faced when the pose was last reset and Y points to the
+ * left of that. The heading is in degrees, positive clockwise like a HeadingSource.
+ * </p>
+ */
+public class RobotPose
+{
+	private double time;
+	private double x;
+	private double y;
+	private double heading;
+
+	/**
+	 * Creates a RobotPose at the origin facing along X
+	 */
+	public RobotPose()
+	{
+		this(0, 0, 0);
+	}
+
+	/**
+	 * Creates a RobotPose
+	 * @param xIn Inches along X
+	 * @param yIn Inches along Y
+	 * @param headingIn Heading in degrees, positive clockwise
+	 */
+	public RobotPose(double xIn, double yIn, double headingIn)
+	{
+		set(0, xIn, yIn, headingIn);
+	}
+
+	/**
+	 * Sets every value of the pose at once
+	 * @param timeIn FPGA time in seconds the pose was measured at
+	 * @param xIn Inches along X
+	 * @param yIn Inches along Y
+	 * @param headingIn Heading in degrees, positive clockwise
+	 */
+	public void set(double timeIn, double xIn, double yIn, double headingIn)
+	{
+		time = timeIn;
+		x = xIn;
+		y = yIn;
+		heading = headingIn;
+	}
+
+	/**
+	 * Copies another pose into this one
+	 * @param other Pose to copy
+	 */
+	public void set(RobotPose other)
+	{
+		set(other.time, other.x, other.y, other.heading);
+	}
+
+	/**
+	 * @return FPGA time in seconds the pose was measured at
+	 */
+	public double getTime()
+	{
+		return time;
+	}
+
+	/**
+	 * @return Inches along X
+	 */
+	public double getX()
+	{
+		return x;
+	}
+
+	/**
+	 * @return Inches along Y
+	 */
+	public double getY()
+	{
+		return y;
+	}
+
+	/**
+	 * @return Heading in degrees, positive clockwise and not limited to 0 to 359.99
+	 */
+	public double getHeading()
+	{
+		return heading;
+	}
+
+	/**
+	 * Gets how far this pose is from a point
+	 * @param xIn Inches along X
+	 * @param yIn Inches along Y
+	 * @return Distance in inches
+	 */
+	public double getDistanceTo(double xIn, double yIn)
+	{
+		return Math.hypot(xIn - x, yIn - y);
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("(%.1f, %.1f) %.1f deg", x, y, heading);
+	}
+}
@@ -0,0 +1,164 @@
+package org.usfirst.frc.team2461.robot;
+
+/**
+ * <h1> Settle Detector Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Decides when a mechanism has finished a move. Every update adds a timestamped sample of
+ * its position and how far it is from where it should be to a ring, and the mechanism is
+ * settled once the samples cover a whole window, every one of them is within the error
+ * tolerance and the speed across the window is under the velocity tolerance.
+ * </p>
+ * <p>
+ * Looking at the whole window means one noisy sample can neither finish a move nor undo
+ * it, and the mechanism does not have to come to a dead stop. The time from reset() to
+ * settling is kept so the settle times of real moves can be measured.
+ * </p>
+ * <p>
+ * Nothing is allocated after the constructor. The methods are synchronized so a control
+ * thread can update it while the main loop reads it.
+ * </p>
+ */
+public class SettleDetector
+{
+	private double errorTolerance;
+	private double velocityTolerance;
+	private double window;
+
+	private final double[] sampleTime;
+	private final double[] samplePosition;
+	private final double[] sampleError;
+	private int oldest = 0;
+	private int count = 0;
+
+	private double startTime = 0;
+	private boolean settled = false;
+	private double settleTime = Double.NaN;
+	private double velocity = 0;
+	private double maxError = 0;
+
+	/**
+	 * Creates a SettleDetector
+	 * @param errorToleranceIn Largest error every sample in the window may have
+	 * @param velocityToleranceIn Fastest the position may be changing across the window, per second
+	 * @param windowIn Seconds the mechanism has to stay within the tolerances
+	 * @param capacity Samples the ring holds. It should hold more than a window of updates.
+	 */
+	public SettleDetector(double errorToleranceIn, double velocityToleranceIn, double windowIn, int capacity)
+	{
+		if(capacity < 2)
+		{
+			throw new IllegalArgumentException("A SettleDetector needs room for at least 2 samples");
+		}
+
+		sampleTime = new double[capacity];
+		samplePosition = new double[capacity];
+		sampleError = new double[capacity];
+		setTolerance(errorToleranceIn, velocityToleranceIn, windowIn);
+	}
+
+	/**
+	 * Sets what counts as settled
+	 * @param errorToleranceIn Largest error every sample in the window may have
+	 * @param velocityToleranceIn Fastest the position may be changing across the window, per second
+	 * @param windowIn Seconds the mechanism has to stay within the tolerances
+	 */
+	public synchronized void setTolerance(double errorToleranceIn, double velocityToleranceIn, double windowIn)
+	{
+		errorTolerance = errorToleranceIn;
+		velocityTolerance = velocityToleranceIn;
+		window = windowIn;
+	}
+
+	/**
+	 * Forgets every sample, for the start of a new move
+	 * @param time Time in seconds the move started, for getSettleTime()
+	 */
+	public synchronized void reset(double time)
+	{
+		oldest = 0;
+		count = 0;
+		startTime = time;
+		settled = false;
+		settleTime = Double.NaN;
+		velocity = 0;
+		maxError = 0;
+	}
+
+	/**
+	 * Adds a sample and works out whether the mechanism is settled
+	 * @param time Time of the sample in seconds
+	 * @param position Where the mechanism is
+	 * @param error How far the mechanism is from where it should end up
+	 * @return True if the mechanism is settled
+	 */
+	public synchronized boolean update(double time, double position, double error)
+	{
+		int capacity = sampleTime.length;
+		if(count == capacity)
+		{
+			oldest = (oldest + 1) % capacity;
+			count--;
+		}
+		int newest = (oldest + count) % capacity;
+		sampleTime[newest] = time;
+		samplePosition[newest] = position;
+		sampleError[newest] = error;
+		count++;
+
+		// Drop samples from before the window, keeping the one that starts it
+		while(count > 1 && sampleTime[(oldest + 1) % capacity] <= time - window)
+		{
+			oldest = (oldest + 1) % capacity;
+			count--;
+		}
+
+		maxError = 0;
+		for(int i = 0; i < count; i++)
+		{
+			maxError = Math.max(maxError, Math.abs(sampleError[(oldest + i) % capacity]));
+		}
+		double span = time - sampleTime[oldest];
+		velocity = span > 0 ? (position - samplePosition[oldest]) / span : 0;
+
+		boolean covered = span >= window || count == capacity;
+		settled = covered && maxError <= errorTolerance && Math.abs(velocity) <= velocityTolerance;
+		if(settled && Double.isNaN(settleTime))
+		{
+			settleTime = time - startTime;
+		}
+		return settled;
+	}
+
+	/**
+	 * @return True if the last update found the mechanism settled
+	 */
+	public synchronized boolean isSettled()
+	{
+		return settled;
+	}
+
+	/**
+	 * @return Seconds from reset() until the mechanism first settled, or NaN if it has not yet
+	 */
+	public synchronized double getSettleTime()
+	{
+		return settleTime;
+	}
+
+	/**
+	 * @return Speed across the window as of the last update, per second
+	 */
+	public synchronized double getVelocity()
+	{
+		return velocity;
+	}
+
+	/**
+	 * @return Largest error in the window as of the last update
+	 */
+	public synchronized double getMaxError()
+	{
+		return maxError;
+	}
+}
@@ -0,0 +1,44 @@
+package org.usfirst.frc.team2461.robot;
+
+import edu.wpi.first.wpilibj.Solenoid;
+
+/**
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * 
+ * A single solenoid valve that can be turned on and off.
+ *
+ */
+public interface SolenoidOutput
+{
+	/**
+	 * @param on True turns the solenoid on
+	 */
+	public void set(boolean on);
+	
+	/**
+	 * @return True if the solenoid is on
+	 */
+	public boolean get();
+	
+	/**
+	 * Wraps a Solenoid plugged into the PCM
+	 * @param solenoid Solenoid on the robot
+	 * @return SolenoidOutput that controls the solenoid
+	 */
+	public static SolenoidOutput of(Solenoid solenoid)
+	{
+		return new SolenoidOutput() {
+			@Override
+			public void set(boolean on)
+			{
+				solenoid.set(on);
+			}
+			
+			@Override
+			public boolean get()
+			{
+				return solenoid.get();
+			}
+		};
+	}
+}
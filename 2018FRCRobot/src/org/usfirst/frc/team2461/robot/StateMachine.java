@@ -0,0 +1,298 @@
+package org.usfirst.frc.team2461.robot;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+
+/**
+ * <h1> State Machine Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Runs a state machine whose states are an enum, from a table of transitions set up in
+ * the constructor of the mechanism instead of a switch statement and a method per state.
+ * Each state has a list of transitions, each one a guard, the state it goes to and an
+ * action to do on the way. Every update() the guards of the current state are checked in
+ * the order the transitions were added and the first one that is true is taken. If none
+ * is, the action of the state, if it has one, is run instead.
+ * </p>
+ * <p>
+ * The machine keeps the previous state, when the current state was entered and a log of
+ * the last transitions, so every mechanism reports its states the same way and timed
+ * states can use getTimeInState() instead of keeping their own timers.
+ * </p>
+ * <p>
+ * The tables and the log are arrays indexed by the ordinal of the state, made when the
+ * transitions are added. Nothing is created by update() or transitionTo().
+ * </p>
+ * @param <S> Enum of the states
+ */
+public class StateMachine<S extends Enum<S>>
+{
+	private static final BooleanSupplier ALWAYS = () -> true;
+
+	private final S[] states;
+	private final DoubleSupplier clock;
+
+	private BooleanSupplier[][] guards;
+	private int[][] targets;
+	private Runnable[][] actions;
+	private int[] transitionCount;
+	private Runnable[] stateActions;
+
+	private S state;
+	private S statePrevious;
+	private double entryTime;
+	private long transitions = 0;
+
+	private final int[] logFrom;
+	private final int[] logTo;
+	private final double[] logTime;
+	private int logNext = 0;
+	private int logSize = 0;
+
+	/**
+	 * Creates a StateMachine timed by Robot.timer
+	 * @param statesIn Every state, from the values() method of the enum
+	 * @param initialState State the machine starts in
+	 * @param logCapacity Number of transitions the log keeps
+	 */
+	public StateMachine(S[] statesIn, S initialState, int logCapacity)
+	{
+		this(statesIn, initialState, logCapacity, () -> Robot.timer.get());
+	}
+
+	/**
+	 * Creates a StateMachine
+	 * @param statesIn Every state, from the values() method of the enum
+	 * @param initialState State the machine starts in
+	 * @param logCapacity Number of transitions the log keeps
+	 * @param clockIn Time in seconds the entry times are taken from
+	 */
+	public StateMachine(S[] statesIn, S initialState, int logCapacity, DoubleSupplier clockIn)
+	{
+		if(logCapacity < 1)
+		{
+			throw new IllegalArgumentException("A StateMachine log needs room for at least 1 transition");
+		}
+
+		states = statesIn;
+		clock = clockIn;
+		guards = new BooleanSupplier[states.length][0];
+		targets = new int[states.length][0];
+		actions = new Runnable[states.length][0];
+		transitionCount = new int[states.length];
+		stateActions = new Runnable[states.length];
+
+		logFrom = new int[logCapacity];
+		logTo = new int[logCapacity];
+		logTime = new double[logCapacity];
+
+		state = initialState;
+		statePrevious = initialState;
+		entryTime = clock.getAsDouble();
+	}
+
+	/**
+	 * Adds a transition. Call it while setting up the mechanism, not while it runs.
+	 * @param from State the transition leaves
+	 * @param to State the transition goes to
+	 * @param guard Transition is taken when this is true, or always if it is null
+	 * @param action What to do when the transition is taken, or null for nothing
+	 * @return This StateMachine, so the transitions can be added one after another
+	 */
+	public StateMachine<S> addTransition(S from, S to, BooleanSupplier guard, Runnable action)
+	{
+		int i = from.ordinal();
+		int count = transitionCount[i];
+		if(count == guards[i].length)
+		{
+			int capacity = Math.max(2, count * 2);
+			guards[i] = Arrays.copyOf(guards[i], capacity);
+			targets[i] = Arrays.copyOf(targets[i], capacity);
+			actions[i] = Arrays.copyOf(actions[i], capacity);
+		}
+
+		guards[i][count] = guard != null ? guard : ALWAYS;
+		targets[i][count] = to.ordinal();
+		actions[i][count] = action;
+		transitionCount[i] = count + 1;
+		return this;
+	}
+
+	/**
+	 * Sets what to do every update() that stays in a state
+	 * @param stateIn State the action is for
+	 * @param action What to do, or null for nothing
+	 * @return This StateMachine
+	 */
+	public StateMachine<S> setStateAction(S stateIn, Runnable action)
+	{
+		stateActions[stateIn.ordinal()] = action;
+		return this;
+	}
+
+	/**
+	 * Takes the first transition of the current state whose guard is true, or runs the
+	 * action of the state if there is none. Call it every loop.
+	 * @return True if a transition was taken
+	 */
+	public boolean update()
+	{
+		int i = state.ordinal();
+		BooleanSupplier[] stateGuards = guards[i];
+		for(int t = 0; t < transitionCount[i]; t++)
+		{
+			if(stateGuards[t].getAsBoolean())
+			{
+				Runnable action = actions[i][t];
+				if(action != null)
+				{
+					action.run();
+				}
+				enter(states[targets[i][t]]);
+				return true;
+			}
+		}
+
+		Runnable stateAction = stateActions[i];
+		if(stateAction != null)
+		{
+			stateAction.run();
+		}
+		return false;
+	}
+
+	/**
+	 * Goes straight to a state without checking guards or running transition actions,
+	 * like when the mechanism is reset. It is logged like any other transition.
+	 * @param stateIn State to go to
+	 */
+	public void transitionTo(S stateIn)
+	{
+		enter(stateIn);
+	}
+
+	private void enter(S stateNext)
+	{
+		double time = clock.getAsDouble();
+		logFrom[logNext] = state.ordinal();
+		logTo[logNext] = stateNext.ordinal();
+		logTime[logNext] = time;
+		logNext = (logNext + 1) % logFrom.length;
+		logSize = Math.min(logSize + 1, logFrom.length);
+		transitions++;
+
+		statePrevious = state;
+		state = stateNext;
+		entryTime = time;
+	}
+
+	/**
+	 * @return Current state
+	 */
+	public S getState()
+	{
+		return state;
+	}
+
+	/**
+	 * @return State before the last transition
+	 */
+	public S getPreviousState()
+	{
+		return statePrevious;
+	}
+
+	/**
+	 * @param stateIn State to check
+	 * @return True if the machine is in that state
+	 */
+	public boolean isIn(S stateIn)
+	{
+		return state == stateIn;
+	}
+
+	/**
+	 * @return Name of the current state
+	 */
+	public String getStateString()
+	{
+		return state.name();
+	}
+
+	/**
+	 * @return Name of the state before the last transition
+	 */
+	public String getStatePreviousString()
+	{
+		return statePrevious.name();
+	}
+
+	/**
+	 * @return Time in seconds the current state was entered
+	 */
+	public double getEntryTime()
+	{
+		return entryTime;
+	}
+
+	/**
+	 * @return Seconds since the current state was entered
+	 */
+	public double getTimeInState()
+	{
+		return clock.getAsDouble() - entryTime;
+	}
+
+	/**
+	 * @return Number of transitions since the machine was created, including ones no longer in the log
+	 */
+	public long getTransitionCount()
+	{
+		return transitions;
+	}
+
+	/**
+	 * @return Number of transitions in the log
+	 */
+	public int getLogSize()
+	{
+		return logSize;
+	}
+
+	/**
+	 * @param age 0 for the newest transition in the log, up to getLogSize() - 1 for the oldest
+	 * @return State the transition left
+	 */
+	public S getLogFrom(int age)
+	{
+		return states[logFrom[logIndex(age)]];
+	}
+
+	/**
+	 * @param age 0 for the newest transition in the log, up to getLogSize() - 1 for the oldest
+	 * @return State the transition went to
+	 */
+	public S getLogTo(int age)
+	{
+		return states[logTo[logIndex(age)]];
+	}
+
+	/**
+	 * @param age 0 for the newest transition in the log, up to getLogSize() - 1 for the oldest
+	 * @return Time in seconds of the transition
+	 */
+	public double getLogTime(int age)
+	{
+		return logTime[logIndex(age)];
+	}
+
+	private int logIndex(int age)
+	{
+		if(age < 0 || age >= logSize)
+		{
+			throw new IndexOutOfBoundsException("Transition " + age + " is not in the log of " + logSize);
+		}
+		return (logNext - 1 - age + logFrom.length) % logFrom.length;
+	}
+}
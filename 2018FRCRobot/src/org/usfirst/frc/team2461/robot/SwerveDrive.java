@@ -2,7 +2,11 @@ package org.usfirst.frc.team2461.robot;
 
 import java.util.LinkedList;
 
-import edu.wpi.first.wpilibj.PIDController;
+import org.usfirst.frc.team2461.robot.telemetry.FlightRecorder;
+import org.usfirst.frc.team2461.robot.telemetry.Telemetry;
+
+import edu.wpi.first.wpilibj.GenericHID.Hand;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 
 /**
@@ -30,6 +34,12 @@ public class SwerveDrive
 	 */
 	private double POWER_FACTOR = 0.8;
 	
+	/**
+	 * Fastest any wheel is asked to go by driveVelocity() in inches per second. The wheels
+	 * reach about 150 inches per second at full power.
+	 */
+	private double maxWheelVelocity = 150;
+	
 	/**
 	 * List to hold all commands to be ran in driveAuto() method (Autonomous code)
 	 */
@@ -40,6 +50,72 @@ public class SwerveDrive
 	 */
 	private SwerveDriveAutoCommand currentCommand;
 	
+	/**
+	 * Kinematics engine used to turn robot movement into wheel speeds and directions
+	 */
+	private SwerveKinematics kinematics;
+	
+	/**
+	 * Reused every loop to hold the output of the kinematics engine
+	 */
+	private SwerveModuleState[] moduleStates;
+	
+	/**
+	 * Tells which way the robot is facing for field-oriented driving
+	 */
+	private HeadingSource headingSource;
+	
+	/**
+	 * Keeps track of where the robot is on the field, and the arrays the wheel readings
+	 * are handed to it in every loop
+	 */
+	private SwerveOdometry odometry;
+	private double[] odometryDistance = new double[4];
+	private double[] odometryAngle = new double[4];
+	
+	/**
+	 * True when forward on the sticks means away from the driver instead of
+	 * towards the front of the robot
+	 */
+	private boolean fieldOriented = false;
+	
+	/**
+	 * Names the wheels go by on the SmartDashboard
+	 */
+	private static final String[] WHEEL_NAMES = {"FLWheel", "FRWheel", "RLWheel", "RRWheel"};
+	
+	/**
+	 * Telemetry the wheel information is sent through, and the channel of each value for each wheel
+	 */
+	private Telemetry telemetry;
+	private int[] channelAngle = new int[4];
+	private int[] channelAngleSetpoint = new int[4];
+	private int[] channelError = new int[4];
+	private int[] channelPower = new int[4];
+	private int[] channelDistance = new int[4];
+	private int[] channelDistanceSetpoint = new int[4];
+	
+	/**
+	 * Flight recorder the wheel information is logged to, and the field of each value for each wheel
+	 */
+	private FlightRecorder recorder;
+	private int[] fieldAngle = new int[4];
+	private int[] fieldAngleSetpoint = new int[4];
+	private int[] fieldSpeed = new int[4];
+	private int[] fieldDistance = new int[4];
+	private int[] fieldDistanceSetpoint = new int[4];
+	private int[] fieldEncoderDistance = new int[4];
+	private int[] fieldEncoderRate = new int[4];
+	private int[] fieldTurnRate = new int[4];
+	private int[] fieldDriveOdometer = new int[4];
+	private int[] fieldDriveOutput = new int[4];
+	private int[] fieldTurnOutput = new int[4];
+	private int fieldFieldOriented;
+	private int fieldHeading;
+	private int fieldPoseX;
+	private int fieldPoseY;
+	private int fieldPoseHeading;
+	
 	/**
 	 * Creates Swerve Drive using 4 SwerveMotor objects
 	 * @param motorFL Front-Left motor reference
@@ -49,7 +125,20 @@ public class SwerveDrive
 	 */
 	public SwerveDrive(SwerveMotor motorFL, SwerveMotor motorFR, SwerveMotor motorRL, SwerveMotor motorRR)
 	{
-		motor = new SwerveMotor[]{motorFL, motorFR, motorRL, motorRR};
+		this(new SwerveMotor[]{motorFL, motorFR, motorRL, motorRR});
+	}
+	
+	/**
+	 * Creates Swerve Drive using 4 SwerveMotor objects and the geometry of the robot
+	 * @param motorFL Front-Left motor reference
+	 * @param motorFR Front-Right motor reference
+	 * @param motorRL Rear-Left motor reference
+	 * @param motorRR Rear-Right motor reference
+	 * @param kinematicsIn SwerveKinematics built with the wheel positions of the robot
+	 */
+	public SwerveDrive(SwerveMotor motorFL, SwerveMotor motorFR, SwerveMotor motorRL, SwerveMotor motorRR, SwerveKinematics kinematicsIn)
+	{
+		this(new SwerveMotor[]{motorFL, motorFR, motorRL, motorRR}, kinematicsIn);
 	}
 	
 	/**
@@ -61,77 +150,241 @@ public class SwerveDrive
 	 * <li>3 - Rear Right SwerveMotor</li>
 	 */
 	public SwerveDrive(SwerveMotor[] motorIn)
+	{
+		this(motorIn, new SwerveKinematics());
+	}
+	
+	/**
+	 * Creates Swerve Drive Object using 4-element SwerveMotor array and the geometry of the robot
+	 * @param motorIn 4-element SwerveMotor array <ol>
+	 * <li>0 - Front Left SwerveMotor</li>
+	 * <li>1 - Front Right SwerveMotor</li>
+	 * <li>2 - Rear Left SwerveMotor</li>
+	 * <li>3 - Rear Right SwerveMotor</li>
+	 * </ol>
+	 * @param kinematicsIn SwerveKinematics built with the wheel positions of the robot
+	 */
+	public SwerveDrive(SwerveMotor[] motorIn, SwerveKinematics kinematicsIn)
 	{
 		motor = motorIn;
+		kinematics = kinematicsIn;
+		moduleStates = kinematics.createStates();
+		odometry = new SwerveOdometry(kinematics);
 	}
 	
 	/**
 	 * Used to drive the robot during TeleOp mode.
 	 * <p>Initial code credit goes to <a href="https://github.com/strykeforce/thirdcoast">https://github.com/strykeforce/thirdcoast</a></p>
-	 * @param player MetalSkinsController used to drive robot
+	 * @param player OperatorController used to drive robot
 	 */
-	public void drive(MetalSkinsController player)
+	public void drive(OperatorController player)
 	{
-		double forward = player.getStickLeft()[1];
-		double strafe = -player.getStickLeft()[0]; // Changed it to negative to fix strafing issue
-		double azimuth = player.getStickRight()[0];
+		double forward = player.getY(Hand.kLeft);
+		double strafe = -player.getX(Hand.kLeft); // Changed it to negative to fix strafing issue
+		double azimuth = player.getX(Hand.kRight);
 		
-		final double LENGTH = 1.0;
-	    final double WIDTH = 1.0;
-	    final double RADIUS = Math.hypot(LENGTH, WIDTH);
-
-	    //Original Values
-//	    final double a = strafe - azimuth * (LENGTH / RADIUS);
-//	    final double b = strafe + azimuth * (LENGTH / RADIUS);
-//	    final double c = forward - azimuth * (WIDTH / RADIUS);
-//	    final double d = forward + azimuth * (WIDTH / RADIUS);
-	    
-	    //Corrected Values
-	    final double a = strafe + azimuth * (LENGTH / RADIUS);
-	    final double b = strafe - azimuth * (LENGTH / RADIUS);
-	    final double c = forward + azimuth * (WIDTH / RADIUS);
-	    final double d = forward - azimuth * (WIDTH / RADIUS);
-	    
-	    // wheel speed
-	    double[] ws = new double[4];
-	    ws[0] = Math.hypot(b, d);
-	    ws[1] = Math.hypot(b, c);
-	    ws[2] = Math.hypot(a, d);
-	    ws[3] = Math.hypot(a, c);
-	    
-	    // wheel azimuth
-	    double[] wa = new double[4];
-	    wa[0] = Math.toDegrees(Math.atan2(b, d));
-	    wa[1] = Math.toDegrees(Math.atan2(b, c));
-	    wa[2] = Math.toDegrees(Math.atan2(a, d));
-	    wa[3] = Math.toDegrees(Math.atan2(a, c));
-	    
-	    final double maxWheelSpeed = Math.max(Math.max(ws[0], ws[1]), Math.max(ws[2], ws[3]));
-	    if (maxWheelSpeed > 1.0) {
-	      for (int i = 0; i < ws.length; i++) {
-	        ws[i] /= maxWheelSpeed;
-	      }
-	    }
-	    
-	    for (int i = 0; i < motor.length; i++) {
-	        motor[i].drive(wa[i], ws[i]*POWER_FACTOR);
-	      }
+		if(player.getStartButtonPressed()) { // Start toggles between field-oriented and robot-oriented driving
+			setFieldOriented(!fieldOriented);
+		}
+		
+		if(player.getBackButtonPressed() && headingSource != null) { // Back makes the way the robot faces now the new forward
+			headingSource.reset();
+			odometry.resetGyroReference();
+		}
+		
+		if(player.getBumper(Hand.kLeft)) { // Pivot around the front left corner while held
+			kinematics.setCenterOfRotationToModule(0);
+		} else if(player.getBumper(Hand.kRight)) { // Pivot around the front right corner while held
+			kinematics.setCenterOfRotationToModule(1);
+		} else {
+			kinematics.resetCenterOfRotation();
+		}
+		
+		drive(forward, strafe, azimuth);
+	}
+	
+	/**
+	 * Drives the robot by sending a forward, strafe and rotation request through the
+	 * SwerveKinematics engine. Nothing is allocated so this can be called every loop.
+	 * @param forward Forward speed of the robot from -1.0 to 1.0
+	 * @param strafe Sideways speed of the robot from -1.0 to 1.0
+	 * @param rotation Rotation speed of the robot from -1.0 to 1.0
+	 */
+	public void drive(double forward, double strafe, double rotation)
+	{
+		if(fieldOriented && headingSource != null) // Turn the request from field directions into robot directions
+		{
+			double heading = Math.toRadians(headingSource.getHeading());
+			double cos = Math.cos(heading);
+			double sin = Math.sin(heading);
+			double forwardField = forward;
+			
+			forward = forwardField * cos + strafe * sin;
+			strafe = -forwardField * sin + strafe * cos;
+		}
+		
+		kinematics.compute(forward, strafe, rotation, moduleStates);
+		
+		for (int i = 0; i < motor.length; i++) {
+			motor[i].drive(moduleStates[i].getAngle(), moduleStates[i].getSpeed()*POWER_FACTOR);
+		}
+	}
+	
+	/**
+	 * Drives the robot at a speed in real units, for path followers. The directions are
+	 * the same ones the pose from getPose() uses. If any wheel would have to go faster than
+	 * maxWheelVelocity all the wheels are slowed down together. Nothing is allocated so
+	 * this can be called every loop.
+	 * @param forward Forward speed of the robot in inches per second
+	 * @param left Sideways speed of the robot in inches per second, positive to the left
+	 * @param clockwise Rotation speed of the robot in degrees per second, positive clockwise
+	 */
+	public void driveVelocity(double forward, double left, double clockwise)
+	{
+		kinematics.computeVelocities(forward, left, -Math.toRadians(clockwise), moduleStates);
+		
+		double fastest = 0;
+		for (int i = 0; i < motor.length; i++) {
+			fastest = Math.max(fastest, moduleStates[i].getSpeed());
+		}
+		double scale = fastest > maxWheelVelocity ? maxWheelVelocity / fastest : 1;
+		
+		for (int i = 0; i < motor.length; i++) {
+			motor[i].driveVelocity(moduleStates[i].getAngle(), moduleStates[i].getSpeed() * scale);
+		}
+	}
+	
+	/**
+	 * Sets the fastest any wheel is asked to go by driveVelocity()
+	 * @param maxWheelVelocityIn Speed in inches per second
+	 */
+	public void setMaxWheelVelocity(double maxWheelVelocityIn)
+	{
+		maxWheelVelocity = maxWheelVelocityIn;
+	}
+	
+	/**
+	 * Moves the point the robot spins around, for example to pivot around a
+	 * corner or a box
+	 * @param x Inches forward of the robot center
+	 * @param y Inches left of the robot center
+	 */
+	public void setCenterOfRotation(double x, double y)
+	{
+		kinematics.setCenterOfRotation(x, y);
+	}
+	
+	/**
+	 * Puts the point the robot spins around back to the center of the robot
+	 */
+	public void resetCenterOfRotation()
+	{
+		kinematics.resetCenterOfRotation();
+	}
+	
+	/**
+	 * Sets what the drive train uses to know which way the robot is facing
+	 * @param headingSourceIn HeadingSource such as a GyroHeadingSource
+	 */
+	public void setHeadingSource(HeadingSource headingSourceIn)
+	{
+		headingSource = headingSourceIn;
+	}
+	
+	/**
+	 * Turns field-oriented driving on or off. It only takes effect if a HeadingSource has been set.
+	 * @param isFieldOriented True makes forward on the sticks mean away from the driver
+	 */
+	public void setFieldOriented(boolean isFieldOriented)
+	{
+		fieldOriented = isFieldOriented;
+	}
+	
+	/**
+	 * Shows whether the drive train is driving field-oriented
+	 * @return True if forward on the sticks means away from the driver
+	 */
+	public boolean getFieldOriented()
+	{
+		return fieldOriented && headingSource != null;
+	}
+	
+	/**
+	 * Gets the kinematics engine used by the drive train
+	 * @return SwerveKinematics object holding the robot geometry
+	 */
+	public SwerveKinematics getKinematics()
+	{
+		return kinematics;
+	}
+	
+	/**
+	 * Reads how far every wheel has rolled and which way it points and moves the pose of
+	 * the robot by that much. Uses the HeadingSource for the rotation when there is one.
+	 * Nothing is allocated so this can be called every loop, in every mode.
+	 */
+	public void updateOdometry()
+	{
+		for(int i = 0; i < 4; i++)
+		{
+			odometryDistance[i] = motor[i].getDriveOdometer();
+			odometryAngle[i] = motor[i].getDirection();
+		}
+		
+		double time = Timer.getFPGATimestamp();
+		if(headingSource != null) {
+			odometry.update(time, odometryDistance, odometryAngle, headingSource.getHeading());
+		} else {
+			odometry.update(time, odometryDistance, odometryAngle);
+		}
+	}
+	
+	/**
+	 * Gets where the robot is on the field as of the last updateOdometry(). The object is
+	 * reused every loop, copy it with RobotPose.set() to hold on to it.
+	 * @return RobotPose with X forward and Y left of where the pose was last reset, in inches
+	 */
+	public RobotPose getPose()
+	{
+		return odometry.getPose();
+	}
+	
+	/**
+	 * Moves the pose of the robot, for example to where it starts the match
+	 * @param x Inches along X
+	 * @param y Inches along Y
+	 * @param heading Heading in degrees, positive clockwise
+	 */
+	public void resetPose(double x, double y, double heading)
+	{
+		odometry.resetPose(Timer.getFPGATimestamp(), x, y, heading);
+	}
+	
+	/**
+	 * Gets the SwerveOdometry, for looking up where the robot was at an earlier time
+	 * with getPoseAt()
+	 * @return SwerveOdometry of the drive train
+	 */
+	public SwerveOdometry getOdometry()
+	{
+		return odometry;
 	}
 	
 	/**
 	 * Drives the drive train based off of the commands in the autoCommands Linked List.
-	 * If there are no commands in the list, driveAuto will simply do nothing.
+	 * The current command is driven until it is done, then the next one is loaded.
+	 * If there are no commands left, driveAuto will simply do nothing.
 	 * Add commands to the Linked List by using the addAutoCommand() method
 	 */
 	public void driveAuto()
 	{	
-		if(currentCommand == null && !autoCommands.isEmpty()) //if there is no current command but there are still commands in the list
+		if(currentCommand == null) //if there is no current command
 		{
+			if(autoCommands.isEmpty()) { //if the list of commands is empty, stop running this method
+				return;
+			}
 			currentCommand = autoCommands.poll(); //grab the next command
 			loadAutoCommand(currentCommand);
-			
-		} else if(autoCommands.isEmpty()) { //else if the list of commands is empty
-			return; //if the list of commands is empty, stop running this method
 		}
 		
 		//driveByAutoCommand();
@@ -157,6 +410,16 @@ public class SwerveDrive
 		autoCommands.add(command);
 	}
 	
+	/**
+	 * Returns whether every wheel has started on the current command, so isDone() is about
+	 * this command and not the one before it
+	 * @return True once the control loop of every wheel has run since the command was loaded
+	 */
+	public boolean isAutoCommandStarted()
+	{
+		return motor[0].isDriveCommandStarted() && motor[1].isDriveCommandStarted() && motor[2].isDriveCommandStarted() && motor[3].isDriveCommandStarted();
+	}
+	
 	/**
 	 * Returns whether or not all the drive motors of the drive train have reached their specified distance
 	 * @return Returns true if all the drive motors have reached their setpoints and reset (disabled) themselves
@@ -388,12 +651,67 @@ public class SwerveDrive
 		motor[motorNum].setTurnPIDValues(P, I, D);
 	}
 	
-	public PIDController getTurnPID(int motorNumber)
+	/**
+	 * Sets the limits of the motion profile every wheel follows on autonomous distance moves
+	 * @param maxVelocity Fastest the wheels may drive in inches per second
+	 * @param maxAcceleration Fastest the wheels may speed up or slow down in inches per second per second
+	 */
+	public void setDriveProfile(double maxVelocity, double maxAcceleration)
+	{
+		for(int i = 0; i < 4; i++)
+		{
+			motor[i].setDriveProfile(maxVelocity, maxAcceleration);
+		}
+	}
+	
+	/**
+	 * Method used to set the velocity and acceleration feed forward of the DRIVE PID loop
+	 * while it follows a motion profile
+	 * @param motorNum Number of motor to set values to: <ul>
+	 * <li>0 - Front Left Wheel</li>
+	 * <li>1 - Front Right Wheel</li>
+	 * <li>2 - Rear Left Wheel</li>
+	 * <li>3 - Rear Right Wheel</li>
+	 * @param kV Power for every inch per second
+	 * @param kA Power for every inch per second per second
+	 */
+	public void setDriveFeedForward(int motorNum, double kV, double kA)
+	{
+		motor[motorNum].setDriveFeedForward(kV, kA);
+	}
+	
+	/**
+	 * Sets when an autonomous distance move counts as done, for every wheel
+	 * @param errorTolerance Inches from the distance each wheel has to stay within
+	 * @param velocityTolerance Fastest in inches per second each wheel may still be rolling
+	 * @param window Seconds each wheel has to stay within both
+	 */
+	public void setDriveSettle(double errorTolerance, double velocityTolerance, double window)
+	{
+		for(SwerveMotor wheel : motor) {
+			wheel.setDriveSettle(errorTolerance, velocityTolerance, window);
+		}
+	}
+	
+	/**
+	 * @return Seconds the slowest wheel took to settle after the last autonomous distance
+	 * move started, or NaN if a wheel has not settled
+	 */
+	public double getDriveSettleTime()
+	{
+		double settleTime = 0;
+		for(SwerveMotor wheel : motor) {
+			settleTime = Math.max(settleTime, wheel.getDriveSettleTime());
+		}
+		return settleTime;
+	}
+	
+	public PIDLoop getTurnPID(int motorNumber)
 	{
 		return motor[motorNumber].getTurnPID();
 	}
 	
-	public PIDController getDrivePID(int motorNumber)
+	public PIDLoop getDrivePID(int motorNumber)
 	{
 		return motor[motorNumber].getDrivePID();
 	}
@@ -426,8 +744,7 @@ public class SwerveDrive
 	private void loadAutoCommand(SwerveDriveAutoCommand command) {
 		for(int i = 0; i < 4; i++)
 		{
-			motor[i].setDirectionSetPoint(command.getDirectionSetpoint()[i]);
-			motor[i].setDistanceSetPoint(command.getDistanceSetpoint());
+			motor[i].setDirectionAndDistanceSetPoint(command.getDirectionSetpoint()[i], command.getDistanceSetpoint());
 			motor[i].resetPIDDrive();
 			motor[i].enableTurnPID();
 		}
@@ -446,25 +763,118 @@ public class SwerveDrive
 		currentCommand = null;
 	}
 	
+	/**
+	 * Drives every wheel in the same direction at the same speed
+	 * @param direction Direction in degrees the robot should move
+	 * @param speed Speed from -1.0 to 1.0
+	 */
 	public void driveManual(double direction, double speed) {
-		for (int i = 0; i < motor.length; i++) {
-	        motor[i].drive(direction, (speed*POWER_FACTOR));
-	      }
+		double radians = Math.toRadians(direction);
+		drive(speed * Math.cos(radians), speed * Math.sin(radians), 0);
+	}
+	
+	/**
+	 * Gets the name a wheel goes by on the SmartDashboard and in the flight recorder
+	 * @param wheel Number of wheel. <ul><li>0 = FL</li><li>1 = FR</li><li>2 = RL</li><li>3 = RR</li></ul>
+	 * @return Name of the wheel, for example "FLWheel"
+	 */
+	public static String getWheelName(int wheel) {
+		return WHEEL_NAMES[wheel];
+	}
+	
+	/**
+	 * Adds the wheel information channels to the telemetry. Call this once before the
+	 * telemetry is started and before debugWheel() is used.
+	 * @param telemetryIn Telemetry to send wheel information through
+	 */
+	public void setTelemetry(Telemetry telemetryIn) {
+		telemetry = telemetryIn;
+		for(int i = 0; i < 4; i++)
+		{
+			channelAngle[i] = telemetry.addNumber(WHEEL_NAMES[i] + " Angle");
+			channelAngleSetpoint[i] = telemetry.addNumber(WHEEL_NAMES[i] + " Angle Setpoint");
+			channelError[i] = telemetry.addNumber(WHEEL_NAMES[i] + " Error");
+			channelPower[i] = telemetry.addNumber(WHEEL_NAMES[i] + " Power");
+			channelDistance[i] = telemetry.addNumber(WHEEL_NAMES[i] + " Distance Traveled");
+			channelDistanceSetpoint[i] = telemetry.addNumber(WHEEL_NAMES[i] + " Distance Setpoint");
+			SmartDashboard.putData(WHEEL_NAMES[i] + " Turn PID", getTurnPID(i));
+			SmartDashboard.putData(WHEEL_NAMES[i] + " Drive PID", getDrivePID(i));
+		}
+	}
+	
+	/**
+	 * Adds the wheel fields to the flight recorder. Call this once before the
+	 * recorder is started and before recordFlightData() is used.
+	 * @param recorderIn FlightRecorder to log wheel information to
+	 */
+	public void setFlightRecorder(FlightRecorder recorderIn) {
+		recorder = recorderIn;
+		for(int i = 0; i < 4; i++)
+		{
+			fieldAngle[i] = recorder.addField(WHEEL_NAMES[i] + " Angle");
+			fieldAngleSetpoint[i] = recorder.addField(WHEEL_NAMES[i] + " Angle Setpoint");
+			fieldSpeed[i] = recorder.addField(WHEEL_NAMES[i] + " Speed");
+			fieldDistance[i] = recorder.addField(WHEEL_NAMES[i] + " Distance");
+			fieldDistanceSetpoint[i] = recorder.addField(WHEEL_NAMES[i] + " Distance Setpoint");
+			fieldEncoderDistance[i] = recorder.addField(WHEEL_NAMES[i] + " Encoder Distance");
+			fieldEncoderRate[i] = recorder.addField(WHEEL_NAMES[i] + " Encoder Rate");
+			fieldTurnRate[i] = recorder.addField(WHEEL_NAMES[i] + " Turn Rate");
+			fieldDriveOdometer[i] = recorder.addField(WHEEL_NAMES[i] + " Drive Odometer");
+			fieldDriveOutput[i] = recorder.addField(WHEEL_NAMES[i] + " Drive Output");
+			fieldTurnOutput[i] = recorder.addField(WHEEL_NAMES[i] + " Turn Output");
+		}
+		fieldFieldOriented = recorder.addField("Field Oriented");
+		fieldHeading = recorder.addField("Heading");
+		fieldPoseX = recorder.addField("Pose X");
+		fieldPoseY = recorder.addField("Pose Y");
+		fieldPoseHeading = recorder.addField("Pose Heading");
+	}
+	
+	/**
+	 * Fills in the wheel fields of the next flight recorder record. Does nothing
+	 * until setFlightRecorder() has been called.
+	 */
+	public void recordFlightData() {
+		if(recorder == null) {
+			return;
+		}
+		
+		for(int i = 0; i < 4; i++)
+		{
+			recorder.set(fieldAngle[i], motor[i].getDirection());
+			recorder.set(fieldAngleSetpoint[i], motor[i].getDirectionSetPoint());
+			recorder.set(fieldSpeed[i], motor[i].getDriveSpeed());
+			recorder.set(fieldDistance[i], motor[i].getDistance());
+			recorder.set(fieldDistanceSetpoint[i], motor[i].getDistanceSetPoint());
+			recorder.set(fieldEncoderDistance[i], motor[i].getDriveEncoderDistance());
+			recorder.set(fieldEncoderRate[i], motor[i].getDriveSpeed());
+			recorder.set(fieldTurnRate[i], motor[i].getTurnRate());
+			recorder.set(fieldDriveOdometer[i], motor[i].getDriveOdometer());
+			recorder.set(fieldDriveOutput[i], motor[i].getDriveOutput());
+			recorder.set(fieldTurnOutput[i], motor[i].getTurnOutput());
+		}
+		recorder.set(fieldFieldOriented, fieldOriented);
+		recorder.set(fieldHeading, headingSource != null ? headingSource.getHeading() : 0);
+		recorder.set(fieldPoseX, odometry.getPose().getX());
+		recorder.set(fieldPoseY, odometry.getPose().getY());
+		recorder.set(fieldPoseHeading, odometry.getPose().getHeading());
 	}
 	
 	/**
 	 * Writes information about a wheel to the SmartDashboard for review and
-	 * troubleshooting
+	 * troubleshooting. Does nothing until setTelemetry() has been called.
 	 * @param wheel Number of wheel. <ul><li>0 = FL</li><li>1 = FR</li><li>2 = RL</li><li>3 = RR</li></ul>
 	 */
 	public void debugWheel(int wheel) {
-		SmartDashboard.putNumber(motor[wheel].getWheelPosition() + " Angle", getTurnEncoderAngles()[wheel]);
-		SmartDashboard.putNumber(motor[wheel].getWheelPosition() + " Angle Setpoint", getTurnEncoderSetpoints()[wheel]);
-		SmartDashboard.putNumber(motor[wheel].getWheelPosition() + " Error", getPIDTurnErrors()[wheel]);
-		SmartDashboard.putNumber(motor[wheel].getWheelPosition() + " Power", getDriveSpeed()[wheel]);
-		SmartDashboard.putNumber(motor[wheel].getWheelPosition() + " Distance Traveled", getDistance()[wheel]);
-		SmartDashboard.putNumber(motor[wheel].getWheelPosition() + " Distance Setpoint", getDistanceSetpoints()[wheel]);
-		SmartDashboard.putData(getTurnPID(wheel));
-		SmartDashboard.putData(getDrivePID(wheel));
+		if(telemetry == null) {
+			return;
+		}
+		
+		telemetry.putNumber(channelAngle[wheel], motor[wheel].getDirection());
+		telemetry.putNumber(channelAngleSetpoint[wheel], motor[wheel].getDirectionSetPoint());
+		telemetry.putNumber(channelError[wheel], motor[wheel].getPIDTurnError());
+		telemetry.putNumber(channelPower[wheel], motor[wheel].getDriveSpeed());
+		telemetry.putNumber(channelDistance[wheel], motor[wheel].getDistance());
+		telemetry.putNumber(channelDistanceSetpoint[wheel], motor[wheel].getDistanceSetPoint());
 	}
 }
@@ -0,0 +1,251 @@
+package org.usfirst.frc.team2461.robot;
+
+/**
+ * <h1> Swerve Kinematics Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Turns a forward, strafe and rotation request for the whole robot into a speed
+ * and azimuth for each of the 4 SwerveMotors. It does not create any objects while
+ * computing so it is safe to call every loop of TeleOp and Autonomous.
+ * </p>
+ * <p>Initial code credit goes to <a href="https://github.com/strykeforce/thirdcoast">https://github.com/strykeforce/thirdcoast</a></p>
+ */
+public class SwerveKinematics
+{
+	/**
+	 * Number of SwerveMotors on the drive train
+	 */
+	public static final int MODULE_COUNT = 4;
+
+	/**
+	 * Position of each wheel from the center of the robot in inches.
+	 * X points towards the front of the robot and Y points towards the left side.
+	 */
+	private final double[] moduleX = new double[MODULE_COUNT];
+	private final double[] moduleY = new double[MODULE_COUNT];
+
+	/**
+	 * How much of the rotation request gets added to the strafe and forward
+	 * parts of each wheel. Worked out every time the center of rotation changes
+	 * so compute() never has to.
+	 */
+	private final double[] strafeRotationFactor = new double[MODULE_COUNT];
+	private final double[] forwardRotationFactor = new double[MODULE_COUNT];
+
+	private double centerOfRotationX = Double.NaN;
+	private double centerOfRotationY = Double.NaN;
+
+	/**
+	 * Creates a SwerveKinematics engine for a square robot. The rotation math
+	 * only depends on the shape of the robot, not its size.
+	 */
+	public SwerveKinematics()
+	{
+		this(1.0, 1.0);
+	}
+
+	/**
+	 * Creates a SwerveKinematics engine for a rectangular robot with a wheel in every corner
+	 * @param wheelBase Distance between the front and rear wheels in inches
+	 * @param trackWidth Distance between the left and right wheels in inches
+	 */
+	public SwerveKinematics(double wheelBase, double trackWidth)
+	{
+		this(new double[]{wheelBase / 2, wheelBase / 2, -wheelBase / 2, -wheelBase / 2},
+				new double[]{trackWidth / 2, -trackWidth / 2, trackWidth / 2, -trackWidth / 2});
+	}
+
+	/**
+	 * Creates a SwerveKinematics engine using the position of each wheel
+	 * @param moduleXIn 4-element array of how far forward of the robot center each wheel is in inches
+	 * @param moduleYIn 4-element array of how far left of the robot center each wheel is in inches <ol>
+	 * <li>0 - Front Left Wheel</li>
+	 * <li>1 - Front Right Wheel</li>
+	 * <li>2 - Rear Left Wheel</li>
+	 * <li>3 - Rear Right Wheel</li>
+	 * </ol>
+	 */
+	public SwerveKinematics(double[] moduleXIn, double[] moduleYIn)
+	{
+		if(moduleXIn.length != MODULE_COUNT || moduleYIn.length != MODULE_COUNT)
+		{
+			throw new IllegalArgumentException("SwerveKinematics needs a position for all " + MODULE_COUNT + " wheels");
+		}
+
+		for(int i = 0; i < MODULE_COUNT; i++)
+		{
+			moduleX[i] = moduleXIn[i];
+			moduleY[i] = moduleYIn[i];
+		}
+
+		setCenterOfRotation(0, 0);
+	}
+
+	/**
+	 * Computes the speed and azimuth of every wheel and writes them into out.
+	 * <p>
+	 * If any wheel would have to go faster than full speed, all the wheel speeds are
+	 * scaled down together so the robot still moves in the requested direction.
+	 * </p>
+	 * @param forward Forward speed of the robot from -1.0 to 1.0
+	 * @param strafe Sideways speed of the robot from -1.0 to 1.0
+	 * @param rotation Rotation speed of the robot from -1.0 to 1.0. Full rotation
+	 * spins the wheel farthest from the center of rotation at full speed
+	 * @param out 4-element SwerveModuleState array that gets filled in <ol>
+	 * <li>0 - Front Left Wheel</li>
+	 * <li>1 - Front Right Wheel</li>
+	 * <li>2 - Rear Left Wheel</li>
+	 * <li>3 - Rear Right Wheel</li>
+	 * </ol>
+	 */
+	public void compute(double forward, double strafe, double rotation, SwerveModuleState[] out)
+	{
+		for(int i = 0; i < MODULE_COUNT; i++)
+		{
+			double strafeWheel = strafe + rotation * strafeRotationFactor[i];
+			double forwardWheel = forward + rotation * forwardRotationFactor[i];
+			out[i].set(Math.hypot(strafeWheel, forwardWheel), Math.toDegrees(Math.atan2(strafeWheel, forwardWheel)));
+		}
+
+		normalize(out);
+	}
+
+	/**
+	 * Computes the speed and direction of every wheel for a movement of the robot in real
+	 * units, for path followers. The directions are the ones SwerveDriveAutoCommandFactory
+	 * and SwerveOdometry use, 180 degrees forward and 90 degrees left, ready for
+	 * SwerveMotor.driveVelocity(). The robot always spins around its center and the speeds
+	 * are not limited.
+	 * @param forward Forward speed of the robot in inches per second
+	 * @param left Sideways speed of the robot in inches per second, positive to the left
+	 * @param counterClockwise Rotation speed of the robot in radians per second
+	 * @param out 4-element SwerveModuleState array that gets filled in
+	 */
+	public void computeVelocities(double forward, double left, double counterClockwise, SwerveModuleState[] out)
+	{
+		for(int i = 0; i < MODULE_COUNT; i++)
+		{
+			double forwardWheel = forward - counterClockwise * moduleY[i];
+			double leftWheel = left + counterClockwise * moduleX[i];
+			out[i].set(Math.hypot(forwardWheel, leftWheel), SwerveModuleState.wrapAngle(Math.toDegrees(Math.atan2(leftWheel, -forwardWheel))));
+		}
+	}
+
+	/**
+	 * Moves the point the robot spins around. Use this to pivot around a corner of
+	 * the robot or around a box instead of the center of the robot. Nothing happens
+	 * if the center of rotation is already at that point, so this is cheap to call every loop.
+	 * @param x Inches forward of the robot center
+	 * @param y Inches left of the robot center
+	 */
+	public void setCenterOfRotation(double x, double y)
+	{
+		if(x == centerOfRotationX && y == centerOfRotationY)
+		{
+			return;
+		}
+
+		double maxRadius = 0;
+		for(int i = 0; i < MODULE_COUNT; i++)
+		{
+			maxRadius = Math.max(maxRadius, Math.hypot(moduleX[i] - x, moduleY[i] - y));
+		}
+
+		for(int i = 0; i < MODULE_COUNT; i++)
+		{
+			strafeRotationFactor[i] = -(moduleX[i] - x) / maxRadius;
+			forwardRotationFactor[i] = -(moduleY[i] - y) / maxRadius;
+		}
+
+		centerOfRotationX = x;
+		centerOfRotationY = y;
+	}
+
+	/**
+	 * Moves the point the robot spins around to one of its wheels
+	 * @param module Number of wheel. <ul><li>0 = FL</li><li>1 = FR</li><li>2 = RL</li><li>3 = RR</li></ul>
+	 */
+	public void setCenterOfRotationToModule(int module)
+	{
+		setCenterOfRotation(moduleX[module], moduleY[module]);
+	}
+
+	/**
+	 * Puts the point the robot spins around back to the center of the robot
+	 */
+	public void resetCenterOfRotation()
+	{
+		setCenterOfRotation(0, 0);
+	}
+
+	/**
+	 * Gets the X position of the center of rotation
+	 * @return Inches forward of the robot center
+	 */
+	public double getCenterOfRotationX()
+	{
+		return centerOfRotationX;
+	}
+
+	/**
+	 * Gets the Y position of the center of rotation
+	 * @return Inches left of the robot center
+	 */
+	public double getCenterOfRotationY()
+	{
+		return centerOfRotationY;
+	}
+
+	/**
+	 * Gets how far forward of the robot center a wheel is
+	 * @param module Number of wheel. <ul><li>0 = FL</li><li>1 = FR</li><li>2 = RL</li><li>3 = RR</li></ul>
+	 * @return Distance in inches
+	 */
+	public double getModuleX(int module)
+	{
+		return moduleX[module];
+	}
+
+	/**
+	 * Gets how far left of the robot center a wheel is
+	 * @param module Number of wheel. <ul><li>0 = FL</li><li>1 = FR</li><li>2 = RL</li><li>3 = RR</li></ul>
+	 * @return Distance in inches
+	 */
+	public double getModuleY(int module)
+	{
+		return moduleY[module];
+	}
+
+	/**
+	 * Creates a SwerveModuleState array sized for this drive train. Call this once
+	 * and reuse the array every loop.
+	 * @return 4-element SwerveModuleState array
+	 */
+	public SwerveModuleState[] createStates()
+	{
+		SwerveModuleState[] states = new SwerveModuleState[MODULE_COUNT];
+		for(int i = 0; i < MODULE_COUNT; i++)
+		{
+			states[i] = new SwerveModuleState();
+		}
+
+		return states;
+	}
+
+	private void normalize(SwerveModuleState[] states)
+	{
+		double maxWheelSpeed = 0;
+		for(int i = 0; i < MODULE_COUNT; i++)
+		{
+			maxWheelSpeed = Math.max(maxWheelSpeed, states[i].getSpeed());
+		}
+
+		if(maxWheelSpeed > 1.0)
+		{
+			for(int i = 0; i < MODULE_COUNT; i++)
+			{
+				states[i].scaleSpeed(1.0 / maxWheelSpeed);
+			}
+		}
+	}
+}
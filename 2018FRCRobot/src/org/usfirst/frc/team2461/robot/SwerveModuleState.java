@@ -0,0 +1,126 @@
+package org.usfirst.frc.team2461.robot;
+
+/**
+ * <h1> Swerve Module State Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Holds the speed and azimuth one SwerveMotor should be driven at. Objects of this
+ * class are meant to be created once and then refilled every loop by SwerveKinematics
+ * so that driving the robot does not create any garbage.
+ * </p>
+ */
+public class SwerveModuleState
+{
+	private double speed;
+	private double angle;
+
+	/**
+	 * Creates a SwerveModuleState with zero speed pointing at zero degrees
+	 */
+	public SwerveModuleState()
+	{
+		this(0, 0);
+	}
+
+	/**
+	 * Creates a SwerveModuleState
+	 * @param speedIn Speed of the wheel from -1.0 to 1.0
+	 * @param angleIn Azimuth of the wheel in degrees from -180 to 180
+	 */
+	public SwerveModuleState(double speedIn, double angleIn)
+	{
+		speed = speedIn;
+		angle = angleIn;
+	}
+
+	/**
+	 * Sets both values of the state at once
+	 * @param speedIn Speed of the wheel from -1.0 to 1.0
+	 * @param angleIn Azimuth of the wheel in degrees from -180 to 180
+	 */
+	public void set(double speedIn, double angleIn)
+	{
+		speed = speedIn;
+		angle = angleIn;
+	}
+
+	/**
+	 * Gets the speed the wheel should be driven at
+	 * @return Speed from -1.0 to 1.0
+	 */
+	public double getSpeed()
+	{
+		return speed;
+	}
+
+	/**
+	 * Gets the azimuth the wheel should be pointed at
+	 * @return Azimuth in degrees from -180 to 180
+	 */
+	public double getAngle()
+	{
+		return angle;
+	}
+
+	/**
+	 * Scales the speed of the wheel by the given factor
+	 * @param factor Value to multiply the speed by
+	 */
+	public void scaleSpeed(double factor)
+	{
+		speed *= factor;
+	}
+
+	/**
+	 * Changes the state so the wheel turns the least amount to get there.
+	 * <p>
+	 * A wheel pointing one way and driving backwards moves the robot the same as a
+	 * wheel pointing the opposite way and driving forwards. If reaching the requested
+	 * azimuth would take more than a 90 degree turn, the azimuth is flipped 180 degrees
+	 * and the speed is inverted instead. Afterwards the azimuth is in the range 0 to 359.99
+	 * </p>
+	 * @param currentAngle Azimuth the wheel is pointing right now in degrees
+	 * @return True if the speed was inverted
+	 */
+	public boolean optimize(double currentAngle)
+	{
+		boolean reversed = Math.abs(angleDifference(angle, currentAngle)) > 90;
+		
+		if(reversed)
+		{
+			angle += 180;
+			speed = -speed;
+		}
+		
+		angle = wrapAngle(angle);
+		return reversed;
+	}
+	
+	/**
+	 * Gets the shortest way around the circle from one angle to another
+	 * @param to Angle to go to in degrees
+	 * @param from Angle to start from in degrees
+	 * @return Difference in degrees from -180 to 179.99. Positive means to is clockwise of from
+	 */
+	public static double angleDifference(double to, double from)
+	{
+		double difference = to - from;
+		return difference - 360 * Math.floor((difference + 180) / 360);
+	}
+	
+	/**
+	 * Puts any angle into the range 0 to 359.99
+	 * @param angleIn Angle in degrees
+	 * @return The same direction in the range 0 to 359.99 degrees
+	 */
+	public static double wrapAngle(double angleIn)
+	{
+		return angleIn - 360 * Math.floor(angleIn / 360);
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "SwerveModuleState [speed=" + speed + ", angle=" + angle + "]";
+	}
+}
@@ -3,10 +3,9 @@ package org.usfirst.frc.team2461.robot;
 import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
 
 import edu.wpi.first.wpilibj.Encoder;
-import edu.wpi.first.wpilibj.PIDController;
 import edu.wpi.first.wpilibj.PIDSourceType;
 import edu.wpi.first.wpilibj.Spark;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj.SpeedController;
 
 /**
  * <h1> Swerve Motor Class </h1>
@@ -17,13 +16,19 @@ import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
  */
 public class SwerveMotor
 {
-	private MA3Encoder encTurn;
-	private Encoder encDrive;
-	private WPI_TalonSRX motorDrive;
-	private Spark motorTurn;
+	/**
+	 * How often the turn and drive PID loops run in seconds. ModuleControlScheduler
+	 * runs them at this rate.
+	 */
+	public static final double CONTROL_PERIOD = 0.005;
+	
+	private AbsoluteEncoder encTurn;
+	private DistanceEncoder encDrive;
+	private SpeedController motorDrive;
+	private SpeedController motorTurn;
 	private boolean isInverted = false;
-	private PIDController pidDrive;
-	private PIDController pidTurn;
+	private PIDLoop pidDrive;
+	private PIDLoop pidTurn;
 	
 	private double kPDrive = 0.001;
 	private double kIDrive = 0;
@@ -34,10 +39,82 @@ public class SwerveMotor
 	private double kITurn = 0.001;
 	private double kDTurn = 0.01;
 	
-	private double pidDrivePower = 0.65;
+	/**
+	 * Most power the drive PID loop may give. The motion profile keeps the speed of
+	 * autonomous moves down, so the loop gets full power to stay on the profile.
+	 */
+	private double pidDrivePower = 1;
 	
-	private double testTime;
-	private double timeNow;
+	/**
+	 * Limits of the motion profile that autonomous distance moves follow, in inches per
+	 * second and inches per second per second
+	 */
+	private double maxDriveVelocity = 90;
+	private double maxDriveAcceleration = 150;
+	
+	/**
+	 * Drive power for every inch per second and every inch per second per second the profile
+	 * asks for. The wheel reaches about 150 inches per second at full power and takes about
+	 * 0.15 seconds to get up to a new speed.
+	 */
+	private volatile double kVDrive = 1.0 / 150;
+	private volatile double kADrive = 0.15 / 150;
+	
+	/**
+	 * Slowest speed in inches per second driveVelocity() steers the wheel for. Below it the
+	 * wheel keeps its direction so it does not twitch around when a path comes to a stop.
+	 */
+	private static final double MIN_STEER_VELOCITY = 0.5;
+	
+	private TrapezoidProfile driveProfile = new TrapezoidProfile(maxDriveVelocity, maxDriveAcceleration);
+	
+	/**
+	 * The main loop hands a new move to the control thread by setting driveProfileStart and
+	 * driveProfileGoal and counting up driveProfileRequests. Only the control thread plans
+	 * and samples the profile. The start is taken by the main loop so a replayed flight log
+	 * plans exactly the same move.
+	 */
+	private volatile double driveProfileStart = 0;
+	private volatile double driveProfileGoal = 0;
+	private volatile int driveProfileRequests = 0;
+	private volatile boolean driveProfileFinished = true;
+	private int driveProfileStarted = 0;
+	private double driveProfileTime = 0;
+	
+	/**
+	 * The control thread counts controlLoops up every time it runs. A new autonomous
+	 * setpoint remembers the count it was set at, and the on target flags of the PID loops
+	 * are only believed once the control loop has run since then, so they are never left
+	 * over from the move before.
+	 */
+	private volatile int controlLoops = 0;
+	private volatile int driveCommandLoop = 0;
+	
+	/**
+	 * Decides when an autonomous distance move is done: within 2 inches of the distance and
+	 * rolling slower than 2 inches per second for 60 milliseconds of control loops. Fed by
+	 * the control thread, which counts its own time so the window is 12 loops however late
+	 * they run. The control thread also resets it when it picks up a new move, so no sample
+	 * worked out against the goal before can land in the window of the new one.
+	 */
+	private SettleDetector driveSettle = new SettleDetector(2, 2, 0.06, 32);
+	
+	/**
+	 * Distance the drive encoder had rolled before each time it was reset, so odometry
+	 * can see every inch the wheel has ever rolled
+	 */
+	private double driveOdometerOffset = 0;
+	
+	/**
+	 * True when the last autonomous setpoint was flipped 180 degrees so the wheel drives
+	 * backwards to reach the distance. Cleared when any other kind of driving takes over.
+	 */
+	private boolean driveReversed = false;
+	
+	/**
+	 * Reused to work out the shortest way to turn the wheel
+	 */
+	private SwerveModuleState targetState = new SwerveModuleState();
 	
 	private enum WheelPosition {
 		FLWheel, FRWheel, RLWheel, RRWheel
@@ -49,7 +126,12 @@ public class SwerveMotor
 		BEGIN, DRIVE_TEST, TURN_TEST, END
 	}
 	
-	private TestState testState;
+	/**
+	 * Length in seconds of each of the two steps of the wheel test
+	 */
+	private static final double TEST_STEP_TIME = 3;
+	
+	private StateMachine<TestState> testMachine = new StateMachine<>(TestState.values(), TestState.BEGIN, 8);
 	
 	//Constructors
 	/**
@@ -61,14 +143,7 @@ public class SwerveMotor
 	 */
 	public SwerveMotor(int driveCanID, int turnPWMChannel, MA3Encoder encTurnIn, Encoder encDriveIn)
 	{
-		motorDrive = new WPI_TalonSRX(driveCanID);
-		encDrive = encDriveIn;
-		
-		motorTurn = new Spark(turnPWMChannel);
-		encTurn = encTurnIn;
-		configureEncoders();
-		setupPIDControllers();
-		configDriveMotor();
+		this(new WPI_TalonSRX(driveCanID), new Spark(turnPWMChannel), encTurnIn, encDriveIn, false);
 	}
 	
 	/**
@@ -81,15 +156,7 @@ public class SwerveMotor
 	 */
 	public SwerveMotor(int driveCanID, int turnPWMChannel, MA3Encoder encTurnIn, Encoder encDriveIn, boolean inverted)
 	{
-		motorDrive = new WPI_TalonSRX(driveCanID);
-		encDrive = encDriveIn;
-		setInverted(inverted);
-		
-		motorTurn = new Spark (turnPWMChannel);
-		encTurn = encTurnIn;
-		configureEncoders();
-		setupPIDControllers();
-		configDriveMotor();
+		this(new WPI_TalonSRX(driveCanID), new Spark(turnPWMChannel), encTurnIn, encDriveIn, inverted);
 	}
 	
 	/**
@@ -102,14 +169,7 @@ public class SwerveMotor
 	 */
 	public SwerveMotor(int driveCanID, int turnPWMChannel, int encTurnAIChannel, int encDriveDIOChannel0, int encDriveDIOChannel1)
 	{
-		motorDrive = new WPI_TalonSRX(driveCanID);
-		encDrive = new Encoder(encDriveDIOChannel0, encDriveDIOChannel1);
-		
-		motorTurn = new Spark (turnPWMChannel);
-		encTurn = new MA3Encoder(encTurnAIChannel);
-		configureEncoders();
-		setupPIDControllers();
-		configDriveMotor();
+		this(driveCanID, turnPWMChannel, new MA3Encoder(encTurnAIChannel), new Encoder(encDriveDIOChannel0, encDriveDIOChannel1), false);
 	}
 	
 	/**
@@ -123,15 +183,7 @@ public class SwerveMotor
 	 */
 	public SwerveMotor(int driveCanID, int turnPWMChannel, int encTurnAIChannel, int encDriveDIOChannel0, int encDriveDIOChannel1, boolean inverted)
 	{
-		motorDrive = new WPI_TalonSRX(driveCanID);
-		encDrive = new Encoder(encDriveDIOChannel0, encDriveDIOChannel1);
-		setInverted(inverted);
-		
-		motorTurn = new Spark (turnPWMChannel);
-		encTurn = new MA3Encoder(encTurnAIChannel);
-		configureEncoders();
-		setupPIDControllers();
-		configDriveMotor();
+		this(driveCanID, turnPWMChannel, new MA3Encoder(encTurnAIChannel), new Encoder(encDriveDIOChannel0, encDriveDIOChannel1), inverted);
 	}
 	
 	/**
@@ -143,16 +195,7 @@ public class SwerveMotor
 	 */
 	public SwerveMotor(WPI_TalonSRX motorDriveIn, Spark motorTurnIn, MA3Encoder encTurnIn, Encoder encDriveIn)
 	{
-		motorDrive = motorDriveIn;
-		encDrive = encDriveIn;
-		setInverted(motorDrive.getInverted());
-		pidDrive = new PIDController(kPDrive, kIDrive, kDDrive, kFDrive, encDrive, motorDrive);
-		
-		motorTurn = motorTurnIn;
-		encTurn = encTurnIn;
-		configureEncoders();
-		setupPIDControllers();
-		configDriveMotor();
+		this(motorDriveIn, motorTurnIn, encTurnIn, encDriveIn, motorDriveIn.getInverted());
 	}
 	
 	/**
@@ -164,6 +207,21 @@ public class SwerveMotor
 	 * @param inverted True will run the motor backwards when positive power is applied
 	 */
 	public SwerveMotor(WPI_TalonSRX motorDriveIn, Spark motorTurnIn, MA3Encoder encTurnIn, Encoder encDriveIn, boolean inverted)
+	{
+		this(motorDriveIn, motorTurnIn, encTurnIn, configureDriveEncoder(encDriveIn), inverted);
+		configDriveMotor(motorDriveIn);
+	}
+	
+	/**
+	 * Creates a Swerve Motor object from any hardware. Used by the simulator to run the
+	 * Swerve Motor off of the robot.
+	 * @param motorDriveIn Motor that drives the wheel
+	 * @param motorTurnIn Motor that turns the wheel
+	 * @param encTurnIn Encoder that measures the turn angle
+	 * @param encDriveIn Encoder to measure distance travel in inches
+	 * @param inverted True will run the motor backwards when positive power is applied
+	 */
+	public SwerveMotor(SpeedController motorDriveIn, SpeedController motorTurnIn, AbsoluteEncoder encTurnIn, DistanceEncoder encDriveIn, boolean inverted)
 	{
 		motorDrive = motorDriveIn;
 		encDrive = encDriveIn;
@@ -173,7 +231,7 @@ public class SwerveMotor
 		encTurn = encTurnIn;
 		configureEncoders();
 		setupPIDControllers();
-		configDriveMotor();
+		addTestTransitions();
 	}
 	
 	//Accessors
@@ -186,6 +244,15 @@ public class SwerveMotor
 		return encTurn.getAngle();
 	}
 	
+	/**
+	 * Gets how fast the wheel is turning
+	 * @return Degrees per second, positive when the angle is increasing
+	 */
+	public double getTurnRate()
+	{
+		return encTurn.getRate();
+	}
+	
 	/**
 	 * Sets the direction setpoint that the turning PID loop will
 	 * try to turn the wheel too
@@ -211,11 +278,12 @@ public class SwerveMotor
 	 */
 	public double getDistanceTraveled()
 	{
-		return encDrive.getDistance();
+		return getDistance();
 	}
 	
 	/**
-	 * Drive the motor a certain distance
+	 * Drive the motor a certain distance. The drive PID loop follows a trapezoid motion
+	 * profile from where the wheel is to the setpoint instead of jumping straight to it.
 	 * @param setPoint Setpoint in inches
 	 */
 	public void setDistanceSetPoint(double setPoint)
@@ -225,7 +293,71 @@ public class SwerveMotor
 			encDrive.setPIDSourceType(PIDSourceType.kDisplacement);
 		}
 		
-		pidDrive.setSetpoint(setPoint);
+		driveReversed = false;
+		requestDriveProfile(encDrive.getDistance(), setPoint);
+	}
+	
+	/**
+	 * Asks the control thread to plan a new profile the next time the drive PID loop runs
+	 * @param start Distance in inches the profile should start at
+	 * @param goal Distance in inches the profile should end at
+	 */
+	private void requestDriveProfile(double start, double goal)
+	{
+		driveProfileStart = start;
+		driveProfileGoal = goal;
+		driveProfileFinished = false;
+		driveProfileRequests = driveProfileRequests + 1;
+	}
+	
+	/**
+	 * Sets the limits of the motion profile autonomous distance moves follow. Moves that
+	 * are already going keep the limits they started with.
+	 * @param maxVelocity Fastest the wheel may drive in inches per second
+	 * @param maxAcceleration Fastest the wheel may speed up or slow down in inches per second per second
+	 */
+	public void setDriveProfile(double maxVelocity, double maxAcceleration)
+	{
+		driveProfile.setConstraints(maxVelocity, maxAcceleration);
+	}
+	
+	/**
+	 * Sets how much drive power is given for the velocity and acceleration of the motion profile
+	 * @param kV Power for every inch per second
+	 * @param kA Power for every inch per second per second
+	 */
+	public void setDriveFeedForward(double kV, double kA)
+	{
+		kVDrive = kV;
+		kADrive = kA;
+	}
+	
+	/**
+	 * Sets the direction and distance setpoints for autonomous driving. If the wheel is
+	 * closer to the opposite direction it will turn there and drive backwards instead, so
+	 * it never turns more than 90 degrees.
+	 * @param direction Direction in degrees from 0 to 359.99
+	 * @param distance Distance in inches
+	 */
+	public void setDirectionAndDistanceSetPoint(double direction, double distance)
+	{
+		targetState.set(distance, direction);
+		boolean reversed = targetState.optimize(getDirection());
+		
+		setDirectionSetPoint(targetState.getAngle());
+		setDistanceSetPoint(targetState.getSpeed());
+		driveReversed = reversed;
+		driveCommandLoop = controlLoops;
+	}
+	
+	/**
+	 * Shows whether the control loop has run since the last autonomous setpoint was set,
+	 * so its PID errors are for the new setpoint
+	 * @return True once the wheel is working on the setpoint from setDirectionAndDistanceSetPoint()
+	 */
+	public boolean isDriveCommandStarted()
+	{
+		return controlLoops != driveCommandLoop;
 	}
 	
 	/**
@@ -239,6 +371,7 @@ public class SwerveMotor
 			encDrive.setPIDSourceType(PIDSourceType.kRate);
 		}
 		
+		pidDrive.setFeedForward(0);
 		pidDrive.setSetpoint(setPoint);
 	}
 	
@@ -248,7 +381,7 @@ public class SwerveMotor
 	 */
 	public double getDistanceSetPoint()
 	{
-		return pidDrive.getSetpoint();
+		return driveReversed ? -driveProfileGoal : driveProfileGoal;
 	}
 	
 	/**
@@ -257,7 +390,7 @@ public class SwerveMotor
 	 */
 	public double getDistanceFromSetPoint()
 	{
-		return pidDrive.getError();
+		return driveProfileGoal - encDrive.getDistance();
 	}
 
 	/**
@@ -284,34 +417,99 @@ public class SwerveMotor
 	//Mutators
 	private void configureEncoders() {
 		encTurn.setPIDSourceType(PIDSourceType.kDisplacement);
-		
-		encDrive.setDistancePerPulse(0.094153);
-		encDrive.setMaxPeriod(0.5);
-		encDrive.setMinRate(0.2);
+	}
+	
+	private static DistanceEncoder configureDriveEncoder(Encoder encoder) {
+		encoder.setDistancePerPulse(0.094153);
+		encoder.setMaxPeriod(0.5);
+		encoder.setMinRate(0.2);
+		return new DriveEncoder(encoder);
 	}
 	
 	private void setupPIDControllers()
 	{
-		pidDrive = new PIDController(kPDrive, kIDrive, kDDrive, kFDrive, encDrive, motorDrive);
+		pidDrive = new PIDLoop(kPDrive, kIDrive, kDDrive, kFDrive, encDrive, motorDrive);
 		pidDrive.setOutputRange(-pidDrivePower, pidDrivePower); //Set PID for Drive to output restricted power
 		pidDrive.setAbsoluteTolerance(5);
+		pidDrive.setPeriod(CONTROL_PERIOD);
 		
-		pidTurn = new PIDController(kPTurn, kITurn, kDTurn, encTurn, motorTurn);
-		pidTurn.setInputRange(0, 359);
+		pidTurn = new PIDLoop(kPTurn, kITurn, kDTurn, encTurn, motorTurn);
+		pidTurn.setInputRange(0, 360);
 		pidTurn.setOutputRange(-1, 1);
 		pidTurn.setContinuous();
 		pidTurn.setAbsoluteTolerance(3);
+		pidTurn.setPeriod(CONTROL_PERIOD);
+		pidTurn.setInputRate(encTurn::getRate);
 		pidTurn.enable();
 		pidTurn.setEnabled(true);
 	}
 	
 	/**
-	 * Method to drive the wheel in normal teleop mode.
+	 * Runs one step of the turn and drive PID loops. The PID loops do not run on their own,
+	 * a ModuleControlScheduler has to call this every CONTROL_PERIOD seconds.
+	 */
+	public void runControlLoop()
+	{
+		controlLoops = controlLoops + 1;
+		encTurn.update(); // The only read of the turn encoder, so the P and D terms see the same sample
+		pidTurn.calculate();
+		if(pidDrive.isEnabled() && encDrive.getPIDSourceType() == PIDSourceType.kDisplacement)
+		{
+			followDriveProfile();
+			double distance = encDrive.getDistance();
+			driveSettle.update(controlLoops * CONTROL_PERIOD, distance, driveProfileGoal - distance);
+		}
+		pidDrive.calculate();
+	}
+	
+	/**
+	 * Moves the drive setpoint along the motion profile one CONTROL_PERIOD and sets the
+	 * feed forward for the velocity and acceleration the profile wants there. Only called
+	 * by the control thread.
+	 */
+	private void followDriveProfile()
+	{
+		int requests = driveProfileRequests;
+		if(requests != driveProfileStarted) // A new distance was set
+		{
+			driveProfile.plan(driveProfileStart, driveProfileGoal);
+			driveProfileStarted = requests;
+			driveProfileTime = 0;
+			driveSettle.reset(controlLoops * CONTROL_PERIOD);
+		}
+		
+		pidDrive.setSetpoint(driveProfile.getPosition(driveProfileTime));
+		pidDrive.setFeedForward(kVDrive * driveProfile.getVelocity(driveProfileTime) + kADrive * driveProfile.getAcceleration(driveProfileTime));
+		
+		if(driveProfile.isFinished(driveProfileTime))
+		{
+			driveProfileFinished = requests == driveProfileRequests; // Not finished if another distance came in while planning
+		} else {
+			driveProfileTime += CONTROL_PERIOD;
+		}
+	}
+	
+	/**
+	 * Method to drive the wheel in normal teleop mode. The wheel will turn whichever way
+	 * is shorter and drive backwards if that gets it there faster.
 	 * @param direction Direction in degree the wheel should turn. Value from 0 to 359.99
 	 * @param drivePower Speed wheel should be given. Value from -1 to 1
 	 */
 	public void drive(double direction, double drivePower)
+	{
+		drive(direction, drivePower, true);
+	}
+	
+	/**
+	 * Method to drive the wheel in normal teleop mode.
+	 * @param direction Direction in degree the wheel should turn. Value from 0 to 359.99
+	 * @param drivePower Speed wheel should be given. Value from -1 to 1
+	 * @param optimize True lets the wheel turn the shorter way and drive backwards
+	 */
+	private void drive(double direction, double drivePower, boolean optimize)
 	{		
+		driveReversed = false;
+		
 		if(direction < 0) // If direction is negative
 		{
 			direction = -direction; // make direction that much from 360
@@ -319,6 +517,14 @@ public class SwerveMotor
 			direction = 360 - direction; // make direction that much from 360
 		}
 		
+		targetState.set(drivePower, direction);
+		if(optimize)
+		{
+			targetState.optimize(getDirection());
+		}
+		direction = targetState.getAngle();
+		drivePower = targetState.getSpeed();
+		
 		setDirectionSetPoint(direction);
 		
 		setDrivePowerSetpoint(drivePower);
@@ -339,6 +545,39 @@ public class SwerveMotor
 		}
 	}
 	
+	/**
+	 * Drives the wheel at a speed, pointing it the same way autonomous setpoints do
+	 * (180 is forward and 90 is left). The wheel turns whichever way is shorter and drives
+	 * backwards if that gets it there faster. The drive power comes from the feed forward
+	 * gain, and is cut down while the wheel is still turning so it does not push the
+	 * robot the wrong way. A wheel that is barely asked to move keeps pointing the way it
+	 * was. Used by path followers that work out every wheel every loop.
+	 * @param direction Direction in degrees from 0 to 359.99
+	 * @param velocity Speed in inches per second
+	 */
+	public void driveVelocity(double direction, double velocity)
+	{
+		if(pidDrive.isEnabled())
+		{
+			pidDrive.reset();
+		}
+		driveReversed = false;
+		
+		if(Math.abs(velocity) < MIN_STEER_VELOCITY) // Too slow for the direction to mean anything, hold the wheel where it is told to point
+		{
+			direction = getDirectionSetPoint();
+		}
+		
+		targetState.set(velocity, direction);
+		targetState.optimize(getDirection());
+		setDirectionSetPoint(targetState.getAngle());
+		enableTurnPID();
+		
+		double turnError = Math.toRadians(SwerveModuleState.angleDifference(targetState.getAngle(), getDirection()));
+		double power = kVDrive * targetState.getSpeed() * Math.max(0, Math.cos(turnError));
+		motorDrive.set(Math.max(-1, Math.min(1, power)));
+	}
+	
 	/**
 	 * Method to call to drive robot solely by setpoints to the turn and drive PID Loops. This
 	 * should be called by SwerveDrive and its autonomous code or other autonomous code. 
@@ -352,16 +591,14 @@ public class SwerveMotor
 			pidTurn.enable();
 		}
 
-		if(pidTurn.onTarget()) // If the wheels are pointing in the correct direction
+		if(isDriveCommandStarted() && pidTurn.onTarget()) // If the wheels are pointing in the correct direction
 		{
 			if(!pidDrive.isEnabled()) { // Make sure the drive PID loop is enabled
 				pidDrive.enable();
 			}
 
-			if(pidDrive.onTarget()) { // if the wheels have driven as far as they need too
-				if(encDrive.getStopped()) { // If the wheels have come to a stop
-					return true; // Return that the driveAuto method is done
-				}
+			if(driveProfileFinished && driveSettle.isSettled()) { // if the wheels have driven as far as they need too and have settled there
+				return true; // Return that the driveAuto method is done
 			}
 		}
 		return false; // Return false if the drive wheels have not gone far enough and/or have not stopped
@@ -375,7 +612,7 @@ public class SwerveMotor
 	{
 		pidTurn.setSetpoint(pidTurn.getSetpoint() - pidTurn.getError());
 		pidTurn.disable();
-		pidDrive.setSetpoint(pidDrive.getSetpoint() - pidDrive.getError());
+		requestDriveProfile(encDrive.getDistance(), encDrive.getDistance()); // Hold where the wheel is if the loop is turned back on
 		pidDrive.disable();
 	}
 	
@@ -411,10 +648,48 @@ public class SwerveMotor
 	 * @return double value represented as inches
 	 */
 	public double getDistance()
+	{
+		return driveReversed ? -encDrive.getDistance() : encDrive.getDistance();
+	}
+	
+	/**
+	 * Gets the distance straight from the drive encoder, without flipping it when
+	 * the wheel is driving backwards to reach a setpoint
+	 * @return double value represented as inches
+	 */
+	public double getDriveEncoderDistance()
 	{
 		return encDrive.getDistance();
 	}
 	
+	/**
+	 * Gets how far the wheel has rolled since the robot turned on. Unlike the drive
+	 * encoder distance it keeps counting when the drive PID loop is reset.
+	 * @return double value represented as inches
+	 */
+	public double getDriveOdometer()
+	{
+		return driveOdometerOffset + encDrive.getDistance();
+	}
+	
+	/**
+	 * Gets the power last sent to the drive motor
+	 * @return Power from -1.0 to 1.0
+	 */
+	public double getDriveOutput()
+	{
+		return motorDrive.get();
+	}
+	
+	/**
+	 * Gets the power last sent to the turn motor
+	 * @return Power from -1.0 to 1.0
+	 */
+	public double getTurnOutput()
+	{
+		return motorTurn.get();
+	}
+	
 	/**
 	 * Getting the speed the drive motor is moving
 	 * @return double value returns inches per second
@@ -453,7 +728,10 @@ public class SwerveMotor
 	public void resetPIDDrive()
 	{
 		pidDrive.reset();
+		driveReversed = false;
+		driveOdometerOffset += encDrive.getDistance();
 		encDrive.reset();
+		requestDriveProfile(0, driveProfileGoal); // Plan again from zero the next time the loop is turned on
 	}
 	
 	/**
@@ -474,6 +752,20 @@ public class SwerveMotor
 		}
 	}
 	
+	/**
+	 * Turns the wheel at a set power instead of with the Turn PID Loop. The Turn PID
+	 * Loop stays disabled until enableTurnPID() is called.
+	 * @param power Power from -1 to 1
+	 */
+	public void setTurnPower(double power)
+	{
+		if(pidTurn.isEnabled())
+		{
+			pidTurn.reset();
+		}
+		motorTurn.set(power);
+	}
+	
 	/**
 	 * Enables the Turn PID Loop if not already enabled
 	 */
@@ -522,18 +814,18 @@ public class SwerveMotor
 	
 	/**
 	 * Returns the TurningPID Loop object
-	 * @return PIDContoller Object representing the TurningPID Loop
+	 * @return PIDLoop Object representing the TurningPID Loop
 	 */
-	public PIDController getTurnPID()
+	public PIDLoop getTurnPID()
 	{
 		return pidTurn;
 	}
 	
 	/**
 	 * Returns the DrivePID Loop object
-	 * @return PIDContoller Object representing the DrivePID Loop
+	 * @return PIDLoop Object representing the DrivePID Loop
 	 */
-	public PIDController getDrivePID()
+	public PIDLoop getDrivePID()
 	{
 		return pidDrive;
 	}
@@ -562,100 +854,100 @@ public class SwerveMotor
 	 * @return Returns whether the test is finished. True means it is done.
 	 */
 	public boolean runTest() {
-		switch(testState) {
-			case BEGIN:
-				testBegin();
-				return false;
-			case DRIVE_TEST:
-				testDrive();
-				return false;
-			case END:
-				return true;
-			case TURN_TEST:
-				testTurn();
-				return false;
-			default:
-				return false;
-			
+		if(testMachine.isIn(TestState.END)) {
+			return true;
 		}
+		
+		testMachine.update();
+		return false;
 	}
 	
 	/**
-	 * Method for the BEGIN State of the testing code.
-	 * <p>
-	 * Sets the future TestTime to the current time plus 3 second to it
-	 * and then sets the state to DRIVE_TEST.
-	 * </p>
+	 * Sets up the wheel test state machine. BEGIN goes straight to DRIVE_TEST. DRIVE_TEST
+	 * runs the drive motor from full forward power down to zero and then disables it.
+	 * TURN_TEST turns the wheel to 120, 240 and 0 degrees one second each and then
+	 * disables it, which ENDs the test.
 	 */
-	private void testBegin() {
-		testState = TestState.DRIVE_TEST;
-		testTime = Robot.timer.get() + 3;
+	private void addTestTransitions() {
+		testMachine.addTransition(TestState.BEGIN, TestState.DRIVE_TEST, null, null)
+			.setStateAction(TestState.DRIVE_TEST, this::testDrive)
+			.addTransition(TestState.DRIVE_TEST, TestState.TURN_TEST, () -> testMachine.getTimeInState() >= TEST_STEP_TIME, () -> {
+				this.drive(0, 0);
+				this.disable();
+			})
+			.setStateAction(TestState.TURN_TEST, this::testTurn)
+			.addTransition(TestState.TURN_TEST, TestState.END, () -> testMachine.getTimeInState() >= TEST_STEP_TIME, () -> {
+				this.drive(0, 0, false);
+				this.disable();
+			});
 	}
 	
 	/**
-	 * Tests the motion of the drive motor by running it full forward and the down to zero within 3 seconds
-	 * afterwards it disables Drive Motor and sets the future test time to the current time plus 3 seconds to it
-	 * sets the state to TURN_TEST
+	 * Runs the drive motor at the power left of the DRIVE_TEST step, full forward power at
+	 * its start down to zero at its end
 	 */
 	private void testDrive() {
-		timeNow = Robot.timer.get();
-		if(timeNow < testTime) {
-			double timeDiffernce = testTime - timeNow;
-			this.drive(0, timeDiffernce/3);
-		} else {
-			this.drive(0, 0);
-			this.disable();
-			testState = TestState.TURN_TEST;
-			testTime = Robot.timer.get() + 3;
-		}
+		this.drive(0, (TEST_STEP_TIME - testMachine.getTimeInState()) / TEST_STEP_TIME);
 	}
 	
 	/**
-	 * Tests the motion of the turning motor by Turning it to 120, 240, and 0 degrees within 3 seconds
-	 * afterwards it disables Turning Motor and
-	 * sets the state to END
+	 * Turns the wheel to 120 degrees for the first second of the TURN_TEST step, 240 for
+	 * the second and 0 for the last
 	 */
 	private void testTurn() {
-		timeNow = Robot.timer.get();
-		if(timeNow < testTime) {
-			int timeDiffernce = (int)(testTime - timeNow);
-			double angle;
-			if(timeDiffernce < 1) {
-				angle = 0;
-			} else if (timeDiffernce < 2) {
-				angle = 240;
-			} else {
-				angle = 120;
-			}
-
-			this.drive(angle, 0);
+		int timeDiffernce = (int)(TEST_STEP_TIME - testMachine.getTimeInState());
+		double angle;
+		if(timeDiffernce < 1) {
+			angle = 0;
+		} else if (timeDiffernce < 2) {
+			angle = 240;
 		} else {
-			this.drive(0, 0);
-			this.disable();
-			testState = TestState.END;
+			angle = 120;
 		}
+
+		this.drive(angle, 0, false);
 	}
 	
 	/**
 	 * Run this to setup the wheel test. Run this once BEFORE EVER calling runTest()
 	 */
 	public void initTest() {
-		testState = TestState.BEGIN;
+		testMachine.transitionTo(TestState.BEGIN);
 	}
 	
 
 	public TestState getTestState() {
-		return testState;
+		return testMachine.getState();
 	}
 	
 	/**
 	 * Returns whether the drive motor has gone the distance 
-	 * that it needs to, has stopped and if it is enabled.
+	 * that it needs to, has settled there and if it is enabled. Always false until the
+	 * control loop has run since the setpoint was set.
 	 * @return True means the drive wheel is <b>enabled</b>, has gone the <b>distance it needs</b>
-	 * and is currently <b>stopped<b/>
+	 * and has <b>settled<b/> there
 	 */
 	public boolean getDriveOntarget() {
-		return pidDrive.onTarget() && encDrive.getStopped() && pidDrive.isEnabled();
+		return isDriveCommandStarted() && driveProfileFinished && driveSettle.isSettled() && pidDrive.isEnabled();
+	}
+	
+	/**
+	 * Sets when an autonomous distance move counts as done
+	 * @param errorTolerance Inches from the distance the wheel has to stay within
+	 * @param velocityTolerance Fastest in inches per second the wheel may still be rolling
+	 * @param window Seconds the wheel has to stay within both
+	 */
+	public void setDriveSettle(double errorTolerance, double velocityTolerance, double window)
+	{
+		driveSettle.setTolerance(errorTolerance, velocityTolerance, window);
+	}
+	
+	/**
+	 * @return Seconds the last autonomous distance move took to settle, or NaN if it has not
+	 */
+	public double getDriveSettleTime()
+	{
+		return driveSettle.getSettleTime();
 	}
 	
 	public void setWheelPositionEnum(WheelPosition wheelPositionIn) {
@@ -666,7 +958,7 @@ public class SwerveMotor
 		return wheelPosition.name();
 	}
 	
-	private void configDriveMotor() {
+	private static void configDriveMotor(WPI_TalonSRX motorDrive) {
 		motorDrive.configOpenloopRamp(0.25, 0);
 		motorDrive.configPeakCurrentLimit(40, 0);
 		motorDrive.configContinuousCurrentLimit(40, 0);
@@ -0,0 +1,297 @@
+package org.usfirst.frc.team2461.robot;
+
+/**
+ * <h1> Swerve Odometry Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Keeps track of where the robot is on the field from how far each wheel rolled and
+ * which way it was pointing. Every update turns the 4 wheel movements into one movement
+ * of the robot, the one that best fits all 4 wheels (least squares), and adds it to the
+ * pose.
+ * </p>
+ * <p>
+ * The wheel directions are the same ones SwerveDriveAutoCommandFactory uses: a wheel at
+ * 180 degrees rolling a positive distance moves the robot forward and a wheel at 90
+ * degrees moves it left. When a gyro heading is given it is trusted for the rotation,
+ * otherwise the rotation comes from the wheels as well.
+ * </p>
+ * <p>
+ * Every pose is also kept in a history with the time it was measured, so something that
+ * measured the robot a little while ago, like a camera, can look up where the robot was
+ * then. Nothing is allocated after the constructor.
+ * </p>
+ */
+public class SwerveOdometry
+{
+	/**
+	 * Poses kept in the history, a little over a second at the robot loop rate
+	 */
+	public static final int DEFAULT_HISTORY_SIZE = 128;
+
+	/**
+	 * Rows of the least squares solution. Multiplying them by the sums worked out in
+	 * update() gives the forward, left and counter-clockwise rotation of the robot.
+	 */
+	private final double[][] solution = new double[3][3];
+	private final double[] moduleX = new double[SwerveKinematics.MODULE_COUNT];
+	private final double[] moduleY = new double[SwerveKinematics.MODULE_COUNT];
+
+	private final double[] lastDistance = new double[SwerveKinematics.MODULE_COUNT];
+	private boolean hasLastDistance = false;
+	private double lastGyroHeading = 0;
+	private boolean hasLastGyroHeading = false;
+
+	private final RobotPose pose = new RobotPose();
+
+	private final double[] historyTime;
+	private final double[] historyX;
+	private final double[] historyY;
+	private final double[] historyHeading;
+	private int historyNewest = -1;
+	private int historyCount = 0;
+
+	/**
+	 * Creates a SwerveOdometry at the origin with the default history size
+	 * @param kinematics SwerveKinematics holding where each wheel is on the robot
+	 */
+	public SwerveOdometry(SwerveKinematics kinematics)
+	{
+		this(kinematics, DEFAULT_HISTORY_SIZE);
+	}
+
+	/**
+	 * Creates a SwerveOdometry at the origin
+	 * @param kinematics SwerveKinematics holding where each wheel is on the robot
+	 * @param historySize Number of poses to keep in the history
+	 */
+	public SwerveOdometry(SwerveKinematics kinematics, int historySize)
+	{
+		if(historySize < 2)
+		{
+			throw new IllegalArgumentException("SwerveOdometry history must hold at least 2 poses");
+		}
+
+		historyTime = new double[historySize];
+		historyX = new double[historySize];
+		historyY = new double[historySize];
+		historyHeading = new double[historySize];
+
+		// Every wheel moves (forward - rotation * y, left + rotation * x). These are the sums of
+		// the normal equations of fitting that to all the wheels, which only depend on where the wheels are.
+		double sumX = 0;
+		double sumY = 0;
+		double sumSquares = 0;
+		for(int i = 0; i < SwerveKinematics.MODULE_COUNT; i++)
+		{
+			moduleX[i] = kinematics.getModuleX(i);
+			moduleY[i] = kinematics.getModuleY(i);
+			sumX += moduleX[i];
+			sumY += moduleY[i];
+			sumSquares += moduleX[i] * moduleX[i] + moduleY[i] * moduleY[i];
+		}
+
+		double n = SwerveKinematics.MODULE_COUNT;
+		double[][] normal = {
+				{n, 0, -sumY},
+				{0, n, sumX},
+				{-sumY, sumX, sumSquares}};
+		invert(normal, solution);
+	}
+
+	/**
+	 * Moves the pose by how far the wheels rolled since the last update, working out the
+	 * rotation from the wheels. Call this once every loop.
+	 * @param time FPGA time in seconds the wheels were read at
+	 * @param wheelDistance 4-element array of how far each wheel has rolled in inches. It must
+	 * keep counting when the drive encoders are reset, like SwerveMotor.getDriveOdometer()
+	 * @param wheelAngle 4-element array of the direction of each wheel in degrees from 0 to 359.99
+	 */
+	public void update(double time, double[] wheelDistance, double[] wheelAngle)
+	{
+		update(time, wheelDistance, wheelAngle, Double.NaN);
+	}
+
+	/**
+	 * Moves the pose by how far the wheels rolled since the last update, taking the rotation
+	 * from a gyro. Call this once every loop.
+	 * @param time FPGA time in seconds the wheels were read at
+	 * @param wheelDistance 4-element array of how far each wheel has rolled in inches. It must
+	 * keep counting when the drive encoders are reset, like SwerveMotor.getDriveOdometer()
+	 * @param wheelAngle 4-element array of the direction of each wheel in degrees from 0 to 359.99
+	 * @param gyroHeading Heading from a HeadingSource in degrees, or NaN to use the wheels
+	 */
+	public void update(double time, double[] wheelDistance, double[] wheelAngle, double gyroHeading)
+	{
+		double sumForward = 0;
+		double sumLeft = 0;
+		double sumTurn = 0;
+		for(int i = 0; i < SwerveKinematics.MODULE_COUNT; i++)
+		{
+			double rolled = hasLastDistance ? wheelDistance[i] - lastDistance[i] : 0;
+			lastDistance[i] = wheelDistance[i];
+
+			double angle = Math.toRadians(wheelAngle[i]);
+			double forward = -rolled * Math.cos(angle);
+			double left = rolled * Math.sin(angle);
+
+			sumForward += forward;
+			sumLeft += left;
+			sumTurn += -moduleY[i] * forward + moduleX[i] * left;
+		}
+		hasLastDistance = true;
+
+		double robotForward = solution[0][0] * sumForward + solution[0][1] * sumLeft + solution[0][2] * sumTurn;
+		double robotLeft = solution[1][0] * sumForward + solution[1][1] * sumLeft + solution[1][2] * sumTurn;
+		double headingChange;
+		if(Double.isNaN(gyroHeading))
+		{
+			double counterClockwise = solution[2][0] * sumForward + solution[2][1] * sumLeft + solution[2][2] * sumTurn;
+			headingChange = -Math.toDegrees(counterClockwise);
+			hasLastGyroHeading = false;
+		} else {
+			headingChange = hasLastGyroHeading ? gyroHeading - lastGyroHeading : 0;
+			lastGyroHeading = gyroHeading;
+			hasLastGyroHeading = true;
+		}
+
+		// Turn the robot movement into field directions using the heading halfway through it
+		double heading = Math.toRadians(pose.getHeading() + headingChange / 2);
+		double cos = Math.cos(heading);
+		double sin = Math.sin(heading);
+		double x = pose.getX() + robotForward * cos + robotLeft * sin;
+		double y = pose.getY() - robotForward * sin + robotLeft * cos;
+
+		pose.set(time, x, y, pose.getHeading() + headingChange);
+		addToHistory();
+	}
+
+	/**
+	 * Moves the pose somewhere else, for example to where the robot starts a match. The
+	 * history is cleared so nothing looks up a pose from before the move.
+	 * @param time FPGA time in seconds
+	 * @param x Inches along X
+	 * @param y Inches along Y
+	 * @param heading Heading in degrees, positive clockwise
+	 */
+	public void resetPose(double time, double x, double y, double heading)
+	{
+		pose.set(time, x, y, heading);
+		historyCount = 0;
+		historyNewest = -1;
+		addToHistory();
+	}
+
+	/**
+	 * Makes the next gyro heading the new starting point. Call this after the HeadingSource
+	 * was reset, so the pose does not spin when the gyro jumps back to zero.
+	 */
+	public void resetGyroReference()
+	{
+		hasLastGyroHeading = false;
+	}
+
+	/**
+	 * Gets the pose from the last update. The object is reused, copy it with RobotPose.set()
+	 * to hold on to it.
+	 * @return Current pose of the robot
+	 */
+	public RobotPose getPose()
+	{
+		return pose;
+	}
+
+	/**
+	 * Looks up where the robot was at a time in the past, in between the two poses of the
+	 * history closest to it
+	 * @param time FPGA time in seconds
+	 * @param out RobotPose that gets filled in
+	 * @return True if the time was inside the history. False if it was older than the
+	 * history, and out gets the oldest pose in the history.
+	 */
+	public boolean getPoseAt(double time, RobotPose out)
+	{
+		if(historyCount == 0)
+		{
+			out.set(pose);
+			return false;
+		}
+
+		int newer = historyNewest;
+		if(time >= historyTime[newer])
+		{
+			setFromHistory(newer, out);
+			return true;
+		}
+
+		for(int i = 1; i < historyCount; i++)
+		{
+			int older = (historyNewest - i + historyTime.length) % historyTime.length;
+			if(time >= historyTime[older])
+			{
+				double fraction = (time - historyTime[older]) / (historyTime[newer] - historyTime[older]);
+				out.set(time,
+						historyX[older] + (historyX[newer] - historyX[older]) * fraction,
+						historyY[older] + (historyY[newer] - historyY[older]) * fraction,
+						historyHeading[older] + (historyHeading[newer] - historyHeading[older]) * fraction);
+				return true;
+			}
+			newer = older;
+		}
+
+		setFromHistory(newer, out);
+		return false;
+	}
+
+	/**
+	 * @return Number of poses in the history
+	 */
+	public int getHistoryCount()
+	{
+		return historyCount;
+	}
+
+	private void addToHistory()
+	{
+		historyNewest = (historyNewest + 1) % historyTime.length;
+		historyTime[historyNewest] = pose.getTime();
+		historyX[historyNewest] = pose.getX();
+		historyY[historyNewest] = pose.getY();
+		historyHeading[historyNewest] = pose.getHeading();
+		if(historyCount < historyTime.length)
+		{
+			historyCount++;
+		}
+	}
+
+	private void setFromHistory(int index, RobotPose out)
+	{
+		out.set(historyTime[index], historyX[index], historyY[index], historyHeading[index]);
+	}
+
+	/**
+	 * Inverts a 3 by 3 matrix with its cofactors
+	 * @param m Matrix to invert
+	 * @param out Matrix that gets the inverse
+	 */
+	private static void invert(double[][] m, double[][] out)
+	{
+		double c00 = m[1][1] * m[2][2] - m[1][2] * m[2][1];
+		double c01 = m[1][2] * m[2][0] - m[1][0] * m[2][2];
+		double c02 = m[1][0] * m[2][1] - m[1][1] * m[2][0];
+		double determinant = m[0][0] * c00 + m[0][1] * c01 + m[0][2] * c02;
+		if(Math.abs(determinant) < 1e-9)
+		{
+			throw new IllegalArgumentException("SwerveOdometry needs wheels that are not all in one spot");
+		}
+
+		out[0][0] = c00 / determinant;
+		out[0][1] = (m[0][2] * m[2][1] - m[0][1] * m[2][2]) / determinant;
+		out[0][2] = (m[0][1] * m[1][2] - m[0][2] * m[1][1]) / determinant;
+		out[1][0] = c01 / determinant;
+		out[1][1] = (m[0][0] * m[2][2] - m[0][2] * m[2][0]) / determinant;
+		out[1][2] = (m[0][2] * m[1][0] - m[0][0] * m[1][2]) / determinant;
+		out[2][0] = c02 / determinant;
+		out[2][1] = (m[0][1] * m[2][0] - m[0][0] * m[2][1]) / determinant;
+		out[2][2] = (m[0][0] * m[1][1] - m[0][1] * m[1][0]) / determinant;
+	}
+}
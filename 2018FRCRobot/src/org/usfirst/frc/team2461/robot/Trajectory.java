@@ -0,0 +1,203 @@
+package org.usfirst.frc.team2461.robot;
+
+/**
+ * <h1> Trajectory Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * A path for the robot to drive with the time it should be at every point of it. It is
+ * kept as samples of the position, heading and velocity taken every few hundredths of a
+ * second. sample() fills in a TrajectoryState in between them, so a
+ * HolonomicTrajectoryFollower can look up where the robot should be every loop.
+ * </p>
+ * <p>
+ * Positions and headings use the same directions as RobotPose, so a trajectory that
+ * starts at the pose the robot was reset to can be followed with the odometry.
+ * A trajectory never changes once it is made and can be driven any number of times.
+ * </p>
+ */
+public class Trajectory
+{
+	/**
+	 * Seconds between the samples of trajectories made by line()
+	 */
+	public static final double SAMPLE_PERIOD = 0.02;
+
+	private final double[] time;
+	private final double[] x;
+	private final double[] y;
+	private final double[] heading;
+	private final double[] velocityX;
+	private final double[] velocityY;
+	private final double[] headingRate;
+
+	/**
+	 * Creates a Trajectory from samples. All the arrays must be the same length and the
+	 * times must go up. The arrays are copied.
+	 * @param timeIn Seconds since the start of the trajectory of every sample
+	 * @param xIn Inches along X
+	 * @param yIn Inches along Y
+	 * @param headingIn Heading in degrees, positive clockwise
+	 * @param velocityXIn Inches per second along X
+	 * @param velocityYIn Inches per second along Y
+	 * @param headingRateIn Degrees per second, positive clockwise
+	 */
+	public Trajectory(double[] timeIn, double[] xIn, double[] yIn, double[] headingIn, double[] velocityXIn, double[] velocityYIn, double[] headingRateIn)
+	{
+		int count = timeIn.length;
+		if(count == 0 || xIn.length != count || yIn.length != count || headingIn.length != count
+				|| velocityXIn.length != count || velocityYIn.length != count || headingRateIn.length != count)
+		{
+			throw new IllegalArgumentException("Trajectory needs the same number of samples of every value");
+		}
+
+		for(int i = 1; i < count; i++)
+		{
+			if(timeIn[i] <= timeIn[i - 1])
+			{
+				throw new IllegalArgumentException("Trajectory sample times must go up");
+			}
+		}
+
+		time = timeIn.clone();
+		x = xIn.clone();
+		y = yIn.clone();
+		heading = headingIn.clone();
+		velocityX = velocityXIn.clone();
+		velocityY = velocityYIn.clone();
+		headingRate = headingRateIn.clone();
+	}
+
+	/**
+	 * Makes a Trajectory that drives in a straight line, speeding up and slowing down
+	 * along a TrapezoidProfile. The heading turns from the start heading to the end
+	 * heading evenly along the way, so the robot can spin while it drives.
+	 * @param startX Inches along X the line starts at
+	 * @param startY Inches along Y the line starts at
+	 * @param startHeading Heading in degrees at the start
+	 * @param endX Inches along X the line ends at
+	 * @param endY Inches along Y the line ends at
+	 * @param endHeading Heading in degrees at the end
+	 * @param maxVelocity Fastest the robot may go in inches per second
+	 * @param maxAcceleration Fastest the robot may speed up or slow down in inches per second per second
+	 * @return New Trajectory
+	 */
+	public static Trajectory line(double startX, double startY, double startHeading,
+			double endX, double endY, double endHeading, double maxVelocity, double maxAcceleration)
+	{
+		double length = Math.hypot(endX - startX, endY - startY);
+		if(length == 0)
+		{
+			throw new IllegalArgumentException("A line trajectory needs its start and end to be apart");
+		}
+
+		TrapezoidProfile profile = new TrapezoidProfile(maxVelocity, maxAcceleration);
+		profile.plan(0, length);
+		int count = (int) Math.ceil(profile.getTotalTime() / SAMPLE_PERIOD) + 1;
+
+		double directionX = (endX - startX) / length;
+		double directionY = (endY - startY) / length;
+		double turnPerInch = (endHeading - startHeading) / length;
+
+		double[] sampleTime = new double[count];
+		double[] sampleX = new double[count];
+		double[] sampleY = new double[count];
+		double[] sampleHeading = new double[count];
+		double[] sampleVelocityX = new double[count];
+		double[] sampleVelocityY = new double[count];
+		double[] sampleHeadingRate = new double[count];
+		for(int i = 0; i < count; i++)
+		{
+			double t = Math.min(i * SAMPLE_PERIOD, profile.getTotalTime());
+			if(i > 0 && t <= sampleTime[i - 1]) // The last sample lands right on the end
+			{
+				t = sampleTime[i - 1] + SAMPLE_PERIOD;
+			}
+			double travelled = profile.getPosition(t);
+			double speed = profile.getVelocity(t);
+
+			sampleTime[i] = t;
+			sampleX[i] = startX + directionX * travelled;
+			sampleY[i] = startY + directionY * travelled;
+			sampleHeading[i] = startHeading + turnPerInch * travelled;
+			sampleVelocityX[i] = directionX * speed;
+			sampleVelocityY[i] = directionY * speed;
+			sampleHeadingRate[i] = turnPerInch * speed;
+		}
+
+		return new Trajectory(sampleTime, sampleX, sampleY, sampleHeading, sampleVelocityX, sampleVelocityY, sampleHeadingRate);
+	}
+
+	/**
+	 * Looks up where the robot should be at a time, in between the two samples closest to
+	 * it. Before the start it gives the first sample and after the end it gives the last
+	 * sample standing still. Nothing is allocated so this can be called every loop.
+	 * @param t Seconds since the start of the trajectory
+	 * @param out TrajectoryState that gets filled in
+	 */
+	public void sample(double t, TrajectoryState out)
+	{
+		int last = time.length - 1;
+		if(t <= time[0])
+		{
+			setFromSample(0, out);
+			return;
+		}
+		if(t >= time[last])
+		{
+			out.set(time[last], x[last], y[last], heading[last], 0, 0, 0);
+			return;
+		}
+
+		int low = 0; // Binary search for the last sample at or before t
+		int high = last;
+		while(high - low > 1)
+		{
+			int middle = (low + high) >>> 1;
+			if(time[middle] <= t)
+			{
+				low = middle;
+			} else {
+				high = middle;
+			}
+		}
+
+		double fraction = (t - time[low]) / (time[high] - time[low]);
+		out.set(t,
+				x[low] + (x[high] - x[low]) * fraction,
+				y[low] + (y[high] - y[low]) * fraction,
+				heading[low] + (heading[high] - heading[low]) * fraction,
+				velocityX[low] + (velocityX[high] - velocityX[low]) * fraction,
+				velocityY[low] + (velocityY[high] - velocityY[low]) * fraction,
+				headingRate[low] + (headingRate[high] - headingRate[low]) * fraction);
+	}
+
+	/**
+	 * @return Seconds it takes to drive the trajectory
+	 */
+	public double getTotalTime()
+	{
+		return time[time.length - 1];
+	}
+
+	/**
+	 * @return Number of samples in the trajectory
+	 */
+	public int getSampleCount()
+	{
+		return time.length;
+	}
+
+	/**
+	 * Gives TrajectoryFile the sample arrays themselves, in the order of the constructor
+	 * @return Time, x, y, heading, velocity x, velocity y and heading rate arrays
+	 */
+	double[][] getColumns()
+	{
+		return new double[][]{time, x, y, heading, velocityX, velocityY, headingRate};
+	}
+
+	private void setFromSample(int index, TrajectoryState out)
+	{
+		out.set(time[index], x[index], y[index], heading[index], velocityX[index], velocityY[index], headingRate[index]);
+	}
+}
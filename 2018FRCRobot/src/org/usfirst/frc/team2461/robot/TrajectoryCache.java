@@ -0,0 +1,174 @@
+package org.usfirst.frc.team2461.robot;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * <h1> Trajectory Cache Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Holds every trajectory autonomous might drive, by the name of its route, so nothing
+ * has to be generated once autonomous starts. A route that is not in memory yet is
+ * loaded from its TrajectoryFile in the cache directory. If there is no file, or the
+ * file was made from different waypoints, the route is generated and the file is
+ * written so the next boot can just load it.
+ * </p>
+ * <p>
+ * Fill the cache in robotInit(), then autonomous only ever gets trajectories out of memory.
+ * </p>
+ */
+public class TrajectoryCache
+{
+	private static TrajectoryCache cache = new TrajectoryCache();
+
+	/**
+	 * A trajectory and the fingerprint of the waypoints it was made from
+	 */
+	private static class Entry
+	{
+		final Trajectory trajectory;
+		final long fingerprint;
+
+		Entry(Trajectory trajectoryIn, long fingerprintIn)
+		{
+			trajectory = trajectoryIn;
+			fingerprint = fingerprintIn;
+		}
+	}
+
+	private Map<String, Entry> trajectories = new HashMap<>();
+	private File directory;
+	private int loadedCount = 0;
+	private int generatedCount = 0;
+
+	private TrajectoryCache()
+	{
+
+	}
+
+	/**
+	 * Method used to return the Singleton instance of the class
+	 * @return Singleton instance of the class
+	 */
+	public static TrajectoryCache getInstance()
+	{
+		return cache;
+	}
+
+	/**
+	 * Sets the folder trajectory files are loaded from and saved to
+	 * @param directoryIn Folder of the files, or null to keep trajectories only in memory
+	 */
+	public synchronized void setDirectory(File directoryIn)
+	{
+		directory = directoryIn;
+	}
+
+	/**
+	 * Gets the trajectory of a route, loading or generating it if it is not in memory yet
+	 * @param name Name of the route
+	 * @param fingerprint Fingerprint of the waypoints of the route, see PathGenerator.getFingerprint()
+	 * @param generator Makes the trajectory if there is no good file for it
+	 * @return Trajectory of the route
+	 */
+	public synchronized Trajectory get(String name, long fingerprint, Supplier<Trajectory> generator)
+	{
+		Entry entry = trajectories.get(name);
+		if(entry != null && entry.fingerprint == fingerprint)
+		{
+			return entry.trajectory;
+		}
+
+		Trajectory trajectory = load(name, fingerprint);
+		if(trajectory != null) {
+			loadedCount++;
+		} else {
+			trajectory = generator.get();
+			generatedCount++;
+			save(name, trajectory, fingerprint);
+		}
+
+		trajectories.put(name, new Entry(trajectory, fingerprint));
+		return trajectory;
+	}
+
+	/**
+	 * Gets the trajectory of a route that is already in memory
+	 * @param name Name of the route
+	 * @return Trajectory of the route, or null if it has not been loaded
+	 */
+	public synchronized Trajectory get(String name)
+	{
+		Entry entry = trajectories.get(name);
+		return entry != null ? entry.trajectory : null;
+	}
+
+	/**
+	 * Forgets every trajectory in memory. The files are kept.
+	 */
+	public synchronized void clear()
+	{
+		trajectories.clear();
+	}
+
+	/**
+	 * @return Number of trajectories loaded from files since the robot started
+	 */
+	public synchronized int getLoadedCount()
+	{
+		return loadedCount;
+	}
+
+	/**
+	 * @return Number of trajectories that had to be generated since the robot started
+	 */
+	public synchronized int getGeneratedCount()
+	{
+		return generatedCount;
+	}
+
+	/**
+	 * @param name Name of the route
+	 * @return File the trajectory of the route is kept in, or null if there is no cache directory
+	 */
+	public synchronized File getFile(String name)
+	{
+		return directory != null ? new File(directory, name + TrajectoryFile.EXTENSION) : null;
+	}
+
+	private Trajectory load(String name, long fingerprint)
+	{
+		File file = getFile(name);
+		if(file == null)
+		{
+			return null;
+		}
+
+		try {
+			return TrajectoryFile.read(file, fingerprint);
+		} catch(IOException | IllegalArgumentException e) {
+			DriverStation.reportError("Could not read trajectory " + file + ", generating it: " + e.getMessage(), false);
+			return null;
+		}
+	}
+
+	private void save(String name, Trajectory trajectory, long fingerprint)
+	{
+		File file = getFile(name);
+		if(file == null)
+		{
+			return;
+		}
+
+		try {
+			TrajectoryFile.write(file, trajectory, fingerprint);
+		} catch(IOException e) {
+			DriverStation.reportError("Could not write trajectory " + file + ": " + e.getMessage(), false);
+		}
+	}
+}
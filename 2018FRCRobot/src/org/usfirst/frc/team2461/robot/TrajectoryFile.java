@@ -0,0 +1,131 @@
+package org.usfirst.frc.team2461.robot;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.file.Files;
+
+/**
+ * <h1> Trajectory File Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Saves a Trajectory to a small binary file and loads it back, so paths can be generated
+ * on a computer ahead of time and only loaded on the RoboRIO. A file is a 24 byte header
+ * followed by the 7 columns of the trajectory one after another as 4 byte floats:
+ * </p>
+ * <ul>
+ * <li>int magic number "TRAJ"</li>
+ * <li>int format version</li>
+ * <li>long fingerprint of the waypoints the trajectory was generated from</li>
+ * <li>int sample count</li>
+ * <li>int number of columns</li>
+ * <li>float time[count], x[count], y[count], heading[count], velocity x[count], velocity y[count], heading rate[count]</li>
+ * </ul>
+ * <p>
+ * Loading reads the whole file and copies each column straight into an array, so a path
+ * of a few seconds loads in well under a millisecond.
+ * </p>
+ */
+public class TrajectoryFile
+{
+	/**
+	 * Ending of trajectory file names
+	 */
+	public static final String EXTENSION = ".traj";
+
+	private static final int MAGIC = 0x5452414A; // "TRAJ"
+	private static final int FORMAT_VERSION = 1;
+	private static final int HEADER_BYTES = 24;
+	private static final int COLUMNS = 7;
+
+	private TrajectoryFile()
+	{
+
+	}
+
+	/**
+	 * Saves a trajectory
+	 * @param file File to write, replaced if it is already there
+	 * @param trajectory Trajectory to save
+	 * @param fingerprint Fingerprint of what the trajectory was generated from, see PathGenerator.getFingerprint()
+	 * @throws IOException If the file cannot be written
+	 */
+	public static void write(File file, Trajectory trajectory, long fingerprint) throws IOException
+	{
+		double[][] columns = trajectory.getColumns();
+		int count = trajectory.getSampleCount();
+
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + COLUMNS * count * 4);
+		buffer.putInt(MAGIC);
+		buffer.putInt(FORMAT_VERSION);
+		buffer.putLong(fingerprint);
+		buffer.putInt(count);
+		buffer.putInt(COLUMNS);
+		for(double[] column : columns)
+		{
+			for(double value : column)
+			{
+				buffer.putFloat((float) value);
+			}
+		}
+
+		File directory = file.getAbsoluteFile().getParentFile();
+		if(directory != null && !directory.isDirectory() && !directory.mkdirs())
+		{
+			throw new IOException("Could not create " + directory);
+		}
+		try(OutputStream out = new FileOutputStream(file)) {
+			out.write(buffer.array());
+		}
+	}
+
+	/**
+	 * Loads a trajectory if the file holds one made from the waypoints it should be
+	 * @param file File to read
+	 * @param fingerprint Fingerprint the trajectory has to have been saved with
+	 * @return The trajectory, or null if the file does not exist or was made from different
+	 * waypoints or by an older generator
+	 * @throws IOException If the file cannot be read or is not a trajectory file
+	 */
+	public static Trajectory read(File file, long fingerprint) throws IOException
+	{
+		if(!file.isFile())
+		{
+			return null;
+		}
+
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+		if(buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC)
+		{
+			throw new IOException(file + " is not a trajectory file");
+		}
+		if(buffer.getInt() != FORMAT_VERSION || buffer.getLong() != fingerprint)
+		{
+			return null;
+		}
+
+		int count = buffer.getInt();
+		int columnCount = buffer.getInt();
+		if(count <= 0 || columnCount != COLUMNS || buffer.remaining() != COLUMNS * count * 4)
+		{
+			throw new IOException(file + " is cut short or has the wrong number of samples");
+		}
+
+		FloatBuffer floats = buffer.asFloatBuffer();
+		float[] column = new float[count];
+		double[][] columns = new double[COLUMNS][count];
+		for(int c = 0; c < COLUMNS; c++)
+		{
+			floats.get(column);
+			for(int i = 0; i < count; i++)
+			{
+				columns[c][i] = column[i];
+			}
+		}
+
+		return new Trajectory(columns[0], columns[1], columns[2], columns[3], columns[4], columns[5], columns[6]);
+	}
+}
@@ -0,0 +1,104 @@
+package org.usfirst.frc.team2461.robot;
+
+/**
+ * <h1> Trajectory State Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Where a Trajectory wants the robot to be at one moment, and how fast it wants it to
+ * be going there. Positions and headings use the same directions as RobotPose. Objects
+ * of this class are meant to be created once and refilled by Trajectory.sample().
+ * </p>
+ */
+public class TrajectoryState
+{
+	private double time;
+	private double x;
+	private double y;
+	private double heading;
+	private double velocityX;
+	private double velocityY;
+	private double headingRate;
+
+	/**
+	 * Sets every value of the state at once
+	 * @param timeIn Seconds since the start of the trajectory
+	 * @param xIn Inches along X
+	 * @param yIn Inches along Y
+	 * @param headingIn Heading in degrees, positive clockwise
+	 * @param velocityXIn Inches per second along X
+	 * @param velocityYIn Inches per second along Y
+	 * @param headingRateIn Degrees per second, positive clockwise
+	 */
+	public void set(double timeIn, double xIn, double yIn, double headingIn, double velocityXIn, double velocityYIn, double headingRateIn)
+	{
+		time = timeIn;
+		x = xIn;
+		y = yIn;
+		heading = headingIn;
+		velocityX = velocityXIn;
+		velocityY = velocityYIn;
+		headingRate = headingRateIn;
+	}
+
+	/**
+	 * @return Seconds since the start of the trajectory
+	 */
+	public double getTime()
+	{
+		return time;
+	}
+
+	/**
+	 * @return Inches along X
+	 */
+	public double getX()
+	{
+		return x;
+	}
+
+	/**
+	 * @return Inches along Y
+	 */
+	public double getY()
+	{
+		return y;
+	}
+
+	/**
+	 * @return Heading in degrees, positive clockwise
+	 */
+	public double getHeading()
+	{
+		return heading;
+	}
+
+	/**
+	 * @return Inches per second along X
+	 */
+	public double getVelocityX()
+	{
+		return velocityX;
+	}
+
+	/**
+	 * @return Inches per second along Y
+	 */
+	public double getVelocityY()
+	{
+		return velocityY;
+	}
+
+	/**
+	 * @return Degrees per second, positive clockwise
+	 */
+	public double getHeadingRate()
+	{
+		return headingRate;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("%.2f s (%.1f, %.1f) %.1f deg", time, x, y, heading);
+	}
+}
@@ -0,0 +1,177 @@
+package org.usfirst.frc.team2461.robot;
+
+/**
+ * <h1> Trapezoid Profile Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Plans a move from one position to another that speeds up at maxAcceleration, cruises
+ * at maxVelocity and slows down at maxAcceleration so it stops right on the goal. A plot
+ * of the velocity over time is a trapezoid, or a triangle when the move is too short to
+ * ever reach maxVelocity.
+ * </p>
+ * <p>
+ * The profile only says where the wheel should be at a time since the move started. The
+ * owner samples it every time its loop runs and hands the position to a PID loop as the
+ * setpoint, and the velocity and acceleration to the feed forward. Planning and sampling
+ * never create objects, so it can run on the control thread.
+ * </p>
+ */
+public class TrapezoidProfile
+{
+	private double maxVelocity;
+	private double maxAcceleration;
+
+	private double start = 0;
+	private double direction = 1;
+	private double accelerationTime = 0;
+	private double cruiseTime = 0;
+	private double totalTime = 0;
+	private double peakVelocity = 0;
+	private double accelerationDistance = 0;
+	private double distance = 0;
+
+	/**
+	 * Creates a profile that stays at 0 until plan() is called
+	 * @param maxVelocityIn Fastest the move may go in units per second
+	 * @param maxAccelerationIn Fastest the move may speed up or slow down in units per second per second
+	 */
+	public TrapezoidProfile(double maxVelocityIn, double maxAccelerationIn)
+	{
+		setConstraints(maxVelocityIn, maxAccelerationIn);
+	}
+
+	/**
+	 * Sets how fast the next planned move may go. A move that is already planned keeps the
+	 * limits it was planned with.
+	 * @param maxVelocityIn Fastest the move may go in units per second
+	 * @param maxAccelerationIn Fastest the move may speed up or slow down in units per second per second
+	 */
+	public synchronized void setConstraints(double maxVelocityIn, double maxAccelerationIn)
+	{
+		if(maxVelocityIn <= 0 || maxAccelerationIn <= 0)
+		{
+			throw new IllegalArgumentException("Profile limits must be greater than 0");
+		}
+
+		maxVelocity = maxVelocityIn;
+		maxAcceleration = maxAccelerationIn;
+	}
+
+	/**
+	 * Plans a move that starts and ends stopped
+	 * @param startIn Position the move starts at
+	 * @param goal Position the move ends at
+	 */
+	public synchronized void plan(double startIn, double goal)
+	{
+		start = startIn;
+		direction = goal >= startIn ? 1 : -1;
+		distance = Math.abs(goal - startIn);
+
+		accelerationTime = maxVelocity / maxAcceleration;
+		accelerationDistance = 0.5 * maxAcceleration * accelerationTime * accelerationTime;
+
+		if(2 * accelerationDistance > distance) // Too short to reach maxVelocity, speed up halfway and slow down the rest
+		{
+			peakVelocity = Math.sqrt(distance * maxAcceleration);
+			accelerationTime = peakVelocity / maxAcceleration;
+			accelerationDistance = distance / 2;
+			cruiseTime = 0;
+		} else {
+			peakVelocity = maxVelocity;
+			cruiseTime = (distance - 2 * accelerationDistance) / maxVelocity;
+		}
+
+		totalTime = 2 * accelerationTime + cruiseTime;
+	}
+
+	/**
+	 * @param time Seconds since the move started
+	 * @return Position the move should be at
+	 */
+	public synchronized double getPosition(double time)
+	{
+		double travelled;
+		if(time <= 0)
+		{
+			travelled = 0;
+		} else if(time < accelerationTime) {
+			travelled = 0.5 * maxAcceleration * time * time;
+		} else if(time < accelerationTime + cruiseTime) {
+			travelled = accelerationDistance + peakVelocity * (time - accelerationTime);
+		} else if(time < totalTime) {
+			double timeLeft = totalTime - time;
+			travelled = distance - 0.5 * maxAcceleration * timeLeft * timeLeft;
+		} else {
+			travelled = distance;
+		}
+
+		return start + direction * travelled;
+	}
+
+	/**
+	 * @param time Seconds since the move started
+	 * @return Velocity the move should be going in units per second
+	 */
+	public synchronized double getVelocity(double time)
+	{
+		double speed;
+		if(time <= 0 || time >= totalTime)
+		{
+			speed = 0;
+		} else if(time < accelerationTime) {
+			speed = maxAcceleration * time;
+		} else if(time < accelerationTime + cruiseTime) {
+			speed = peakVelocity;
+		} else {
+			speed = maxAcceleration * (totalTime - time);
+		}
+
+		return direction * speed;
+	}
+
+	/**
+	 * @param time Seconds since the move started
+	 * @return Acceleration the move should have in units per second per second
+	 */
+	public synchronized double getAcceleration(double time)
+	{
+		if(time <= 0 || time >= totalTime)
+		{
+			return 0;
+		} else if(time < accelerationTime) {
+			return direction * maxAcceleration;
+		} else if(time < accelerationTime + cruiseTime) {
+			return 0;
+		} else {
+			return -direction * maxAcceleration;
+		}
+	}
+
+	/**
+	 * @return Seconds the planned move takes
+	 */
+	public synchronized double getTotalTime()
+	{
+		return totalTime;
+	}
+
+	/**
+	 * @param time Seconds since the move started
+	 * @return True once the move should be sitting on its goal
+	 */
+	public synchronized boolean isFinished(double time)
+	{
+		return time >= totalTime;
+	}
+
+	public synchronized double getMaxVelocity()
+	{
+		return maxVelocity;
+	}
+
+	public synchronized double getMaxAcceleration()
+	{
+		return maxAcceleration;
+	}
+}
@@ -0,0 +1,72 @@
+package org.usfirst.frc.team2461.robot;
+
+/**
+ * <h1> Waypoint Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * A point a generated path goes through. A swerve drive does not have to face the
+ * way it drives, so a waypoint has both the direction the path passes through it and
+ * the heading the robot should have there. Both are in degrees, positive clockwise
+ * from X like a RobotPose heading.
+ * </p>
+ */
+public class Waypoint
+{
+	private final double x;
+	private final double y;
+	private final double direction;
+	private final double heading;
+
+	/**
+	 * Creates a Waypoint
+	 * @param xIn Inches along X
+	 * @param yIn Inches along Y
+	 * @param directionIn Direction the path goes through the point in degrees. 0 drives along X, 180 drives back
+	 * @param headingIn Heading of the robot at the point in degrees
+	 */
+	public Waypoint(double xIn, double yIn, double directionIn, double headingIn)
+	{
+		x = xIn;
+		y = yIn;
+		direction = directionIn;
+		heading = headingIn;
+	}
+
+	/**
+	 * @return Inches along X
+	 */
+	public double getX()
+	{
+		return x;
+	}
+
+	/**
+	 * @return Inches along Y
+	 */
+	public double getY()
+	{
+		return y;
+	}
+
+	/**
+	 * @return Direction the path goes through the point in degrees, positive clockwise
+	 */
+	public double getDirection()
+	{
+		return direction;
+	}
+
+	/**
+	 * @return Heading of the robot at the point in degrees, positive clockwise
+	 */
+	public double getHeading()
+	{
+		return heading;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("(%.1f, %.1f) going %.1f deg facing %.1f deg", x, y, direction, heading);
+	}
+}
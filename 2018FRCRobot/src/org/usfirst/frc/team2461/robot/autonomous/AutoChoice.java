@@ -0,0 +1,25 @@
+package org.usfirst.frc.team2461.robot.autonomous;
+
+/**
+ * <h1> Auto Choice Interface </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Something that can be picked on the "Auto choices" chooser: a built in StartPosition or
+ * an AutoScript loaded from the RoboRIO. Either way it names the AutoPlanCache plan to
+ * run for each side the near switch can be.
+ * </p>
+ */
+public interface AutoChoice
+{
+	/**
+	 * @return Name shown on the dashboard chooser
+	 */
+	public String getLabel();
+
+	/**
+	 * Gets the plan to run for this choice
+	 * @param side Side of the near switch, see StartPosition.getSide()
+	 * @return Number of the AutoPlanCache plan to run
+	 */
+	public int getPlan(int side);
+}
@@ -0,0 +1,106 @@
+package org.usfirst.frc.team2461.robot.autonomous;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.usfirst.frc.team2461.robot.PathGenerator;
+import org.usfirst.frc.team2461.robot.Trajectory;
+import org.usfirst.frc.team2461.robot.TrajectoryCache;
+import org.usfirst.frc.team2461.robot.TrajectoryFile;
+import org.usfirst.frc.team2461.robot.Waypoint;
+
+/**
+ * <h1> Auto Path Enum </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Every path the autonomous routines drive, by name. Positions are in inches from where
+ * the robot starts the match, X towards the switch and Y to the left, with the robot
+ * facing 0 degrees. The trajectories come out of the TrajectoryCache, so call loadAll()
+ * in robotInit() and autonomous never has to wait for one to be generated.
+ * </p>
+ * <p>
+ * main() generates the trajectory files on a computer ahead of time, see the paths
+ * target of build.xml.
+ * </p>
+ * <p>
+ * Usage: <b>AutoPath [output folder]</b>
+ * </p>
+ */
+public enum AutoPath
+{
+	SWITCH_LEFT(new Waypoint(0, 0, 0, 0), new Waypoint(120, 48, 0, 0)),
+	SWITCH_RIGHT(new Waypoint(0, 0, 0, 0), new Waypoint(120, -48, 0, 0)),
+	SWITCH_LEFT_BACK(new Waypoint(120, 48, 180, 0), new Waypoint(110, 48, 180, 0)),
+	SWITCH_RIGHT_BACK(new Waypoint(120, -48, 180, 0), new Waypoint(110, -48, 180, 0));
+
+	/**
+	 * Limits every path is generated with: top speed and acceleration like the distance
+	 * moves, and gentle enough in the curves that the wheels do not slip
+	 */
+	private static final double MAX_VELOCITY = 90;
+	private static final double MAX_ACCELERATION = 150;
+	private static final double MAX_CENTRIPETAL_ACCELERATION = 100;
+
+	private final Waypoint[] waypoints;
+
+	private AutoPath(Waypoint... waypointsIn)
+	{
+		waypoints = waypointsIn;
+	}
+
+	/**
+	 * Gets the trajectory of the path from the TrajectoryCache, loading or generating it
+	 * if it is not there yet
+	 * @return Trajectory of the path
+	 */
+	public Trajectory getTrajectory()
+	{
+		return TrajectoryCache.getInstance().get(name(), getFingerprint(), this::generate);
+	}
+
+	/**
+	 * Generates the trajectory of the path, without the cache
+	 * @return New Trajectory
+	 */
+	public Trajectory generate()
+	{
+		return createGenerator().generate(waypoints);
+	}
+
+	/**
+	 * @return Fingerprint of the waypoints and limits of the path, saved in its trajectory file
+	 */
+	public long getFingerprint()
+	{
+		return createGenerator().getFingerprint(waypoints);
+	}
+
+	/**
+	 * Puts the trajectory of every path in the TrajectoryCache
+	 */
+	public static void loadAll()
+	{
+		for(AutoPath path : values())
+		{
+			path.getTrajectory();
+		}
+	}
+
+	private static PathGenerator createGenerator()
+	{
+		return new PathGenerator(MAX_VELOCITY, MAX_ACCELERATION, MAX_CENTRIPETAL_ACCELERATION);
+	}
+
+	public static void main(String[] args) throws IOException
+	{
+		File directory = new File(args.length > 0 ? args[0] : "paths");
+		for(AutoPath path : values())
+		{
+			File file = new File(directory, path.name() + TrajectoryFile.EXTENSION);
+			Trajectory trajectory = path.generate();
+			TrajectoryFile.write(file, trajectory, path.getFingerprint());
+			System.out.printf("%-20s %5.2f s  %4d samples  %6d bytes  %s%n",
+					path, trajectory.getTotalTime(), trajectory.getSampleCount(), file.length(), file);
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package org.usfirst.frc.team2461.robot.autonomous;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.usfirst.frc.team2461.robot.BoxManager;
+import org.usfirst.frc.team2461.robot.SwerveDrive;
+
+/**
+ * <h1> Auto Plan Cache Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Builds the AutoCode of every routine while the robot is disabled, so autonomousInit()
+ * only has to look up a plan that is ready to run. Every AutoChoice and switch side
+ * points at one of the plans, so the lookup is a couple of array reads and nothing is
+ * created or class loaded in the first autonomous loop.
+ * </p>
+ * <p>
+ * Plans are numbered by AutoRoutine ordinal, followed by a left, right and unknown plan
+ * for every AutoScript added with addScript(). Robot logs the number of the plan it runs.
+ * </p>
+ * <p>
+ * An AutoCode only runs once, so the plan taken for a match is built again the next
+ * time the robot is disabled. Call prepare() in disabledPeriodic(); it builds at most
+ * one plan a loop so the loop stays on time.
+ * </p>
+ */
+public class AutoPlanCache
+{
+	private SwerveDrive chassis;
+	private BoxManager boxManager;
+
+	private AutoRoutine[] allRoutines = AutoRoutine.values();
+	private List<AutoScript> scripts = new ArrayList<>();
+	private AutoCode[] plans;
+	private int builtCount = 0;
+
+	/**
+	 * Creates an AutoPlanCache with no plans built yet
+	 * @param chassisIn Drive train the plans drive
+	 * @param boxManagerIn Box Manager the plans use to place a box
+	 */
+	public AutoPlanCache(SwerveDrive chassisIn, BoxManager boxManagerIn)
+	{
+		chassis = chassisIn;
+		boxManager = boxManagerIn;
+		plans = new AutoCode[allRoutines.length];
+	}
+
+	/**
+	 * Adds the plans of a script, one for each side of the near switch. Call it in
+	 * robotInit(), before the first prepare().
+	 * @param script Script that has been validated
+	 */
+	public void addScript(AutoScript script)
+	{
+		script.setPlanBase(plans.length);
+		scripts.add(script);
+		AutoCode[] plansNew = new AutoCode[plans.length + StartPosition.SIDE_COUNT];
+		System.arraycopy(plans, 0, plansNew, 0, plans.length);
+		plans = plansNew;
+	}
+
+	/**
+	 * Builds the next plan that is not ready yet. Call it every disabled loop.
+	 * @return true if every plan is ready
+	 */
+	public boolean prepare()
+	{
+		boolean built = false;
+		for(int i = 0; i < plans.length; i++) {
+			if(plans[i] != null) {
+				continue;
+			}
+			if(built) {
+				return false;
+			}
+			plans[i] = build(i);
+			built = true;
+		}
+		return true;
+	}
+
+	/**
+	 * Builds every plan that is not ready yet
+	 */
+	public void prepareAll()
+	{
+		while(!prepare()) {
+
+		}
+	}
+
+	/**
+	 * Looks up the plan to run
+	 * @param choice Choice picked on the chooser
+	 * @param plateLayout Game specific message
+	 * @return Number of the plan for the choice and the side of the near switch
+	 */
+	public int getPlan(AutoChoice choice, String plateLayout)
+	{
+		return choice.getPlan(StartPosition.getSide(plateLayout));
+	}
+
+	/**
+	 * Takes a plan to run it. The plan is built again the next time prepare() is called.
+	 * @param plan Number of the plan to run, see getPlan()
+	 * @return AutoCode of the plan in its BEGIN state, built now if it was not ready
+	 */
+	public AutoCode take(int plan)
+	{
+		AutoCode code = plans[plan];
+		plans[plan] = null;
+		return code != null ? code : build(plan);
+	}
+
+	/**
+	 * @param plan Number of the plan to check
+	 * @return true if the plan is built and has not been taken
+	 */
+	public boolean isReady(int plan)
+	{
+		return plans[plan] != null;
+	}
+
+	/**
+	 * @return Number of plans, ready or not
+	 */
+	public int getPlanCount()
+	{
+		return plans.length;
+	}
+
+	/**
+	 * @return Number of plans built since the robot started, counting rebuilds
+	 */
+	public int getBuiltCount()
+	{
+		return builtCount;
+	}
+
+	private AutoCode build(int number)
+	{
+		AutoCode plan;
+		if(number < allRoutines.length) {
+			plan = allRoutines[number].create(chassis, boxManager);
+		} else {
+			int script = (number - allRoutines.length) / StartPosition.SIDE_COUNT;
+			plan = scripts.get(script).create((number - allRoutines.length) % StartPosition.SIDE_COUNT, chassis, boxManager);
+		}
+		plan.getStateString(); // Loads the state enums of the plan now rather than in its first run()
+		builtCount++;
+		return plan;
+	}
+}
@@ -0,0 +1,42 @@
+package org.usfirst.frc.team2461.robot.autonomous;
+
+import org.usfirst.frc.team2461.robot.BoxManager;
+import org.usfirst.frc.team2461.robot.SwerveDrive;
+
+/**
+ * <h1> Auto Routine Enum </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Every autonomous routine the robot can run. Robot picks one in autonomousInit() and
+ * logs its number, so the simulator and the replay harness can build the same routine.
+ * </p>
+ */
+public enum AutoRoutine
+{
+	DRIVE_FORWARD_BASIC, DRIVE_FORWARD, MOVE_LEFT, MOVE_RIGHT, PATH_LEFT, PATH_RIGHT;
+	
+	/**
+	 * Creates the AutoCode for this routine
+	 * @param chassis Drive train the routine drives
+	 * @param boxManager Box Manager the routine uses to place a box
+	 * @return New AutoCode starting in its BEGIN state
+	 */
+	public AutoCode create(SwerveDrive chassis, BoxManager boxManager)
+	{
+		switch(this) {
+			case DRIVE_FORWARD:
+				return new DriveForwardAuto(chassis);
+			case MOVE_LEFT:
+				return new MoveLeftAuto(chassis, boxManager);
+			case MOVE_RIGHT:
+				return new MoveRightAuto(chassis, boxManager);
+			case PATH_LEFT:
+				return new TrajectoryAuto(chassis, boxManager, AutoPath.SWITCH_LEFT.getTrajectory(), AutoPath.SWITCH_LEFT_BACK.getTrajectory());
+			case PATH_RIGHT:
+				return new TrajectoryAuto(chassis, boxManager, AutoPath.SWITCH_RIGHT.getTrajectory(), AutoPath.SWITCH_RIGHT_BACK.getTrajectory());
+			case DRIVE_FORWARD_BASIC:
+			default:
+				return new DriveForwardAutoBasic(chassis, boxManager);
+		}
+	}
+}
@@ -0,0 +1,544 @@
+package org.usfirst.frc.team2461.robot.autonomous;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.usfirst.frc.team2461.robot.BoxManager;
+import org.usfirst.frc.team2461.robot.SwerveDrive;
+import org.usfirst.frc.team2461.robot.SwerveDriveAutoCommandFactory;
+import org.usfirst.frc.team2461.robot.command.BoxCommands;
+import org.usfirst.frc.team2461.robot.command.Command;
+import org.usfirst.frc.team2461.robot.command.Commands;
+import org.usfirst.frc.team2461.robot.command.DriveDistanceCommand;
+import org.usfirst.frc.team2461.robot.command.ParallelCommandGroup;
+import org.usfirst.frc.team2461.robot.command.SequentialCommandGroup;
+
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * <h1> Auto Script Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * An autonomous routine written in a text file on the RoboRIO instead of in Java, so a
+ * routine can be added or changed by copying a file over without deploying the code.
+ * Robot loads every script in robotInit(), where a mistake is reported with its file and
+ * line, and each one becomes a choice on the "Auto choices" chooser.
+ * </p>
+ * <p>
+ * A script is one command per line, indented under the group it is part of. Anything
+ * after a # is a comment. For example:
+ * </p>
+ * <pre>
+ * name Robot Center Position, Script
+ * when left
+ * 	parallel Drive To Switch
+ * 		sequence Drive
+ * 			forward 120 timeout 5
+ * 			strafeleft 48 timeout 5
+ * 		sequence Lift Box
+ * 			extendarms
+ * 			wait 0.5
+ * 			lower timeout 3
+ * 			waitforward 50
+ * 			rise timeout 3
+ * 	spit 3
+ * 	backward 10 timeout 5
+ * when unknown
+ * 	forward 120 timeout 5
+ * </pre>
+ * <ul>
+ * <li>name [label] - name shown on the chooser, needed once</li>
+ * <li>when left|right|unknown - runs the commands under it, in order, when the near switch
+ * is on that side. unknown is needed and runs for any side without its own block.</li>
+ * <li>sequence|parallel|race|deadline [name] - Commands group of the commands under it. The
+ * first command of a deadline is the deadline.</li>
+ * <li>forward|backward|strafeleft|straferight [inches], turnleft|turnright [degrees] - drives
+ * with the SwerveDriveAutoCommandFactory command of the same name</li>
+ * <li>wait [seconds], waitforward [inches] - waits, or waits until the robot is that far forward</li>
+ * <li>extendarms, retractarms, lower, rise, spit [seconds] - BoxCommands</li>
+ * <li>timeout [seconds] at the end of any line gives up on that command after that long</li>
+ * </ul>
+ * <p>
+ * Parsing compiles the script into a flat table of nodes, one per line, which is all that
+ * is kept. build() turns the table into Commands, which AutoPlanCache does while the robot
+ * is disabled, so nothing is parsed once autonomous starts.
+ * </p>
+ */
+public class AutoScript implements AutoChoice
+{
+	/**
+	 * Ending of script file names
+	 */
+	public static final String EXTENSION = ".auto";
+
+	private static final String[] SIDE_NAMES = {"left", "right", "unknown"};
+	private static final int SIDE_UNKNOWN = 2;
+	private static final int TAB_WIDTH = 4;
+
+	/**
+	 * What a node does, by the word that starts its line
+	 */
+	private enum Op {
+		SEQUENCE("sequence", true, false), PARALLEL("parallel", true, false), RACE("race", true, false), DEADLINE("deadline", true, false),
+		FORWARD("forward", false, true), BACKWARD("backward", false, true), STRAFE_LEFT("strafeleft", false, true), STRAFE_RIGHT("straferight", false, true),
+		TURN_LEFT("turnleft", false, true), TURN_RIGHT("turnright", false, true),
+		WAIT("wait", false, true), WAIT_FORWARD("waitforward", false, true),
+		EXTEND_ARMS("extendarms", false, false), RETRACT_ARMS("retractarms", false, false), LOWER("lower", false, false), RISE("rise", false, false),
+		SPIT("spit", false, true);
+
+		final String keyword;
+		final boolean group;
+		final boolean takesValue;
+
+		private Op(String keywordIn, boolean groupIn, boolean takesValueIn)
+		{
+			keyword = keywordIn;
+			group = groupIn;
+			takesValue = takesValueIn;
+		}
+
+		static Op find(String keyword)
+		{
+			for(Op op : values()) {
+				if(op.keyword.equals(keyword)) {
+					return op;
+				}
+			}
+			return null;
+		}
+	}
+
+	private String source;
+	private String label;
+
+	// The compiled script, one entry per node in the order of the file. The children of a
+	// node are the nodes after it one level deeper, up to the next node at its level or above.
+	private Op[] op;
+	private double[] value;
+	private double[] timeout;
+	private String[] name;
+	private int[] depth;
+	private int[] line;
+	private int[] sideRoot = {-1, -1, -1};
+
+	private int planBase = -1;
+
+	private AutoScript(String sourceIn)
+	{
+		source = sourceIn;
+	}
+
+	/**
+	 * Loads and compiles a script file
+	 * @param file Script file
+	 * @return Compiled script
+	 * @throws IOException If the file cannot be read
+	 * @throws IllegalArgumentException If the script has a mistake, with its file and line
+	 */
+	public static AutoScript load(File file) throws IOException
+	{
+		return parse(file.getName(), new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Loads every script in a folder, checks that each one builds and reports the ones that
+	 * do not to the Driver Station. Call it in robotInit().
+	 * @param directory Folder of the script files. It does not have to exist.
+	 * @param chassis Drive train to check the scripts against
+	 * @param boxManager Box Manager to check the scripts against
+	 * @return Scripts that loaded and built, in order of their file names
+	 */
+	public static List<AutoScript> loadAll(File directory, SwerveDrive chassis, BoxManager boxManager)
+	{
+		List<AutoScript> scripts = new ArrayList<>();
+		File[] files = directory.listFiles((folder, fileName) -> fileName.endsWith(EXTENSION));
+		if(files == null)
+		{
+			return scripts;
+		}
+
+		Arrays.sort(files);
+		for(File file : files)
+		{
+			try {
+				AutoScript script = load(file);
+				script.validate(chassis, boxManager);
+				for(AutoScript other : scripts) {
+					if(other.label.equals(script.label)) {
+						throw new IllegalArgumentException(file.getName() + ": " + other.source + " is already named " + script.label);
+					}
+				}
+				scripts.add(script);
+			} catch(IOException | IllegalArgumentException e) {
+				DriverStation.reportError("Could not load autonomous script " + file + ": " + e.getMessage(), false);
+			}
+		}
+		return scripts;
+	}
+
+	/**
+	 * Compiles a script
+	 * @param sourceIn Name of where the script came from, used in error messages
+	 * @param text Text of the script
+	 * @return Compiled script
+	 * @throws IllegalArgumentException If the script has a mistake, with its line
+	 */
+	public static AutoScript parse(String sourceIn, String text)
+	{
+		AutoScript script = new AutoScript(sourceIn);
+		List<Op> ops = new ArrayList<>();
+		List<Double> values = new ArrayList<>();
+		List<Double> timeouts = new ArrayList<>();
+		List<String> names = new ArrayList<>();
+		List<Integer> depths = new ArrayList<>();
+		List<Integer> lines = new ArrayList<>();
+
+		// Indentation of the lines the current line can be nested in, outermost first
+		int[] indentStack = new int[32];
+		int stackSize = 0;
+		int side = -1;
+
+		String[] textLines = text.split("\r?\n", -1);
+		for(int lineNumber = 1; lineNumber <= textLines.length; lineNumber++)
+		{
+			String textLine = textLines[lineNumber - 1];
+			int comment = textLine.indexOf('#');
+			if(comment >= 0) {
+				textLine = textLine.substring(0, comment);
+			}
+			String content = textLine.trim();
+			if(content.isEmpty()) {
+				continue;
+			}
+			String where = sourceIn + ":" + lineNumber + ": ";
+
+			int indent = getIndent(textLine);
+			while(stackSize > 0 && indentStack[stackSize - 1] >= indent) {
+				stackSize--;
+			}
+			int level = stackSize;
+			if(level >= indentStack.length) {
+				throw new IllegalArgumentException(where + "nested too deep");
+			}
+			indentStack[stackSize++] = indent;
+
+			String[] words = content.split("\\s+");
+			int wordCount = words.length;
+			double timeoutValue = 0;
+			if(wordCount >= 3 && words[wordCount - 2].equals("timeout")) {
+				timeoutValue = parseNumber(where, words[wordCount - 1]);
+				wordCount -= 2;
+			}
+			String keyword = words[0];
+
+			if(level == 0) {
+				if(keyword.equals("name")) {
+					if(script.label != null) {
+						throw new IllegalArgumentException(where + "the script is already named " + script.label);
+					}
+					if(wordCount < 2) {
+						throw new IllegalArgumentException(where + "name needs a label");
+					}
+					script.label = join(words, 1, wordCount);
+					side = -1;
+					continue;
+				}
+				if(!keyword.equals("when") || wordCount != 2 || timeoutValue != 0) {
+					throw new IllegalArgumentException(where + "expected name or when, not " + content);
+				}
+				side = Arrays.asList(SIDE_NAMES).indexOf(words[1]);
+				if(side < 0) {
+					throw new IllegalArgumentException(where + "when needs left, right or unknown, not " + words[1]);
+				}
+				if(script.sideRoot[side] >= 0) {
+					throw new IllegalArgumentException(where + "there is already a when " + words[1]);
+				}
+				script.sideRoot[side] = ops.size();
+				ops.add(Op.SEQUENCE);
+				values.add(0.0);
+				timeouts.add(0.0);
+				names.add("When " + words[1]);
+				depths.add(0);
+				lines.add(lineNumber);
+				continue;
+			}
+
+			if(side < 0) {
+				throw new IllegalArgumentException(where + "commands have to be under a when");
+			}
+			Op parentOp = ops.get(ops.size() - 1);
+			if(level > depths.get(depths.size() - 1) && !parentOp.group) {
+				throw new IllegalArgumentException(where + parentOp.keyword + " cannot have commands under it");
+			}
+			Op nodeOp = Op.find(keyword);
+			if(nodeOp == null) {
+				throw new IllegalArgumentException(where + "unknown command " + keyword);
+			}
+
+			double nodeValue = 0;
+			String nodeName;
+			if(nodeOp.group) {
+				nodeName = wordCount > 1 ? join(words, 1, wordCount) : capitalize(keyword);
+			} else if(nodeOp.takesValue) {
+				if(wordCount != 2) {
+					throw new IllegalArgumentException(where + keyword + " needs one number");
+				}
+				nodeValue = parseNumber(where, words[1]);
+				nodeName = null;
+			} else {
+				if(wordCount != 1) {
+					throw new IllegalArgumentException(where + keyword + " does not take a number");
+				}
+				nodeName = null;
+			}
+
+			ops.add(nodeOp);
+			values.add(nodeValue);
+			timeouts.add(timeoutValue);
+			names.add(nodeName);
+			depths.add(level);
+			lines.add(lineNumber);
+		}
+
+		if(script.label == null) {
+			throw new IllegalArgumentException(sourceIn + ": the script needs a name line");
+		}
+		if(script.sideRoot[SIDE_UNKNOWN] < 0) {
+			throw new IllegalArgumentException(sourceIn + ": the script needs a when unknown block");
+		}
+
+		int count = ops.size();
+		script.op = ops.toArray(new Op[count]);
+		script.value = new double[count];
+		script.timeout = new double[count];
+		script.name = names.toArray(new String[count]);
+		script.depth = new int[count];
+		script.line = new int[count];
+		for(int i = 0; i < count; i++) {
+			script.value[i] = values.get(i);
+			script.timeout[i] = timeouts.get(i);
+			script.depth[i] = depths.get(i);
+			script.line[i] = lines.get(i);
+		}
+
+		for(int i = 0; i < count; i++) {
+			if(script.op[i].group && script.getChildCount(i) == 0) {
+				throw new IllegalArgumentException(sourceIn + ":" + script.line[i] + ": " + script.op[i].keyword + " needs commands under it");
+			}
+		}
+		return script;
+	}
+
+	/**
+	 * Builds every side of the script once, to find mistakes that only show up in the
+	 * Commands, like two commands of a parallel group driving the drive train
+	 * @param chassis Drive train the script drives
+	 * @param boxManager Box Manager the script uses
+	 * @throws IllegalArgumentException If a side does not build, with its line
+	 */
+	public void validate(SwerveDrive chassis, BoxManager boxManager)
+	{
+		for(int side = 0; side < SIDE_NAMES.length; side++) {
+			if(sideRoot[side] >= 0) {
+				build(side, chassis, boxManager);
+			}
+		}
+	}
+
+	/**
+	 * Builds the routine the script runs for a side of the near switch
+	 * @param side Side of the near switch, see StartPosition.getSide()
+	 * @param chassis Drive train the routine drives
+	 * @param boxManager Box Manager the routine uses
+	 * @return New AutoCode of the routine in its BEGIN state
+	 */
+	public AutoCode create(int side, SwerveDrive chassis, BoxManager boxManager)
+	{
+		return new ScriptAuto(chassis, boxManager, label, build(side, chassis, boxManager));
+	}
+
+	/**
+	 * Builds the Command of the routine the script runs for a side of the near switch
+	 * @param side Side of the near switch, see StartPosition.getSide()
+	 * @param chassis Drive train the routine drives
+	 * @param boxManager Box Manager the routine uses
+	 * @return New Command of the whole routine
+	 */
+	public Command build(int side, SwerveDrive chassis, BoxManager boxManager)
+	{
+		int root = sideRoot[side] >= 0 ? sideRoot[side] : sideRoot[SIDE_UNKNOWN];
+		return buildNode(root, chassis, boxManager);
+	}
+
+	/**
+	 * @return Name of the script shown on the chooser
+	 */
+	@Override
+	public String getLabel()
+	{
+		return label;
+	}
+
+	/**
+	 * @return Name of the file the script came from
+	 */
+	public String getSource()
+	{
+		return source;
+	}
+
+	@Override
+	public int getPlan(int side)
+	{
+		return planBase + side;
+	}
+
+	/**
+	 * Called by AutoPlanCache when it adds the plans of the script
+	 * @param planBaseIn Number of the plan of the left side, followed by right and unknown
+	 */
+	void setPlanBase(int planBaseIn)
+	{
+		planBase = planBaseIn;
+	}
+
+	@SuppressWarnings("static-access")
+	private Command buildNode(int node, SwerveDrive chassis, BoxManager boxManager)
+	{
+		SwerveDriveAutoCommandFactory factory = SwerveDriveAutoCommandFactory.getInstance();
+		double nodeValue = value[node];
+		Command command;
+		switch(op[node]) {
+			case FORWARD:
+				command = new DriveDistanceCommand(chassis, factory.command_GoForward(nodeValue));
+				break;
+			case BACKWARD:
+				command = new DriveDistanceCommand(chassis, factory.command_GoBackward(nodeValue));
+				break;
+			case STRAFE_LEFT:
+				command = new DriveDistanceCommand(chassis, factory.command_MoveLeft(nodeValue));
+				break;
+			case STRAFE_RIGHT:
+				command = new DriveDistanceCommand(chassis, factory.command_MoveRight(nodeValue));
+				break;
+			case TURN_LEFT:
+				command = new DriveDistanceCommand(chassis, factory.command_TurnLeft(nodeValue));
+				break;
+			case TURN_RIGHT:
+				command = new DriveDistanceCommand(chassis, factory.command_TurnRight(nodeValue));
+				break;
+			case WAIT:
+				command = Commands.waitSeconds(nodeValue);
+				break;
+			case WAIT_FORWARD:
+				command = Commands.waitUntil("Idle", () -> chassis.getPose().getX() >= nodeValue);
+				break;
+			case EXTEND_ARMS:
+				command = BoxCommands.extendArms(boxManager);
+				break;
+			case RETRACT_ARMS:
+				command = BoxCommands.retractArms(boxManager);
+				break;
+			case LOWER:
+				command = BoxCommands.lower(boxManager);
+				break;
+			case RISE:
+				command = BoxCommands.riseToSwitch(boxManager);
+				break;
+			case SPIT:
+				command = BoxCommands.spitOut(boxManager, nodeValue);
+				break;
+			default:
+				command = buildGroup(node, chassis, boxManager);
+				break;
+		}
+		return timeout[node] > 0 ? command.withTimeout(timeout[node]) : command;
+	}
+
+	private Command buildGroup(int node, SwerveDrive chassis, BoxManager boxManager)
+	{
+		Command[] children = new Command[getChildCount(node)];
+		int childCount = 0;
+		for(int i = node + 1; i < op.length && depth[i] > depth[node]; i++) {
+			if(depth[i] == depth[node] + 1) {
+				children[childCount++] = buildNode(i, chassis, boxManager);
+			}
+		}
+
+		try {
+			switch(op[node]) {
+				case PARALLEL:
+					return new ParallelCommandGroup(name[node], ParallelCommandGroup.Mode.ALL, children);
+				case RACE:
+					return new ParallelCommandGroup(name[node], ParallelCommandGroup.Mode.RACE, children);
+				case DEADLINE:
+					return new ParallelCommandGroup(name[node], ParallelCommandGroup.Mode.DEADLINE, children);
+				case SEQUENCE:
+				default:
+					return new SequentialCommandGroup(name[node], children);
+			}
+		} catch(IllegalArgumentException e) {
+			throw new IllegalArgumentException(source + ":" + line[node] + ": " + e.getMessage(), e);
+		}
+	}
+
+	private int getChildCount(int node)
+	{
+		int childCount = 0;
+		for(int i = node + 1; i < op.length && depth[i] > depth[node]; i++) {
+			if(depth[i] == depth[node] + 1) {
+				childCount++;
+			}
+		}
+		return childCount;
+	}
+
+	private static int getIndent(String textLine)
+	{
+		int indent = 0;
+		for(int i = 0; i < textLine.length(); i++) {
+			char c = textLine.charAt(i);
+			if(c == '\t') {
+				indent = (indent / TAB_WIDTH + 1) * TAB_WIDTH;
+			} else if(c == ' ') {
+				indent++;
+			} else {
+				break;
+			}
+		}
+		return indent;
+	}
+
+	private static double parseNumber(String where, String word)
+	{
+		double number;
+		try {
+			number = Double.parseDouble(word);
+		} catch(NumberFormatException e) {
+			throw new IllegalArgumentException(where + word + " is not a number");
+		}
+		if(!(number > 0) || Double.isInfinite(number)) {
+			throw new IllegalArgumentException(where + word + " has to be more than 0");
+		}
+		return number;
+	}
+
+	private static String join(String[] words, int from, int to)
+	{
+		StringBuilder joined = new StringBuilder(words[from]);
+		for(int i = from + 1; i < to; i++) {
+			joined.append(' ').append(words[i]);
+		}
+		return joined.toString();
+	}
+
+	private static String capitalize(String word)
+	{
+		return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+	}
+}
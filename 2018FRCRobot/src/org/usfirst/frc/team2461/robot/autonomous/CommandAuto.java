@@ -0,0 +1,116 @@
+package org.usfirst.frc.team2461.robot.autonomous;
+
+import org.usfirst.frc.team2461.robot.BoxManager;
+import org.usfirst.frc.team2461.robot.SwerveDrive;
+import org.usfirst.frc.team2461.robot.command.Command;
+import org.usfirst.frc.team2461.robot.command.CommandScheduler;
+
+/**
+ * <h1> CommandAuto Class</h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Base of the autonomous routines that are a tree of Commands instead of hand written
+ * state machines. The child class builds its routine in its constructor and hands it to
+ * setRoutine(). The first run() schedules it and every run() after that updates it, so
+ * the drive train and the Box Manager commands run side by side without either one
+ * polling the other.
+ * </p>
+ * <p>
+ * The state of the routine is the name of the command it is on. Nothing is created while
+ * the routine runs.
+ * </p>
+ */
+public abstract class CommandAuto implements AutoCode {
+
+	protected SwerveDrive chassis;
+	protected BoxManager boxManager;
+
+	private CommandScheduler scheduler = new CommandScheduler(4);
+	private Command routine;
+	private boolean started = false;
+	private Command currentCommand;
+	private Command previousCommand;
+
+	/**
+	 * Used by child classes to create a CommandAuto object
+	 * @param chassisIn SwerveDrive object representing the drive train
+	 * @param boxManagerIn BoxManager object
+	 */
+	protected CommandAuto(SwerveDrive chassisIn, BoxManager boxManagerIn) {
+		chassis = chassisIn;
+		boxManager = boxManagerIn;
+	}
+
+	/**
+	 * Sets the command the routine runs. Call it at the end of the child constructor.
+	 * @param routineIn Command, usually a group, that is the whole routine
+	 */
+	protected void setRoutine(Command routineIn) {
+		routine = routineIn;
+	}
+
+	/**
+	 * This is the method that runs the autonomous routine.
+	 *
+	 * <p>
+	 * Call this method in Autonomous Periodic. It starts the routine the first time and
+	 * updates its commands every time.
+	 * </p>
+	 */
+	@Override
+	public void run() {
+		if(!started) {
+			scheduler.schedule(routine);
+			started = true;
+		}
+		scheduler.run();
+
+		Command command = isFinished() ? null : routine.getCurrentCommand();
+		if(command != currentCommand) {
+			previousCommand = currentCommand;
+			currentCommand = command;
+		}
+	}
+
+	/**
+	 * @return true once every command of the routine has finished
+	 */
+	public boolean isFinished() {
+		return started && !scheduler.isScheduled(routine);
+	}
+
+	/**
+	 * Returns String object that describes what the current state of the autonomous code is.
+	 * While commands run side by side, their names are separated by |
+	 */
+	@Override
+	public String getStateString() {
+		if(!started) {
+			return "Begin";
+		}
+		return isFinished() ? "Done" : routine.getStateString();
+	}
+
+	/**
+	 * Returns String object that describes what the previous state of the autonomous code was.
+	 */
+	@Override
+	public String getStatePreviousString() {
+		return previousCommand != null ? previousCommand.getName() : "Begin";
+	}
+
+	/**
+	 * Method to disable the Drive and Turn PID Loops of the drive train
+	 * , clears all autoCommands and interrupts the routine so the next run()
+	 * starts it from the beginning
+	 */
+	@Override
+	public void reset() {
+		scheduler.cancelAll();
+		chassis.reset();
+		chassis.clearAutoCommands();
+		started = false;
+		currentCommand = null;
+		previousCommand = null;
+	}
+}
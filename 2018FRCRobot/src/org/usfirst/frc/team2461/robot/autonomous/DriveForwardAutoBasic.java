@@ -1,17 +1,23 @@
 package org.usfirst.frc.team2461.robot.autonomous;
 
 import org.usfirst.frc.team2461.robot.BoxManager;
-import org.usfirst.frc.team2461.robot.Robot;
+import org.usfirst.frc.team2461.robot.StateMachine;
 import org.usfirst.frc.team2461.robot.SwerveDrive;
 
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 
+/**
+ * <h1> DriveForwardAutoBasic Class</h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Drives forward at full power for a set time without using the encoders, for when
+ * nothing else can be trusted to work.
+ * </p>
+ */
 public class DriveForwardAutoBasic implements AutoCode
 {
 	private SwerveDrive chassis;
 	private BoxManager boxManager;
-	private double timeNow;
-	private double timeFuture;
 	
 	/**
 	 * Double value to hold how many seconds to drive the robot forward
@@ -19,91 +25,45 @@ public class DriveForwardAutoBasic implements AutoCode
 	private double timeToDriveForward = 2;
 	
 	private enum State {
-		BEGIN, DRIVE_FORWARD, STOP;
-		
-		/**
-		 * Method to get name of current enum value
-		 * Returns String representing the current enum value
-		 */
-		@Override
-		public String toString() {
-			switch(this) {
-				case BEGIN:
-					return "BEGIN";
-				case DRIVE_FORWARD:
-					return "DRIVE_FORWARD";
-				case STOP:
-					return "STOP";
-				default:
-					return "NULL";
-			}
-		}
+		BEGIN, DRIVE_FORWARD, STOP
 	}
 	
-	private State autoState;
-	private State autoStatePrevious;
+	private StateMachine<State> machine = new StateMachine<>(State.values(), State.BEGIN, 4);
 	
 	public DriveForwardAutoBasic(SwerveDrive chassisIn, BoxManager boxManagerIn) {
 		chassis = chassisIn;
 		boxManager = boxManagerIn;
-		autoState = State.BEGIN;
+		
+		machine.addTransition(State.BEGIN, State.DRIVE_FORWARD, null, () -> {
+				boxManager.boxCollectorArmRetract();
+				chassis.driveManual(0, 1);
+			})
+			.addTransition(State.DRIVE_FORWARD, State.STOP, () -> machine.getTimeInState() > timeToDriveForward,
+					() -> chassis.driveManual(0, 0));
 	}
 	
 	@Override
 	public void run()
 	{
-		switch(autoState) {
-			case BEGIN:
-				begin();
-				break;
-			case DRIVE_FORWARD:
-				driveForward();
-				break;
-			case STOP:
-				break;
-			default:
-				break;
-		}
-		
-	}
-	
-	private void begin() {
-		setNextState(State.DRIVE_FORWARD);
-		boxManager.boxCollectorArmRetract();
-		chassis.driveManual(0, 1);
-		timeFuture = Robot.timer.get() + timeToDriveForward;
-	}
-	
-	private void driveForward() {
-		timeNow = Robot.timer.get();
-		
-		if(timeNow > timeFuture) {
-			setNextState(State.STOP);
-			chassis.driveManual(0, 0);
-		}
+		machine.update();
 	}
 
 	@Override
 	public String getStateString()
 	{
-		return autoState.toString();
+		return machine.getStateString();
 	}
 
 	@Override
 	public String getStatePreviousString()
 	{
-		return autoStatePrevious.toString();
+		return machine.getStatePreviousString();
 	}
 
 	@Override
 	public void reset()
 	{
-		setNextState(State.BEGIN);
-	}
-	
-	private void setNextState(State nextState) {
-		autoStatePrevious = autoState;
-		autoState = nextState;
+		machine.transitionTo(State.BEGIN);
 	}
 	
 	/**
@@ -2,6 +2,7 @@ package org.usfirst.frc.team2461.robot.autonomous;
 
 import org.usfirst.frc.team2461.robot.BoxManager;
 import org.usfirst.frc.team2461.robot.SwerveDrive;
+import org.usfirst.frc.team2461.robot.SwerveDriveAutoCommand;
 
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 
@@ -11,8 +12,8 @@ import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
  * <p>
  * 2018 season MoveLeftAuto class that controls the drive train, 
  * the Box Collector and Box Lifter during Autonomous Periodic. It
- * extends MoveAuto class by filling in the abstract methods prepareMoveSideCommand()
- * and printMoveSideState() to indicate the robot will move right
+ * extends MoveAuto class by filling in the abstract method createMoveSideCommand()
+ * to indicate the robot will move right
  * </p>
  */
 public class MoveRightAuto extends MoveAuto
@@ -29,26 +30,15 @@ public class MoveRightAuto extends MoveAuto
 	}
 
 	/**
-	 * Used the in the driveDriveForward() method of the parent class, 
-	 * this overriding method added a MoveRight autoCommand to the drive
-	 * train
+	 * Used by the constructor of the parent class, this overriding method
+	 * creates a MoveRight autoCommand for the drive train
 	 */
 	@SuppressWarnings("static-access")
 	@Override
-	protected void prepareMoveSideCommand() {
-		chassis.addAutoCommand(factory.command_MoveRight(autoMoveSideDistance));
-		
+	protected SwerveDriveAutoCommand createMoveSideCommand() {
+		return factory.command_MoveRight(autoMoveSideDistance);
 	}
-
-	/**
-	 * Used in the drivingStateToString() method of the parent class, 
-	 * it returns the string for when the drive train is moving right.
-	 */
-	@Override
-	protected String printMoveSideState() {
-		return "Driving State: Moving Right";
-	}
-
+	
 	/**
 	 * Prints the current state of the Autonomous Code and its previous
 	 * state to the SmartDashboard
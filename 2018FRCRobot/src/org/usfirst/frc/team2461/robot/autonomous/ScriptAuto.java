@@ -0,0 +1,45 @@
+package org.usfirst.frc.team2461.robot.autonomous;
+
+import org.usfirst.frc.team2461.robot.BoxManager;
+import org.usfirst.frc.team2461.robot.SwerveDrive;
+import org.usfirst.frc.team2461.robot.command.Command;
+
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+
+/**
+ * <h1> ScriptAuto Class</h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Runs a routine built from an AutoScript. The script has already been turned into
+ * Commands, so it runs exactly like the routines written in Java.
+ * </p>
+ */
+public class ScriptAuto extends CommandAuto
+{
+	private String label;
+
+	/**
+	 * Creates a ScriptAuto object, see AutoScript.create()
+	 * @param chassisIn SwerveDrive object representing the drive train
+	 * @param boxManagerIn BoxManager object
+	 * @param labelIn Name of the script, shown with its state on the SmartDashboard
+	 * @param routineIn Command of the whole routine, from AutoScript.build()
+	 */
+	public ScriptAuto(SwerveDrive chassisIn, BoxManager boxManagerIn, String labelIn, Command routineIn)
+	{
+		super(chassisIn, boxManagerIn);
+		label = labelIn;
+		setRoutine(routineIn);
+	}
+
+	/**
+	 * Prints the current state of the Autonomous Code and its previous
+	 * state to the SmartDashboard
+	 */
+	@Override
+	public void debug() {
+		SmartDashboard.putString("ScriptAuto Script", label);
+		SmartDashboard.putString("ScriptAuto State", getStateString());
+		SmartDashboard.putString("ScriptAuto State Previous", getStatePreviousString());
+	}
+}
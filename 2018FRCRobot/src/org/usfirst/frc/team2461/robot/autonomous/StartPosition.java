@@ -0,0 +1,83 @@
+package org.usfirst.frc.team2461.robot.autonomous;
+
+/**
+ * <h1> Start Position Enum </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Every choice of the "Auto choices" chooser: where the robot starts the match and
+ * which AutoRoutine it runs for each side the near switch can be. The side comes from
+ * the first letter of the game specific message, L or R, and anything else (no message
+ * yet) picks the routine that does not need it.
+ * </p>
+ */
+public enum StartPosition implements AutoChoice
+{
+	DEFAULT("Default Auto", AutoRoutine.DRIVE_FORWARD_BASIC, AutoRoutine.DRIVE_FORWARD_BASIC, AutoRoutine.DRIVE_FORWARD_BASIC),
+	LEFT("Robot Left Position", AutoRoutine.MOVE_RIGHT, AutoRoutine.DRIVE_FORWARD_BASIC, AutoRoutine.DRIVE_FORWARD_BASIC),
+	CENTER("Robot Center Position", AutoRoutine.MOVE_LEFT, AutoRoutine.MOVE_RIGHT, AutoRoutine.DRIVE_FORWARD),
+	RIGHT("Robot Right Position", AutoRoutine.DRIVE_FORWARD_BASIC, AutoRoutine.MOVE_LEFT, AutoRoutine.DRIVE_FORWARD_BASIC),
+	CENTER_PATH("Robot Center Position, Smooth Path", AutoRoutine.PATH_LEFT, AutoRoutine.PATH_RIGHT, AutoRoutine.DRIVE_FORWARD);
+
+	/**
+	 * Number of switch sides a routine is picked for: left, right and unknown
+	 */
+	public static final int SIDE_COUNT = 3;
+
+	private final String label;
+	private final AutoRoutine[] routines;
+
+	private StartPosition(String labelIn, AutoRoutine switchLeft, AutoRoutine switchRight, AutoRoutine switchUnknown)
+	{
+		label = labelIn;
+		routines = new AutoRoutine[] {switchLeft, switchRight, switchUnknown};
+	}
+
+	/**
+	 * @return Name of the position shown on the dashboard chooser
+	 */
+	@Override
+	public String getLabel()
+	{
+		return label;
+	}
+
+	/**
+	 * Gets the routine to run from this position
+	 * @param side Side of the near switch, see getSide()
+	 * @return Routine to run
+	 */
+	public AutoRoutine getRoutine(int side)
+	{
+		return routines[side];
+	}
+
+	/**
+	 * @param side Side of the near switch, see getSide()
+	 * @return Number of the AutoPlanCache plan to run, the ordinal of the routine
+	 */
+	@Override
+	public int getPlan(int side)
+	{
+		return routines[side].ordinal();
+	}
+
+	/**
+	 * Works out which side of the near switch is ours
+	 * @param plateLayout Game specific message, like "LRL"
+	 * @return 0 for left, 1 for right, 2 if the message does not say
+	 */
+	public static int getSide(String plateLayout)
+	{
+		if(plateLayout == null || plateLayout.isEmpty()) {
+			return 2;
+		}
+		switch(plateLayout.charAt(0)) {
+			case 'L':
+				return 0;
+			case 'R':
+				return 1;
+			default:
+				return 2;
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package org.usfirst.frc.team2461.robot.autonomous;
+
+import org.usfirst.frc.team2461.robot.BoxManager;
+import org.usfirst.frc.team2461.robot.HolonomicTrajectoryFollower;
+import org.usfirst.frc.team2461.robot.SwerveDrive;
+import org.usfirst.frc.team2461.robot.Trajectory;
+import org.usfirst.frc.team2461.robot.command.BoxCommands;
+import org.usfirst.frc.team2461.robot.command.Command;
+import org.usfirst.frc.team2461.robot.command.Commands;
+import org.usfirst.frc.team2461.robot.command.FollowTrajectoryCommand;
+
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+
+/**
+ * <h1> TrajectoryAuto Class</h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * 2018 season TrajectoryAuto class that places a box on the switch like MoveAuto, but
+ * drives to it in one smooth path with a HolonomicTrajectoryFollower instead of driving
+ * forward, stopping, steering the wheels and driving sideways. The Box Collector and Box
+ * Lifter get the box up to the switch while the robot drives, and go back down while it
+ * drives away.
+ * </p>
+ */
+public class TrajectoryAuto extends CommandAuto {
+
+	private HolonomicTrajectoryFollower follower;
+
+	private double autoStartRisingBoxDistance = 50; // The lifter takes about 0.7 seconds to reach the middle switch
+	private double spitOutTime = 3;
+	private double armsExtendTime = 0.5;
+	private double pathTimeout = 2; // Seconds past the end of a path before it is given up on
+	private double lifterTimeout = 3; // In case a lifter switch is missed
+
+	/**
+	 * Creates a TrajectoryAuto object that controls the drive train, Box Collector
+	 * and Box Lifter during autonomous periodic. The pose of the drive train has to
+	 * be reset to 0, 0 facing 0 degrees where the robot starts.
+	 * @param chassisIn SwerveDrive object representing the drive train
+	 * @param boxManagerIn BoxManager object
+	 * @param pathToSwitch Trajectory from the start to the switch, usually from AutoPath
+	 * @param pathDriveBack Trajectory backing away from the switch once the box is out
+	 */
+	public TrajectoryAuto(SwerveDrive chassisIn, BoxManager boxManagerIn, Trajectory pathToSwitch, Trajectory pathDriveBack) {
+		super(chassisIn, boxManagerIn);
+		follower = new HolonomicTrajectoryFollower(chassis);
+
+		Command liftBox = Commands.sequence("Lift Box",
+				BoxCommands.extendArms(boxManager),
+				Commands.waitSeconds(armsExtendTime),
+				BoxCommands.lower(boxManager).withTimeout(lifterTimeout),
+				Commands.waitUntil("Idle", () -> chassis.getPose().getDistanceTo(0, 0) >= autoStartRisingBoxDistance),
+				BoxCommands.riseToSwitch(boxManager).withTimeout(lifterTimeout),
+				BoxCommands.retractArms(boxManager));
+		Command driveBack = Commands.parallel("Drive Back",
+				new FollowTrajectoryCommand("Driving Back", follower, pathDriveBack).withTimeout(pathDriveBack.getTotalTime() + pathTimeout),
+				Commands.sequence("Put Lifter Down",
+						BoxCommands.extendArms(boxManager),
+						BoxCommands.lower(boxManager).withTimeout(lifterTimeout)));
+
+		setRoutine(Commands.sequence("Place Box On Switch",
+				Commands.parallel("Drive To Switch",
+						new FollowTrajectoryCommand("Following Path", follower, pathToSwitch).withTimeout(pathToSwitch.getTotalTime() + pathTimeout),
+						liftBox),
+				BoxCommands.spitOut(boxManager, spitOutTime),
+				driveBack));
+	}
+
+	/**
+	 * @return HolonomicTrajectoryFollower driving the paths, to see how far off them the robot is
+	 */
+	public HolonomicTrajectoryFollower getFollower() {
+		return follower;
+	}
+
+	/**
+	 * Prints the current state of the Autonomous Code and its previous
+	 * state to the SmartDashboard
+	 */
+	@Override
+	public void debug() {
+		SmartDashboard.putString("TrajectoryAuto State", getStateString());
+		SmartDashboard.putString("TrajectoryAuto State Previous", getStatePreviousString());
+		SmartDashboard.putNumber("TrajectoryAuto Path Error", follower.getPositionError());
+	}
+}
@@ -0,0 +1,70 @@
+package org.usfirst.frc.team2461.robot.command;
+
+import org.usfirst.frc.team2461.robot.BoxManager;
+
+/**
+ * <h1> Box Commands Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Builds the commands autonomous uses to move the Box Lifter and run the Box Collector.
+ * Lifter commands use BOX_LIFTER and collector commands use BOX_COLLECTOR, so the two can
+ * run alongside each other and alongside the drive train.
+ * </p>
+ */
+public class BoxCommands
+{
+	private BoxCommands()
+	{
+
+	}
+
+	/**
+	 * @param boxManager Box Manager of the robot
+	 * @return New Command that opens the Box Collector arms
+	 */
+	public static Command extendArms(BoxManager boxManager)
+	{
+		return Commands.instant("Extend Arms", Command.BOX_COLLECTOR, boxManager.boxCollector::armsExtend);
+	}
+
+	/**
+	 * @param boxManager Box Manager of the robot
+	 * @return New Command that closes the Box Collector arms
+	 */
+	public static Command retractArms(BoxManager boxManager)
+	{
+		return Commands.instant("Retract Arms", Command.BOX_COLLECTOR, boxManager.boxCollector::armsRetract);
+	}
+
+	/**
+	 * @param boxManager Box Manager of the robot
+	 * @return New Command that lowers the Box Lifter until the low switch is hit
+	 */
+	public static Command lower(BoxManager boxManager)
+	{
+		return new FunctionalCommand("Lowering", Command.BOX_LIFTER,
+				boxManager.boxLifter::lower, null, boxManager.boxLifter::getSwitchLow, boxManager.boxLifter::stop);
+	}
+
+	/**
+	 * @param boxManager Box Manager of the robot
+	 * @return New Command that raises the Box Lifter until the middle switch is hit, the height
+	 * of the switch
+	 */
+	public static Command riseToSwitch(BoxManager boxManager)
+	{
+		return new FunctionalCommand("Rising", Command.BOX_LIFTER,
+				boxManager.boxLifter::rise, null, boxManager.boxLifter::getSwitchMiddle, boxManager.boxLifter::stop);
+	}
+
+	/**
+	 * @param boxManager Box Manager of the robot
+	 * @param seconds Seconds to run the Box Sucker
+	 * @return New Command that spits the box out
+	 */
+	public static Command spitOut(BoxManager boxManager, double seconds)
+	{
+		return Commands.race("Spitting Out", Commands.waitSeconds(seconds),
+				new FunctionalCommand("Spitting Out", Command.BOX_COLLECTOR, boxManager::spitBoxOut, null, null, boxManager::stopBoxSucker));
+	}
+}
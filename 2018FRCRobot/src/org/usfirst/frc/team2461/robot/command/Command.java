@@ -0,0 +1,294 @@
+package org.usfirst.frc.team2461.robot.command;
+
+/**
+ * <h1> Command Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * One action of an autonomous routine, like driving a distance or raising the Box Lifter.
+ * A command is started once, updated every loop until it says it is finished, and then
+ * ended. Commands are put together with the groups in Commands and run by a
+ * CommandScheduler.
+ * </p>
+ * <p>
+ * Every command says which parts of the robot it uses as a bit mask of DRIVE, BOX_LIFTER,
+ * BOX_COLLECTOR and ROBOT_LIFT. The scheduler interrupts a running command when another
+ * one needs the same part, and a parallel group will not take two commands that need the
+ * same part. A command can also be given a timeout, after which it is interrupted.
+ * </p>
+ * <p>
+ * A running command goes through the States SCHEDULED, RUNNING and SETTLED. It is
+ * SCHEDULED from when it starts until hasStarted() says the robot is working on it, so
+ * isFinished() is never asked about flags left over from the command before. Once it is
+ * RUNNING, it is SETTLED the first loop isFinished() is true, and the command after it
+ * can start in that same loop. No time is wasted waiting out a fixed delay.
+ * </p>
+ * <p>
+ * Build every command before autonomous starts. Starting and updating a command does not
+ * create any objects, so a routine can be run again by starting it again.
+ * </p>
+ */
+public abstract class Command
+{
+	/**
+	 * Requirement bits for the parts of the robot a command uses
+	 */
+	public static final int DRIVE = 1;
+	public static final int BOX_LIFTER = 1 << 1;
+	public static final int BOX_COLLECTOR = 1 << 2;
+	public static final int ROBOT_LIFT = 1 << 3;
+
+	public enum State {
+		IDLE, SCHEDULED, RUNNING, SETTLED, INTERRUPTED
+	}
+
+	private final String name;
+	private int requirements;
+	private double timeout = 0;
+
+	private State state = State.IDLE;
+	private boolean timedOut = false;
+	private double startTime;
+	private double runningTime;
+	private double endTime;
+	private double time;
+
+	/**
+	 * Creates a Command
+	 * @param nameIn Name shown as the state of the autonomous routine while the command runs
+	 * @param requirementsIn Bit mask of the parts of the robot the command uses, 0 for none
+	 */
+	protected Command(String nameIn, int requirementsIn)
+	{
+		name = nameIn;
+		requirements = requirementsIn;
+	}
+
+	/**
+	 * Called once when the command starts
+	 */
+	protected void initialize()
+	{
+
+	}
+
+	/**
+	 * Called every loop while the command runs, before isFinished()
+	 */
+	protected void execute()
+	{
+
+	}
+
+	/**
+	 * Called every loop while the command is SCHEDULED, after execute()
+	 * @return true once the robot is working on the command, like once the wheels have
+	 * picked up a new setpoint. Commands that act right away can leave this returning true.
+	 */
+	protected boolean hasStarted()
+	{
+		return true;
+	}
+
+	/**
+	 * Called every loop once the command is RUNNING, after execute()
+	 * @return true once the command has done what it is for
+	 */
+	protected abstract boolean isFinished();
+
+	/**
+	 * Called once when the command stops
+	 * @param interrupted true if the command was cancelled or timed out instead of finishing
+	 */
+	protected void end(boolean interrupted)
+	{
+
+	}
+
+	/**
+	 * Interrupts the command if it runs longer than a number of seconds
+	 * @param seconds Longest the command may run, 0 for no timeout
+	 * @return This command, so the timeout can be set where the command is built
+	 */
+	public Command withTimeout(double seconds)
+	{
+		timeout = seconds;
+		return this;
+	}
+
+	/**
+	 * @return Bit mask of the parts of the robot the command uses
+	 */
+	public final int getRequirements()
+	{
+		return requirements;
+	}
+
+	/**
+	 * Adds parts of the robot the command uses, for groups that use everything their
+	 * commands use
+	 * @param requirementsIn Bit mask of requirements to add
+	 */
+	protected final void addRequirements(int requirementsIn)
+	{
+		requirements |= requirementsIn;
+	}
+
+	/**
+	 * @return Name of the command
+	 */
+	public final String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * @return true between the command starting and ending
+	 */
+	public final boolean isRunning()
+	{
+		return state == State.SCHEDULED || state == State.RUNNING;
+	}
+
+	/**
+	 * @return Where the command is in its lifecycle
+	 */
+	public final State getState()
+	{
+		return state;
+	}
+
+	/**
+	 * @return FPGA time in seconds the command was last started
+	 */
+	public final double getStartTime()
+	{
+		return startTime;
+	}
+
+	/**
+	 * @return Seconds the command was SCHEDULED before the robot started working on it
+	 */
+	public final double getStartDelay()
+	{
+		return state == State.SCHEDULED ? time - startTime : runningTime - startTime;
+	}
+
+	/**
+	 * @return Seconds the last run of the command took from starting to settling or being
+	 * interrupted, or so far if it is still running
+	 */
+	public final double getDuration()
+	{
+		return isRunning() ? time - startTime : endTime - startTime;
+	}
+
+	/**
+	 * @return true if the last run of the command was stopped by its timeout
+	 */
+	public final boolean hasTimedOut()
+	{
+		return timedOut;
+	}
+
+	/**
+	 * @return Seconds since the command started, as of the last update
+	 */
+	protected final double getTimeRunning()
+	{
+		return time - startTime;
+	}
+
+	/**
+	 * @return FPGA time in seconds of the last update, for starting commands inside a group
+	 */
+	protected final double getTime()
+	{
+		return time;
+	}
+
+	/**
+	 * Gets the command doing the work right now, which for a group is one of its commands
+	 * @return The running command at the bottom of the group, or this command
+	 */
+	public Command getCurrentCommand()
+	{
+		return this;
+	}
+
+	/**
+	 * @return What the command is doing, the names of the running commands for a group
+	 */
+	public String getStateString()
+	{
+		return name;
+	}
+
+	/**
+	 * Starts the command. Used by CommandScheduler and the groups.
+	 * @param now FPGA time in seconds
+	 */
+	final void start(double now)
+	{
+		startTime = now;
+		runningTime = now;
+		time = now;
+		state = State.SCHEDULED;
+		timedOut = false;
+		initialize();
+	}
+
+	/**
+	 * Runs the command for one loop and ends it if it finished or timed out. Used by
+	 * CommandScheduler and the groups.
+	 * @param now FPGA time in seconds
+	 * @return true if the command is no longer running
+	 */
+	final boolean update(double now)
+	{
+		if(!isRunning()) {
+			return true;
+		}
+
+		time = now;
+		execute();
+		if(state == State.SCHEDULED && hasStarted()) {
+			state = State.RUNNING;
+			runningTime = now;
+		}
+		if(state == State.RUNNING && isFinished()) {
+			state = State.SETTLED;
+			endTime = now;
+			end(false);
+			return true;
+		}
+		if(timeout > 0 && now - startTime >= timeout) {
+			timedOut = true;
+			interrupt();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Stops the command if it is running. Used by CommandScheduler and the groups.
+	 */
+	final void cancel()
+	{
+		if(isRunning()) {
+			interrupt();
+		}
+	}
+
+	private void interrupt()
+	{
+		state = State.INTERRUPTED;
+		endTime = time;
+		end(true);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "Command [name=" + name + "]";
+	}
+}
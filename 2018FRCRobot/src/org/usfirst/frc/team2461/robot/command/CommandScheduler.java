@@ -0,0 +1,135 @@
+package org.usfirst.frc.team2461.robot.command;
+
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * <h1> Command Scheduler Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Runs Commands every loop. Scheduling a command starts it right away and interrupts any
+ * running command that uses one of the same parts of the robot, so two commands never
+ * fight over the drive train or the Box Lifter. Finished commands are dropped.
+ * </p>
+ * <p>
+ * The scheduled commands are kept in an array sized when the scheduler is made, so
+ * running the scheduler does not create any objects.
+ * </p>
+ */
+public class CommandScheduler
+{
+	private Command[] scheduled;
+	private int count = 0;
+
+	/**
+	 * Creates a CommandScheduler
+	 * @param capacity Most commands that can be scheduled at once. A group counts as one.
+	 */
+	public CommandScheduler(int capacity)
+	{
+		scheduled = new Command[capacity];
+	}
+
+	/**
+	 * Starts a command, interrupting the scheduled commands that need the same parts of
+	 * the robot. Does nothing if the command is already scheduled.
+	 * @param command Command to start
+	 */
+	public void schedule(Command command)
+	{
+		if(isScheduled(command)) {
+			return;
+		}
+
+		for(int i = 0; i < count; i++) {
+			if((scheduled[i].getRequirements() & command.getRequirements()) != 0) {
+				scheduled[i].cancel();
+				remove(i);
+				i--;
+			}
+		}
+		if(count == scheduled.length) {
+			throw new IllegalStateException("Cannot schedule " + command.getName() + ", " + count + " commands are already scheduled");
+		}
+
+		scheduled[count++] = command;
+		command.start(Timer.getFPGATimestamp());
+	}
+
+	/**
+	 * Updates every scheduled command once. Call it every loop.
+	 */
+	public void run()
+	{
+		double now = Timer.getFPGATimestamp();
+		int i = 0;
+		while(i < count) {
+			if(scheduled[i].update(now)) {
+				remove(i);
+			} else {
+				i++;
+			}
+		}
+	}
+
+	/**
+	 * Interrupts a command if it is scheduled
+	 * @param command Command to stop
+	 */
+	public void cancel(Command command)
+	{
+		for(int i = 0; i < count; i++) {
+			if(scheduled[i] == command) {
+				command.cancel();
+				remove(i);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Interrupts every scheduled command
+	 */
+	public void cancelAll()
+	{
+		while(count > 0) {
+			scheduled[count - 1].cancel();
+			remove(count - 1);
+		}
+	}
+
+	/**
+	 * @param command Command to look for
+	 * @return true if the command is running in this scheduler
+	 */
+	public boolean isScheduled(Command command)
+	{
+		for(int i = 0; i < count; i++) {
+			if(scheduled[i] == command) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if no commands are running
+	 */
+	public boolean isIdle()
+	{
+		return count == 0;
+	}
+
+	/**
+	 * @return Number of commands running
+	 */
+	public int getScheduledCount()
+	{
+		return count;
+	}
+
+	private void remove(int index)
+	{
+		System.arraycopy(scheduled, index + 1, scheduled, index, count - index - 1);
+		scheduled[--count] = null;
+	}
+}
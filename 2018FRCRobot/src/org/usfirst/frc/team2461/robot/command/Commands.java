@@ -0,0 +1,99 @@
+package org.usfirst.frc.team2461.robot.command;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * <h1> Commands Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Builds the simple commands and the groups autonomous routines are put together from.
+ * </p>
+ */
+public class Commands
+{
+	private Commands()
+	{
+
+	}
+
+	/**
+	 * Creates a command that does something once and finishes
+	 * @param name Name of the command
+	 * @param requirements Bit mask of the parts of the robot it uses
+	 * @param action What to do
+	 * @return New Command
+	 */
+	public static Command instant(String name, int requirements, Runnable action)
+	{
+		return new FunctionalCommand(name, requirements, action, null, () -> true, null);
+	}
+
+	/**
+	 * Creates a command that waits
+	 * @param seconds Seconds to wait
+	 * @return New Command
+	 */
+	public static Command waitSeconds(double seconds)
+	{
+		return new WaitCommand(seconds);
+	}
+
+	/**
+	 * Creates a command that waits for something to happen
+	 * @param name Name of the command
+	 * @param condition Finishes the command once it returns true
+	 * @return New Command
+	 */
+	public static Command waitUntil(String name, BooleanSupplier condition)
+	{
+		return new FunctionalCommand(name, 0, null, null, condition, null);
+	}
+
+	/**
+	 * Creates a group that runs commands one after another
+	 * @param name Name of the group
+	 * @param commands Commands in order
+	 * @return New SequentialCommandGroup
+	 */
+	public static Command sequence(String name, Command... commands)
+	{
+		return new SequentialCommandGroup(name, commands);
+	}
+
+	/**
+	 * Creates a group that runs commands together until they have all finished
+	 * @param name Name of the group
+	 * @param commands Commands to run
+	 * @return New ParallelCommandGroup
+	 */
+	public static Command parallel(String name, Command... commands)
+	{
+		return new ParallelCommandGroup(name, ParallelCommandGroup.Mode.ALL, commands);
+	}
+
+	/**
+	 * Creates a group that runs commands together until any of them finishes
+	 * @param name Name of the group
+	 * @param commands Commands to run
+	 * @return New ParallelCommandGroup
+	 */
+	public static Command race(String name, Command... commands)
+	{
+		return new ParallelCommandGroup(name, ParallelCommandGroup.Mode.RACE, commands);
+	}
+
+	/**
+	 * Creates a group that runs commands together until the deadline command finishes
+	 * @param name Name of the group
+	 * @param deadline Command that decides when the group finishes
+	 * @param commands Commands to run alongside it, interrupted if still running
+	 * @return New ParallelCommandGroup
+	 */
+	public static Command deadline(String name, Command deadline, Command... commands)
+	{
+		Command[] all = new Command[commands.length + 1];
+		all[0] = deadline;
+		System.arraycopy(commands, 0, all, 1, commands.length);
+		return new ParallelCommandGroup(name, ParallelCommandGroup.Mode.DEADLINE, all);
+	}
+}
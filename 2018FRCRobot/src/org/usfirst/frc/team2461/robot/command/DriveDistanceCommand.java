@@ -0,0 +1,68 @@
+package org.usfirst.frc.team2461.robot.command;
+
+import org.usfirst.frc.team2461.robot.SwerveDrive;
+import org.usfirst.frc.team2461.robot.SwerveDriveAutoCommand;
+
+/**
+ * <h1> Drive Distance Command Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Drives the drive train through one SwerveDriveAutoCommand from the
+ * SwerveDriveAutoCommandFactory, like going forward 120 inches. It is RUNNING once every
+ * wheel has picked up the new setpoint and settles the loop the wheels have reached it
+ * and stopped.
+ * </p>
+ */
+public class DriveDistanceCommand extends Command
+{
+	private SwerveDrive chassis;
+	private SwerveDriveAutoCommand command;
+
+	/**
+	 * Creates a DriveDistanceCommand
+	 * @param chassisIn Drive train to drive
+	 * @param commandIn Distance and wheel directions to drive, from SwerveDriveAutoCommandFactory
+	 */
+	public DriveDistanceCommand(SwerveDrive chassisIn, SwerveDriveAutoCommand commandIn)
+	{
+		super(commandIn.getCommandName(), DRIVE);
+		chassis = chassisIn;
+		command = commandIn;
+	}
+
+	@Override
+	protected void initialize()
+	{
+		chassis.reset();
+		chassis.clearAutoCommands();
+		chassis.addAutoCommand(command);
+		chassis.driveAuto();
+	}
+
+	@Override
+	protected void execute()
+	{
+		chassis.driveAuto();
+	}
+
+	@Override
+	protected boolean hasStarted()
+	{
+		return chassis.isAutoCommandStarted();
+	}
+
+	@Override
+	protected boolean isFinished()
+	{
+		return chassis.isDone();
+	}
+
+	@Override
+	protected void end(boolean interrupted)
+	{
+		chassis.clearAutoCommands();
+		if(interrupted) {
+			chassis.reset();
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package org.usfirst.frc.team2461.robot.command;
+
+import org.usfirst.frc.team2461.robot.HolonomicTrajectoryFollower;
+import org.usfirst.frc.team2461.robot.Trajectory;
+
+/**
+ * <h1> Follow Trajectory Command Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Drives a Trajectory with a HolonomicTrajectoryFollower and finishes once the robot has
+ * settled at the end of it.
+ * </p>
+ */
+public class FollowTrajectoryCommand extends Command
+{
+	private HolonomicTrajectoryFollower follower;
+	private Trajectory trajectory;
+
+	/**
+	 * Creates a FollowTrajectoryCommand
+	 * @param nameIn Name of the command
+	 * @param followerIn Follower to drive the trajectory with
+	 * @param trajectoryIn Trajectory to drive, starting where the robot is
+	 */
+	public FollowTrajectoryCommand(String nameIn, HolonomicTrajectoryFollower followerIn, Trajectory trajectoryIn)
+	{
+		super(nameIn, DRIVE);
+		follower = followerIn;
+		trajectory = trajectoryIn;
+	}
+
+	@Override
+	protected void initialize()
+	{
+		follower.start(trajectory);
+		follower.run();
+	}
+
+	@Override
+	protected void execute()
+	{
+		follower.run();
+	}
+
+	@Override
+	protected boolean isFinished()
+	{
+		return follower.isFinished();
+	}
+
+	@Override
+	protected void end(boolean interrupted)
+	{
+		if(interrupted) {
+			follower.stop();
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package org.usfirst.frc.team2461.robot.command;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * <h1> Functional Command Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * A Command made from lambdas, for the small commands that only call a method or two of
+ * a subsystem. Any of the actions may be null to do nothing.
+ * </p>
+ */
+public class FunctionalCommand extends Command
+{
+	private Runnable onInitialize;
+	private Runnable onExecute;
+	private BooleanSupplier finished;
+	private Runnable onEnd;
+
+	/**
+	 * Creates a FunctionalCommand
+	 * @param nameIn Name of the command
+	 * @param requirementsIn Bit mask of the parts of the robot it uses
+	 * @param onInitializeIn Run when the command starts
+	 * @param onExecuteIn Run every loop
+	 * @param finishedIn Finishes the command once it returns true
+	 * @param onEndIn Run when the command finishes or is interrupted
+	 */
+	public FunctionalCommand(String nameIn, int requirementsIn, Runnable onInitializeIn, Runnable onExecuteIn,
+			BooleanSupplier finishedIn, Runnable onEndIn)
+	{
+		super(nameIn, requirementsIn);
+		onInitialize = onInitializeIn;
+		onExecute = onExecuteIn;
+		finished = finishedIn;
+		onEnd = onEndIn;
+	}
+
+	@Override
+	protected void initialize()
+	{
+		if(onInitialize != null) {
+			onInitialize.run();
+		}
+	}
+
+	@Override
+	protected void execute()
+	{
+		if(onExecute != null) {
+			onExecute.run();
+		}
+	}
+
+	@Override
+	protected boolean isFinished()
+	{
+		return finished != null && finished.getAsBoolean();
+	}
+
+	@Override
+	protected void end(boolean interrupted)
+	{
+		if(onEnd != null) {
+			onEnd.run();
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package org.usfirst.frc.team2461.robot.command;
+
+/**
+ * <h1> Parallel Command Group Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Runs its commands at the same time. When the group finishes depends on its Mode:
+ * </p>
+ * <ul>
+ * <li>ALL - once every command has finished</li>
+ * <li>RACE - as soon as any command finishes, interrupting the rest</li>
+ * <li>DEADLINE - as soon as the first command finishes, interrupting the rest</li>
+ * </ul>
+ * <p>
+ * No two commands of a group may use the same part of the robot.
+ * </p>
+ */
+public class ParallelCommandGroup extends Command
+{
+	public enum Mode {
+		ALL, RACE, DEADLINE
+	}
+
+	private Mode mode;
+	private Command[] commands;
+	private boolean[] running;
+	private boolean finished;
+
+	/**
+	 * Creates a ParallelCommandGroup that uses every part of the robot its commands use
+	 * @param nameIn Name of the group
+	 * @param modeIn When the group finishes
+	 * @param commandsIn Commands to run together. For DEADLINE, the first one is the deadline.
+	 * @throws IllegalArgumentException If two of the commands use the same part of the robot
+	 */
+	public ParallelCommandGroup(String nameIn, Mode modeIn, Command... commandsIn)
+	{
+		super(nameIn, 0);
+		mode = modeIn;
+		commands = commandsIn;
+		running = new boolean[commands.length];
+		for(Command command : commands) {
+			if((getRequirements() & command.getRequirements()) != 0) {
+				throw new IllegalArgumentException(command.getName() + " uses the same part of the robot as another command of " + nameIn);
+			}
+			addRequirements(command.getRequirements());
+		}
+	}
+
+	@Override
+	protected void initialize()
+	{
+		finished = commands.length == 0;
+		for(int i = 0; i < commands.length; i++) {
+			commands[i].start(getTime());
+			running[i] = true;
+		}
+	}
+
+	@Override
+	protected void execute()
+	{
+		boolean anyRunning = false;
+		for(int i = 0; i < commands.length; i++) {
+			if(!running[i]) {
+				continue;
+			}
+			if(commands[i].update(getTime())) {
+				running[i] = false;
+				if(mode == Mode.RACE || (mode == Mode.DEADLINE && i == 0)) {
+					finished = true;
+				}
+			} else {
+				anyRunning = true;
+			}
+		}
+
+		if(!anyRunning) {
+			finished = true;
+		}
+		if(finished) {
+			cancelRunning();
+		}
+	}
+
+	@Override
+	protected boolean isFinished()
+	{
+		return finished;
+	}
+
+	@Override
+	protected void end(boolean interrupted)
+	{
+		cancelRunning();
+	}
+
+	@Override
+	public Command getCurrentCommand()
+	{
+		for(int i = 0; i < commands.length; i++) {
+			if(running[i]) {
+				return commands[i].getCurrentCommand();
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public String getStateString()
+	{
+		StringBuilder state = new StringBuilder();
+		for(int i = 0; i < commands.length; i++) {
+			if(running[i]) {
+				if(state.length() > 0) {
+					state.append(" | ");
+				}
+				state.append(commands[i].getStateString());
+			}
+		}
+		return state.length() > 0 ? state.toString() : getName();
+	}
+
+	private void cancelRunning()
+	{
+		for(int i = 0; i < commands.length; i++) {
+			if(running[i]) {
+				commands[i].cancel();
+				running[i] = false;
+			}
+		}
+	}
+}
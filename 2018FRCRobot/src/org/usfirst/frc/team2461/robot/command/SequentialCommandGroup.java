@@ -0,0 +1,77 @@
+package org.usfirst.frc.team2461.robot.command;
+
+/**
+ * <h1> Sequential Command Group Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Runs its commands one after another. The next command starts and runs its first
+ * update in the same loop the one before it settles or times out, and the group
+ * finishes after the last one.
+ * Interrupting the group interrupts the command it is on.
+ * </p>
+ */
+public class SequentialCommandGroup extends Command
+{
+	private Command[] commands;
+	private int index;
+
+	/**
+	 * Creates a SequentialCommandGroup that uses every part of the robot its commands use
+	 * @param nameIn Name of the group
+	 * @param commandsIn Commands in the order they run
+	 */
+	public SequentialCommandGroup(String nameIn, Command... commandsIn)
+	{
+		super(nameIn, 0);
+		commands = commandsIn;
+		for(Command command : commands) {
+			addRequirements(command.getRequirements());
+		}
+	}
+
+	@Override
+	protected void initialize()
+	{
+		index = 0;
+		if(commands.length > 0) {
+			commands[0].start(getTime());
+		}
+	}
+
+	@Override
+	protected void execute()
+	{
+		while(index < commands.length && commands[index].update(getTime())) {
+			index++;
+			if(index < commands.length) {
+				commands[index].start(getTime());
+			}
+		}
+	}
+
+	@Override
+	protected boolean isFinished()
+	{
+		return index >= commands.length;
+	}
+
+	@Override
+	protected void end(boolean interrupted)
+	{
+		if(index < commands.length) {
+			commands[index].cancel();
+		}
+	}
+
+	@Override
+	public Command getCurrentCommand()
+	{
+		return index < commands.length ? commands[index].getCurrentCommand() : this;
+	}
+
+	@Override
+	public String getStateString()
+	{
+		return index < commands.length ? commands[index].getStateString() : getName();
+	}
+}
@@ -0,0 +1,29 @@
+package org.usfirst.frc.team2461.robot.command;
+
+/**
+ * <h1> Wait Command Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Does nothing for a number of seconds, like giving the Box Collector arms time to open.
+ * </p>
+ */
+public class WaitCommand extends Command
+{
+	private double seconds;
+
+	/**
+	 * Creates a WaitCommand
+	 * @param secondsIn Seconds to wait
+	 */
+	public WaitCommand(double secondsIn)
+	{
+		super("Wait " + secondsIn + " s", 0);
+		seconds = secondsIn;
+	}
+
+	@Override
+	protected boolean isFinished()
+	{
+		return getTimeRunning() >= seconds;
+	}
+}
@@ -0,0 +1,8 @@
+/**
+ * Commands that autonomous routines are put together from, and the scheduler that runs them
+ */
+/**
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ *
+ */
+package org.usfirst.frc.team2461.robot.command;
\ No newline at end of file
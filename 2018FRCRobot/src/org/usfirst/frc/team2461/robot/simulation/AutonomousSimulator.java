@@ -0,0 +1,186 @@
+package org.usfirst.frc.team2461.robot.simulation;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.usfirst.frc.team2461.robot.Robot;
+import org.usfirst.frc.team2461.robot.SwerveKinematics;
+import org.usfirst.frc.team2461.robot.autonomous.AutoCode;
+import org.usfirst.frc.team2461.robot.autonomous.AutoRoutine;
+import org.usfirst.frc.team2461.robot.autonomous.AutoScript;
+
+/**
+ * <h1> Autonomous Simulator Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Runs the autonomous routines on a SwerveDriveSimulation as fast as the computer
+ * can go. Use it to try out PID values and to see how long each routine takes
+ * without a robot.
+ * </p>
+ * <p>
+ * AutoScript files given on the command line are run too, once for each side of the
+ * near switch, so a script can be tried out before it is copied to the robot.
+ * </p>
+ * <p>
+ * Usage: <b>AutonomousSimulator [runs] [turnP turnI turnD] [script.auto ...]</b>
+ * </p>
+ */
+public class AutonomousSimulator
+{
+	/**
+	 * Seconds in the autonomous period
+	 */
+	public static final double AUTONOMOUS_LENGTH = 15;
+	
+	/**
+	 * Distances between the wheel centers in inches, same as Robot
+	 */
+	public static final double WHEEL_BASE = 27.5;
+	public static final double TRACK_WIDTH = 32.5;
+	
+	private static final SimulatedTimer TIMER = SimulatedTimer.install();
+	
+	private double[] turnPID;
+	
+	/**
+	 * Creates a simulator that uses the PID values from Robot
+	 */
+	public AutonomousSimulator()
+	{
+	}
+	
+	/**
+	 * Creates a simulator that replaces the turn PID values of every wheel
+	 * @param turnP Proportional coefficient of the turn PID loops
+	 * @param turnI Integral coefficient of the turn PID loops
+	 * @param turnD Differential coefficient of the turn PID loops
+	 */
+	public AutonomousSimulator(double turnP, double turnI, double turnD)
+	{
+		turnPID = new double[]{turnP, turnI, turnD};
+	}
+	
+	/**
+	 * Builds a fresh simulated robot ready to run autonomous
+	 * @return SwerveDriveSimulation with the PID values set
+	 */
+	public SwerveDriveSimulation createSimulation()
+	{
+		TIMER.reset();
+		Robot.timer.reset();
+		Robot.timer.start();
+		
+		SwerveDriveSimulation simulation = new SwerveDriveSimulation(TIMER, new SwerveKinematics(WHEEL_BASE, TRACK_WIDTH));
+		Robot.configureDriveTrain(simulation.getChassis());
+		
+		if(turnPID != null)
+		{
+			for(int i = 0; i < SwerveKinematics.MODULE_COUNT; i++)
+			{
+				simulation.getChassis().setTurnPIDValues(i, turnPID[0], turnPID[1], turnPID[2]);
+			}
+		}
+		
+		return simulation;
+	}
+	
+	/**
+	 * Runs one autonomous routine for the full autonomous period
+	 * @param routine Routine to run
+	 * @return Simulated seconds until the routine made its last state change. This is
+	 * how long the routine took to finish.
+	 */
+	public double run(AutoRoutine routine)
+	{
+		return run(simulation -> routine.create(simulation.getChassis(), simulation.getBoxManager()));
+	}
+	
+	/**
+	 * Runs the routine of a script for one side of the near switch for the full autonomous period
+	 * @param script Script to run
+	 * @param side Side of the near switch, see StartPosition.getSide()
+	 * @return Simulated seconds until the routine made its last state change
+	 */
+	public double run(AutoScript script, int side)
+	{
+		return run(simulation -> script.create(side, simulation.getChassis(), simulation.getBoxManager()));
+	}
+	
+	private double run(Function<SwerveDriveSimulation, AutoCode> routine)
+	{
+		SwerveDriveSimulation simulation = createSimulation();
+		AutoCode autoCode = routine.apply(simulation);
+		
+		String state = "";
+		double completionTime = 0;
+		while(simulation.getTime() < AUTONOMOUS_LENGTH)
+		{
+			simulation.runRobotLoop(autoCode::run);
+			
+			String stateNow = autoCode.getStateString();
+			if(!stateNow.equals(state))
+			{
+				state = stateNow;
+				completionTime = simulation.getTime();
+			}
+		}
+		
+		return completionTime;
+	}
+	
+	public static void main(String[] args) throws IOException
+	{
+		List<String> numbers = new ArrayList<>();
+		List<AutoScript> scripts = new ArrayList<>();
+		for(String arg : args)
+		{
+			if(arg.endsWith(AutoScript.EXTENSION)) {
+				scripts.add(AutoScript.load(new File(arg)));
+			} else {
+				numbers.add(arg);
+			}
+		}
+		
+		int runs = numbers.size() > 0 ? Integer.parseInt(numbers.get(0)) : 1;
+		AutonomousSimulator simulator;
+		if(numbers.size() >= 4) {
+			simulator = new AutonomousSimulator(Double.parseDouble(numbers.get(1)), Double.parseDouble(numbers.get(2)), Double.parseDouble(numbers.get(3)));
+		} else {
+			simulator = new AutonomousSimulator();
+		}
+		
+		for(AutoRoutine routine : AutoRoutine.values())
+		{
+			double completionTime = 0;
+			long start = System.nanoTime();
+			for(int i = 0; i < runs; i++)
+			{
+				completionTime = simulator.run(routine);
+			}
+			double wallTime = (System.nanoTime() - start) / 1e9;
+			
+			System.out.printf("%-22s finished at %6.2f s  (%d runs, %.1f simulated seconds per real second)%n",
+					routine, completionTime, runs, runs * AUTONOMOUS_LENGTH / wallTime);
+		}
+		
+		String[] sides = {"left", "right", "unknown"};
+		for(AutoScript script : scripts)
+		{
+			SwerveDriveSimulation check = simulator.createSimulation();
+			script.validate(check.getChassis(), check.getBoxManager());
+			for(int side = 0; side < sides.length; side++)
+			{
+				double completionTime = 0;
+				for(int i = 0; i < runs; i++)
+				{
+					completionTime = simulator.run(script, side);
+				}
+				System.out.printf("%-22s finished at %6.2f s  (%s %s)%n",
+						script.getSource(), completionTime, script.getLabel(), sides[side]);
+			}
+		}
+	}
+}
@@ -0,0 +1,438 @@
+package org.usfirst.frc.team2461.robot.simulation;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.usfirst.frc.team2461.robot.ModuleControlScheduler;
+import org.usfirst.frc.team2461.robot.Robot;
+import org.usfirst.frc.team2461.robot.SwerveDrive;
+import org.usfirst.frc.team2461.robot.SwerveKinematics;
+import org.usfirst.frc.team2461.robot.SwerveMotor;
+import org.usfirst.frc.team2461.robot.autonomous.AutoCode;
+import org.usfirst.frc.team2461.robot.autonomous.AutoPlanCache;
+import org.usfirst.frc.team2461.robot.autonomous.AutoScript;
+import org.usfirst.frc.team2461.robot.telemetry.FlightLog;
+import org.usfirst.frc.team2461.robot.telemetry.FlightLogReader;
+import org.usfirst.frc.team2461.robot.telemetry.FlightRecorder;
+
+/**
+ * <h1> Log Replay Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Runs the robot code again on a flight log from a real match. Every record, the
+ * encoders, switches, gyro and controllers are set to what the robot logged, the PID
+ * loops are stepped for the time since the last record, and the same mode code Robot
+ * would run is run. Whatever the subsystems would log themselves, like setpoints,
+ * states and motor outputs, is then compared to the log. Nothing waits on a clock, so
+ * a whole match replays in well under a second.
+ * </p>
+ * <p>
+ * Run it after changing control code to see which matches would have played out
+ * differently. Small differences are expected because on the robot the PID loops run
+ * on their own thread and do not line up exactly with the logged records.
+ * </p>
+ * <p>
+ * Autonomous routines run from AutoScript files are only replayed if the folder the
+ * scripts were loaded from on the robot is copied over and passed with -s.
+ * </p>
+ * <p>
+ * Usage: <b>LogReplay [-t tolerance] [-s autonomous script folder] &lt;flightlog folder&gt; ...</b>
+ * </p>
+ */
+public class LogReplay
+{
+	public static final double DEFAULT_TOLERANCE = 0.05;
+	
+	private static final SimulatedTimer TIMER = SimulatedTimer.install();
+	
+	private FlightLog log;
+	private double tolerance;
+	
+	private ReplayController driver = new ReplayController();
+	private ReplayController operator = new ReplayController();
+	private SwerveDriveSimulation robot;
+	private File scriptDirectory;
+	private AutoPlanCache autoPlans;
+	private AutoCode autoCode;
+	
+	/**
+	 * The replayed subsystems log into this recorder without writing any files, so the
+	 * replayed values line up with the logged ones by field name
+	 */
+	private FlightRecorder replayed = new FlightRecorder(null, 0, 1);
+	
+	private int fieldMode;
+	private int fieldAutoRoutine;
+	private int fieldHeading;
+	private int fieldLifterSwitches;
+	private int[] fieldAngle = new int[SwerveKinematics.MODULE_COUNT];
+	private int[] fieldEncoderDistance = new int[SwerveKinematics.MODULE_COUNT];
+	private int[] fieldEncoderRate = new int[SwerveKinematics.MODULE_COUNT];
+	private int[] fieldTurnRate = new int[SwerveKinematics.MODULE_COUNT];
+	private int[] fieldDriveOdometer = new int[SwerveKinematics.MODULE_COUNT];
+	private int[] fieldDriver;
+	private int[] fieldOperator;
+	
+	/**
+	 * Fields that are compared: number in the replay recorder and number in the log
+	 */
+	private int[] comparedReplayed;
+	private int[] comparedLogged;
+	
+	/**
+	 * Sets up a replay of a flight log
+	 * @param logIn Flight log from the robot
+	 * @param toleranceIn Largest difference between a replayed and logged value that still counts as a match
+	 */
+	public LogReplay(FlightLog logIn, double toleranceIn)
+	{
+		log = logIn;
+		tolerance = toleranceIn;
+		
+		fieldMode = field("Robot Mode");
+		fieldAutoRoutine = field("Auto Routine");
+		fieldHeading = field("Heading");
+		fieldLifterSwitches = field("Box Lifter Switches");
+		for(int i = 0; i < SwerveKinematics.MODULE_COUNT; i++)
+		{
+			fieldAngle[i] = field(SwerveDrive.getWheelName(i) + " Angle");
+			fieldEncoderDistance[i] = field(SwerveDrive.getWheelName(i) + " Encoder Distance");
+			fieldEncoderRate[i] = field(SwerveDrive.getWheelName(i) + " Encoder Rate");
+			fieldTurnRate[i] = field(SwerveDrive.getWheelName(i) + " Turn Rate");
+			fieldDriveOdometer[i] = log.indexOf(SwerveDrive.getWheelName(i) + " Drive Odometer"); // Not in logs from before odometry
+		}
+		fieldDriver = controllerFields("Driver");
+		fieldOperator = controllerFields("Operator");
+	}
+	
+	/**
+	 * Sets the folder of the AutoScript files the robot had when the log was recorded
+	 * @param scriptDirectoryIn Folder of the scripts, or null to not replay scripted routines
+	 */
+	public void setScriptDirectory(File scriptDirectoryIn)
+	{
+		scriptDirectory = scriptDirectoryIn;
+	}
+	
+	private int field(String name)
+	{
+		int field = log.indexOf(name);
+		if(field < 0)
+		{
+			throw new IllegalArgumentException("Flight log has no \"" + name + "\" field. It was recorded by code that cannot be replayed.");
+		}
+		
+		return field;
+	}
+	
+	private int[] controllerFields(String name)
+	{
+		return new int[] {field(name + " Left X"), field(name + " Left Y"), field(name + " Right X"), field(name + " Right Y"),
+				field(name + " Left Trigger"), field(name + " Right Trigger"), field(name + " Buttons")};
+	}
+	
+	/**
+	 * Builds the robot the same way Robot.robotInit() does, on simulated hardware
+	 */
+	private void createRobot()
+	{
+		TIMER.reset();
+		Robot.timer.reset();
+		Robot.timer.start();
+		
+		robot = new SwerveDriveSimulation(TIMER, new SwerveKinematics(AutonomousSimulator.WHEEL_BASE, AutonomousSimulator.TRACK_WIDTH), operator);
+		Robot.configureDriveTrain(robot.getChassis());
+		robot.getBoxManager().setBoxLifterModeAutomatic(false);
+		robot.getBoxManager().boxCollectorArmRetract();
+		
+		robot.getChassis().setFlightRecorder(replayed);
+		robot.getBoxManager().setFlightRecorder(replayed);
+		robot.getRobotLift().setFlightRecorder(replayed);
+		
+		// Same plan numbers as Robot, as long as the scripts are the same files
+		autoPlans = new AutoPlanCache(robot.getChassis(), robot.getBoxManager());
+		if(scriptDirectory != null)
+		{
+			for(AutoScript script : AutoScript.loadAll(scriptDirectory, robot.getChassis(), robot.getBoxManager()))
+			{
+				autoPlans.addScript(script);
+			}
+		}
+		
+		List<Integer> replayedFields = new ArrayList<>();
+		List<Integer> loggedFields = new ArrayList<>();
+		for(int i = 0; i < replayed.getFieldCount(); i++)
+		{
+			int logged = log.indexOf(replayed.getFieldName(i));
+			if(logged >= 0 && !isInput(logged))
+			{
+				replayedFields.add(i);
+				loggedFields.add(logged);
+			}
+		}
+		comparedReplayed = replayedFields.stream().mapToInt(Integer::intValue).toArray();
+		comparedLogged = loggedFields.stream().mapToInt(Integer::intValue).toArray();
+	}
+	
+	/**
+	 * @param logged Field number in the log
+	 * @return True if the field is a sensor the replay copies from the log, so comparing it means nothing
+	 */
+	private boolean isInput(int logged)
+	{
+		if(logged == fieldHeading || logged == fieldLifterSwitches)
+		{
+			return true;
+		}
+		
+		for(int i = 0; i < SwerveKinematics.MODULE_COUNT; i++)
+		{
+			if(logged == fieldAngle[i] || logged == fieldTurnRate[i] || logged == fieldEncoderDistance[i] || logged == fieldEncoderRate[i]
+					|| logged == fieldDriveOdometer[i])
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Replays the whole log
+	 * @return How closely the replay matched the log
+	 */
+	public ReplayResult run()
+	{
+		createRobot();
+		
+		String[] names = new String[comparedReplayed.length];
+		for(int i = 0; i < names.length; i++)
+		{
+			names[i] = replayed.getFieldName(comparedReplayed[i]);
+		}
+		ReplayResult result = new ReplayResult(names);
+		
+		seedPose();
+		
+		int modeLast = -1;
+		for(int record = 0; record < log.getRecordCount(); record++)
+		{
+			double dt = record == 0 ? SwerveDriveSimulation.ROBOT_PERIOD : log.getTime(record) - log.getTime(record - 1);
+			if(dt <= 0 || dt > 1) // The FPGA clock restarted or the robot stopped logging for a while
+			{
+				dt = SwerveDriveSimulation.ROBOT_PERIOD;
+			}
+			// Same steps as the simulator, so a delay that ends right on a record ends on the same record here
+			long physicsSteps = Math.max(1, Math.round(dt / SwerveDriveSimulation.PHYSICS_PERIOD));
+			for(long i = 0; i < physicsSteps; i++)
+			{
+				TIMER.advance(SwerveDriveSimulation.PHYSICS_PERIOD);
+			}
+			
+			setInputs(record);
+			
+			int mode = (int) log.get(record, fieldMode);
+			if(mode != modeLast)
+			{
+				modeInit(mode, record);
+				modeLast = mode;
+			}
+			if(mode == Robot.MODE_TEST) // Wheel tests are not replayed
+			{
+				continue;
+			}
+			
+			// The control thread ran on the setpoints from the last record until this one
+			if(record > 0)
+			{
+				int controlRuns = Math.max(1, (int) Math.round(dt / ModuleControlScheduler.PERIOD));
+				for(int i = 0; i < controlRuns; i++)
+				{
+					setDriveReadings(record, (i + 1.0) / controlRuns);
+					robot.getModuleControl().runOnce();
+				}
+			}
+			
+			robot.getChassis().updateOdometry();
+			modePeriodic(mode);
+			
+			robot.getChassis().recordFlightData();
+			robot.getBoxManager().recordFlightData();
+			robot.getRobotLift().recordFlightData();
+			
+			for(int i = 0; i < comparedReplayed.length; i++)
+			{
+				double error = Math.abs(replayed.get(comparedReplayed[i]) - log.get(record, comparedLogged[i]));
+				result.addComparison(i, log.getTime(record), error, tolerance);
+			}
+			result.addRecord();
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Works out what the drive encoder read while the robot code ran. The log has what it
+	 * read afterwards, which is zero if the robot code reset it. The odometer in the log
+	 * keeps counting through resets, so taking off what the replayed wheel had already
+	 * counted before its last reset gives the reading from before the robot code ran.
+	 */
+	private double getEncoderDistance(int wheel, int record)
+	{
+		if(fieldDriveOdometer[wheel] < 0)
+		{
+			return log.get(record, fieldEncoderDistance[wheel]);
+		}
+		
+		SwerveMotor motor = robot.getMotor(wheel);
+		double countedBeforeReset = motor.getDriveOdometer() - motor.getDriveEncoderDistance();
+		return log.get(record, fieldDriveOdometer[wheel]) - countedBeforeReset;
+	}
+	
+	private void setInputs(int record)
+	{
+		for(int i = 0; i < SwerveKinematics.MODULE_COUNT; i++)
+		{
+			SimulatedSwerveModule module = robot.getModule(i);
+			module.getTurnEncoder().setTrueAngle(log.get(record, fieldAngle[i]));
+			module.getTurnEncoder().setTrueRate(log.get(record, fieldTurnRate[i]));
+			module.getDriveEncoder().setReading(getEncoderDistance(i, record), log.get(record, fieldEncoderRate[i]));
+		}
+		robot.getHeadingSource().setHeading(log.get(record, fieldHeading));
+		
+		int switches = (int) log.get(record, fieldLifterSwitches);
+		if((switches & 1) != 0) {
+			robot.getBoxLifter().setPosition(0);
+		} else if((switches & 2) != 0) {
+			robot.getBoxLifter().setPosition(0.5);
+		} else if((switches & 4) != 0) {
+			robot.getBoxLifter().setPosition(1);
+		} else {
+			robot.getBoxLifter().setPosition(0.25); // Between switches
+		}
+		
+		setController(driver, fieldDriver, record);
+		setController(operator, fieldOperator, record);
+	}
+	
+	/**
+	 * Moves the drive encoders the given fraction of the way from the last record to this
+	 * one, so the control thread sees the wheels roll between records like it did on the
+	 * robot instead of jumping. Logs from before there was odometry are left where
+	 * setInputs() put them.
+	 */
+	private void setDriveReadings(int record, double fraction)
+	{
+		for(int i = 0; i < SwerveKinematics.MODULE_COUNT; i++)
+		{
+			if(fieldDriveOdometer[i] < 0)
+			{
+				continue;
+			}
+			double rolled = log.get(record, fieldDriveOdometer[i]) - log.get(record - 1, fieldDriveOdometer[i]);
+			robot.getModule(i).getDriveEncoder().setReading(getEncoderDistance(i, record) - rolled * (1 - fraction),
+					log.get(record, fieldEncoderRate[i]));
+		}
+	}
+	
+	private void setController(ReplayController controller, int[] fields, int record)
+	{
+		controller.setSample(log.get(record, fields[0]), log.get(record, fields[1]), log.get(record, fields[2]), log.get(record, fields[3]),
+				log.get(record, fields[4]), log.get(record, fields[5]), (int) log.get(record, fields[6]));
+	}
+	
+	/**
+	 * Starts the pose where the log says the robot was, in case the log starts in the
+	 * middle of a match. Logs from before there was odometry are left at the origin.
+	 */
+	private void seedPose()
+	{
+		int x = log.indexOf("Pose X");
+		int y = log.indexOf("Pose Y");
+		int heading = log.indexOf("Pose Heading");
+		if(x >= 0 && y >= 0 && heading >= 0 && log.getRecordCount() > 0)
+		{
+			robot.getChassis().resetPose(log.get(0, x), log.get(0, y), log.get(0, heading));
+		}
+	}
+	
+	/**
+	 * Does what Robot does when the mode changes
+	 */
+	private void modeInit(int mode, int record)
+	{
+		if(mode == Robot.MODE_DISABLED) {
+			robot.getChassis().reset();
+			robot.getBoxManager().reset();
+			robot.getRobotLift().reset();
+			if(autoCode != null) {
+				autoCode.reset();
+			}
+		} else if(mode == Robot.MODE_AUTONOMOUS) {
+			robot.getChassis().resetPose(0, 0, 0);
+			int plan = (int) log.get(record, fieldAutoRoutine);
+			if(plan >= 0 && plan < autoPlans.getPlanCount()) {
+				autoCode = autoPlans.take(plan);
+			} else {
+				autoCode = null;
+			}
+		}
+	}
+	
+	/**
+	 * Does what Robot does every loop in a mode
+	 */
+	private void modePeriodic(int mode)
+	{
+		if(mode == Robot.MODE_AUTONOMOUS) {
+			if(autoCode != null) {
+				autoCode.run();
+			}
+		} else if(mode == Robot.MODE_TELEOP) {
+			robot.getChassis().drive(driver);
+			robot.getBoxManager().run();
+			robot.getRobotLift().run();
+		}
+	}
+	
+	public static void main(String[] args) throws IOException
+	{
+		double tolerance = DEFAULT_TOLERANCE;
+		File scriptDirectory = null;
+		int matchesDiffering = 0;
+		
+		for(int i = 0; i < args.length; i++)
+		{
+			if(args[i].equals("-t") && i + 1 < args.length)
+			{
+				tolerance = Double.parseDouble(args[++i]);
+				continue;
+			}
+			if(args[i].equals("-s") && i + 1 < args.length)
+			{
+				scriptDirectory = new File(args[++i]);
+				continue;
+			}
+			
+			FlightLog log = FlightLogReader.read(FlightLogReader.listSegments(new File(args[i])));
+			long start = System.nanoTime();
+			LogReplay replay = new LogReplay(log, tolerance);
+			replay.setScriptDirectory(scriptDirectory);
+			ReplayResult result = replay.run();
+			double milliseconds = (System.nanoTime() - start) / 1e6;
+			
+			System.out.printf("%s: %d records replayed in %.0f ms, %d fields differ%n",
+					args[i], result.getRecordsReplayed(), milliseconds, result.getMismatchedFieldCount());
+			result.print(System.out);
+			
+			if(result.getMismatchedFieldCount() > 0)
+			{
+				matchesDiffering++;
+			}
+		}
+		
+		System.exit(matchesDiffering > 0 ? 1 : 0);
+	}
+}
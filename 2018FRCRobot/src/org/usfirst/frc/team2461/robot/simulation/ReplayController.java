@@ -0,0 +1,133 @@
+package org.usfirst.frc.team2461.robot.simulation;
+
+import org.usfirst.frc.team2461.robot.OperatorController;
+
+import edu.wpi.first.wpilibj.GenericHID.Hand;
+
+/**
+ * <h1> Replay Controller Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Controller that plays back the sticks and buttons logged by MetalSkinsController.
+ * The pressed methods work like the real ones: a press is remembered until it is read.
+ * </p>
+ */
+public class ReplayController implements OperatorController
+{
+	private double leftX;
+	private double leftY;
+	private double rightX;
+	private double rightY;
+	private double leftTrigger;
+	private double rightTrigger;
+	private int buttons;
+	private int pressed;
+	
+	/**
+	 * Sets what the controller reads until the next sample
+	 * @param leftXIn Left stick X after the deadband and ramp
+	 * @param leftYIn Left stick Y after the deadband and ramp
+	 * @param rightXIn Right stick X after the deadband and ramp
+	 * @param rightYIn Right stick Y after the deadband and ramp
+	 * @param leftTriggerIn Left trigger from 0.0 to 1.0
+	 * @param rightTriggerIn Right trigger from 0.0 to 1.0
+	 * @param buttonsIn Buttons being held, see OperatorController.getButtons()
+	 */
+	public void setSample(double leftXIn, double leftYIn, double rightXIn, double rightYIn,
+			double leftTriggerIn, double rightTriggerIn, int buttonsIn)
+	{
+		leftX = leftXIn;
+		leftY = leftYIn;
+		rightX = rightXIn;
+		rightY = rightYIn;
+		leftTrigger = leftTriggerIn;
+		rightTrigger = rightTriggerIn;
+		pressed |= buttonsIn & ~buttons;
+		buttons = buttonsIn;
+	}
+	
+	@Override
+	public double getX(Hand hand)
+	{
+		return hand == Hand.kLeft ? leftX : rightX;
+	}
+	
+	@Override
+	public double getY(Hand hand)
+	{
+		return hand == Hand.kLeft ? leftY : rightY;
+	}
+	
+	@Override
+	public double getTriggerAxis(Hand hand)
+	{
+		return hand == Hand.kLeft ? leftTrigger : rightTrigger;
+	}
+	
+	@Override
+	public boolean getBumper(Hand hand)
+	{
+		return (buttons & (hand == Hand.kLeft ? BUMPER_LEFT : BUMPER_RIGHT)) != 0;
+	}
+	
+	@Override
+	public boolean getAButton()
+	{
+		return (buttons & BUTTON_A) != 0;
+	}
+	
+	@Override
+	public boolean getBButton()
+	{
+		return (buttons & BUTTON_B) != 0;
+	}
+	
+	@Override
+	public boolean getXButton()
+	{
+		return (buttons & BUTTON_X) != 0;
+	}
+	
+	@Override
+	public boolean getYButton()
+	{
+		return (buttons & BUTTON_Y) != 0;
+	}
+	
+	@Override
+	public boolean getBackButton()
+	{
+		return (buttons & BUTTON_BACK) != 0;
+	}
+	
+	@Override
+	public boolean getStartButton()
+	{
+		return (buttons & BUTTON_START) != 0;
+	}
+	
+	@Override
+	public boolean getStartButtonPressed()
+	{
+		return readPressed(BUTTON_START);
+	}
+	
+	@Override
+	public boolean getBackButtonPressed()
+	{
+		return readPressed(BUTTON_BACK);
+	}
+	
+	@Override
+	public int getButtons()
+	{
+		return buttons;
+	}
+	
+	private boolean readPressed(int button)
+	{
+		boolean wasPressed = (pressed & button) != 0;
+		pressed &= ~button;
+		return wasPressed;
+	}
+}
@@ -0,0 +1,101 @@
+package org.usfirst.frc.team2461.robot.simulation;
+
+import java.io.PrintStream;
+
+/**
+ * <h1> Replay Result Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * How closely a replay matched the flight log, field by field.
+ * </p>
+ */
+public class ReplayResult
+{
+	private String[] fieldNames;
+	private long[] mismatches;
+	private double[] maxError;
+	private double[] firstMismatchTime;
+	private int recordsReplayed = 0;
+	
+	/**
+	 * Creates an empty ReplayResult
+	 * @param fieldNamesIn Names of the fields that are compared
+	 */
+	public ReplayResult(String[] fieldNamesIn)
+	{
+		fieldNames = fieldNamesIn;
+		mismatches = new long[fieldNames.length];
+		maxError = new double[fieldNames.length];
+		firstMismatchTime = new double[fieldNames.length];
+	}
+	
+	/**
+	 * Adds the comparison of one field in one record
+	 * @param field Number of the field in the names given to the constructor
+	 * @param time Time of the record in seconds
+	 * @param error Difference between the replayed and logged value
+	 * @param tolerance Largest difference that still counts as a match
+	 */
+	void addComparison(int field, double time, double error, double tolerance)
+	{
+		if(error > maxError[field])
+		{
+			maxError[field] = error;
+		}
+		
+		if(error > tolerance)
+		{
+			if(mismatches[field] == 0)
+			{
+				firstMismatchTime[field] = time;
+			}
+			mismatches[field]++;
+		}
+	}
+	
+	void addRecord()
+	{
+		recordsReplayed++;
+	}
+	
+	/**
+	 * @return Number of log records that were replayed
+	 */
+	public int getRecordsReplayed()
+	{
+		return recordsReplayed;
+	}
+	
+	/**
+	 * @return Number of fields that differed from the log at least once
+	 */
+	public int getMismatchedFieldCount()
+	{
+		int count = 0;
+		for(int i = 0; i < fieldNames.length; i++)
+		{
+			if(mismatches[i] > 0)
+			{
+				count++;
+			}
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * Writes one line for every field that differed from the log
+	 * @param out Where to write
+	 */
+	public void print(PrintStream out)
+	{
+		for(int i = 0; i < fieldNames.length; i++)
+		{
+			if(mismatches[i] > 0)
+			{
+				out.printf("    %-36s %6d records differ, max error %.4f, first at %.2f s%n",
+						fieldNames[i], mismatches[i], maxError[i], firstMismatchTime[i]);
+			}
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package org.usfirst.frc.team2461.robot.simulation;
+
+import org.usfirst.frc.team2461.robot.AbsoluteEncoder;
+import org.usfirst.frc.team2461.robot.SwerveModuleState;
+
+import edu.wpi.first.wpilibj.PIDSourceType;
+
+/**
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * 
+ * AbsoluteEncoder for the simulator. Like the MA3 it only reports the angle in
+ * 1024 steps per turn.
+ *
+ */
+public class SimulatedAbsoluteEncoder implements AbsoluteEncoder
+{
+	/**
+	 * Number of steps the MA3 encoder splits one turn into
+	 */
+	public static final int RESOLUTION = 1024;
+	
+	private PIDSourceType m_pidSource = PIDSourceType.kDisplacement;
+	private double angle = 0;
+	private double continuousAngle = 0;
+	private double rate = 0;
+	
+	/**
+	 * Sets the true angle of the wheel. Called by the simulator every step.
+	 * @param angleIn Angle in degrees from 0 to 359.99
+	 */
+	void setTrueAngle(double angleIn)
+	{
+		double step = 360.0 / RESOLUTION;
+		double angleNew = Math.floor(angleIn / step) * step;
+		continuousAngle += SwerveModuleState.angleDifference(angleNew, angle);
+		angle = angleNew;
+	}
+	
+	/**
+	 * Sets how fast the wheel is turning. The simulator knows it exactly, so it is not
+	 * estimated like on the robot.
+	 * @param rateIn Degrees per second
+	 */
+	void setTrueRate(double rateIn)
+	{
+		rate = rateIn;
+	}
+	
+	/**
+	 * The simulator sets the angle every step, so there is nothing to read
+	 */
+	@Override
+	public void update()
+	{
+		
+	}
+	
+	@Override
+	public double getAngle()
+	{
+		return angle;
+	}
+	
+	@Override
+	public double getContinuousAngle()
+	{
+		return continuousAngle;
+	}
+	
+	@Override
+	public double getRate()
+	{
+		return rate;
+	}
+	
+	@Override
+	public void setPIDSourceType(PIDSourceType pidSource)
+	{
+		m_pidSource = pidSource;
+	}
+	
+	@Override
+	public PIDSourceType getPIDSourceType()
+	{
+		return m_pidSource;
+	}
+	
+	@Override
+	public double pidGet()
+	{
+		if(m_pidSource == PIDSourceType.kRate)
+		{
+			return getRate();
+		}
+		
+		return getAngle();
+	}
+}
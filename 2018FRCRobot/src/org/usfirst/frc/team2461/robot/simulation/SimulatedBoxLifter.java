@@ -0,0 +1,81 @@
+package org.usfirst.frc.team2461.robot.simulation;
+
+import org.usfirst.frc.team2461.robot.LimitSwitch;
+
+/**
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * 
+ * Physics of the Box Lifter. The lifter moves between 0 (bottom) and 1 (top) and
+ * presses the low, middle and high switches as it passes them. The switches read
+ * like the normally open switches on the robot.
+ *
+ */
+public class SimulatedBoxLifter
+{
+	private static final double SWITCH_WIDTH = 0.02;
+	
+	private SimulatedMotor motor = new SimulatedMotor();
+	private double position;
+	private double travelTime;
+	
+	private LimitSwitch switchLow = () -> !(position <= SWITCH_WIDTH);
+	private LimitSwitch switchMiddle = () -> !(Math.abs(position - 0.5) <= SWITCH_WIDTH);
+	private LimitSwitch switchHigh = () -> !(position >= 1 - SWITCH_WIDTH);
+	
+	/**
+	 * Creates a simulated Box Lifter sitting at the bottom
+	 * @param travelTimeIn Seconds to go from bottom to top at full power
+	 */
+	public SimulatedBoxLifter(double travelTimeIn)
+	{
+		travelTime = travelTimeIn;
+		position = 0;
+	}
+	
+	/**
+	 * Moves the lifter forward in time
+	 * @param dt Seconds to step
+	 */
+	public void step(double dt)
+	{
+		position += motor.get() * dt / travelTime;
+		position = Math.max(0, Math.min(position, 1));
+	}
+	
+	/**
+	 * Puts the lifter at a height without simulating the move
+	 * @param positionIn Height from 0 (bottom) to 1 (top)
+	 */
+	void setPosition(double positionIn)
+	{
+		position = Math.max(0, Math.min(positionIn, 1));
+	}
+	
+	public SimulatedMotor getMotor()
+	{
+		return motor;
+	}
+	
+	public LimitSwitch getSwitchLow()
+	{
+		return switchLow;
+	}
+	
+	public LimitSwitch getSwitchMiddle()
+	{
+		return switchMiddle;
+	}
+	
+	public LimitSwitch getSwitchHigh()
+	{
+		return switchHigh;
+	}
+	
+	/**
+	 * @return Height of the lifter from 0 (bottom) to 1 (top)
+	 */
+	public double getPosition()
+	{
+		return position;
+	}
+}
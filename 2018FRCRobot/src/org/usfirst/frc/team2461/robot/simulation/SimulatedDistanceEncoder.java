@@ -0,0 +1,124 @@
+package org.usfirst.frc.team2461.robot.simulation;
+
+import org.usfirst.frc.team2461.robot.DistanceEncoder;
+
+import edu.wpi.first.wpilibj.PIDSourceType;
+
+/**
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * 
+ * DistanceEncoder for the simulator. The distance is only reported in whole
+ * encoder pulses like the real quadrature encoder.
+ *
+ */
+public class SimulatedDistanceEncoder implements DistanceEncoder
+{
+	private PIDSourceType m_pidSource = PIDSourceType.kDisplacement;
+	private double distancePerPulse;
+	private double maxPeriod;
+	private boolean reverse = false;
+	
+	private double trueDistance = 0;
+	private double trueRate = 0;
+	private double zeroDistance = 0;
+	
+	/**
+	 * Creates a simulated encoder
+	 * @param distancePerPulseIn Inches the wheel moves for one pulse
+	 * @param maxPeriodIn Longest time between pulses in seconds before the wheel counts as stopped
+	 */
+	public SimulatedDistanceEncoder(double distancePerPulseIn, double maxPeriodIn)
+	{
+		distancePerPulse = distancePerPulseIn;
+		maxPeriod = maxPeriodIn;
+	}
+	
+	/**
+	 * Sets the true distance and speed of the wheel. Called by the simulator every step.
+	 * @param distance Inches the wheel has rolled since the simulation started
+	 * @param rate Speed of the wheel in inches per second
+	 */
+	void setTrueState(double distance, double rate)
+	{
+		trueDistance = distance;
+		trueRate = rate;
+	}
+	
+	/**
+	 * Makes the encoder read exactly what a real encoder read, as if it had been reset
+	 * at the same time. Used by the replay harness.
+	 * @param distance Distance the encoder read in inches
+	 * @param rate Speed the encoder read in inches per second
+	 */
+	void setReading(double distance, double rate)
+	{
+		// Half a pulse keeps the reading from rounding down to the pulse below
+		trueDistance = zeroDistance + (reverse ? -distance : distance) + distancePerPulse / 2;
+		trueRate = reverse ? -rate : rate;
+	}
+	
+	@Override
+	public int get()
+	{
+		int count = (int) Math.floor((trueDistance - zeroDistance) / distancePerPulse);
+		return reverse ? -count : count;
+	}
+	
+	@Override
+	public double getDistance()
+	{
+		return get() * distancePerPulse;
+	}
+	
+	@Override
+	public double getRate()
+	{
+		if(getStopped())
+		{
+			return 0;
+		}
+		
+		return reverse ? -trueRate : trueRate;
+	}
+	
+	@Override
+	public boolean getStopped()
+	{
+		return Math.abs(trueRate) < distancePerPulse / maxPeriod;
+	}
+	
+	@Override
+	public void reset()
+	{
+		zeroDistance = trueDistance;
+	}
+	
+	@Override
+	public void setReverseDirection(boolean reverseDirection)
+	{
+		reverse = reverseDirection;
+	}
+	
+	@Override
+	public void setPIDSourceType(PIDSourceType pidSource)
+	{
+		m_pidSource = pidSource;
+	}
+	
+	@Override
+	public PIDSourceType getPIDSourceType()
+	{
+		return m_pidSource;
+	}
+	
+	@Override
+	public double pidGet()
+	{
+		if(m_pidSource == PIDSourceType.kRate)
+		{
+			return getRate();
+		}
+		
+		return getDistance();
+	}
+}
@@ -0,0 +1,47 @@
+package org.usfirst.frc.team2461.robot.simulation;
+
+import org.usfirst.frc.team2461.robot.HeadingSource;
+
+/**
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * 
+ * HeadingSource for testing off the robot. The heading is either set directly
+ * or worked out by adding up a turn rate over time.
+ *
+ */
+public class SimulatedHeadingSource implements HeadingSource
+{
+	private double heading = 0;
+	private double zero = 0;
+	
+	@Override
+	public double getHeading()
+	{
+		return heading - zero;
+	}
+	
+	@Override
+	public void reset()
+	{
+		zero = heading;
+	}
+	
+	/**
+	 * Sets the heading the robot is facing
+	 * @param headingIn Heading in degrees, positive is clockwise
+	 */
+	public void setHeading(double headingIn)
+	{
+		heading = headingIn + zero;
+	}
+	
+	/**
+	 * Turns the simulated robot
+	 * @param rate Turn rate in degrees per second, positive is clockwise
+	 * @param seconds How long the robot turned at that rate
+	 */
+	public void update(double rate, double seconds)
+	{
+		heading += rate * seconds;
+	}
+}
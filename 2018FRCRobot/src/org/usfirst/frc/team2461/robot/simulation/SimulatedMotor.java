@@ -0,0 +1,67 @@
+package org.usfirst.frc.team2461.robot.simulation;
+
+import edu.wpi.first.wpilibj.SpeedController;
+
+/**
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * 
+ * SpeedController that only remembers what it was set to so the simulator
+ * can read it back.
+ *
+ */
+public class SimulatedMotor implements SpeedController
+{
+	private double speed = 0;
+	private boolean inverted = false;
+	
+	@Override
+	public void pidWrite(double output)
+	{
+		set(output);
+	}
+	
+	@Override
+	public void set(double speedIn)
+	{
+		speed = Math.max(-1, Math.min(speedIn, 1));
+	}
+	
+	@Override
+	public double get()
+	{
+		return speed;
+	}
+	
+	/**
+	 * Gets the power actually applied to the motor after inverting
+	 * @return Power from -1.0 to 1.0
+	 */
+	public double getOutput()
+	{
+		return inverted ? -speed : speed;
+	}
+	
+	@Override
+	public void setInverted(boolean isInverted)
+	{
+		inverted = isInverted;
+	}
+	
+	@Override
+	public boolean getInverted()
+	{
+		return inverted;
+	}
+	
+	@Override
+	public void disable()
+	{
+		speed = 0;
+	}
+	
+	@Override
+	public void stopMotor()
+	{
+		speed = 0;
+	}
+}
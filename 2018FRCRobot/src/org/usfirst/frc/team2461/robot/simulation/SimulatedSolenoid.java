@@ -0,0 +1,26 @@
+package org.usfirst.frc.team2461.robot.simulation;
+
+import org.usfirst.frc.team2461.robot.SolenoidOutput;
+
+/**
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * 
+ * SolenoidOutput that only remembers if it is on.
+ *
+ */
+public class SimulatedSolenoid implements SolenoidOutput
+{
+	private boolean on = false;
+	
+	@Override
+	public void set(boolean onIn)
+	{
+		on = onIn;
+	}
+	
+	@Override
+	public boolean get()
+	{
+		return on;
+	}
+}
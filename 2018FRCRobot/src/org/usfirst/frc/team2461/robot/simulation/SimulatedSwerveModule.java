@@ -0,0 +1,134 @@
+package org.usfirst.frc.team2461.robot.simulation;
+
+/**
+ * <h1> Simulated Swerve Module Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Physics of one swerve wheel: the drive motor speeds the wheel up and down with
+ * some inertia, the turn motor lags behind what it is told, and both encoders
+ * only report what the real encoders could resolve.
+ * </p>
+ */
+public class SimulatedSwerveModule
+{
+	/**
+	 * Inches the wheel moves for one pulse of the drive encoder. Matches SwerveMotor.
+	 */
+	public static final double DISTANCE_PER_PULSE = 0.094153;
+
+	private SimulatedMotor motorDrive = new SimulatedMotor();
+	private SimulatedMotor motorTurn = new SimulatedMotor();
+	private SimulatedAbsoluteEncoder encTurn = new SimulatedAbsoluteEncoder();
+	private SimulatedDistanceEncoder encDrive = new SimulatedDistanceEncoder(DISTANCE_PER_PULSE, 0.5);
+
+	private double driveMaxSpeed;
+	private double driveTimeConstant;
+	private double turnMaxRate;
+	private double turnTimeConstant;
+
+	private double driveSpeed = 0;
+	private double distance = 0;
+	private double turnRate = 0;
+	private double angle = 0;
+
+	/**
+	 * Creates a simulated swerve wheel with the default physics of the 2018 robot
+	 */
+	public SimulatedSwerveModule()
+	{
+		this(150, 0.15, 720, 0.05);
+	}
+
+	/**
+	 * Creates a simulated swerve wheel
+	 * @param driveMaxSpeedIn Wheel speed at full power in inches per second
+	 * @param driveTimeConstantIn Seconds it takes the wheel to reach 63% of a new speed
+	 * @param turnMaxRateIn Turn speed at full power in degrees per second
+	 * @param turnTimeConstantIn Seconds it takes the turn motor to reach 63% of a new speed
+	 */
+	public SimulatedSwerveModule(double driveMaxSpeedIn, double driveTimeConstantIn, double turnMaxRateIn, double turnTimeConstantIn)
+	{
+		driveMaxSpeed = driveMaxSpeedIn;
+		driveTimeConstant = driveTimeConstantIn;
+		turnMaxRate = turnMaxRateIn;
+		turnTimeConstant = turnTimeConstantIn;
+		updateEncoders();
+	}
+
+	/**
+	 * Moves the wheel forward in time
+	 * @param dt Seconds to step. Should be much smaller than the time constants
+	 */
+	public void step(double dt)
+	{
+		driveSpeed += (motorDrive.getOutput() * driveMaxSpeed - driveSpeed) * Math.min(1, dt / driveTimeConstant);
+		distance += driveSpeed * dt;
+
+		turnRate += (motorTurn.getOutput() * turnMaxRate - turnRate) * Math.min(1, dt / turnTimeConstant);
+		angle += turnRate * dt;
+		angle -= 360 * Math.floor(angle / 360);
+
+		updateEncoders();
+	}
+
+	/**
+	 * Points the wheel in a direction without simulating the turn
+	 * @param angleIn Angle in degrees from 0 to 359.99
+	 */
+	public void setAngle(double angleIn)
+	{
+		angle = angleIn - 360 * Math.floor(angleIn / 360);
+		updateEncoders();
+	}
+
+	private void updateEncoders()
+	{
+		encTurn.setTrueAngle(angle);
+		encTurn.setTrueRate(turnRate);
+		encDrive.setTrueState(distance, driveSpeed);
+	}
+
+	public SimulatedMotor getDriveMotor()
+	{
+		return motorDrive;
+	}
+
+	public SimulatedMotor getTurnMotor()
+	{
+		return motorTurn;
+	}
+
+	public SimulatedAbsoluteEncoder getTurnEncoder()
+	{
+		return encTurn;
+	}
+
+	public SimulatedDistanceEncoder getDriveEncoder()
+	{
+		return encDrive;
+	}
+
+	/**
+	 * @return True angle of the wheel in degrees from 0 to 359.99
+	 */
+	public double getAngle()
+	{
+		return angle;
+	}
+
+	/**
+	 * @return True distance the wheel has rolled in inches
+	 */
+	public double getDistance()
+	{
+		return distance;
+	}
+
+	/**
+	 * @return True speed of the wheel in inches per second
+	 */
+	public double getSpeed()
+	{
+		return driveSpeed;
+	}
+}
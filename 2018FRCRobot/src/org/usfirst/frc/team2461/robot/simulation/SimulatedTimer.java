@@ -0,0 +1,131 @@
+package org.usfirst.frc.team2461.robot.simulation;
+
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * 
+ * Clock for the simulator. Time only moves when advance() is called, so a
+ * simulation runs exactly the same way every time and as fast as the computer can go.
+ * Install it with install() before any Timer is created.
+ *
+ */
+public class SimulatedTimer implements Timer.StaticInterface
+{
+	/**
+	 * There is only one clock because Robot.timer is created from it the first time Robot is used
+	 */
+	private static SimulatedTimer installed;
+	
+	private double time = 0;
+	
+	/**
+	 * Installs the simulator clock with Timer.SetImplementation() the first time it is called
+	 * @return The installed SimulatedTimer
+	 */
+	public static synchronized SimulatedTimer install()
+	{
+		if(installed == null)
+		{
+			installed = new SimulatedTimer();
+			Timer.SetImplementation(installed);
+		}
+		
+		return installed;
+	}
+	
+	/**
+	 * Moves the clock forward
+	 * @param seconds Seconds to move forward
+	 */
+	public void advance(double seconds)
+	{
+		time += seconds;
+	}
+	
+	/**
+	 * Puts the clock back to zero
+	 */
+	public void reset()
+	{
+		time = 0;
+	}
+	
+	@Override
+	public double getFPGATimestamp()
+	{
+		return time;
+	}
+	
+	@Override
+	public double getMatchTime()
+	{
+		return time;
+	}
+	
+	@Override
+	public void delay(double seconds)
+	{
+		advance(seconds);
+	}
+	
+	@Override
+	public Timer.Interface newTimer()
+	{
+		return new StopWatch();
+	}
+	
+	/**
+	 * Timer that measures time from the simulated clock
+	 */
+	private class StopWatch implements Timer.Interface
+	{
+		private double startTime = 0;
+		private double accumulatedTime = 0;
+		private boolean running = false;
+		
+		@Override
+		public double get()
+		{
+			if(running)
+			{
+				return accumulatedTime + time - startTime;
+			}
+			
+			return accumulatedTime;
+		}
+		
+		@Override
+		public void reset()
+		{
+			accumulatedTime = 0;
+			startTime = time;
+		}
+		
+		@Override
+		public void start()
+		{
+			startTime = time;
+			running = true;
+		}
+		
+		@Override
+		public void stop()
+		{
+			accumulatedTime = get();
+			running = false;
+		}
+		
+		@Override
+		public boolean hasPeriodPassed(double period)
+		{
+			if(get() > period)
+			{
+				startTime += period;
+				return true;
+			}
+			
+			return false;
+		}
+	}
+}
@@ -0,0 +1,220 @@
+package org.usfirst.frc.team2461.robot.simulation;
+
+import org.usfirst.frc.team2461.robot.BoxCollector;
+import org.usfirst.frc.team2461.robot.BoxLifter;
+import org.usfirst.frc.team2461.robot.BoxManager;
+import org.usfirst.frc.team2461.robot.ModuleControlScheduler;
+import org.usfirst.frc.team2461.robot.OperatorController;
+import org.usfirst.frc.team2461.robot.Robot;
+import org.usfirst.frc.team2461.robot.RobotLift;
+import org.usfirst.frc.team2461.robot.RobotPose;
+import org.usfirst.frc.team2461.robot.SwerveDrive;
+import org.usfirst.frc.team2461.robot.SwerveKinematics;
+import org.usfirst.frc.team2461.robot.SwerveMotor;
+import org.usfirst.frc.team2461.robot.SwerveOdometry;
+
+/**
+ * <h1> Swerve Drive Simulation Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * The whole robot running off of simulated hardware. Time moves forward in fixed
+ * PHYSICS_PERIOD steps. The SwerveMotor PID loops run every ModuleControlScheduler.PERIOD
+ * and the robot code runs every ROBOT_PERIOD, just like on the RoboRIO, so every
+ * run with the same inputs gives exactly the same result.
+ * </p>
+ */
+public class SwerveDriveSimulation
+{
+	/**
+	 * Seconds between physics steps
+	 */
+	public static final double PHYSICS_PERIOD = 0.001;
+	
+	/**
+	 * Seconds between calls to the robot code, same as Robot
+	 */
+	public static final double ROBOT_PERIOD = Robot.LOOP_PERIOD;
+	
+	private static final int ROBOT_STEPS = (int) Math.round(ROBOT_PERIOD / PHYSICS_PERIOD);
+	private static final int CONTROL_STEPS = (int) Math.round(ModuleControlScheduler.PERIOD / PHYSICS_PERIOD);
+	
+	private SimulatedTimer timer;
+	private long steps = 0;
+	
+	private SimulatedSwerveModule[] modules = new SimulatedSwerveModule[SwerveKinematics.MODULE_COUNT];
+	private SwerveMotor[] motors = new SwerveMotor[SwerveKinematics.MODULE_COUNT];
+	private SwerveDrive chassis;
+	private ModuleControlScheduler moduleControl;
+	
+	private SimulatedBoxLifter lifter = new SimulatedBoxLifter(1.5);
+	private SimulatedSolenoid[] armSolenoids = {new SimulatedSolenoid(), new SimulatedSolenoid()};
+	private BoxManager boxManager;
+	private RobotLift robotLift;
+	private SimulatedHeadingSource headingSource = new SimulatedHeadingSource();
+	
+	/**
+	 * Where the robot really is, worked out from the true motion of the wheels every
+	 * physics step. The simulated gyro turns with it.
+	 */
+	private SwerveOdometry motion;
+	private double[] trueDistance = new double[SwerveKinematics.MODULE_COUNT];
+	private double[] trueAngle = new double[SwerveKinematics.MODULE_COUNT];
+	
+	/**
+	 * Creates a simulated robot with no operator controller, for autonomous
+	 * @param timerIn Clock the simulation moves forward. It must be the one installed with Timer.SetImplementation()
+	 * @param kinematics SwerveKinematics holding the geometry of the robot
+	 */
+	public SwerveDriveSimulation(SimulatedTimer timerIn, SwerveKinematics kinematics)
+	{
+		this(timerIn, kinematics, null);
+	}
+	
+	/**
+	 * Creates a simulated robot
+	 * @param timerIn Clock the simulation moves forward. It must be the one installed with Timer.SetImplementation()
+	 * @param kinematics SwerveKinematics holding the geometry of the robot
+	 * @param operator Controller for the Box Manager and the Robot Lifter, like player 2 on the robot
+	 */
+	public SwerveDriveSimulation(SimulatedTimer timerIn, SwerveKinematics kinematics, OperatorController operator)
+	{
+		timer = timerIn;
+		
+		for(int i = 0; i < modules.length; i++)
+		{
+			modules[i] = new SimulatedSwerveModule();
+			motors[i] = new SwerveMotor(modules[i].getDriveMotor(), modules[i].getTurnMotor(),
+					modules[i].getTurnEncoder(), modules[i].getDriveEncoder(), false);
+		}
+		
+		motion = new SwerveOdometry(kinematics, 2);
+		updateMotion();
+		
+		chassis = new SwerveDrive(motors, kinematics);
+		chassis.setHeadingSource(headingSource);
+		moduleControl = new ModuleControlScheduler(motors);
+		
+		BoxLifter boxLifter = new BoxLifter(lifter.getMotor(), lifter.getSwitchLow(), lifter.getSwitchMiddle(), lifter.getSwitchHigh());
+		BoxCollector boxCollector = new BoxCollector(new SimulatedMotor(), new SimulatedMotor(), new SimulatedMotor(), new SimulatedMotor(),
+				armSolenoids[0], armSolenoids[1]);
+		boxManager = new BoxManager(boxCollector, boxLifter, operator);
+		robotLift = new RobotLift(new SimulatedMotor(), new SimulatedMotor(), operator);
+	}
+	
+	/**
+	 * Moves the simulation forward one PHYSICS_PERIOD. The PID loops of every
+	 * SwerveMotor are run when their period comes up.
+	 */
+	public void step()
+	{
+		for(int i = 0; i < modules.length; i++)
+		{
+			modules[i].step(PHYSICS_PERIOD);
+		}
+		lifter.step(PHYSICS_PERIOD);
+		
+		double heading = motion.getPose().getHeading();
+		updateMotion();
+		headingSource.update((motion.getPose().getHeading() - heading) / PHYSICS_PERIOD, PHYSICS_PERIOD);
+		
+		timer.advance(PHYSICS_PERIOD);
+		steps++;
+		
+		if(steps % CONTROL_STEPS == 0)
+		{
+			moduleControl.runOnce();
+		}
+	}
+	
+	/**
+	 * Updates the odometry, runs the robot code once and then moves the simulation forward
+	 * until the robot code is due again. Nothing moves while the robot code runs, so the
+	 * odometry sees the same wheels it does at the start of every Robot loop.
+	 * @param robotPeriodic Robot code to run, for example autoCode::run
+	 */
+	public void runRobotLoop(Runnable robotPeriodic)
+	{
+		chassis.updateOdometry();
+		robotPeriodic.run();
+		for(int i = 0; i < ROBOT_STEPS; i++)
+		{
+			step();
+		}
+	}
+	
+	private void updateMotion()
+	{
+		for(int i = 0; i < modules.length; i++)
+		{
+			trueDistance[i] = modules[i].getDistance();
+			trueAngle[i] = modules[i].getAngle();
+		}
+		motion.update(getTime(), trueDistance, trueAngle);
+	}
+	
+	public SwerveDrive getChassis()
+	{
+		return chassis;
+	}
+	
+	public ModuleControlScheduler getModuleControl()
+	{
+		return moduleControl;
+	}
+	
+	public BoxManager getBoxManager()
+	{
+		return boxManager;
+	}
+	
+	/**
+	 * @param module Number of wheel. <ul><li>0 = FL</li><li>1 = FR</li><li>2 = RL</li><li>3 = RR</li></ul>
+	 * @return SwerveMotor of that wheel
+	 */
+	public SwerveMotor getMotor(int module)
+	{
+		return motors[module];
+	}
+	
+	/**
+	 * @param module Number of wheel. <ul><li>0 = FL</li><li>1 = FR</li><li>2 = RL</li><li>3 = RR</li></ul>
+	 * @return Simulated physics of that wheel
+	 */
+	public SimulatedSwerveModule getModule(int module)
+	{
+		return modules[module];
+	}
+	
+	public RobotLift getRobotLift()
+	{
+		return robotLift;
+	}
+	
+	public SimulatedHeadingSource getHeadingSource()
+	{
+		return headingSource;
+	}
+	
+	/**
+	 * Gets where the robot really is, to check the odometry and the path followers
+	 * against. It starts at the origin when the simulation is created.
+	 * @return RobotPose that is reused every physics step
+	 */
+	public RobotPose getTruePose()
+	{
+		return motion.getPose();
+	}
+	
+	public SimulatedBoxLifter getBoxLifter()
+	{
+		return lifter;
+	}
+	
+	/**
+	 * @return Simulated seconds since the simulation started
+	 */
+	public double getTime()
+	{
+		return steps * PHYSICS_PERIOD;
+	}
+}
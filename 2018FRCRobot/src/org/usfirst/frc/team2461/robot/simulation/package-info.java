@@ -0,0 +1,9 @@
+/**
+ * Classes that stand in for robot hardware so the robot code can be run and
+ * tested on a computer
+ */
+/**
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ *
+ */
+package org.usfirst.frc.team2461.robot.simulation;
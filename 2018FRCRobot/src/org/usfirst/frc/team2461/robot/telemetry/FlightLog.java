@@ -0,0 +1,82 @@
+package org.usfirst.frc.team2461.robot.telemetry;
+
+/**
+ * <h1> Flight Log Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * A flight recorder log read into memory by FlightLogReader. Records are kept in the
+ * order they were written, each with its time and one value per field.
+ * </p>
+ */
+public class FlightLog
+{
+	private String[] fieldNames;
+	private double[] times;
+	private double[][] values;
+	
+	/**
+	 * Creates a FlightLog
+	 * @param fieldNamesIn Name of every field
+	 * @param timesIn FPGA time of every record in seconds
+	 * @param valuesIn Values of every record, one array per record with one value per field
+	 */
+	public FlightLog(String[] fieldNamesIn, double[] timesIn, double[][] valuesIn)
+	{
+		fieldNames = fieldNamesIn;
+		times = timesIn;
+		values = valuesIn;
+	}
+	
+	/**
+	 * @return Name of every field
+	 */
+	public String[] getFieldNames()
+	{
+		return fieldNames;
+	}
+	
+	/**
+	 * Finds a field by name
+	 * @param name Name of the field
+	 * @return Field number, or -1 if the log has no field with that name
+	 */
+	public int indexOf(String name)
+	{
+		for(int i = 0; i < fieldNames.length; i++)
+		{
+			if(fieldNames[i].equals(name))
+			{
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * @return Number of records in the log
+	 */
+	public int getRecordCount()
+	{
+		return times.length;
+	}
+	
+	/**
+	 * @param record Number of the record
+	 * @return FPGA time the record was written in seconds
+	 */
+	public double getTime(int record)
+	{
+		return times[record];
+	}
+	
+	/**
+	 * @param record Number of the record
+	 * @param field Number of the field
+	 * @return Value of the field in that record
+	 */
+	public double get(int record, int field)
+	{
+		return values[record][field];
+	}
+}
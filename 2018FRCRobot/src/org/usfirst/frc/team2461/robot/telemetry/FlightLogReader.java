@@ -0,0 +1,223 @@
+package org.usfirst.frc.team2461.robot.telemetry;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <h1> Flight Log Reader Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Reads the segment files written by FlightRecorder back in the order they were written.
+ * read() loads them as FlightLogs for tools like the replay harness; main() turns them
+ * into a CSV file that can be opened in a spreadsheet. Run it on a computer after copying
+ * the flightlog folder off the RoboRIO.
+ * </p>
+ * <p>
+ * Usage: <b>FlightLogReader &lt;flightlog folder or segment files&gt; [-o output.csv]</b>
+ * </p>
+ */
+public class FlightLogReader
+{
+	/**
+	 * One segment file read into memory
+	 */
+	private static class Segment
+	{
+		long sequence;
+		String[] names;
+		ByteBuffer records;
+		int recordCount;
+	}
+	
+	public static void main(String[] args) throws IOException
+	{
+		List<File> files = new ArrayList<>();
+		PrintStream out = System.out;
+		
+		for(int i = 0; i < args.length; i++)
+		{
+			if(args[i].equals("-o") && i + 1 < args.length) {
+				out = new PrintStream(new File(args[++i]), "UTF-8");
+			} else {
+				files.addAll(listSegments(new File(args[i])));
+			}
+		}
+		
+		if(files.isEmpty())
+		{
+			System.err.println("Usage: FlightLogReader <flightlog folder or segment files> [-o output.csv]");
+			return;
+		}
+		
+		writeCsv(files, out);
+		out.flush();
+	}
+	
+	/**
+	 * Lists the segment files of a flightlog folder
+	 * @param file A flightlog folder or a single segment file
+	 * @return Every segment file in the folder, or just the file if it is not a folder
+	 */
+	public static List<File> listSegments(File file)
+	{
+		List<File> files = new ArrayList<>();
+		if(file.isDirectory()) {
+			File[] segments = file.listFiles((dir, name) -> name.endsWith(".bin"));
+			if(segments != null) {
+				files.addAll(Arrays.asList(segments));
+			}
+		} else {
+			files.add(file);
+		}
+		
+		return files;
+	}
+	
+	/**
+	 * Reads segment files into memory. Only the segments with the same fields as the
+	 * newest segment are kept, so a log that spans a code change only holds the new code.
+	 * @param files Segment files in any order
+	 * @return FlightLog with every record in the order it was written
+	 * @throws IOException If a file cannot be read
+	 */
+	public static FlightLog read(List<File> files) throws IOException
+	{
+		List<Segment> segments = readSegments(files);
+		if(segments.isEmpty())
+		{
+			return new FlightLog(new String[0], new double[0], new double[0][]);
+		}
+		
+		String[] names = segments.get(segments.size() - 1).names;
+		int recordCount = 0;
+		for(Segment segment : segments)
+		{
+			if(Arrays.equals(names, segment.names)) {
+				recordCount += segment.recordCount;
+			}
+		}
+		
+		double[] times = new double[recordCount];
+		double[][] values = new double[recordCount][];
+		int record = 0;
+		for(Segment segment : segments)
+		{
+			if(!Arrays.equals(names, segment.names)) {
+				continue;
+			}
+			
+			for(int r = 0; r < segment.recordCount; r++, record++)
+			{
+				times[record] = segment.records.getLong() / 1e6;
+				values[record] = new double[names.length];
+				for(int f = 0; f < names.length; f++)
+				{
+					values[record][f] = segment.records.getDouble();
+				}
+			}
+		}
+		
+		return new FlightLog(names, times, values);
+	}
+	
+	/**
+	 * Reads segment files and writes their records as CSV. A new header line is written
+	 * whenever the fields change between segments.
+	 * @param files Segment files in any order
+	 * @param out Where the CSV is written
+	 * @throws IOException If a file cannot be read
+	 */
+	public static void writeCsv(List<File> files, PrintStream out) throws IOException
+	{
+		List<Segment> segments = readSegments(files);
+		
+		String[] header = null;
+		for(Segment segment : segments)
+		{
+			if(!Arrays.equals(header, segment.names))
+			{
+				header = segment.names;
+				out.print("Time");
+				for(String name : header)
+				{
+					out.print(',');
+					out.print(name);
+				}
+				out.println();
+			}
+			
+			for(int r = 0; r < segment.recordCount; r++)
+			{
+				out.print(segment.records.getLong() / 1e6);
+				for(int f = 0; f < header.length; f++)
+				{
+					out.print(',');
+					out.print(segment.records.getDouble());
+				}
+				out.println();
+			}
+		}
+	}
+	
+	private static List<Segment> readSegments(List<File> files) throws IOException
+	{
+		List<Segment> segments = new ArrayList<>();
+		for(File file : files)
+		{
+			Segment segment = readSegment(file);
+			if(segment != null) {
+				segments.add(segment);
+			} else {
+				System.err.println("Skipping " + file + ": not a flight recorder segment");
+			}
+		}
+		segments.sort((a, b) -> Long.compare(a.sequence, b.sequence));
+		
+		return segments;
+	}
+	
+	private static Segment readSegment(File file) throws IOException
+	{
+		ByteBuffer buffer;
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			buffer = ByteBuffer.allocate((int) channel.size());
+			while(buffer.hasRemaining() && channel.read(buffer) >= 0) {
+			}
+		} catch(FileNotFoundException e) {
+			return null;
+		}
+		buffer.flip();
+		
+		if(buffer.remaining() < FlightRecorder.RECORD_COUNT_OFFSET + 8 || buffer.getInt() != FlightRecorder.MAGIC || buffer.getInt() != FlightRecorder.VERSION)
+		{
+			return null;
+		}
+		
+		Segment segment = new Segment();
+		segment.sequence = buffer.getLong();
+		buffer.getLong(); // Wall clock time the segment was started
+		segment.recordCount = buffer.getInt();
+		segment.names = new String[buffer.getInt()];
+		for(int i = 0; i < segment.names.length; i++)
+		{
+			byte[] name = new byte[buffer.getShort()];
+			buffer.get(name);
+			segment.names[i] = new String(name, StandardCharsets.UTF_8);
+		}
+		buffer.position((buffer.position() + 7) & ~7);
+		
+		int recordSize = 8 + 8 * segment.names.length;
+		segment.recordCount = Math.min(segment.recordCount, buffer.remaining() / recordSize);
+		segment.records = buffer;
+		return segment;
+	}
+}
@@ -0,0 +1,345 @@
+package org.usfirst.frc.team2461.robot.telemetry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * <h1> Flight Recorder Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Logs a fixed set of numbers every robot loop into binary files on the RoboRIO so a
+ * match can be looked at afterwards with FlightLogReader.
+ * </p>
+ * <p>
+ * Every field is added once with addField() before start(). Each loop the robot code
+ * fills the fields with set() and calls record(), which appends the FPGA time and every
+ * field to a memory-mapped segment file. Writing a record is only memory copies, so it
+ * never waits on the disk. When a segment is full the recorder switches to the next one,
+ * which a background thread has already created, mapped and touched every page of, so
+ * the robot loop does not take page faults on it. The full segment is handed back to
+ * the background thread to be forced to the disk. After segmentCount segments the
+ * oldest file is reused.
+ * </p>
+ * <p>
+ * Segment numbers keep counting up across reboots. start() looks for the newest segment
+ * already in the folder and carries on after it, so a brownout in the middle of a match
+ * does not wipe out the segments from before it and FlightLogReader still puts every
+ * segment in the order it was written.
+ * </p>
+ * <p>
+ * Segment layout, big-endian:
+ * <ul>
+ * <li>int MAGIC, int VERSION, long segment sequence number, long wall clock time in milliseconds</li>
+ * <li>int number of records written, int number of fields</li>
+ * <li>for each field: short length and UTF-8 bytes of its name</li>
+ * <li>padding up to a multiple of 8 bytes, then the records</li>
+ * <li>each record: long FPGA time in microseconds followed by one double per field</li>
+ * </ul>
+ * The record count is updated after every record, so a segment is readable even if the
+ * robot loses power in the middle of a match.
+ * </p>
+ */
+public class FlightRecorder
+{
+	/**
+	 * "MSFR" - marks a file as a flight recorder segment
+	 */
+	public static final int MAGIC = 0x4D534652;
+	public static final int VERSION = 1;
+	
+	/**
+	 * Where in the header the number of records is kept
+	 */
+	public static final int RECORD_COUNT_OFFSET = 24;
+	
+	/**
+	 * Most fields that can be added
+	 */
+	public static final int MAX_FIELDS = 128;
+	
+	/**
+	 * Size of a memory page on the RoboRIO. One byte of every page of a new segment is
+	 * written before it is used.
+	 */
+	private static final int PAGE_SIZE = 4096;
+	
+	private File directory;
+	private int segmentSize;
+	private int segmentCount;
+	
+	private String[] names = new String[MAX_FIELDS];
+	private double[] values = new double[MAX_FIELDS];
+	private int fieldCount = 0;
+	private int recordSize;
+	
+	private MappedByteBuffer segment;
+	private int segmentRecords = 0;
+	private long sequence = 0;
+	private long droppedRecords = 0;
+	
+	/**
+	 * Segment the background thread has ready for when the current one fills up
+	 */
+	private volatile MappedByteBuffer nextSegment;
+	private volatile boolean segmentMapping = false;
+	private AtomicInteger mapFailures = new AtomicInteger();
+	private ExecutorService segmentMapper;
+	
+	/**
+	 * Creates a FlightRecorder
+	 * @param directoryIn Folder the segment files are written to
+	 * @param segmentSizeIn Size of each segment file in bytes
+	 * @param segmentCountIn Number of segment files to keep before the oldest is reused
+	 */
+	public FlightRecorder(File directoryIn, int segmentSizeIn, int segmentCountIn)
+	{
+		directory = directoryIn;
+		segmentSize = segmentSizeIn;
+		segmentCount = segmentCountIn;
+	}
+	
+	/**
+	 * Adds a field to every record
+	 * @param name Name of the field, used as the column name by FlightLogReader
+	 * @return Field number to give to set()
+	 */
+	public int addField(String name)
+	{
+		if(segmentMapper != null)
+		{
+			throw new IllegalStateException("FlightRecorder fields must be added before start()");
+		}
+		if(fieldCount == MAX_FIELDS)
+		{
+			throw new IllegalStateException("FlightRecorder can not hold more than " + MAX_FIELDS + " fields");
+		}
+		
+		names[fieldCount] = name;
+		return fieldCount++;
+	}
+	
+	/**
+	 * Creates the first segment and starts recording. Call this once from robotInit()
+	 * after all fields are added. Recording carries on after the newest segment left in
+	 * the folder, so the segments from before a reboot are kept.
+	 */
+	public void start()
+	{
+		recordSize = 8 + 8 * fieldCount;
+		segmentMapper = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "FlightRecorder");
+			thread.setDaemon(true);
+			return thread;
+		});
+		
+		directory.mkdirs();
+		sequence = findLastSequence() + 1;
+		segment = mapSegment(sequence);
+		prepareNextSegment();
+	}
+	
+	/**
+	 * Sets the value of a field for the next record. Fields keep their value until they are set again.
+	 * @param field Field number from addField()
+	 * @param value Value of the field
+	 */
+	public void set(int field, double value)
+	{
+		values[field] = value;
+	}
+	
+	/**
+	 * Sets the value of a true/false field for the next record. It is stored as 1 or 0.
+	 * @param field Field number from addField()
+	 * @param value Value of the field
+	 */
+	public void set(int field, boolean value)
+	{
+		values[field] = value ? 1 : 0;
+	}
+	
+	/**
+	 * Writes the current value of every field to the log along with the FPGA time. If the
+	 * next segment is not ready yet the record is dropped instead of waiting for it.
+	 */
+	public void record()
+	{
+		if(segment == null || segment.remaining() < recordSize)
+		{
+			if(!nextSegmentReady())
+			{
+				droppedRecords++;
+				return;
+			}
+		}
+		
+		segment.putLong(RobotController.getFPGATime());
+		for(int i = 0; i < fieldCount; i++)
+		{
+			segment.putDouble(values[i]);
+		}
+		
+		segmentRecords++;
+		segment.putInt(RECORD_COUNT_OFFSET, segmentRecords);
+	}
+	
+	/**
+	 * Gets the value a field has for the next record
+	 * @param field Field number from addField()
+	 * @return Value of the field
+	 */
+	public double get(int field)
+	{
+		return values[field];
+	}
+	
+	/**
+	 * @return Number of fields added
+	 */
+	public int getFieldCount()
+	{
+		return fieldCount;
+	}
+	
+	/**
+	 * @param field Field number from addField()
+	 * @return Name of the field
+	 */
+	public String getFieldName(int field)
+	{
+		return names[field];
+	}
+	
+	/**
+	 * @return Sequence number of the segment being written
+	 */
+	public long getSequence()
+	{
+		return sequence;
+	}
+	
+	/**
+	 * @return Number of records dropped because no segment was ready
+	 */
+	public long getDroppedRecords()
+	{
+		return droppedRecords;
+	}
+	
+	private boolean nextSegmentReady()
+	{
+		MappedByteBuffer next = nextSegment;
+		if(next == null)
+		{
+			if(!segmentMapping && nextSegment == null)
+			{
+				prepareNextSegment(); // The last try failed, so try again
+			}
+			return false;
+		}
+		
+		nextSegment = null;
+		MappedByteBuffer full = segment;
+		segment = next;
+		if(full != null)
+		{
+			segmentMapper.execute(full::force); // Keep the data if the robot browns out
+		}
+		segmentRecords = 0;
+		sequence++;
+		prepareNextSegment();
+		return true;
+	}
+	
+	private void prepareNextSegment()
+	{
+		long nextSequence = sequence + 1;
+		segmentMapping = true;
+		segmentMapper.execute(() -> {
+			nextSegment = mapSegment(nextSequence);
+			segmentMapping = false;
+		});
+	}
+	
+	/**
+	 * Reads the header of every segment file in the folder. Segments without any records,
+	 * like the one mapped ahead of time before the robot lost power, are left out so
+	 * their files are reused.
+	 * @return Highest sequence number of a segment holding records, or -1 if there are none
+	 */
+	private long findLastSequence()
+	{
+		long last = -1;
+		File[] files = directory.listFiles((dir, name) -> name.startsWith("flight") && name.endsWith(".bin"));
+		if(files == null)
+		{
+			return last;
+		}
+		
+		for(File file : files)
+		{
+			try(RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+				if(raf.length() >= RECORD_COUNT_OFFSET + 4 && raf.readInt() == MAGIC && raf.readInt() == VERSION)
+				{
+					long segmentSequence = raf.readLong();
+					raf.seek(RECORD_COUNT_OFFSET);
+					if(raf.readInt() > 0)
+					{
+						last = Math.max(last, segmentSequence);
+					}
+				}
+			} catch(IOException e) {
+				DriverStation.reportError("Flight recorder cannot read " + file.getPath(), false);
+			}
+		}
+		
+		return last;
+	}
+	
+	private MappedByteBuffer mapSegment(long segmentSequence)
+	{
+		File file = new File(directory, "flight" + (segmentSequence % segmentCount) + ".bin");
+		try(RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(segmentSize);
+			MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+			
+			buffer.putInt(MAGIC);
+			buffer.putInt(VERSION);
+			buffer.putLong(segmentSequence);
+			buffer.putLong(System.currentTimeMillis());
+			buffer.putInt(0);
+			buffer.putInt(fieldCount);
+			for(int i = 0; i < fieldCount; i++)
+			{
+				byte[] name = names[i].getBytes(StandardCharsets.UTF_8);
+				buffer.putShort((short) name.length);
+				buffer.put(name);
+			}
+			buffer.position((buffer.position() + 7) & ~7);
+			
+			for(int page = buffer.position(); page < segmentSize; page += PAGE_SIZE)
+			{
+				buffer.put(page, (byte) 0); // Fault every page in now instead of in record()
+			}
+			
+			mapFailures.set(0);
+			return buffer;
+		} catch(IOException e) {
+			if(mapFailures.getAndIncrement() == 0) // Only the first of a run of failures, it is tried again every loop
+			{
+				DriverStation.reportError("Flight recorder cannot write to " + file.getPath(), false);
+			}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,222 @@
+package org.usfirst.frc.team2461.robot.telemetry;
+
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+
+/**
+ * <h1> Telemetry Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Sends numbers, switches and state machine states to the SmartDashboard without
+ * slowing down the main robot loop.
+ * </p>
+ * <p>
+ * Every key is added once when the robot starts and gets a channel number. The main
+ * loop then only hands a channel number and a value to putNumber(), putBoolean() or
+ * putState(), which drop them into a TelemetryRing. A Notifier thread empties the ring
+ * every publish period, keeps only the newest value of each channel and sends the ones
+ * that were put since the last time. The key strings and the state names are made when the channel is added,
+ * so nothing is formatted or created while the robot is running.
+ * </p>
+ * <p>
+ * Add all channels before calling start(). The put methods must all be called from the
+ * same thread, normally the main robot loop.
+ * </p>
+ */
+public class Telemetry
+{
+	/**
+	 * Most channels that can be added
+	 */
+	public static final int MAX_CHANNELS = 256;
+	
+	private static final int TYPE_NUMBER = 0;
+	private static final int TYPE_BOOLEAN = 1;
+	private static final int TYPE_STATE = 2;
+	
+	private TelemetryRing ring;
+	private double publishPeriod;
+	private Notifier notifier;
+	
+	private String[] keys = new String[MAX_CHANNELS];
+	private int[] types = new int[MAX_CHANNELS];
+	private String[][] stateNames = new String[MAX_CHANNELS][];
+	private int channelCount = 0;
+	
+	/**
+	 * Newest value of each channel and whether it still has to be sent. Only used by the publisher.
+	 */
+	private double[] latest = new double[MAX_CHANNELS];
+	private boolean[] changed = new boolean[MAX_CHANNELS];
+	private TelemetryRing.Sink collector = this::collect;
+	
+	/**
+	 * Creates a Telemetry that can buffer 1024 samples and sends them 10 times a second
+	 */
+	public Telemetry()
+	{
+		this(1024, 0.1);
+	}
+	
+	/**
+	 * Creates a Telemetry
+	 * @param capacity Number of samples that can wait to be sent
+	 * @param publishPeriodIn Seconds between sending samples to the SmartDashboard
+	 */
+	public Telemetry(int capacity, double publishPeriodIn)
+	{
+		ring = new TelemetryRing(capacity);
+		publishPeriod = publishPeriodIn;
+	}
+	
+	/**
+	 * Adds a number channel
+	 * @param key SmartDashboard key
+	 * @return Channel number to give to putNumber()
+	 */
+	public int addNumber(String key)
+	{
+		return addChannel(key, TYPE_NUMBER, null);
+	}
+	
+	/**
+	 * Adds a true/false channel
+	 * @param key SmartDashboard key
+	 * @return Channel number to give to putBoolean()
+	 */
+	public int addBoolean(String key)
+	{
+		return addChannel(key, TYPE_BOOLEAN, null);
+	}
+	
+	/**
+	 * Adds a channel for the state of a state machine. It shows up on the SmartDashboard
+	 * as the name of the state.
+	 * @param key SmartDashboard key
+	 * @param states Every state of the state machine, from the values() method of the enum
+	 * @return Channel number to give to putState()
+	 */
+	public int addState(String key, Enum<?>[] states)
+	{
+		String[] names = new String[states.length];
+		for(int i = 0; i < states.length; i++)
+		{
+			names[i] = states[i].name();
+		}
+		
+		return addChannel(key, TYPE_STATE, names);
+	}
+	
+	private int addChannel(String key, int type, String[] names)
+	{
+		if(channelCount == MAX_CHANNELS)
+		{
+			throw new IllegalStateException("Telemetry can not hold more than " + MAX_CHANNELS + " channels");
+		}
+		
+		keys[channelCount] = key;
+		types[channelCount] = type;
+		stateNames[channelCount] = names;
+		return channelCount++;
+	}
+	
+	/**
+	 * Queues a number to be sent
+	 * @param channel Channel from addNumber()
+	 * @param value Value to send
+	 */
+	public void putNumber(int channel, double value)
+	{
+		ring.offer(channel, value);
+	}
+	
+	/**
+	 * Queues a true/false value to be sent
+	 * @param channel Channel from addBoolean()
+	 * @param value Value to send
+	 */
+	public void putBoolean(int channel, boolean value)
+	{
+		ring.offer(channel, value ? 1 : 0);
+	}
+	
+	/**
+	 * Queues a state machine state to be sent
+	 * @param channel Channel from addState()
+	 * @param state Current state
+	 */
+	public void putState(int channel, Enum<?> state)
+	{
+		ring.offer(channel, state.ordinal());
+	}
+	
+	/**
+	 * Starts sending samples to the SmartDashboard every publish period
+	 */
+	public void start()
+	{
+		if(notifier == null)
+		{
+			notifier = new Notifier(this::publish);
+		}
+		
+		notifier.startPeriodic(publishPeriod);
+	}
+	
+	/**
+	 * Stops sending samples. Samples put in the meantime stay in the ring until it is full.
+	 */
+	public void stop()
+	{
+		if(notifier != null)
+		{
+			notifier.stop();
+		}
+	}
+	
+	/**
+	 * Empties the ring and sends the newest value of every channel that was put. Called
+	 * by the Notifier after start(); do not call it from the thread that puts samples.
+	 */
+	public void publish()
+	{
+		ring.drain(collector);
+		
+		for(int i = 0; i < channelCount; i++)
+		{
+			if(!changed[i])
+			{
+				continue;
+			}
+			
+			changed[i] = false;
+			switch(types[i]) {
+				case TYPE_NUMBER:
+					SmartDashboard.putNumber(keys[i], latest[i]);
+					break;
+				case TYPE_BOOLEAN:
+					SmartDashboard.putBoolean(keys[i], latest[i] != 0);
+					break;
+				case TYPE_STATE:
+					SmartDashboard.putString(keys[i], stateNames[i][(int) latest[i]]);
+					break;
+				default:
+					break;
+			}
+		}
+	}
+	
+	private void collect(int channel, double value)
+	{
+		latest[channel] = value;
+		changed[channel] = true;
+	}
+	
+	/**
+	 * @return Number of samples dropped because the main loop put them faster than they were sent
+	 */
+	public long getDropped()
+	{
+		return ring.getDropped();
+	}
+}
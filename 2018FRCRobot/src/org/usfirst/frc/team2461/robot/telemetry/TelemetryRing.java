@@ -0,0 +1,133 @@
+package org.usfirst.frc.team2461.robot.telemetry;
+
+/**
+ * <h1> Telemetry Ring Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Fixed size ring of samples where each sample is a channel number and a value.
+ * Exactly one thread may call offer() and exactly one other thread may call
+ * drain(). Neither side ever locks or creates objects. When the ring is full new
+ * samples are dropped and counted instead of waiting.
+ * </p>
+ */
+public class TelemetryRing
+{
+	/**
+	 * Receives the samples taken out of the ring by drain()
+	 */
+	@FunctionalInterface
+	public interface Sink
+	{
+		void accept(int channel, double value);
+	}
+	
+	private final int capacity;
+	private final int mask;
+	private final int[] channels;
+	private final double[] values;
+	
+	/**
+	 * Number of the next sample the producer will write. Only the producer changes it.
+	 */
+	private volatile long head = 0;
+	
+	/**
+	 * Number of the next sample the consumer will read. Only the consumer changes it.
+	 */
+	private volatile long tail = 0;
+	
+	/**
+	 * Last value of tail the producer saw, so it only reads the volatile when the ring looks full
+	 */
+	private long tailCache = 0;
+	
+	private volatile long dropped = 0;
+	
+	/**
+	 * Creates a TelemetryRing
+	 * @param capacityIn Number of samples the ring holds. Rounded up to a power of 2
+	 */
+	public TelemetryRing(int capacityIn)
+	{
+		if(capacityIn < 1)
+		{
+			throw new IllegalArgumentException("TelemetryRing capacity must be at least 1");
+		}
+		
+		int size = 1;
+		while(size < capacityIn)
+		{
+			size <<= 1;
+		}
+		
+		capacity = size;
+		mask = capacity - 1;
+		channels = new int[capacity];
+		values = new double[capacity];
+	}
+	
+	/**
+	 * Adds a sample to the ring. Only call this from the producer thread.
+	 * @param channel Channel the value belongs to
+	 * @param value Value of the sample
+	 * @return False if the ring was full and the sample was dropped
+	 */
+	public boolean offer(int channel, double value)
+	{
+		long position = head;
+		if(position - tailCache >= capacity)
+		{
+			tailCache = tail;
+			if(position - tailCache >= capacity)
+			{
+				dropped = dropped + 1;
+				return false;
+			}
+		}
+		
+		int index = (int) (position & mask);
+		channels[index] = channel;
+		values[index] = value;
+		head = position + 1; // Publishes the sample to the consumer
+		return true;
+	}
+	
+	/**
+	 * Takes every sample out of the ring in the order they were added. Only call this
+	 * from the consumer thread.
+	 * @param sink Where each sample is sent
+	 * @return Number of samples taken out
+	 */
+	public int drain(Sink sink)
+	{
+		long position = tail;
+		long end = head;
+		
+		while(position < end)
+		{
+			int index = (int) (position & mask);
+			sink.accept(channels[index], values[index]);
+			position++;
+		}
+		
+		int count = (int) (end - tail);
+		tail = end; // Gives the slots back to the producer
+		return count;
+	}
+	
+	/**
+	 * @return Number of samples the ring holds
+	 */
+	public int getCapacity()
+	{
+		return capacity;
+	}
+	
+	/**
+	 * @return Number of samples dropped because the ring was full
+	 */
+	public long getDropped()
+	{
+		return dropped;
+	}
+}
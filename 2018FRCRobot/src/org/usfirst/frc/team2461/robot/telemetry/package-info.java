@@ -0,0 +1,9 @@
+/**
+ * Sends robot data to the SmartDashboard from a background thread so the
+ * main robot loop never formats strings or creates objects to do it
+ */
+/**
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ *
+ */
+package org.usfirst.frc.team2461.robot.telemetry;
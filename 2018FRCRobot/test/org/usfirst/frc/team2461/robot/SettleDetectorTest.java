@@ -0,0 +1,148 @@
+package org.usfirst.frc.team2461.robot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <h1> Settle Detector Test Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Feeds a SettleDetector samples one loop apart and checks it only settles once a whole
+ * window of samples is within the tolerances, that one bad sample holds it off until it
+ * leaves the window, and that reset() starts it over.
+ * </p>
+ */
+public class SettleDetectorTest
+{
+	private static final double EPSILON = 1e-9;
+
+	// Powers of 2 so the window edge lands exactly on a sample
+	private static final double PERIOD = 1.0 / 32;
+	private static final int WINDOW_SAMPLES = 4;
+	private static final double WINDOW = WINDOW_SAMPLES * PERIOD;
+
+	private static final double ERROR_TOLERANCE = 0.5;
+	private static final double VELOCITY_TOLERANCE = 2;
+
+	private SettleDetector detector;
+
+	@Before
+	public void setUp()
+	{
+		detector = new SettleDetector(ERROR_TOLERANCE, VELOCITY_TOLERANCE, WINDOW, 16);
+		detector.reset(0);
+	}
+
+	@Test
+	public void settlesAfterWholeWindowInBand()
+	{
+		for(int i = 0; i < WINDOW_SAMPLES; i++)
+		{
+			assertFalse("sample " + i, detector.update(i * PERIOD, 10, 0.1));
+			assertTrue(Double.isNaN(detector.getSettleTime()));
+		}
+		assertTrue(detector.update(WINDOW_SAMPLES * PERIOD, 10, 0.1));
+		assertTrue(detector.isSettled());
+		assertEquals(WINDOW, detector.getSettleTime(), EPSILON);
+		assertEquals(0, detector.getVelocity(), EPSILON);
+	}
+
+	@Test
+	public void settleTimeCountsFromReset()
+	{
+		detector.reset(2);
+		for(int i = 0; i <= WINDOW_SAMPLES; i++)
+		{
+			detector.update(3 + i * PERIOD, 10, 0);
+		}
+		assertTrue(detector.isSettled());
+		assertEquals(1 + WINDOW, detector.getSettleTime(), EPSILON);
+
+		detector.update(3 + 10 * PERIOD, 10, 0);
+		assertEquals("The first settle is kept", 1 + WINDOW, detector.getSettleTime(), EPSILON);
+	}
+
+	@Test
+	public void badSampleHoldsOffUntilItLeavesWindow()
+	{
+		int sample = 0;
+		for(; sample <= WINDOW_SAMPLES; sample++)
+		{
+			detector.update(sample * PERIOD, 10, 0.1);
+		}
+		assertTrue(detector.isSettled());
+
+		int bad = sample;
+		assertFalse("One sample out of band unsettles it", detector.update(sample++ * PERIOD, 10, 0.8));
+		assertEquals(0.8, detector.getMaxError(), EPSILON);
+		for(; sample <= bad + WINDOW_SAMPLES; sample++)
+		{
+			assertFalse("sample " + sample, detector.update(sample * PERIOD, 10, 0.1));
+		}
+		assertTrue(detector.update(sample * PERIOD, 10, 0.1));
+		assertEquals(0.1, detector.getMaxError(), EPSILON);
+	}
+
+	@Test
+	public void movingTooFastIsNotSettled()
+	{
+		double speed = 2 * VELOCITY_TOLERANCE;
+		for(int i = 0; i <= 3 * WINDOW_SAMPLES; i++)
+		{
+			assertFalse("sample " + i, detector.update(i * PERIOD, speed * i * PERIOD, 0));
+		}
+		assertEquals(speed, detector.getVelocity(), EPSILON);
+
+		// Creeping under the velocity tolerance is settled without stopping dead
+		detector.reset(0);
+		speed = VELOCITY_TOLERANCE / 2;
+		for(int i = 0; i <= WINDOW_SAMPLES; i++)
+		{
+			detector.update(i * PERIOD, speed * i * PERIOD, 0);
+		}
+		assertTrue(detector.isSettled());
+		assertEquals(speed, detector.getVelocity(), EPSILON);
+	}
+
+	@Test
+	public void resetClearsSettle()
+	{
+		for(int i = 0; i <= WINDOW_SAMPLES; i++)
+		{
+			detector.update(i * PERIOD, 10, 0);
+		}
+		assertTrue(detector.isSettled());
+
+		detector.reset(1);
+		assertFalse(detector.isSettled());
+		assertTrue(Double.isNaN(detector.getSettleTime()));
+		assertEquals(0, detector.getVelocity(), EPSILON);
+		assertEquals(0, detector.getMaxError(), EPSILON);
+
+		// The samples from before the reset no longer count toward the window
+		assertFalse(detector.update(1, 10, 0));
+		assertFalse(detector.update(1 + PERIOD, 10, 0));
+	}
+
+	@Test
+	public void fullRingCountsAsWholeWindow()
+	{
+		SettleDetector small = new SettleDetector(ERROR_TOLERANCE, VELOCITY_TOLERANCE, 1, 3);
+		small.reset(0);
+
+		assertFalse(small.update(0, 10, 0));
+		assertFalse(small.update(PERIOD, 10, 0));
+		assertTrue("A ring shorter than the window settles once it is full", small.update(2 * PERIOD, 10, 0));
+		assertTrue(small.update(3 * PERIOD, 10, 0));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsTinyRing()
+	{
+		new SettleDetector(ERROR_TOLERANCE, VELOCITY_TOLERANCE, WINDOW, 1);
+	}
+}
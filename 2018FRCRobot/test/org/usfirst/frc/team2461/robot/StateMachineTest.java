@@ -0,0 +1,190 @@
+package org.usfirst.frc.team2461.robot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <h1> State Machine Test Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Runs a small machine on a clock the test moves by hand and checks which transitions
+ * are taken, that their actions and the state actions run at the right times, and what
+ * the previous state, entry time and transition log say afterwards, including once the
+ * log has wrapped around.
+ * </p>
+ */
+public class StateMachineTest
+{
+	private static final double EPSILON = 1e-9;
+	private static final int LOG_CAPACITY = 3;
+
+	private enum State
+	{
+		IDLE, RAISING, HOLDING, FAULT
+	}
+
+	private StateMachine<State> machine;
+	private double time = 5;
+	private boolean raise = false;
+	private boolean atTop = false;
+	private boolean fault = false;
+	private int raisingLoops = 0;
+	private int raiseActions = 0;
+	private int faultActions = 0;
+
+	@Before
+	public void setUp()
+	{
+		machine = new StateMachine<>(State.values(), State.IDLE, LOG_CAPACITY, () -> time);
+		machine.addTransition(State.IDLE, State.RAISING, () -> raise, () -> raiseActions++)
+				.addTransition(State.RAISING, State.FAULT, () -> fault, () -> faultActions++)
+				.addTransition(State.RAISING, State.HOLDING, () -> atTop, null)
+				.addTransition(State.HOLDING, State.IDLE, () -> !raise, null)
+				.addTransition(State.FAULT, State.IDLE, null, null)
+				.setStateAction(State.RAISING, () -> raisingLoops++);
+	}
+
+	@Test
+	public void startsInInitialState()
+	{
+		assertEquals(State.IDLE, machine.getState());
+		assertEquals(State.IDLE, machine.getPreviousState());
+		assertEquals(5, machine.getEntryTime(), EPSILON);
+		assertEquals(0, machine.getTransitionCount());
+		assertEquals(0, machine.getLogSize());
+	}
+
+	@Test
+	public void guardHoldsStateUntilTrue()
+	{
+		assertFalse(machine.update());
+		assertFalse(machine.update());
+		assertEquals(State.IDLE, machine.getState());
+		assertEquals(0, raiseActions);
+
+		raise = true;
+		time = 6;
+		assertTrue(machine.update());
+		assertEquals(State.RAISING, machine.getState());
+		assertEquals(State.IDLE, machine.getPreviousState());
+		assertEquals("The transition action runs once", 1, raiseActions);
+		assertEquals("The state action does not run on the loop the state is entered", 0, raisingLoops);
+		assertEquals(6, machine.getEntryTime(), EPSILON);
+
+		time = 6.5;
+		assertFalse(machine.update());
+		assertFalse(machine.update());
+		assertEquals(2, raisingLoops);
+		assertEquals(0.5, machine.getTimeInState(), EPSILON);
+	}
+
+	@Test
+	public void firstTrueGuardWins()
+	{
+		raise = true;
+		machine.update();
+		atTop = true;
+		fault = true;
+
+		assertTrue(machine.update());
+		assertEquals("Guards are checked in the order they were added", State.FAULT, machine.getState());
+		assertEquals(State.RAISING, machine.getPreviousState());
+		assertEquals(1, faultActions);
+		assertEquals(0, raisingLoops);
+	}
+
+	@Test
+	public void unguardedTransitionIsAlwaysTaken()
+	{
+		machine.transitionTo(State.FAULT);
+		assertEquals(State.FAULT, machine.getState());
+		assertEquals(State.IDLE, machine.getPreviousState());
+
+		assertTrue(machine.update());
+		assertEquals(State.IDLE, machine.getState());
+		assertEquals(State.FAULT, machine.getPreviousState());
+		assertEquals(State.FAULT, machine.getLogFrom(0));
+	}
+
+	@Test
+	public void transitionToSkipsGuardsAndActions()
+	{
+		time = 7;
+		machine.transitionTo(State.RAISING);
+
+		assertTrue(machine.isIn(State.RAISING));
+		assertEquals(0, raiseActions);
+		assertEquals(7, machine.getEntryTime(), EPSILON);
+		assertEquals(1, machine.getTransitionCount());
+		assertEquals(State.IDLE, machine.getLogFrom(0));
+		assertEquals(State.RAISING, machine.getLogTo(0));
+		assertEquals("RAISING", machine.getStateString());
+		assertEquals("IDLE", machine.getStatePreviousString());
+	}
+
+	@Test
+	public void logKeepsNewestTransitions()
+	{
+		raise = true;
+		atTop = true;
+		// IDLE -> RAISING -> HOLDING -> IDLE -> RAISING -> HOLDING, one second apart
+		for(int i = 0; i < 5; i++)
+		{
+			time = 10 + i;
+			if(i == 2)
+			{
+				raise = false;
+			} else if(i == 3) {
+				raise = true;
+			}
+			assertTrue("update " + i, machine.update());
+		}
+
+		assertEquals(State.HOLDING, machine.getState());
+		assertEquals(5, machine.getTransitionCount());
+		assertEquals(LOG_CAPACITY, machine.getLogSize());
+
+		assertEquals(State.RAISING, machine.getLogFrom(0));
+		assertEquals(State.HOLDING, machine.getLogTo(0));
+		assertEquals(14, machine.getLogTime(0), EPSILON);
+		assertEquals(State.IDLE, machine.getLogFrom(1));
+		assertEquals(State.RAISING, machine.getLogTo(1));
+		assertEquals(13, machine.getLogTime(1), EPSILON);
+		assertEquals(State.HOLDING, machine.getLogFrom(2));
+		assertEquals(State.IDLE, machine.getLogTo(2));
+		assertEquals(12, machine.getLogTime(2), EPSILON);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void logRejectsAgeOutsideLog()
+	{
+		machine.transitionTo(State.RAISING);
+		machine.getLogTo(1);
+	}
+
+	@Test
+	public void manyTransitionsFromOneState()
+	{
+		StateMachine<State> wide = new StateMachine<>(State.values(), State.IDLE, 1, () -> time);
+		boolean[] pick = new boolean[State.values().length];
+		for(State to : State.values())
+		{
+			wide.addTransition(State.IDLE, to, () -> pick[to.ordinal()], null);
+		}
+
+		pick[State.FAULT.ordinal()] = true;
+		assertTrue("The table grows past its first size", wide.update());
+		assertEquals(State.FAULT, wide.getState());
+		assertEquals(1, wide.getLogSize());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsEmptyLog()
+	{
+		new StateMachine<>(State.values(), State.IDLE, 0, () -> time);
+	}
+}
@@ -0,0 +1,145 @@
+package org.usfirst.frc.team2461.robot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * <h1> Swerve Module State Test Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Sweeps the current and requested azimuth of a wheel around the whole circle and
+ * checks that optimize() never turns the wheel more than 90 degrees, only drives
+ * backwards when it has to, and still moves the robot the way that was asked.
+ * </p>
+ */
+public class SwerveModuleStateTest
+{
+	private static final double EPSILON = 1e-9;
+	private static final double STEP = 0.5;
+
+	/**
+	 * Angles that sit on the edges: the 0 / 359.99 seam and the 90 and 180 degree ties
+	 */
+	private static final double[] EDGE_ANGLES = {0, 0.01, 89.99, 90, 90.01, 179.99, 180, 180.01, 269.99, 270, 270.01, 359.99};
+
+	@Test
+	public void optimizeSweepsFullCircle()
+	{
+		for(double current = 0; current < 360; current += STEP)
+		{
+			for(double target = 0; target < 360; target += STEP)
+			{
+				checkOptimize(current, target, 1);
+				checkOptimize(current, target, -0.5);
+			}
+		}
+	}
+
+	@Test
+	public void optimizeEdgeAngles()
+	{
+		for(double current : EDGE_ANGLES)
+		{
+			for(double target : EDGE_ANGLES)
+			{
+				checkOptimize(current, target, 1);
+			}
+			for(double target = 0; target < 360; target += STEP)
+			{
+				checkOptimize(current, target, 1);
+				checkOptimize(target, current, 1);
+			}
+		}
+	}
+
+	@Test
+	public void optimizeAcrossSeam()
+	{
+		SwerveModuleState state = new SwerveModuleState(1, 0);
+		assertFalse(state.optimize(359.99));
+		assertEquals(0, state.getAngle(), EPSILON);
+		assertEquals(1, state.getSpeed(), EPSILON);
+
+		state.set(1, 359.99);
+		assertFalse(state.optimize(0));
+		assertEquals(359.99, state.getAngle(), EPSILON);
+		assertEquals(1, state.getSpeed(), EPSILON);
+	}
+
+	@Test
+	public void optimizeTies()
+	{
+		SwerveModuleState state = new SwerveModuleState(1, 90);
+		assertFalse("An exact 90 degree turn is taken, not flipped", state.optimize(0));
+		assertEquals(90, state.getAngle(), EPSILON);
+
+		state.set(1, 270);
+		assertFalse(state.optimize(0));
+		assertEquals(270, state.getAngle(), EPSILON);
+
+		state.set(1, 180);
+		assertTrue("An exact 180 degree turn drives backwards instead", state.optimize(0));
+		assertEquals(0, state.getAngle(), EPSILON);
+		assertEquals(-1, state.getSpeed(), EPSILON);
+
+		state.set(1, 0);
+		assertTrue(state.optimize(180));
+		assertEquals(180, state.getAngle(), EPSILON);
+		assertEquals(-1, state.getSpeed(), EPSILON);
+	}
+
+	@Test
+	public void angleDifferenceRange()
+	{
+		for(double to = -720; to <= 720; to += STEP)
+		{
+			for(double from = 0; from < 360; from += 7.5)
+			{
+				double difference = SwerveModuleState.angleDifference(to, from);
+				assertTrue(difference >= -180 && difference < 180);
+				assertEquals(0, SwerveModuleState.wrapAngle(from + difference - to), 1e-6);
+			}
+		}
+		assertEquals(-180, SwerveModuleState.angleDifference(180, 0), EPSILON);
+		assertEquals(-180, SwerveModuleState.angleDifference(0, 180), EPSILON);
+		assertEquals(0.01, SwerveModuleState.angleDifference(0, 359.99), 1e-6);
+		assertEquals(-0.01, SwerveModuleState.angleDifference(359.99, 0), 1e-6);
+	}
+
+	@Test
+	public void wrapAngleRange()
+	{
+		for(double angle = -1080; angle <= 1080; angle += STEP)
+		{
+			double wrapped = SwerveModuleState.wrapAngle(angle);
+			assertTrue(wrapped >= 0 && wrapped < 360);
+			assertEquals(0, Math.IEEEremainder(wrapped - angle, 360), 1e-9);
+		}
+		assertEquals(0, SwerveModuleState.wrapAngle(360), EPSILON);
+		assertEquals(359.99, SwerveModuleState.wrapAngle(-0.01), 1e-9);
+	}
+
+	/**
+	 * Optimizes one state and checks the turn, the sign of the speed and the wheel vector
+	 */
+	private void checkOptimize(double current, double target, double speed)
+	{
+		SwerveModuleState state = new SwerveModuleState(speed, target);
+		double difference = SwerveModuleState.angleDifference(target, current);
+		boolean reversed = state.optimize(current);
+		String message = "current " + current + " target " + target;
+
+		assertEquals(message, Math.abs(difference) > 90, reversed);
+		assertEquals(message, reversed ? -speed : speed, state.getSpeed(), EPSILON);
+		assertTrue(message, state.getAngle() >= 0 && state.getAngle() < 360);
+		assertTrue(message, Math.abs(SwerveModuleState.angleDifference(state.getAngle(), current)) <= 90 + EPSILON);
+
+		double targetRadians = Math.toRadians(target);
+		double angleRadians = Math.toRadians(state.getAngle());
+		assertEquals(message, speed * Math.cos(targetRadians), state.getSpeed() * Math.cos(angleRadians), 1e-9);
+		assertEquals(message, speed * Math.sin(targetRadians), state.getSpeed() * Math.sin(angleRadians), 1e-9);
+	}
+}
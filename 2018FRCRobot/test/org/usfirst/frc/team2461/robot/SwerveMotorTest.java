@@ -0,0 +1,280 @@
+package org.usfirst.frc.team2461.robot;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.usfirst.frc.team2461.robot.simulation.SimulatedMotor;
+import org.usfirst.frc.team2461.robot.simulation.SimulatedTimer;
+
+import edu.wpi.first.wpilibj.PIDSourceType;
+
+/**
+ * <h1> Swerve Motor Test Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Checks that an autonomous setpoint the wheel has to drive backwards to reach gets a
+ * negated distance setpoint, and that getDistance() and getDistanceSetPoint() undo the
+ * sign so the rest of the robot still sees the distance it asked for. Once another kind
+ * of driving takes over, the distance follows the drive encoder again.
+ * </p>
+ */
+public class SwerveMotorTest
+{
+	private static final double EPSILON = 1e-9;
+
+	private TestAngleEncoder encTurn;
+	private TestDistanceEncoder encDrive;
+	private SwerveMotor motor;
+
+	@BeforeClass
+	public static void installTimer()
+	{
+		SimulatedTimer.install(); // Robot.timer is made from it, there is no FPGA off the robot
+	}
+
+	@Before
+	public void setUp()
+	{
+		encTurn = new TestAngleEncoder();
+		encDrive = new TestDistanceEncoder();
+		motor = new SwerveMotor(new SimulatedMotor(), new SimulatedMotor(), encTurn, encDrive, false);
+	}
+
+	@Test
+	public void forwardSetpointKeepsSign()
+	{
+		encTurn.angle = 10;
+		motor.setDirectionAndDistanceSetPoint(60, 48);
+
+		assertEquals(60, motor.getDirectionSetPoint(), EPSILON);
+		assertEquals(48, motor.getDistanceSetPoint(), EPSILON);
+		assertEquals(48, motor.getDistanceFromSetPoint(), EPSILON);
+
+		encDrive.distance = 12;
+		assertEquals(12, motor.getDistance(), EPSILON);
+		assertEquals(12, motor.getDriveEncoderDistance(), EPSILON);
+	}
+
+	@Test
+	public void reversedSetpointNegatesDistance()
+	{
+		encTurn.angle = 0;
+		motor.setDirectionAndDistanceSetPoint(180, 48);
+
+		assertEquals(0, motor.getDirectionSetPoint(), EPSILON);
+		assertEquals(48, motor.getDistanceSetPoint(), EPSILON);
+		assertEquals("The drive loop is asked to go backwards", -48, motor.getDistanceFromSetPoint(), EPSILON);
+
+		encDrive.distance = -12;
+		assertEquals(12, motor.getDistance(), EPSILON);
+		assertEquals(12, motor.getDistanceTraveled(), EPSILON);
+		assertEquals(-12, motor.getDriveEncoderDistance(), EPSILON);
+	}
+
+	@Test
+	public void reversedAcrossSeam()
+	{
+		encTurn.angle = 359.99;
+		motor.setDirectionAndDistanceSetPoint(170, 30);
+
+		assertEquals(350, motor.getDirectionSetPoint(), 1e-6);
+		assertEquals(30, motor.getDistanceSetPoint(), EPSILON);
+
+		encDrive.distance = -30;
+		assertEquals(30, motor.getDistance(), EPSILON);
+	}
+
+	@Test
+	public void everyDirectionReportsRequestedDistance()
+	{
+		for(double current = 0; current < 360; current += 15)
+		{
+			for(double direction = 0; direction < 360; direction += 15)
+			{
+				encTurn.angle = current;
+				encDrive.distance = 0;
+				motor.setDirectionAndDistanceSetPoint(direction, 24);
+				boolean reversed = Math.abs(SwerveModuleState.angleDifference(direction, current)) > 90;
+				String message = "current " + current + " direction " + direction;
+
+				assertEquals(message, 24, motor.getDistanceSetPoint(), EPSILON);
+				encDrive.distance = reversed ? -6 : 6;
+				assertEquals(message, 6, motor.getDistance(), EPSILON);
+			}
+		}
+	}
+
+	@Test
+	public void distanceSetpointClearsReversal()
+	{
+		encTurn.angle = 0;
+		motor.setDirectionAndDistanceSetPoint(180, 48);
+		motor.setDistanceSetPoint(20);
+
+		assertEquals(20, motor.getDistanceSetPoint(), EPSILON);
+		encDrive.distance = 5;
+		assertEquals(5, motor.getDistance(), EPSILON);
+	}
+
+	@Test
+	public void teleopDriveClearsReversal()
+	{
+		driveReversedLeg();
+		motor.drive(0, 0.5);
+
+		encDrive.distance = -10;
+		assertEquals("Distance follows the encoder again", -10, motor.getDistance(), EPSILON);
+		assertEquals(-10, motor.getDistanceTraveled(), EPSILON);
+		encDrive.distance = 7;
+		assertEquals(7, motor.getDistance(), EPSILON);
+	}
+
+	@Test
+	public void driveVelocityClearsReversal()
+	{
+		driveReversedLeg();
+		motor.driveVelocity(90, 20);
+
+		assertEquals(-40, motor.getDistance(), EPSILON);
+	}
+
+	@Test
+	public void resetClearsReversal()
+	{
+		driveReversedLeg();
+		motor.resetPIDDrive();
+
+		assertEquals(0, motor.getDistance(), EPSILON);
+		assertEquals("The old goal is in encoder direction like the distance", -48, motor.getDistanceSetPoint(), EPSILON);
+		encDrive.distance = 3;
+		assertEquals(3, motor.getDistance(), EPSILON);
+	}
+
+	/**
+	 * Drives a leg the wheel has to drive backwards for, until the encoder reads the end of it
+	 */
+	private void driveReversedLeg()
+	{
+		encTurn.angle = 0;
+		motor.setDirectionAndDistanceSetPoint(180, 48);
+		motor.runControlLoop();
+		encDrive.distance = -40;
+		assertEquals(40, motor.getDistance(), EPSILON);
+	}
+
+	/**
+	 * AbsoluteEncoder that reads whatever angle the test puts in it
+	 */
+	private static class TestAngleEncoder implements AbsoluteEncoder
+	{
+		double angle = 0;
+		private PIDSourceType pidSource = PIDSourceType.kDisplacement;
+
+		@Override
+		public void update()
+		{
+
+		}
+
+		@Override
+		public double getAngle()
+		{
+			return angle;
+		}
+
+		@Override
+		public double getContinuousAngle()
+		{
+			return angle;
+		}
+
+		@Override
+		public double getRate()
+		{
+			return 0;
+		}
+
+		@Override
+		public void setPIDSourceType(PIDSourceType pidSourceIn)
+		{
+			pidSource = pidSourceIn;
+		}
+
+		@Override
+		public PIDSourceType getPIDSourceType()
+		{
+			return pidSource;
+		}
+
+		@Override
+		public double pidGet()
+		{
+			return angle;
+		}
+	}
+
+	/**
+	 * DistanceEncoder that reads whatever distance the test puts in it
+	 */
+	private static class TestDistanceEncoder implements DistanceEncoder
+	{
+		double distance = 0;
+		private PIDSourceType pidSource = PIDSourceType.kDisplacement;
+
+		@Override
+		public int get()
+		{
+			return (int) distance;
+		}
+
+		@Override
+		public double getDistance()
+		{
+			return distance;
+		}
+
+		@Override
+		public double getRate()
+		{
+			return 0;
+		}
+
+		@Override
+		public boolean getStopped()
+		{
+			return true;
+		}
+
+		@Override
+		public void reset()
+		{
+			distance = 0;
+		}
+
+		@Override
+		public void setReverseDirection(boolean reverseDirection)
+		{
+
+		}
+
+		@Override
+		public void setPIDSourceType(PIDSourceType pidSourceIn)
+		{
+			pidSource = pidSourceIn;
+		}
+
+		@Override
+		public PIDSourceType getPIDSourceType()
+		{
+			return pidSource;
+		}
+
+		@Override
+		public double pidGet()
+		{
+			return distance;
+		}
+	}
+}
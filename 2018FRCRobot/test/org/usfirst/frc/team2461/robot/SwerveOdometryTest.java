@@ -0,0 +1,190 @@
+package org.usfirst.frc.team2461.robot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <h1> Swerve Odometry Test Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Rolls the wheels of a simulated drive train the way SwerveKinematics.computeVelocities()
+ * says they should for a movement of the robot, and checks the pose SwerveOdometry works
+ * out for straight, strafing, turning and gyro driven moves. Also checks looking up poses
+ * in between, before and after the ones in the history.
+ * </p>
+ */
+public class SwerveOdometryTest
+{
+	private static final double EPSILON = 1e-9;
+	private static final double PERIOD = 0.02;
+	private static final double WHEEL_BASE = 22;
+	private static final double TRACK_WIDTH = 26;
+
+	private SwerveKinematics kinematics;
+	private SwerveOdometry odometry;
+	private SwerveModuleState[] states;
+	private final double[] wheelDistance = new double[SwerveKinematics.MODULE_COUNT];
+	private final double[] wheelAngle = new double[SwerveKinematics.MODULE_COUNT];
+	private double time = 0;
+
+	@Before
+	public void setUp()
+	{
+		kinematics = new SwerveKinematics(WHEEL_BASE, TRACK_WIDTH);
+		odometry = new SwerveOdometry(kinematics);
+		states = kinematics.createStates();
+		odometry.update(time, wheelDistance, wheelAngle);
+	}
+
+	@Test
+	public void drivesStraight()
+	{
+		drive(30, 0, 0, 2, Double.NaN);
+
+		RobotPose pose = odometry.getPose();
+		assertEquals(60, pose.getX(), 1e-6);
+		assertEquals(0, pose.getY(), 1e-6);
+		assertEquals(0, pose.getHeading(), 1e-6);
+		assertEquals(time, pose.getTime(), EPSILON);
+		for(int i = 0; i < SwerveKinematics.MODULE_COUNT; i++)
+		{
+			assertEquals("Every wheel points forward", 180, wheelAngle[i], 1e-6);
+		}
+	}
+
+	@Test
+	public void strafesLeftAndRight()
+	{
+		drive(0, 24, 0, 1, Double.NaN);
+		assertEquals(0, odometry.getPose().getX(), 1e-6);
+		assertEquals(24, odometry.getPose().getY(), 1e-6);
+
+		drive(0, -12, 0, 3, Double.NaN);
+		assertEquals(0, odometry.getPose().getX(), 1e-6);
+		assertEquals(-12, odometry.getPose().getY(), 1e-6);
+		assertEquals(0, odometry.getPose().getHeading(), 1e-6);
+	}
+
+	@Test
+	public void spinsInPlace()
+	{
+		drive(0, 0, Math.PI / 2, 1, Double.NaN);
+
+		RobotPose pose = odometry.getPose();
+		assertEquals(0, pose.getX(), 1e-6);
+		assertEquals(0, pose.getY(), 1e-6);
+		assertEquals("Counter-clockwise is a negative heading", -90, pose.getHeading(), 1e-6);
+	}
+
+	@Test
+	public void drivesQuarterCircle()
+	{
+		// 20 in/s while turning 0.5 rad/s is a circle of 40 in, curving to the left
+		drive(20, 0, 0.5, Math.PI, Double.NaN);
+
+		RobotPose pose = odometry.getPose();
+		assertEquals(40, pose.getX(), 0.01);
+		assertEquals(40, pose.getY(), 0.01);
+		assertEquals(-90, pose.getHeading(), 1e-6);
+	}
+
+	@Test
+	public void gyroHeadingTurnsTheMove()
+	{
+		odometry.resetPose(time, 0, 0, 90);
+		drive(30, 0, 0, 1, 45);
+
+		RobotPose pose = odometry.getPose();
+		assertEquals("The first gyro reading is only a reference", 90, pose.getHeading(), EPSILON);
+		assertEquals(0, pose.getX(), 1e-6);
+		assertEquals("Forward while facing clockwise 90 is to the right", -30, pose.getY(), 1e-6);
+
+		odometry.resetGyroReference();
+		drive(0, 0, 0, 0.1, 0);
+		assertEquals("The gyro jumping back after a reset does not spin the pose", 90, odometry.getPose().getHeading(), EPSILON);
+	}
+
+	@Test
+	public void poseAtInterpolatesHistory()
+	{
+		drive(50, 0, 0, 1, Double.NaN);
+		RobotPose out = new RobotPose();
+
+		assertTrue(odometry.getPoseAt(0.5 + PERIOD / 4, out));
+		assertEquals(0.5 + PERIOD / 4, out.getTime(), EPSILON);
+		assertEquals(50 * (0.5 + PERIOD / 4), out.getX(), 1e-6);
+		assertEquals(0, out.getY(), 1e-6);
+
+		assertTrue("After the newest pose gives the newest pose", odometry.getPoseAt(time + 1, out));
+		assertEquals(odometry.getPose().getX(), out.getX(), EPSILON);
+		assertEquals(time, out.getTime(), EPSILON);
+
+		assertTrue(odometry.getPoseAt(0, out));
+		assertEquals(0, out.getX(), 1e-6);
+		assertFalse("Before the history gives the oldest pose", odometry.getPoseAt(-1, out));
+		assertEquals(0, out.getTime(), EPSILON);
+	}
+
+	@Test
+	public void historyDropsOldestPoses()
+	{
+		odometry = new SwerveOdometry(kinematics, 4);
+		odometry.update(time, wheelDistance, wheelAngle);
+		drive(10, 0, 0, 10 * PERIOD, Double.NaN);
+		RobotPose out = new RobotPose();
+
+		assertEquals(4, odometry.getHistoryCount());
+		double oldest = time - 3 * PERIOD;
+		assertFalse(odometry.getPoseAt(oldest - PERIOD / 2, out));
+		assertEquals(oldest, out.getTime(), 1e-9);
+		assertEquals(10 * oldest, out.getX(), 1e-6);
+		assertTrue(odometry.getPoseAt(oldest + PERIOD / 2, out));
+		assertEquals(10 * (oldest + PERIOD / 2), out.getX(), 1e-6);
+	}
+
+	@Test
+	public void resetPoseClearsHistory()
+	{
+		drive(50, 0, 0, 1, Double.NaN);
+		odometry.resetPose(time, 100, 20, 180);
+		RobotPose out = new RobotPose();
+
+		assertEquals(1, odometry.getHistoryCount());
+		assertFalse(odometry.getPoseAt(time - 0.5, out));
+		assertEquals(100, out.getX(), EPSILON);
+		assertEquals(20, out.getY(), EPSILON);
+
+		drive(10, 0, 0, 1, Double.NaN);
+		assertEquals("Facing 180 forward is back along X", 90, odometry.getPose().getX(), 1e-6);
+		assertEquals(20, odometry.getPose().getY(), 1e-6);
+	}
+
+	/**
+	 * Drives the robot at a steady speed, rolling each wheel and updating the odometry every loop
+	 * @param forward Inches per second forward
+	 * @param left Inches per second to the left
+	 * @param counterClockwise Radians per second counter-clockwise
+	 * @param seconds How long to drive
+	 * @param gyroHeading Heading the gyro reads, or NaN to leave the rotation to the wheels
+	 */
+	private void drive(double forward, double left, double counterClockwise, double seconds, double gyroHeading)
+	{
+		int loops = (int) Math.round(seconds / PERIOD);
+		double step = seconds / loops;
+		kinematics.computeVelocities(forward, left, counterClockwise, states);
+		for(int loop = 0; loop < loops; loop++)
+		{
+			time += step;
+			for(int i = 0; i < SwerveKinematics.MODULE_COUNT; i++)
+			{
+				wheelDistance[i] += states[i].getSpeed() * step;
+				wheelAngle[i] = states[i].getAngle();
+			}
+			odometry.update(time, wheelDistance, wheelAngle, gyroHeading);
+		}
+	}
+}
@@ -0,0 +1,165 @@
+package org.usfirst.frc.team2461.robot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * <h1> Trapezoid Profile Test Class </h1>
+ * @author William R Edds FRC 2461 - The METAL-SKINs
+ * <p>
+ * Plans moves long enough to cruise and too short to ever reach maxVelocity, and checks
+ * the peak velocity, how long the move takes and that sampling it end to end never breaks
+ * the limits or moves away from the goal.
+ * </p>
+ */
+public class TrapezoidProfileTest
+{
+	private static final double EPSILON = 1e-9;
+	private static final double MAX_VELOCITY = 60;
+	private static final double MAX_ACCELERATION = 120;
+	private static final double STEP = 0.001;
+
+	@Test
+	public void longMoveCruisesAtMaxVelocity()
+	{
+		TrapezoidProfile profile = new TrapezoidProfile(MAX_VELOCITY, MAX_ACCELERATION);
+		profile.plan(0, 120);
+
+		// 0.5 s and 15 in to speed up, 90 in of cruising at 60 in/s, 0.5 s to slow down
+		assertEquals(2.5, profile.getTotalTime(), EPSILON);
+		assertEquals(MAX_VELOCITY, profile.getVelocity(1.25), EPSILON);
+		assertEquals(0, profile.getAcceleration(1.25), EPSILON);
+		assertEquals(15, profile.getPosition(0.5), EPSILON);
+		assertEquals(60, profile.getPosition(1.25), EPSILON);
+		assertEquals(MAX_ACCELERATION, profile.getAcceleration(0.25), EPSILON);
+		assertEquals(-MAX_ACCELERATION, profile.getAcceleration(2.25), EPSILON);
+		assertEquals(MAX_VELOCITY, peakVelocity(profile), EPSILON);
+		checkSweep(profile, 0, 120);
+	}
+
+	@Test
+	public void shortMoveIsTriangular()
+	{
+		TrapezoidProfile profile = new TrapezoidProfile(MAX_VELOCITY, MAX_ACCELERATION);
+		profile.plan(0, 12);
+
+		// Speeding up to 60 in/s would take 30 in, so it turns around halfway
+		double peak = Math.sqrt(12 * MAX_ACCELERATION);
+		double half = peak / MAX_ACCELERATION;
+		assertEquals(2 * half, profile.getTotalTime(), EPSILON);
+		assertEquals(6, profile.getPosition(half), EPSILON);
+		assertEquals(peak, profile.getVelocity(half), 1e-6);
+		assertTrue(peakVelocity(profile) < MAX_VELOCITY);
+		assertEquals(peak, peakVelocity(profile), MAX_ACCELERATION * STEP);
+		checkSweep(profile, 0, 12);
+	}
+
+	@Test
+	public void backwardMoveMirrorsForward()
+	{
+		TrapezoidProfile forward = new TrapezoidProfile(MAX_VELOCITY, MAX_ACCELERATION);
+		TrapezoidProfile backward = new TrapezoidProfile(MAX_VELOCITY, MAX_ACCELERATION);
+		forward.plan(10, 130);
+		backward.plan(10, -110);
+
+		assertEquals(forward.getTotalTime(), backward.getTotalTime(), EPSILON);
+		for(double time = 0; time <= forward.getTotalTime(); time += 0.01)
+		{
+			assertEquals(forward.getPosition(time) - 10, 10 - backward.getPosition(time), EPSILON);
+			assertEquals(forward.getVelocity(time), -backward.getVelocity(time), EPSILON);
+			assertEquals(forward.getAcceleration(time), -backward.getAcceleration(time), EPSILON);
+		}
+		checkSweep(backward, 10, -110);
+	}
+
+	@Test
+	public void zeroLengthMoveIsFinished()
+	{
+		TrapezoidProfile profile = new TrapezoidProfile(MAX_VELOCITY, MAX_ACCELERATION);
+		profile.plan(5, 5);
+
+		assertEquals(0, profile.getTotalTime(), EPSILON);
+		assertTrue(profile.isFinished(0));
+		assertEquals(5, profile.getPosition(1), EPSILON);
+		assertEquals(0, profile.getVelocity(0), EPSILON);
+	}
+
+	@Test
+	public void constraintsApplyToNextPlan()
+	{
+		TrapezoidProfile profile = new TrapezoidProfile(MAX_VELOCITY, MAX_ACCELERATION);
+		profile.plan(0, 120);
+		profile.setConstraints(30, 60);
+
+		assertEquals("A planned move keeps its limits", 2.5, profile.getTotalTime(), EPSILON);
+		assertEquals(MAX_VELOCITY, profile.getVelocity(1.25), EPSILON);
+
+		profile.plan(0, 120);
+		assertEquals(30, peakVelocity(profile), EPSILON);
+		assertEquals(4.5, profile.getTotalTime(), EPSILON);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsZeroVelocity()
+	{
+		new TrapezoidProfile(0, MAX_ACCELERATION);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNegativeAcceleration()
+	{
+		new TrapezoidProfile(MAX_VELOCITY, -1);
+	}
+
+	/**
+	 * Samples a planned move from before it starts to after it ends and checks it starts and
+	 * stops on its ends, keeps to the limits and only ever moves toward the goal
+	 */
+	private void checkSweep(TrapezoidProfile profile, double start, double goal)
+	{
+		double direction = Math.signum(goal - start);
+		double totalTime = profile.getTotalTime();
+		double lastPosition = start;
+
+		assertEquals(start, profile.getPosition(-0.1), EPSILON);
+		assertEquals(start, profile.getPosition(0), EPSILON);
+		assertFalse(profile.isFinished(totalTime / 2));
+		for(double time = 0; time <= totalTime + 0.1; time += STEP)
+		{
+			String message = "time " + time;
+			double position = profile.getPosition(time);
+			double velocity = profile.getVelocity(time);
+
+			assertTrue(message, (position - lastPosition) * direction >= -EPSILON);
+			assertTrue(message, velocity * direction >= 0);
+			assertTrue(message, Math.abs(velocity) <= MAX_VELOCITY + EPSILON);
+			assertTrue(message, Math.abs(profile.getAcceleration(time)) <= MAX_ACCELERATION + EPSILON);
+			if(time > STEP)
+			{
+				// The position is the integral of the velocity, off by at most a * dt^2 where the velocity bends
+				assertEquals(message, profile.getVelocity(time - STEP / 2) * STEP, position - profile.getPosition(time - STEP), MAX_ACCELERATION * STEP * STEP);
+			}
+			lastPosition = position;
+		}
+		assertTrue(profile.isFinished(totalTime));
+		assertEquals(goal, profile.getPosition(totalTime), EPSILON);
+		assertEquals(goal, profile.getPosition(totalTime + 1), EPSILON);
+		assertEquals(0, profile.getVelocity(totalTime), EPSILON);
+	}
+
+	/**
+	 * @return Fastest velocity found sampling the whole move
+	 */
+	private double peakVelocity(TrapezoidProfile profile)
+	{
+		double peak = 0;
+		for(double time = 0; time <= profile.getTotalTime(); time += STEP)
+		{
+			peak = Math.max(peak, Math.abs(profile.getVelocity(time)));
+		}
+		return peak;
+	}
+}